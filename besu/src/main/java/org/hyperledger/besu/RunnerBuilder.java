@@ -164,6 +164,7 @@ public class RunnerBuilder {
   private Optional<String> identityString = Optional.empty();
   private BesuPluginContextImpl besuPluginContext;
   private boolean autoLogBloomCaching = true;
+  private boolean logIndexEnabled = false;
 
   public RunnerBuilder vertx(final Vertx vertx) {
     this.vertx = vertx;
@@ -320,6 +321,11 @@ public class RunnerBuilder {
     return this;
   }
 
+  public RunnerBuilder logIndexEnabled(final boolean logIndexEnabled) {
+    this.logIndexEnabled = logIndexEnabled;
+    return this;
+  }
+
   public Runner build() {
 
     Preconditions.checkNotNull(besuController);
@@ -428,7 +434,8 @@ public class RunnerBuilder {
             context.getBlockchain(),
             context.getWorldStateArchive(),
             Optional.of(dataDir.resolve(CACHE_PATH)),
-            Optional.of(besuController.getProtocolManager().ethContext().getScheduler()));
+            Optional.of(besuController.getProtocolManager().ethContext().getScheduler()),
+            logIndexEnabled);
 
     final PrivacyParameters privacyParameters = besuController.getPrivacyParameters();
 
@@ -522,7 +529,7 @@ public class RunnerBuilder {
               synchronizer);
       final GraphQL graphQL;
       try {
-        graphQL = GraphQLProvider.buildGraphQL(fetchers);
+        graphQL = GraphQLProvider.buildGraphQL(fetchers, blockchainQueries::headBlockNumber);
       } catch (final IOException ioe) {
         throw new RuntimeException(ioe);
       }
@@ -629,6 +636,7 @@ public class RunnerBuilder {
         dataDir,
         pidPath,
         autoLogBloomCaching ? blockchainQueries.getTransactionLogBloomCacher() : Optional.empty(),
+        blockchainQueries.getTransactionLogIndex(),
         context.getBlockchain());
   }
 
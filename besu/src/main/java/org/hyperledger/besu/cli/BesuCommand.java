@@ -46,6 +46,7 @@ import org.hyperledger.besu.cli.custom.CorsAllowedOriginsProperty;
 import org.hyperledger.besu.cli.custom.JsonRPCAllowlistHostsProperty;
 import org.hyperledger.besu.cli.custom.RpcAuthFileValidator;
 import org.hyperledger.besu.cli.error.BesuExceptionHandler;
+import org.hyperledger.besu.cli.options.unstable.BlockchainOptions;
 import org.hyperledger.besu.cli.options.unstable.DnsOptions;
 import org.hyperledger.besu.cli.options.unstable.EthProtocolOptions;
 import org.hyperledger.besu.cli.options.unstable.EthstatsOptions;
@@ -57,6 +58,7 @@ import org.hyperledger.besu.cli.options.unstable.NetworkingOptions;
 import org.hyperledger.besu.cli.options.unstable.RPCOptions;
 import org.hyperledger.besu.cli.options.unstable.SynchronizerOptions;
 import org.hyperledger.besu.cli.options.unstable.TransactionPoolOptions;
+import org.hyperledger.besu.cli.options.unstable.WorldStateOptions;
 import org.hyperledger.besu.cli.presynctasks.PreSynchronizationTaskRunner;
 import org.hyperledger.besu.cli.presynctasks.PrivateDatabaseMigrationPreSyncTask;
 import org.hyperledger.besu.cli.subcommands.PasswordSubCommand;
@@ -220,6 +222,8 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
   private final NatOptions unstableNatOptions = NatOptions.create();
   private final NativeLibraryOptions unstableNativeLibraryOptions = NativeLibraryOptions.create();
   private final RPCOptions unstableRPCOptions = RPCOptions.create();
+  private final WorldStateOptions unstableWorldStateOptions = WorldStateOptions.create();
+  private final BlockchainOptions unstableBlockchainOptions = BlockchainOptions.create();
 
   private final RunnerBuilder runnerBuilder;
   private final BesuController.Builder controllerBuilderFactory;
@@ -1146,6 +1150,8 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
             .put("Ethstats", unstableEthstatsOptions)
             .put("Mining", unstableMiningOptions)
             .put("Native Library", unstableNativeLibraryOptions)
+            .put("World State", unstableWorldStateOptions)
+            .put("Blockchain", unstableBlockchainOptions)
             .build();
 
     UnstableOptionsSubCommand.createUnstableOptions(commandLine, unstableOptions);
@@ -1470,7 +1476,16 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
         .genesisConfigOverrides(genesisConfigOverrides)
         .targetGasLimit(targetGasLimit == null ? Optional.empty() : Optional.of(targetGasLimit))
         .requiredBlocks(requiredBlocks)
-        .reorgLoggingThreshold(reorgLoggingThreshold);
+        .reorgLoggingThreshold(reorgLoggingThreshold)
+        .worldStateSnapshotEnabled(unstableWorldStateOptions.getSnapshotEnabled())
+        .blockchainCacheSize(unstableBlockchainOptions.getCacheSize())
+        .parallelTransactionProcessingEnabled(
+            unstableBlockchainOptions.getParallelTransactionProcessingEnabled())
+        .worldStatePipelinedPersistenceEnabled(
+            unstableWorldStateOptions.getPipelinedPersistenceEnabled())
+        .statePrefetchEnabled(unstableWorldStateOptions.getPrefetchEnabled())
+        .statePrefetchSpeculativeExecutionEnabled(
+            unstableWorldStateOptions.getPrefetchSpeculativeExecutionEnabled());
   }
 
   private GraphQLConfiguration graphQLConfiguration() {
@@ -1929,6 +1944,7 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
                     () -> new StorageException("No KeyValueStorageFactory found for key: " + name)))
         .withCommonConfiguration(pluginCommonConfiguration)
         .withMetricsSystem(getMetricsSystem())
+        .withTrieNodeCacheSize(unstableWorldStateOptions.getTrieNodeCacheSizeInBytes())
         .build();
   }
 
@@ -2008,6 +2024,7 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
             .identityString(identityString)
             .besuPluginContext(besuPluginContext)
             .autoLogBloomCaching(autoLogBloomCachingEnabled)
+            .logIndexEnabled(unstableRPCOptions.isLogIndexEnabled())
             .ethstatsUrl(unstableEthstatsOptions.getEthstatsUrl())
             .ethstatsContact(unstableEthstatsOptions.getEthstatsContact())
             .build();
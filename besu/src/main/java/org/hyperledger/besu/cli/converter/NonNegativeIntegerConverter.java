@@ -0,0 +1,36 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.cli.converter;
+
+import org.hyperledger.besu.cli.converter.exception.NonNegativeIntegerConversionException;
+
+import picocli.CommandLine;
+
+public class NonNegativeIntegerConverter implements CommandLine.ITypeConverter<Integer> {
+
+  @Override
+  public Integer convert(final String value) throws NonNegativeIntegerConversionException {
+    final int integer;
+    try {
+      integer = Integer.parseInt(value);
+    } catch (final NumberFormatException e) {
+      throw new NonNegativeIntegerConversionException(value);
+    }
+    if (integer < 0) {
+      throw new NonNegativeIntegerConversionException(value);
+    }
+    return integer;
+  }
+}
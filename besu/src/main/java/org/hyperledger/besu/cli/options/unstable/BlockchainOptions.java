@@ -0,0 +1,51 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.cli.options.unstable;
+
+import picocli.CommandLine;
+
+public class BlockchainOptions {
+
+  public static final long DEFAULT_CACHE_SIZE = 256;
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {"--Xblockchain-cache-size"},
+      paramLabel = "<LONG>",
+      description =
+          "Number of recent blocks whose decoded headers, bodies and receipts are kept in memory, 0 to disable (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Long cacheSize = DEFAULT_CACHE_SIZE;
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {"--Xparallel-transaction-processing-enabled"},
+      description =
+          "Execute the transactions of imported blocks optimistically in parallel, executing again those that conflict (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Boolean parallelTransactionProcessingEnabled = Boolean.FALSE;
+
+  public static BlockchainOptions create() {
+    return new BlockchainOptions();
+  }
+
+  public long getCacheSize() {
+    return cacheSize;
+  }
+
+  public Boolean getParallelTransactionProcessingEnabled() {
+    return parallelTransactionProcessingEnabled;
+  }
+}
@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.cli.options.unstable;
 
+import org.hyperledger.besu.cli.converter.NonNegativeIntegerConverter;
 import org.hyperledger.besu.cli.options.CLIOptions;
 import org.hyperledger.besu.cli.options.OptionParser;
 import org.hyperledger.besu.ethereum.eth.EthProtocolConfiguration;
@@ -31,6 +32,7 @@ public class EthProtocolOptions implements CLIOptions<EthProtocolConfiguration>
   private static final String MAX_GET_NODE_DATA_FLAG = "--Xewp-max-get-node-data";
   private static final String MAX_GET_POOLED_TRANSACTIONS = "--Xewp-max-get-pooled-transactions";
   private static final String ETH_65_ENABLED = "--Xeth-65-enabled";
+  private static final String PEER_MESSAGE_QUEUE_CAPACITY = "--Xeth-peer-message-queue-capacity";
 
   @CommandLine.Option(
       hidden = true,
@@ -84,6 +86,16 @@ public class EthProtocolOptions implements CLIOptions<EthProtocolConfiguration>
       description = "Enable the Eth/65 subprotocol. (default: ${DEFAULT-VALUE})")
   private Boolean eth65Enabled = EthProtocolConfiguration.DEFAULT_ETH_65_ENABLED;
 
+  @CommandLine.Option(
+      hidden = true,
+      names = {PEER_MESSAGE_QUEUE_CAPACITY},
+      converter = NonNegativeIntegerConverter.class,
+      paramLabel = "<INTEGER>",
+      description =
+          "Size in bytes of the incoming messages queued per peer and priority class, 0 to process messages as they arrive. (default: ${DEFAULT-VALUE})")
+  private int peerMessageQueueCapacity =
+      EthProtocolConfiguration.DEFAULT_PEER_MESSAGE_QUEUE_CAPACITY;
+
   private EthProtocolOptions() {}
 
   public static EthProtocolOptions create() {
@@ -98,6 +110,7 @@ public class EthProtocolOptions implements CLIOptions<EthProtocolConfiguration>
     options.maxGetNodeData = PositiveNumber.fromInt(config.getMaxGetNodeData());
     options.maxGetPooledTransactions = PositiveNumber.fromInt(config.getMaxGetPooledTransactions());
     options.eth65Enabled = config.isEth65Enabled();
+    options.peerMessageQueueCapacity = config.getPeerMessageQueueCapacity();
     return options;
   }
 
@@ -110,6 +123,7 @@ public class EthProtocolOptions implements CLIOptions<EthProtocolConfiguration>
         .maxGetNodeData(maxGetNodeData)
         .maxGetPooledTransactions(maxGetPooledTransactions)
         .eth65Enabled(eth65Enabled)
+        .peerMessageQueueCapacity(peerMessageQueueCapacity)
         .build();
   }
 
@@ -126,6 +140,8 @@ public class EthProtocolOptions implements CLIOptions<EthProtocolConfiguration>
         OptionParser.format(maxGetNodeData.getValue()),
         MAX_GET_POOLED_TRANSACTIONS,
         OptionParser.format(maxGetPooledTransactions.getValue()),
-        ETH_65_ENABLED + "=" + eth65Enabled);
+        ETH_65_ENABLED + "=" + eth65Enabled,
+        PEER_MESSAGE_QUEUE_CAPACITY,
+        OptionParser.format(peerMessageQueueCapacity));
   }
 }
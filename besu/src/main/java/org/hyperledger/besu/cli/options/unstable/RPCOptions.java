@@ -34,6 +34,14 @@ public class RPCOptions {
       arity = "1")
   private final Long wsTimeoutSec = TimeoutOptions.defaultOptions().getTimeoutSeconds();
 
+  @CommandLine.Option(
+      hidden = true,
+      names = {"--Xlog-index-enabled"},
+      description =
+          "Index log addresses and topics to speed up log queries (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Boolean logIndexEnabled = false;
+
   public static RPCOptions create() {
     return new RPCOptions();
   }
@@ -45,4 +53,8 @@ public class RPCOptions {
   public Long getWsTimeoutSec() {
     return wsTimeoutSec;
   }
+
+  public Boolean isLogIndexEnabled() {
+    return logIndexEnabled;
+  }
 }
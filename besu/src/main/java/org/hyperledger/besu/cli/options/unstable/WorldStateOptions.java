@@ -0,0 +1,87 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.cli.options.unstable;
+
+import picocli.CommandLine;
+
+public class WorldStateOptions {
+
+  public static final long DEFAULT_TRIE_NODE_CACHE_SIZE = 64;
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {"--Xworld-state-snapshot-enabled"},
+      description =
+          "Maintain a flat snapshot of the head world state to serve account and storage reads without walking the state trie (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Boolean snapshotEnabled = Boolean.FALSE;
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {"--Xworld-state-trie-node-cache-size"},
+      paramLabel = "<LONG>",
+      description =
+          "Size in megabytes of the in-memory cache of world state trie nodes, 0 to disable (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Long trieNodeCacheSize = DEFAULT_TRIE_NODE_CACHE_SIZE;
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {"--Xworld-state-pipelined-persistence-enabled"},
+      description =
+          "Write each block's world state to the database in the background while the next block is imported (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Boolean pipelinedPersistenceEnabled = Boolean.FALSE;
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {"--Xworld-state-prefetch-enabled"},
+      description =
+          "Load the accounts and code a block touches into the caches as soon as the block is received (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Boolean prefetchEnabled = Boolean.FALSE;
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {"--Xworld-state-prefetch-speculative-execution-enabled"},
+      description =
+          "Also execute a received block's transactions against a throwaway world state to prefetch the storage they read (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Boolean prefetchSpeculativeExecutionEnabled = Boolean.FALSE;
+
+  public static WorldStateOptions create() {
+    return new WorldStateOptions();
+  }
+
+  public Boolean getSnapshotEnabled() {
+    return snapshotEnabled;
+  }
+
+  public Boolean getPipelinedPersistenceEnabled() {
+    return pipelinedPersistenceEnabled;
+  }
+
+  public Boolean getPrefetchEnabled() {
+    return prefetchEnabled;
+  }
+
+  public Boolean getPrefetchSpeculativeExecutionEnabled() {
+    return prefetchSpeculativeExecutionEnabled;
+  }
+
+  public long getTrieNodeCacheSizeInBytes() {
+    return trieNodeCacheSize * 1024 * 1024;
+  }
+}
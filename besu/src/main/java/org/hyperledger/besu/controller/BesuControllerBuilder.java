@@ -34,10 +34,12 @@ import org.hyperledger.besu.ethereum.core.fees.EIP1559;
 import org.hyperledger.besu.ethereum.eth.EthProtocol;
 import org.hyperledger.besu.ethereum.eth.EthProtocolConfiguration;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
+import org.hyperledger.besu.ethereum.eth.manager.EthMessageQueues;
 import org.hyperledger.besu.ethereum.eth.manager.EthMessages;
 import org.hyperledger.besu.ethereum.eth.manager.EthPeers;
 import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManager;
 import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+import org.hyperledger.besu.ethereum.eth.manager.ForkIdManager;
 import org.hyperledger.besu.ethereum.eth.peervalidation.ClassicForkPeerValidator;
 import org.hyperledger.besu.ethereum.eth.peervalidation.DaoForkPeerValidator;
 import org.hyperledger.besu.ethereum.eth.peervalidation.PeerValidator;
@@ -49,13 +51,18 @@ import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolConfiguration;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolFactory;
+import org.hyperledger.besu.ethereum.mainnet.ParallelTransactionProcessor;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.p2p.config.SubProtocolConfiguration;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
+import org.hyperledger.besu.ethereum.vm.CodeCache;
 import org.hyperledger.besu.ethereum.worldstate.MarkSweepPruner;
+import org.hyperledger.besu.ethereum.worldstate.PipelinedWorldStateStorage;
 import org.hyperledger.besu.ethereum.worldstate.Pruner;
 import org.hyperledger.besu.ethereum.worldstate.PrunerConfiguration;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateSnapshotGenerator;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
 
 import java.io.Closeable;
@@ -94,6 +101,12 @@ public abstract class BesuControllerBuilder {
   Map<String, String> genesisConfigOverrides;
   private Map<Long, Hash> requiredBlocks = Collections.emptyMap();
   private long reorgLoggingThreshold;
+  private boolean worldStateSnapshotEnabled;
+  private boolean worldStatePipelinedPersistenceEnabled;
+  private boolean statePrefetchEnabled;
+  private boolean statePrefetchSpeculativeExecutionEnabled;
+  private long blockchainCacheSize;
+  private boolean parallelTransactionProcessingEnabled;
 
   public BesuControllerBuilder storageProvider(final StorageProvider storageProvider) {
     this.storageProvider = storageProvider;
@@ -194,6 +207,39 @@ public abstract class BesuControllerBuilder {
     return this;
   }
 
+  public BesuControllerBuilder worldStateSnapshotEnabled(final boolean worldStateSnapshotEnabled) {
+    this.worldStateSnapshotEnabled = worldStateSnapshotEnabled;
+    return this;
+  }
+
+  public BesuControllerBuilder blockchainCacheSize(final long blockchainCacheSize) {
+    this.blockchainCacheSize = blockchainCacheSize;
+    return this;
+  }
+
+  public BesuControllerBuilder parallelTransactionProcessingEnabled(
+      final boolean parallelTransactionProcessingEnabled) {
+    this.parallelTransactionProcessingEnabled = parallelTransactionProcessingEnabled;
+    return this;
+  }
+
+  public BesuControllerBuilder worldStatePipelinedPersistenceEnabled(
+      final boolean worldStatePipelinedPersistenceEnabled) {
+    this.worldStatePipelinedPersistenceEnabled = worldStatePipelinedPersistenceEnabled;
+    return this;
+  }
+
+  public BesuControllerBuilder statePrefetchEnabled(final boolean statePrefetchEnabled) {
+    this.statePrefetchEnabled = statePrefetchEnabled;
+    return this;
+  }
+
+  public BesuControllerBuilder statePrefetchSpeculativeExecutionEnabled(
+      final boolean statePrefetchSpeculativeExecutionEnabled) {
+    this.statePrefetchSpeculativeExecutionEnabled = statePrefetchSpeculativeExecutionEnabled;
+    return this;
+  }
+
   public BesuController build() {
     checkNotNull(genesisConfig, "Missing genesis config");
     checkNotNull(syncConfig, "Missing sync config");
@@ -211,7 +257,14 @@ public abstract class BesuControllerBuilder {
 
     prepForBuild();
 
+    CodeCache.shared().registerMetrics(metricsSystem);
+
     final ProtocolSchedule protocolSchedule = createProtocolSchedule();
+    final Optional<ParallelTransactionProcessor> parallelTransactionProcessor =
+        parallelTransactionProcessingEnabled
+            ? Optional.of(new ParallelTransactionProcessor(metricsSystem))
+            : Optional.empty();
+    parallelTransactionProcessor.ifPresent(protocolSchedule::setParallelTransactionProcessor);
     final GenesisState genesisState = GenesisState.fromConfig(genesisConfig, protocolSchedule);
     final ProtocolContext protocolContext =
         ProtocolContext.init(
@@ -220,7 +273,12 @@ public abstract class BesuControllerBuilder {
             protocolSchedule,
             metricsSystem,
             this::createConsensusContext,
-            reorgLoggingThreshold);
+            reorgLoggingThreshold,
+            worldStateSnapshotEnabled,
+            blockchainCacheSize,
+            worldStatePipelinedPersistenceEnabled,
+            statePrefetchEnabled,
+            statePrefetchSpeculativeExecutionEnabled);
     validateContext(protocolContext);
 
     protocolSchedule.setPublicWorldStateArchiveForPrivacyBlockProcessor(
@@ -325,6 +383,27 @@ public abstract class BesuControllerBuilder {
         createAdditionalJsonRpcMethodFactory(protocolContext);
 
     final List<Closeable> closeables = new ArrayList<>();
+    protocolContext
+        .getWorldStateArchive()
+        .getSnapshot()
+        .ifPresent(
+            snapshot -> {
+              final WorldStateSnapshotGenerator snapshotGenerator =
+                  new WorldStateSnapshotGenerator(
+                      snapshot,
+                      protocolContext.getWorldStateArchive().getWorldStateStorage(),
+                      blockchain);
+              snapshotGenerator.start();
+              closeables.add(snapshotGenerator);
+            });
+    protocolContext.getStatePrefetcher().ifPresent(closeables::add);
+    parallelTransactionProcessor.ifPresent(closeables::add);
+    final WorldStateStorage worldStateStorage =
+        protocolContext.getWorldStateArchive().getWorldStateStorage();
+    if (worldStateStorage instanceof PipelinedWorldStateStorage) {
+      // Pending world state writes have to reach storage before it is closed.
+      closeables.add((PipelinedWorldStateStorage) worldStateStorage);
+    }
     closeables.add(storageProvider);
     if (privacyParameters.getPrivateStorageProvider() != null) {
       closeables.add(privacyParameters.getPrivateStorageProvider());
@@ -389,6 +468,16 @@ public abstract class BesuControllerBuilder {
       final EthMessages ethMessages,
       final EthScheduler scheduler,
       final List<PeerValidator> peerValidators) {
+    final Optional<EthMessageQueues> messageQueues =
+        ethereumWireProtocolConfiguration.getPeerMessageQueueCapacity() > 0
+            ? Optional.of(
+                new EthMessageQueues(
+                    ethPeers,
+                    ethMessages,
+                    ethereumWireProtocolConfiguration.getPeerMessageQueueCapacity(),
+                    Runtime.getRuntime().availableProcessors(),
+                    metricsSystem))
+            : Optional.empty();
     return new EthProtocolManager(
         protocolContext.getBlockchain(),
         networkId,
@@ -401,7 +490,8 @@ public abstract class BesuControllerBuilder {
         peerValidators,
         fastSyncEnabled,
         scheduler,
-        genesisConfig.getForks());
+        new ForkIdManager(protocolContext.getBlockchain(), genesisConfig.getForks()),
+        messageQueues);
   }
 
   private List<PeerValidator> createPeerValidators(final ProtocolSchedule protocolSchedule) {
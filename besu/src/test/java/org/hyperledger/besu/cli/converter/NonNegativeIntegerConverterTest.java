@@ -0,0 +1,51 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.cli.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import org.hyperledger.besu.cli.converter.exception.NonNegativeIntegerConversionException;
+
+import org.junit.Test;
+
+public class NonNegativeIntegerConverterTest {
+
+  private final NonNegativeIntegerConverter nonNegativeIntegerConverter =
+      new NonNegativeIntegerConverter();
+
+  @Test
+  public void assertThatConvertHandlesProperlyAValidString()
+      throws NonNegativeIntegerConversionException {
+    assertThat(nonNegativeIntegerConverter.convert("1024")).isEqualTo(1024);
+  }
+
+  @Test
+  public void assertThatConvertHandlesProperlyZero() throws NonNegativeIntegerConversionException {
+    assertThat(nonNegativeIntegerConverter.convert("0")).isEqualTo(0);
+  }
+
+  @Test
+  public void assertThatConvertHandlesProperlyAnInvalidStringNotANumber() {
+    final Throwable thrown = catchThrowable(() -> nonNegativeIntegerConverter.convert("invalid"));
+    assertThat(thrown).isInstanceOf(NonNegativeIntegerConversionException.class);
+  }
+
+  @Test
+  public void assertThatConvertHandlesProperlyANegativeNumber() {
+    final Throwable thrown = catchThrowable(() -> nonNegativeIntegerConverter.convert("-1"));
+    assertThat(thrown).isInstanceOf(NonNegativeIntegerConversionException.class);
+  }
+}
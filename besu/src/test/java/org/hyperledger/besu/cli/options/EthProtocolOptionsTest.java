@@ -115,6 +115,28 @@ public class EthProtocolOptionsTest
             "Invalid value for option '--Xewp-max-get-node-data': cannot convert '-16' to PositiveNumber");
   }
 
+  @Test
+  public void parsesValidPeerMessageQueueCapacityOptions() {
+    final TestBesuCommand cmd = parseCommand("--Xeth-peer-message-queue-capacity", "0");
+
+    final EthProtocolOptions options = getOptionsFromBesuCommand(cmd);
+    final EthProtocolConfiguration config = options.toDomainObject();
+    assertThat(config.getPeerMessageQueueCapacity()).isEqualTo(0);
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void parsesInvalidPeerMessageQueueCapacityOptionsShouldFail() {
+    parseCommand("--Xeth-peer-message-queue-capacity", "-1");
+    verifyNoInteractions(mockRunnerBuilder);
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString())
+        .contains("Invalid value for option '--Xeth-peer-message-queue-capacity'")
+        .contains("should be an integer greater than or equal to 0");
+  }
+
   @Override
   EthProtocolConfiguration createDefaultDomainObject() {
     return EthProtocolConfiguration.builder().build();
@@ -135,6 +157,7 @@ public class EthProtocolOptionsTest
             PositiveNumber.fromInt(
                 EthProtocolConfiguration.DEFAULT_MAX_GET_POOLED_TRANSACTIONS + 2))
         .eth65Enabled(!EthProtocolConfiguration.DEFAULT_ETH_65_ENABLED)
+        .peerMessageQueueCapacity(16 * 1024 * 1024)
         .build();
   }
 
@@ -18,10 +18,14 @@ import static org.hyperledger.besu.consensus.ibft.IbftBlockHeaderValidationRules
 
 import org.hyperledger.besu.config.GenesisConfigOptions;
 import org.hyperledger.besu.config.IbftConfigOptions;
+import org.hyperledger.besu.ethereum.BlockValidator;
 import org.hyperledger.besu.ethereum.MainnetBlockValidator;
 import org.hyperledger.besu.ethereum.core.Address;
 import org.hyperledger.besu.ethereum.core.PrivacyParameters;
 import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.mainnet.BlockBodyValidator;
+import org.hyperledger.besu.ethereum.mainnet.BlockHeaderValidator;
+import org.hyperledger.besu.ethereum.mainnet.BlockProcessor;
 import org.hyperledger.besu.ethereum.mainnet.MainnetBlockBodyValidator;
 import org.hyperledger.besu.ethereum.mainnet.MainnetBlockImporter;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
@@ -30,11 +34,17 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSpecBuilder;
 
 import java.math.BigInteger;
 
+import com.google.common.annotations.VisibleForTesting;
+
 /** Defines the protocol behaviours for a blockchain using IBFT. */
 public class IbftProtocolSchedule {
 
   private static final BigInteger DEFAULT_CHAIN_ID = BigInteger.ONE;
 
+  // Proposals are fully executed when validated, remember the outputs of the few most recent ones
+  // so committing the block does not execute its transactions a second time.
+  private static final int VALIDATED_BLOCK_CACHE_SIZE = 4;
+
   public static ProtocolSchedule create(
       final GenesisConfigOptions config,
       final PrivacyParameters privacyParameters,
@@ -73,7 +83,7 @@ public class IbftProtocolSchedule {
         .blockHeaderValidatorBuilder(ibftBlockHeaderValidator(ibftConfig.getBlockPeriodSeconds()))
         .ommerHeaderValidatorBuilder(ibftBlockHeaderValidator(ibftConfig.getBlockPeriodSeconds()))
         .blockBodyValidatorBuilder(MainnetBlockBodyValidator::new)
-        .blockValidatorBuilder(MainnetBlockValidator::new)
+        .blockValidatorBuilder(IbftProtocolSchedule::createBlockValidator)
         .blockImporterBuilder(MainnetBlockImporter::new)
         .difficultyCalculator((time, parent, protocolContext) -> BigInteger.ONE)
         .blockReward(Wei.of(ibftConfig.getBlockRewardWei()))
@@ -94,4 +104,19 @@ public class IbftProtocolSchedule {
 
     return builder;
   }
+
+  @VisibleForTesting
+  static BlockValidator createBlockValidator(
+      final BlockHeaderValidator blockHeaderValidator,
+      final BlockBodyValidator blockBodyValidator,
+      final BlockProcessor blockProcessor) {
+    // The proposal is validated with a hash covering the round, and the imported block with one
+    // covering the commit seals, so remember blocks by the hash that ignores both.
+    return new MainnetBlockValidator(
+        blockHeaderValidator,
+        blockBodyValidator,
+        blockProcessor,
+        VALIDATED_BLOCK_CACHE_SIZE,
+        IbftBlockHashing::calculateHashOfIbftBlockOnChain);
+  }
 }
@@ -17,18 +17,39 @@ package org.hyperledger.besu.consensus.ibft;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.hyperledger.besu.config.GenesisConfigOptions;
 import org.hyperledger.besu.config.IbftConfigOptions;
+import org.hyperledger.besu.crypto.SECP256K1.Signature;
+import org.hyperledger.besu.ethereum.BlockValidator;
+import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.AddressHelpers;
+import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.mainnet.BlockBodyValidator;
+import org.hyperledger.besu.ethereum.mainnet.BlockHeaderValidator;
+import org.hyperledger.besu.ethereum.mainnet.BlockProcessor;
+import org.hyperledger.besu.ethereum.mainnet.HeaderValidationMode;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockImporter;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 
 import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.Test;
@@ -134,4 +155,65 @@ public class IbftProtocolScheduleTest {
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessage("Epoch length in config must be greater than zero");
   }
+
+  @Test
+  public void importingCommittedProposalReusesExecutionFromProposalValidation() {
+    final Block proposalBlock =
+        TestHelpers.createProposalBlock(
+            Collections.singletonList(AddressHelpers.ofValue(1)),
+            new ConsensusRoundIdentifier(1, 2));
+    final Block sealedBlock =
+        IbftHelpers.createSealedBlock(
+            proposalBlock,
+            Collections.singletonList(Signature.create(BigInteger.ONE, BigInteger.TEN, (byte) 0)));
+    assertThat(sealedBlock.getHash()).isNotEqualTo(proposalBlock.getHash());
+
+    final Hash parentStateRoot = Hash.hash(Hash.ZERO);
+    final Hash stateRoot = proposalBlock.getHeader().getStateRoot();
+    final List<TransactionReceipt> receipts = Collections.emptyList();
+    final ProtocolContext protocolContext = mock(ProtocolContext.class);
+    final MutableBlockchain blockchain = mock(MutableBlockchain.class);
+    final WorldStateArchive worldStateArchive = mock(WorldStateArchive.class);
+    final MutableWorldState worldState = mock(MutableWorldState.class);
+    final BlockHeader parentHeader = mock(BlockHeader.class);
+    when(protocolContext.getBlockchain()).thenReturn(blockchain);
+    when(protocolContext.getWorldStateArchive()).thenReturn(worldStateArchive);
+    when(blockchain.getBlockHeader(proposalBlock.getHeader().getParentHash()))
+        .thenReturn(Optional.of(parentHeader));
+    when(parentHeader.getStateRoot()).thenReturn(parentStateRoot);
+    when(worldStateArchive.getMutable(parentStateRoot)).thenReturn(Optional.of(worldState));
+    when(worldStateArchive.isWorldStateAvailable(stateRoot)).thenReturn(true);
+    when(worldState.rootHash()).thenReturn(stateRoot);
+
+    final BlockHeaderValidator blockHeaderValidator = mock(BlockHeaderValidator.class);
+    final BlockBodyValidator blockBodyValidator = mock(BlockBodyValidator.class);
+    final BlockProcessor blockProcessor = mock(BlockProcessor.class);
+    final BlockProcessor.Result processingResult = mock(BlockProcessor.Result.class);
+    when(blockHeaderValidator.validateHeader(any(), any(), any(), any())).thenReturn(true);
+    when(blockBodyValidator.validateBody(any(), any(), anyList(), any(), any())).thenReturn(true);
+    when(blockProcessor.processBlock(any(), any(), any())).thenReturn(processingResult);
+    when(processingResult.isSuccessful()).thenReturn(true);
+    when(processingResult.getReceipts()).thenReturn(receipts);
+
+    final BlockValidator blockValidator =
+        IbftProtocolSchedule.createBlockValidator(
+            blockHeaderValidator, blockBodyValidator, blockProcessor);
+
+    // Received proposals are validated as in MessageValidator, then imported once committed
+    assertThat(
+            blockValidator.validateAndProcessBlock(
+                protocolContext,
+                proposalBlock,
+                HeaderValidationMode.LIGHT,
+                HeaderValidationMode.FULL))
+        .isPresent();
+    assertThat(
+            new MainnetBlockImporter(blockValidator)
+                .importBlock(protocolContext, sealedBlock, HeaderValidationMode.FULL))
+        .isTrue();
+
+    verify(blockProcessor, times(1)).processBlock(any(), any(), any());
+    verify(blockHeaderValidator, times(2)).validateHeader(any(), any(), any(), any());
+    verify(blockchain).appendBlock(sealedBlock, receipts);
+  }
 }
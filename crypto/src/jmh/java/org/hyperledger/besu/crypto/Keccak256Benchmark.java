@@ -0,0 +1,104 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares hashing through a freshly created {@link MessageDigest} per call, as {@link Hash} used
+ * to, against the thread local {@link Keccak256} engine.
+ */
+@State(Scope.Thread)
+public class Keccak256Benchmark {
+
+  private static final int BATCH_SIZE = 384;
+
+  // 32 bytes is an address or slot key, 532 bytes roughly a full branch node.
+  @Param({"32", "532"})
+  public int size;
+
+  private Bytes input;
+  private Bytes slice;
+  private ByteBuffer buffer;
+  private List<Bytes> batch;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final Random random = new Random(1);
+    final byte[] bytes = new byte[size + 16];
+    random.nextBytes(bytes);
+    input = Bytes.wrap(bytes, 0, size);
+    slice = Bytes.wrap(bytes).slice(16);
+    buffer = ByteBuffer.wrap(bytes, 0, size);
+    batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      final byte[] node = new byte[size];
+      random.nextBytes(node);
+      batch.add(Bytes.wrap(node));
+    }
+  }
+
+  @Benchmark
+  public Bytes32 messageDigestPerCall() throws NoSuchAlgorithmException {
+    final MessageDigest digest = MessageDigestFactory.create(Hash.KECCAK256_ALG);
+    input.update(digest);
+    return Bytes32.wrap(digest.digest());
+  }
+
+  @Benchmark
+  public Bytes32 threadLocal() {
+    return Keccak256.hash(input);
+  }
+
+  @Benchmark
+  public Bytes32 threadLocalSlice() {
+    return Keccak256.hash(slice);
+  }
+
+  @Benchmark
+  public Bytes32 threadLocalByteBuffer() {
+    return Keccak256.hash(buffer.duplicate());
+  }
+
+  @Benchmark
+  public List<Bytes32> messageDigestPerCallBatch() throws NoSuchAlgorithmException {
+    final List<Bytes32> digests = new ArrayList<>(BATCH_SIZE);
+    for (final Bytes node : batch) {
+      final MessageDigest digest = MessageDigestFactory.create(Hash.KECCAK256_ALG);
+      node.update(digest);
+      digests.add(Bytes32.wrap(digest.digest()));
+    }
+    return digests;
+  }
+
+  @Benchmark
+  public List<Bytes32> threadLocalBatch() {
+    return Keccak256.hashAll(batch);
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto;
+
+import java.nio.ByteBuffer;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.bouncycastle.crypto.digests.KeccakDigest;
+
+/**
+ * Keccak-256 hashing using a reusable digest per thread.
+ *
+ * <p>Unlike going through {@link MessageDigestFactory}, no provider lookup or digest state is
+ * allocated per call, and inputs are fed to the sponge straight from their backing storage:
+ * array-backed {@link Bytes} (including slices and {@link org.apache.tuweni.bytes.MutableBytes}),
+ * heap {@link ByteBuffer}s and array ranges are not copied.
+ */
+public final class Keccak256 {
+
+  public static final int DIGEST_LENGTH = Bytes32.SIZE;
+
+  private static final ThreadLocal<Engine> ENGINE = ThreadLocal.withInitial(Engine::new);
+
+  private Keccak256() {}
+
+  /**
+   * Hashes the given bytes.
+   *
+   * @param input The input bytes to produce the digest for.
+   * @return A digest.
+   */
+  public static Bytes32 hash(final Bytes input) {
+    final byte[] output = new byte[DIGEST_LENGTH];
+    hashInto(input, output, 0);
+    return Bytes32.wrap(output);
+  }
+
+  /**
+   * Hashes the remaining bytes of the buffer, advancing its position to its limit.
+   *
+   * @param input The input buffer to produce the digest for.
+   * @return A digest.
+   */
+  public static Bytes32 hash(final ByteBuffer input) {
+    final Engine engine = ENGINE.get();
+    try {
+      engine.update(input);
+    } catch (final RuntimeException e) {
+      engine.reset();
+      throw e;
+    }
+    final byte[] output = new byte[DIGEST_LENGTH];
+    engine.finish(output, 0);
+    return Bytes32.wrap(output);
+  }
+
+  /**
+   * Hashes a range of the given array.
+   *
+   * @param input The array holding the bytes to produce the digest for.
+   * @param offset The offset of the first byte to hash.
+   * @param length The number of bytes to hash.
+   * @return A digest.
+   */
+  public static Bytes32 hash(final byte[] input, final int offset, final int length) {
+    final Engine engine = ENGINE.get();
+    engine.update(input, offset, length);
+    final byte[] output = new byte[DIGEST_LENGTH];
+    engine.finish(output, 0);
+    return Bytes32.wrap(output);
+  }
+
+  /**
+   * Hashes the given bytes, writing the digest into an existing array.
+   *
+   * @param input The input bytes to produce the digest for.
+   * @param output The array receiving the digest.
+   * @param outputOffset The offset at which the {@link #DIGEST_LENGTH} digest bytes are written.
+   */
+  public static void hashInto(final Bytes input, final byte[] output, final int outputOffset) {
+    final Engine engine = ENGINE.get();
+    try {
+      input.update(engine);
+    } catch (final RuntimeException e) {
+      engine.reset();
+      throw e;
+    }
+    engine.finish(output, outputOffset);
+  }
+
+  /**
+   * Hashes each of the given inputs, for instance all the nodes of a trie commit or of a node data
+   * response. The digests share a single backing array.
+   *
+   * @param inputs The inputs to produce digests for.
+   * @return The digests, in the order of the inputs.
+   */
+  public static List<Bytes32> hashAll(final List<? extends Bytes> inputs) {
+    final int count = inputs.size();
+    final byte[] output = new byte[count * DIGEST_LENGTH];
+    final List<Bytes32> digests = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final int outputOffset = i * DIGEST_LENGTH;
+      hashInto(inputs.get(i), output, outputOffset);
+      digests.add(Bytes32.wrap(output, outputOffset));
+    }
+    return digests;
+  }
+
+  /**
+   * Exposes a {@link KeccakDigest} as a {@link MessageDigest}, so that {@link Bytes#update} hands
+   * over its backing array range rather than a copy.
+   */
+  private static final class Engine extends MessageDigest {
+    private final KeccakDigest digest = new KeccakDigest(DIGEST_LENGTH * 8);
+
+    private Engine() {
+      super(Hash.KECCAK256_ALG);
+    }
+
+    private void finish(final byte[] output, final int outputOffset) {
+      try {
+        digest(output, outputOffset, DIGEST_LENGTH);
+      } catch (final DigestException e) {
+        reset();
+        throw new IllegalArgumentException(e);
+      }
+    }
+
+    @Override
+    protected int engineGetDigestLength() {
+      return DIGEST_LENGTH;
+    }
+
+    @Override
+    protected void engineUpdate(final byte input) {
+      digest.update(input);
+    }
+
+    @Override
+    protected void engineUpdate(final byte[] input, final int offset, final int len) {
+      digest.update(input, offset, len);
+    }
+
+    @Override
+    protected byte[] engineDigest() {
+      final byte[] output = new byte[DIGEST_LENGTH];
+      digest.doFinal(output, 0);
+      return output;
+    }
+
+    @Override
+    protected int engineDigest(final byte[] buf, final int offset, final int len) {
+      digest.doFinal(buf, offset);
+      return DIGEST_LENGTH;
+    }
+
+    @Override
+    protected void engineReset() {
+      digest.reset();
+    }
+  }
+}
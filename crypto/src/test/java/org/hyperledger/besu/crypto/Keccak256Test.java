@@ -0,0 +1,107 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.bytes.MutableBytes;
+import org.junit.Test;
+
+public class Keccak256Test {
+
+  private static final Bytes HORSE = Bytes.wrap("horse".getBytes(UTF_8));
+  private static final Bytes32 HORSE_KECCAK256 =
+      Bytes32.fromHexString("c87f65ff3f271bf5dc8643484f66b200109caffe4bf98c4cb393dc35740b28c0");
+
+  @Test
+  public void hashesBytes() {
+    assertThat(Keccak256.hash(HORSE)).isEqualTo(HORSE_KECCAK256);
+    assertThat(Keccak256.hash(Bytes.EMPTY)).isEqualTo(referenceHash(Bytes.EMPTY));
+  }
+
+  @Test
+  public void hashesSlicesAndMutableBytes() {
+    final Bytes padded = Bytes.concatenate(Bytes.of(1, 2, 3), HORSE, Bytes.of(4));
+    assertThat(Keccak256.hash(padded.slice(3, HORSE.size()))).isEqualTo(HORSE_KECCAK256);
+
+    final MutableBytes mutable = MutableBytes.create(HORSE.size());
+    HORSE.copyTo(mutable);
+    assertThat(Keccak256.hash(mutable)).isEqualTo(HORSE_KECCAK256);
+  }
+
+  @Test
+  public void hashesArrayRange() {
+    final byte[] padded = Bytes.concatenate(Bytes.of(9), HORSE, Bytes.of(9)).toArrayUnsafe();
+    assertThat(Keccak256.hash(padded, 1, HORSE.size())).isEqualTo(HORSE_KECCAK256);
+  }
+
+  @Test
+  public void hashesHeapAndDirectByteBuffers() {
+    final ByteBuffer heap = ByteBuffer.wrap(HORSE.toArray());
+    assertThat(Keccak256.hash(heap)).isEqualTo(HORSE_KECCAK256);
+    assertThat(heap.hasRemaining()).isFalse();
+
+    final ByteBuffer direct = ByteBuffer.allocateDirect(HORSE.size());
+    direct.put(HORSE.toArrayUnsafe()).flip();
+    assertThat(Keccak256.hash(direct)).isEqualTo(HORSE_KECCAK256);
+  }
+
+  @Test
+  public void hashesIntoExistingArray() {
+    final byte[] output = new byte[Keccak256.DIGEST_LENGTH + 2];
+    Keccak256.hashInto(HORSE, output, 1);
+    assertThat(Bytes.wrap(output, 1, Keccak256.DIGEST_LENGTH)).isEqualTo(HORSE_KECCAK256);
+    assertThat(output[0]).isZero();
+    assertThat(output[Keccak256.DIGEST_LENGTH + 1]).isZero();
+  }
+
+  @Test
+  public void hashesBatchInOrder() {
+    final List<Bytes> inputs =
+        Arrays.asList(HORSE, Bytes.EMPTY, Bytes.random(200), Bytes.random(1000));
+
+    final List<Bytes32> digests = Keccak256.hashAll(inputs);
+
+    assertThat(digests).hasSize(inputs.size());
+    for (int i = 0; i < inputs.size(); i++) {
+      assertThat(digests.get(i)).isEqualTo(referenceHash(inputs.get(i)));
+    }
+  }
+
+  @Test
+  public void reusesEngineAcrossCalls() {
+    for (int i = 0; i < 3; i++) {
+      assertThat(Keccak256.hash(HORSE)).isEqualTo(HORSE_KECCAK256);
+    }
+  }
+
+  private static Bytes32 referenceHash(final Bytes input) {
+    try {
+      final MessageDigest digest = MessageDigestFactory.create(Hash.KECCAK256_ALG);
+      input.update(digest);
+      return Bytes32.wrap(digest.digest());
+    } catch (final Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
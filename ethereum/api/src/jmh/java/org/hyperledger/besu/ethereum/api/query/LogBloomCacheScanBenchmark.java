@@ -0,0 +1,112 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import static org.hyperledger.besu.ethereum.api.query.cache.TransactionLogBloomCacher.BLOCKS_PER_BLOOM_CACHE;
+
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.InMemoryStorageProvider;
+import org.hyperledger.besu.ethereum.core.LogWithMetadata;
+import org.hyperledger.besu.ethereum.core.LogsBloomFilter;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/** Scans a fully cached 1M block range where no bloom matches the query. */
+@State(Scope.Benchmark)
+public class LogBloomCacheScanBenchmark {
+
+  private static final int SEGMENTS = 10;
+  // Addresses inserted into each block's bloom, roughly what a busy mainnet block sets
+  private static final int ADDRESSES_PER_BLOCK = 40;
+
+  @Param({"0", "4"})
+  public int computationThreads;
+
+  private final LogsQuery query =
+      new LogsQuery.Builder().address(Address.fromHexString("0xdeadbeef")).build();
+  private Path cacheDir;
+  private EthScheduler scheduler;
+  private BlockchainQueries blockchainQueries;
+
+  @Setup(Level.Trial)
+  public void prepare() throws Exception {
+    cacheDir = Files.createTempDirectory("logBloomCacheScan");
+    final Random random = new Random(42);
+    final byte[] address = new byte[Address.SIZE];
+    for (int segment = 0; segment < SEGMENTS; segment++) {
+      try (final OutputStream out =
+          new BufferedOutputStream(
+              Files.newOutputStream(cacheDir.resolve("logBloom-" + segment + ".cache")))) {
+        for (int block = 0; block < BLOCKS_PER_BLOOM_CACHE; block++) {
+          LogsBloomFilter bloom;
+          do {
+            final LogsBloomFilter.Builder builder = LogsBloomFilter.builder();
+            for (int i = 0; i < ADDRESSES_PER_BLOCK; i++) {
+              random.nextBytes(address);
+              builder.insertBytes(Bytes.wrap(address));
+            }
+            bloom = builder.build();
+          } while (query.couldMatch(bloom));
+          out.write(bloom.toArrayUnsafe());
+        }
+      }
+    }
+
+    final Blockchain blockchain =
+        InMemoryStorageProvider.createInMemoryBlockchain(new BlockDataGenerator().genesisBlock());
+    scheduler =
+        computationThreads > 0
+            ? new EthScheduler(1, 1, computationThreads, new NoOpMetricsSystem())
+            : null;
+    blockchainQueries =
+        new BlockchainQueries(
+            blockchain, null, Optional.of(cacheDir), Optional.ofNullable(scheduler));
+  }
+
+  @TearDown(Level.Trial)
+  public void cleanUp() throws Exception {
+    if (scheduler != null) {
+      scheduler.stop();
+    }
+    MoreFiles.deleteRecursively(cacheDir, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Benchmark
+  public List<LogWithMetadata> scanMillionBlocks() {
+    return blockchainQueries.matchingLogs(
+        0, (long) SEGMENTS * BLOCKS_PER_BLOOM_CACHE - 1, query, () -> true);
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.graphql;
+
+import org.hyperledger.besu.ethereum.api.query.BlockWithMetadata;
+import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
+import org.hyperledger.besu.ethereum.api.query.TransactionReceiptWithMetadata;
+import org.hyperledger.besu.ethereum.api.query.TransactionWithMetadata;
+import org.hyperledger.besu.ethereum.chain.TransactionLocation;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Memoizes the blockchain and world state reads made while resolving a single GraphQL request.
+ *
+ * <p>A query selecting the same block, transaction or account from several places in its tree
+ * loads it once, and receipts are loaded for a whole block the first time any of its
+ * transactions asks for one. Instances are created per request and are not thread safe.
+ */
+public class CachingBlockchainQueries {
+
+  private final BlockchainQueries blockchainQueries;
+
+  private final Map<Hash, Optional<BlockWithMetadata<TransactionWithMetadata, Hash>>>
+      blocksByHash = new HashMap<>();
+  private final Map<Long, Optional<BlockWithMetadata<TransactionWithMetadata, Hash>>>
+      blocksByNumber = new HashMap<>();
+  private final Map<Hash, Optional<BlockBody>> bodies = new HashMap<>();
+  private final Map<Hash, Optional<TransactionWithMetadata>> transactions = new HashMap<>();
+  private final Map<Hash, Optional<TransactionLocation>> locations = new HashMap<>();
+  private final Map<Hash, Optional<List<TransactionReceiptWithMetadata>>> receiptsByBlock =
+      new HashMap<>();
+  private final Map<Long, Optional<MutableWorldState>> worldStates = new HashMap<>();
+  private Optional<BlockWithMetadata<TransactionWithMetadata, Hash>> latestBlock;
+
+  public CachingBlockchainQueries(final BlockchainQueries blockchainQueries) {
+    this.blockchainQueries = blockchainQueries;
+  }
+
+  public BlockchainQueries getBlockchainQueries() {
+    return blockchainQueries;
+  }
+
+  public Optional<BlockWithMetadata<TransactionWithMetadata, Hash>> blockByHash(
+      final Hash blockHeaderHash) {
+    return memoize(blocksByHash, blockHeaderHash, blockchainQueries::blockByHash);
+  }
+
+  public Optional<BlockWithMetadata<TransactionWithMetadata, Hash>> blockByNumber(
+      final long number) {
+    return memoize(blocksByNumber, number, blockchainQueries::blockByNumber);
+  }
+
+  /**
+   * Returns the latest block, fixed at the chain head seen by the first call so that every part of
+   * the request resolves against the same block.
+   *
+   * @return The latest block.
+   */
+  public Optional<BlockWithMetadata<TransactionWithMetadata, Hash>> latestBlock() {
+    if (latestBlock == null) {
+      latestBlock = blockchainQueries.latestBlock();
+    }
+    return latestBlock;
+  }
+
+  public Optional<BlockHeader> getOmmer(final Hash blockHeaderHash, final int index) {
+    return blockBody(blockHeaderHash)
+        .map(
+            body -> {
+              final List<BlockHeader> ommers = body.getOmmers();
+              return index < ommers.size() ? ommers.get(index) : null;
+            });
+  }
+
+  public Optional<TransactionWithMetadata> transactionByHash(final Hash transactionHash) {
+    return memoize(transactions, transactionHash, blockchainQueries::transactionByHash);
+  }
+
+  public Optional<TransactionReceiptWithMetadata> transactionReceiptByTransactionHash(
+      final Hash transactionHash) {
+    return memoize(locations, transactionHash, blockchainQueries::transactionLocationByHash)
+        .flatMap(
+            location ->
+                memoize(receiptsByBlock, location.getBlockHash(), this::loadReceipts)
+                    .map(receipts -> receipts.get(location.getTransactionIndex())));
+  }
+
+  public Optional<MutableWorldState> getWorldState(final long blockNumber) {
+    return memoize(worldStates, blockNumber, blockchainQueries::getWorldState);
+  }
+
+  private Optional<List<TransactionReceiptWithMetadata>> loadReceipts(final Hash blockHash) {
+    final Optional<BlockHeader> header = blockchainQueries.getBlockHeaderByHash(blockHash);
+    final Optional<BlockBody> body = blockBody(blockHash);
+    final Optional<List<TransactionReceipt>> receipts =
+        blockchainQueries.getBlockchain().getTxReceipts(blockHash);
+    if (header.isEmpty() || body.isEmpty() || receipts.isEmpty()) {
+      return Optional.empty();
+    }
+
+    final long blockNumber = header.get().getNumber();
+    final List<Transaction> blockTransactions = body.get().getTransactions();
+    final List<TransactionReceipt> blockReceipts = receipts.get();
+    final List<TransactionReceiptWithMetadata> result = new ArrayList<>(blockReceipts.size());
+    long previousCumulativeGasUsed = 0;
+    for (int i = 0; i < blockReceipts.size(); i++) {
+      final TransactionReceipt receipt = blockReceipts.get(i);
+      final Transaction transaction = blockTransactions.get(i);
+      result.add(
+          TransactionReceiptWithMetadata.create(
+              receipt,
+              transaction,
+              transaction.getHash(),
+              i,
+              receipt.getCumulativeGasUsed() - previousCumulativeGasUsed,
+              blockHash,
+              blockNumber));
+      previousCumulativeGasUsed = receipt.getCumulativeGasUsed();
+    }
+    return Optional.of(result);
+  }
+
+  private Optional<BlockBody> blockBody(final Hash blockHeaderHash) {
+    return memoize(
+        bodies, blockHeaderHash, hash -> blockchainQueries.getBlockchain().getBlockBody(hash));
+  }
+
+  // Loaders may read through other caches of this instance, so computeIfAbsent can't be used.
+  private static <K, V> V memoize(
+      final Map<K, V> cache, final K key, final Function<? super K, V> loader) {
+    final V cached = cache.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    final V loaded = loader.apply(key);
+    cache.put(key, loaded);
+    return loaded;
+  }
+}
@@ -27,6 +27,15 @@ public interface GraphQLDataFetcherContext {
 
   BlockchainQueries getBlockchainQueries();
 
+  /**
+   * Blockchain queries memoized for the lifetime of this context, which is created per request.
+   *
+   * @return the memoizing queries
+   */
+  default CachingBlockchainQueries getCachingBlockchainQueries() {
+    return new CachingBlockchainQueries(getBlockchainQueries());
+  }
+
   MiningCoordinator getMiningCoordinator();
 
   Synchronizer getSynchronizer();
@@ -24,6 +24,7 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 public class GraphQLDataFetcherContextImpl implements GraphQLDataFetcherContext {
 
   private final BlockchainQueries blockchainQueries;
+  private final CachingBlockchainQueries cachingBlockchainQueries;
   private final MiningCoordinator miningCoordinator;
   private final Synchronizer synchronizer;
   private final ProtocolSchedule protocolSchedule;
@@ -64,6 +65,7 @@ public class GraphQLDataFetcherContextImpl implements GraphQLDataFetcherContext
       final Synchronizer synchronizer,
       final IsAliveHandler isAliveHandler) {
     this.blockchainQueries = blockchainQueries;
+    this.cachingBlockchainQueries = new CachingBlockchainQueries(blockchainQueries);
     this.protocolSchedule = protocolSchedule;
     this.miningCoordinator = miningCoordinator;
     this.synchronizer = synchronizer;
@@ -81,6 +83,11 @@ public class GraphQLDataFetcherContextImpl implements GraphQLDataFetcherContext
     return blockchainQueries;
   }
 
+  @Override
+  public CachingBlockchainQueries getCachingBlockchainQueries() {
+    return cachingBlockchainQueries;
+  }
+
   @Override
   public MiningCoordinator getMiningCoordinator() {
     return miningCoordinator;
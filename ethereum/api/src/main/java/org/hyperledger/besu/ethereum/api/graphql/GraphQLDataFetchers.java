@@ -125,8 +125,9 @@ public class GraphQLDataFetchers {
   DataFetcher<List<NormalBlockAdapter>> getRangeBlockDataFetcher() {
 
     return dataFetchingEnvironment -> {
-      final BlockchainQueries blockchainQuery =
-          ((GraphQLDataFetcherContext) dataFetchingEnvironment.getContext()).getBlockchainQueries();
+      final GraphQLDataFetcherContext dataFetcherContext = dataFetchingEnvironment.getContext();
+      final CachingBlockchainQueries blockchainQuery =
+          dataFetcherContext.getCachingBlockchainQueries();
 
       final long from = dataFetchingEnvironment.getArgument("from");
       final long to;
@@ -135,7 +136,7 @@ public class GraphQLDataFetchers {
       } else {
         to = blockchainQuery.latestBlock().map(block -> block.getHeader().getNumber()).orElse(0L);
       }
-      if (from > to) {
+      if (from > to || to - from >= GraphQLProvider.MAX_COMPLEXITY) {
         throw new GraphQLException(GraphQLError.INVALID_PARAMS);
       }
 
@@ -152,8 +153,8 @@ public class GraphQLDataFetchers {
   public DataFetcher<Optional<NormalBlockAdapter>> getBlockDataFetcher() {
 
     return dataFetchingEnvironment -> {
-      final BlockchainQueries blockchain =
-          ((GraphQLDataFetcherContext) dataFetchingEnvironment.getContext()).getBlockchainQueries();
+      final GraphQLDataFetcherContext dataFetcherContext = dataFetchingEnvironment.getContext();
+      final CachingBlockchainQueries blockchain = dataFetcherContext.getCachingBlockchainQueries();
       final Long number = dataFetchingEnvironment.getArgument("number");
       final Bytes32 hash = dataFetchingEnvironment.getArgument("hash");
       if ((number != null) && (hash != null)) {
@@ -176,8 +177,9 @@ public class GraphQLDataFetchers {
 
   DataFetcher<Optional<AccountAdapter>> getAccountDataFetcher() {
     return dataFetchingEnvironment -> {
-      final BlockchainQueries blockchainQuery =
-          ((GraphQLDataFetcherContext) dataFetchingEnvironment.getContext()).getBlockchainQueries();
+      final GraphQLDataFetcherContext dataFetcherContext = dataFetchingEnvironment.getContext();
+      final CachingBlockchainQueries blockchainQuery =
+          dataFetcherContext.getCachingBlockchainQueries();
       final Address addr = dataFetchingEnvironment.getArgument("address");
       final Long bn = dataFetchingEnvironment.getArgument("blockNumber");
       if (bn != null) {
@@ -187,7 +189,7 @@ public class GraphQLDataFetchers {
           Preconditions.checkArgument(
               account != null, "Account with address %s does not exist", addr);
           return Optional.of(new AccountAdapter(account));
-        } else if (bn > blockchainQuery.getBlockchain().getChainHeadBlockNumber()) {
+        } else if (bn > dataFetcherContext.getBlockchainQueries().headBlockNumber()) {
           // block is past chainhead
           throw new GraphQLException(GraphQLError.INVALID_PARAMS);
         } else {
@@ -251,8 +253,8 @@ public class GraphQLDataFetchers {
 
   DataFetcher<Optional<TransactionAdapter>> getTransactionDataFetcher() {
     return dataFetchingEnvironment -> {
-      final BlockchainQueries blockchain =
-          ((GraphQLDataFetcherContext) dataFetchingEnvironment.getContext()).getBlockchainQueries();
+      final GraphQLDataFetcherContext dataFetcherContext = dataFetchingEnvironment.getContext();
+      final CachingBlockchainQueries blockchain = dataFetcherContext.getCachingBlockchainQueries();
       final Bytes32 hash = dataFetchingEnvironment.getArgument("hash");
       final Optional<TransactionWithMetadata> tran = blockchain.transactionByHash(Hash.wrap(hash));
       return tran.map(TransactionAdapter::new);
@@ -18,12 +18,16 @@ import org.hyperledger.besu.ethereum.api.graphql.internal.Scalars;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.List;
+import java.util.function.LongSupplier;
 
 import com.google.common.base.Charsets;
 import com.google.common.io.Resources;
 import graphql.GraphQL;
 import graphql.analysis.FieldComplexityEnvironment;
 import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.execution.instrumentation.ChainedInstrumentation;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.SchemaGenerator;
@@ -34,18 +38,26 @@ import graphql.schema.idl.TypeRuntimeWiring;
 public class GraphQLProvider {
 
   public static final int MAX_COMPLEXITY = 200;
+  public static final int MAX_DEPTH = 16;
 
   private GraphQLProvider() {}
 
-  public static GraphQL buildGraphQL(final GraphQLDataFetchers graphQLDataFetchers)
+  public static GraphQL buildGraphQL(
+      final GraphQLDataFetchers graphQLDataFetchers, final LongSupplier chainHeadBlockNumber)
       throws IOException {
     final URL url = Resources.getResource("schema.graphqls");
     final String sdl = Resources.toString(url, Charsets.UTF_8);
     final GraphQLSchema graphQLSchema = buildSchema(sdl, graphQLDataFetchers);
     return GraphQL.newGraphQL(graphQLSchema)
         .instrumentation(
-            new MaxQueryComplexityInstrumentation(
-                MAX_COMPLEXITY, GraphQLProvider::calculateFieldCost))
+            new ChainedInstrumentation(
+                List.of(
+                    new MaxQueryDepthInstrumentation(MAX_DEPTH),
+                    new MaxQueryComplexityInstrumentation(
+                        MAX_COMPLEXITY,
+                        (environment, childComplexity) ->
+                            calculateFieldCost(
+                                environment, childComplexity, chainHeadBlockNumber)))))
         .build();
   }
 
@@ -84,11 +96,17 @@ public class GraphQLProvider {
   }
 
   private static int calculateFieldCost(
-      final FieldComplexityEnvironment environment, final int childComplexity) {
+      final FieldComplexityEnvironment environment,
+      final int childComplexity,
+      final LongSupplier chainHeadBlockNumber) {
     final String childTypeName = environment.getParentType().getName();
     final String fieldName = environment.getField().getName();
 
-    if (childTypeName.equals("Transaction") && fieldName.equals("block")) {
+    if (childTypeName.equals("Query") && fieldName.equals("blocks")) {
+      return blockRangeSize(environment, chainHeadBlockNumber) * childComplexity + 1;
+    } else if (childTypeName.equals("Transaction") && fieldName.equals("block")) {
+      return childComplexity + 100;
+    } else if (childTypeName.equals("Block") && fieldName.equals("parent")) {
       return childComplexity + 100;
     } else if (childTypeName.equals("__Type") && fieldName.equals("fields")) {
       return childComplexity + 100;
@@ -96,4 +114,22 @@ public class GraphQLProvider {
       return childComplexity + 1;
     }
   }
+
+  // Open ranges end at the chain head as the query is validated, the range fetcher rejects those
+  // that have grown past the limit since. Ranges wider than the limit are clamped to keep the cost
+  // in range.
+  private static int blockRangeSize(
+      final FieldComplexityEnvironment environment, final LongSupplier chainHeadBlockNumber) {
+    final Object from = environment.getArguments().get("from");
+    final Object to = environment.getArguments().get("to");
+    if (!(from instanceof Long)) {
+      return 1;
+    }
+    final long last = to instanceof Long ? (Long) to : chainHeadBlockNumber.getAsLong();
+    if (last < (Long) from) {
+      return 1;
+    }
+    final long size = last - (Long) from + 1;
+    return size <= 0 || size > MAX_COMPLEXITY ? MAX_COMPLEXITY + 1 : (int) size;
+  }
 }
@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.api.graphql.internal.pojoadapter;
 
+import org.hyperledger.besu.ethereum.api.graphql.CachingBlockchainQueries;
 import org.hyperledger.besu.ethereum.api.graphql.GraphQLDataFetcherContext;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
 
@@ -23,4 +24,8 @@ abstract class AdapterBase {
   BlockchainQueries getBlockchainQueries(final DataFetchingEnvironment environment) {
     return ((GraphQLDataFetcherContext) environment.getContext()).getBlockchainQueries();
   }
+
+  CachingBlockchainQueries getCachingBlockchainQueries(final DataFetchingEnvironment environment) {
+    return ((GraphQLDataFetcherContext) environment.getContext()).getCachingBlockchainQueries();
+  }
 }
@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.api.graphql.internal.pojoadapter;
 
+import org.hyperledger.besu.ethereum.api.graphql.CachingBlockchainQueries;
 import org.hyperledger.besu.ethereum.api.graphql.GraphQLDataFetcherContext;
 import org.hyperledger.besu.ethereum.api.query.BlockWithMetadata;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
@@ -54,7 +55,7 @@ public class BlockAdapterBase extends AdapterBase {
   }
 
   public Optional<NormalBlockAdapter> getParent(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final CachingBlockchainQueries query = getCachingBlockchainQueries(environment);
     final Hash parentHash = header.getParentHash();
     final Optional<BlockWithMetadata<TransactionWithMetadata, Hash>> block =
         query.blockByHash(parentHash);
@@ -85,7 +86,7 @@ public class BlockAdapterBase extends AdapterBase {
 
   public Optional<AdapterBase> getMiner(final DataFetchingEnvironment environment) {
 
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final CachingBlockchainQueries query = getCachingBlockchainQueries(environment);
     long blockNumber = header.getNumber();
     final Long bn = environment.getArgument("block");
     if (bn != null) {
@@ -136,7 +137,7 @@ public class BlockAdapterBase extends AdapterBase {
 
   public Optional<AccountAdapter> getAccount(final DataFetchingEnvironment environment) {
 
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final CachingBlockchainQueries query = getCachingBlockchainQueries(environment);
     final long bn = header.getNumber();
     final WorldState ws = query.getWorldState(bn).get();
 
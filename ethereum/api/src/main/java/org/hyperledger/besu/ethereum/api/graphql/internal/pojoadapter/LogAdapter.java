@@ -14,7 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.api.graphql.internal.pojoadapter;
 
-import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
+import org.hyperledger.besu.ethereum.api.graphql.CachingBlockchainQueries;
 import org.hyperledger.besu.ethereum.api.query.TransactionWithMetadata;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.LogTopic;
@@ -49,14 +49,14 @@ public class LogAdapter extends AdapterBase {
   }
 
   public Optional<TransactionAdapter> getTransaction(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final CachingBlockchainQueries query = getCachingBlockchainQueries(environment);
     final Hash hash = logWithMetadata.getTransactionHash();
     final Optional<TransactionWithMetadata> tran = query.transactionByHash(hash);
     return tran.map(TransactionAdapter::new);
   }
 
   public Optional<AccountAdapter> getAccount(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final CachingBlockchainQueries query = getCachingBlockchainQueries(environment);
     long blockNumber = logWithMetadata.getBlockNumber();
     final Long bn = environment.getArgument("block");
     if (bn != null) {
@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.api.graphql.internal.pojoadapter;
 
+import org.hyperledger.besu.ethereum.api.graphql.CachingBlockchainQueries;
 import org.hyperledger.besu.ethereum.api.graphql.GraphQLDataFetcherContext;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
 import org.hyperledger.besu.ethereum.api.query.TransactionWithMetadata;
@@ -60,8 +61,8 @@ public class PendingStateAdapter extends AdapterBase {
   // speculative environment, so estimate against latest.
   public Optional<AccountAdapter> getAccount(
       final DataFetchingEnvironment dataFetchingEnvironment) {
-    final BlockchainQueries blockchainQuery =
-        ((GraphQLDataFetcherContext) dataFetchingEnvironment.getContext()).getBlockchainQueries();
+    final CachingBlockchainQueries blockchainQuery =
+        getCachingBlockchainQueries(dataFetchingEnvironment);
     final Address addr = dataFetchingEnvironment.getArgument("address");
     final Long blockNumber = dataFetchingEnvironment.getArgument("blockNumber");
     final long latestBlockNumber = blockchainQuery.latestBlock().get().getHeader().getNumber();
@@ -14,7 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.api.graphql.internal.pojoadapter;
 
-import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
+import org.hyperledger.besu.ethereum.api.graphql.CachingBlockchainQueries;
 import org.hyperledger.besu.ethereum.api.query.TransactionReceiptWithMetadata;
 import org.hyperledger.besu.ethereum.api.query.TransactionWithMetadata;
 import org.hyperledger.besu.ethereum.core.Address;
@@ -54,7 +54,7 @@ public class TransactionAdapter extends AdapterBase {
   }
 
   public Optional<AccountAdapter> getFrom(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final CachingBlockchainQueries query = getCachingBlockchainQueries(environment);
     final Optional<Long> txBlockNumber = transactionWithMetadata.getBlockNumber();
     final Optional<Long> bn = Optional.ofNullable(environment.getArgument("block"));
     if (!txBlockNumber.isPresent() && !bn.isPresent()) {
@@ -69,7 +69,7 @@ public class TransactionAdapter extends AdapterBase {
   }
 
   public Optional<AccountAdapter> getTo(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final CachingBlockchainQueries query = getCachingBlockchainQueries(environment);
     final Optional<Long> txBlockNumber = transactionWithMetadata.getBlockNumber();
     final Optional<Long> bn = Optional.ofNullable(environment.getArgument("block"));
     if (!txBlockNumber.isPresent() && !bn.isPresent()) {
@@ -105,14 +105,16 @@ public class TransactionAdapter extends AdapterBase {
   public Optional<NormalBlockAdapter> getBlock(final DataFetchingEnvironment environment) {
     return transactionWithMetadata
         .getBlockHash()
-        .flatMap(blockHash -> getBlockchainQueries(environment).blockByHash(blockHash))
+        .flatMap(blockHash -> getCachingBlockchainQueries(environment).blockByHash(blockHash))
         .map(NormalBlockAdapter::new);
   }
 
   public Optional<Long> getStatus(final DataFetchingEnvironment environment) {
     return Optional.ofNullable(transactionWithMetadata.getTransaction())
         .map(Transaction::getHash)
-        .flatMap(rpt -> getBlockchainQueries(environment).transactionReceiptByTransactionHash(rpt))
+        .flatMap(
+            rpt ->
+                getCachingBlockchainQueries(environment).transactionReceiptByTransactionHash(rpt))
         .map(TransactionReceiptWithMetadata::getReceipt)
         .flatMap(
             receipt ->
@@ -122,7 +124,7 @@ public class TransactionAdapter extends AdapterBase {
   }
 
   public Optional<Long> getGasUsed(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final CachingBlockchainQueries query = getCachingBlockchainQueries(environment);
     final Optional<TransactionReceiptWithMetadata> rpt =
         query.transactionReceiptByTransactionHash(
             transactionWithMetadata.getTransaction().getHash());
@@ -130,7 +132,7 @@ public class TransactionAdapter extends AdapterBase {
   }
 
   public Optional<Long> getCumulativeGasUsed(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final CachingBlockchainQueries query = getCachingBlockchainQueries(environment);
     final Optional<TransactionReceiptWithMetadata> rpt =
         query.transactionReceiptByTransactionHash(
             transactionWithMetadata.getTransaction().getHash());
@@ -147,7 +149,7 @@ public class TransactionAdapter extends AdapterBase {
       final Optional<Address> addr = transactionWithMetadata.getTransaction().getTo();
 
       if (addr.isPresent()) {
-        final BlockchainQueries query = getBlockchainQueries(environment);
+        final CachingBlockchainQueries query = getCachingBlockchainQueries(environment);
         final Optional<Long> txBlockNumber = transactionWithMetadata.getBlockNumber();
         final Optional<Long> bn = Optional.ofNullable(environment.getArgument("block"));
         if (!txBlockNumber.isPresent() && !bn.isPresent()) {
@@ -165,7 +167,7 @@ public class TransactionAdapter extends AdapterBase {
   }
 
   public List<LogAdapter> getLogs(final DataFetchingEnvironment environment) {
-    final BlockchainQueries query = getBlockchainQueries(environment);
+    final CachingBlockchainQueries query = getCachingBlockchainQueries(environment);
     final Hash hash = transactionWithMetadata.getTransaction().getHash();
     final Optional<TransactionReceiptWithMetadata> maybeTransactionReceiptWithMetadata =
         query.transactionReceiptByTransactionHash(hash);
@@ -0,0 +1,100 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+
+/**
+ * Writes to a chunked HTTP response from a worker thread, blocking while the response's write queue
+ * is full so that a slow client bounds the amount of buffered output rather than the producer.
+ */
+class ChunkedResponseOutputStream extends OutputStream {
+
+  private static final int CHUNK_SIZE = 64 * 1024;
+  private static final long DRAIN_POLL_MILLIS = 1_000;
+
+  private final HttpServerResponse response;
+  private Buffer chunk = Buffer.buffer(CHUNK_SIZE);
+
+  ChunkedResponseOutputStream(final HttpServerResponse response) {
+    this.response = response;
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    chunk.appendByte((byte) b);
+    if (chunk.length() >= CHUNK_SIZE) {
+      writeChunk();
+    }
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    chunk.appendBytes(b, off, len);
+    if (chunk.length() >= CHUNK_SIZE) {
+      writeChunk();
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (chunk.length() > 0) {
+      writeChunk();
+    }
+  }
+
+  private void writeChunk() throws IOException {
+    awaitWritable();
+    response.write(chunk);
+    chunk = Buffer.buffer(CHUNK_SIZE);
+  }
+
+  private void awaitWritable() throws IOException {
+    while (true) {
+      if (response.closed()) {
+        throw new IOException("Connection closed while streaming response");
+      }
+      if (!response.writeQueueFull()) {
+        return;
+      }
+      final CompletableFuture<Void> drained = new CompletableFuture<>();
+      response.drainHandler(v -> drained.complete(null));
+      // The queue may have drained before the handler was registered.
+      if (!response.writeQueueFull()) {
+        continue;
+      }
+      try {
+        // Poll so a connection closed while waiting is noticed.
+        drained.get(DRAIN_POLL_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (final TimeoutException e) {
+        // check the connection again
+      } catch (final ExecutionException e) {
+        throw new IOException(e.getCause());
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while streaming response");
+      }
+    }
+  }
+}
@@ -35,6 +35,7 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcErrorR
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcNoResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponseType;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcStreamedSuccessResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcUnauthorizedResponse;
 import org.hyperledger.besu.ethereum.api.tls.TlsClientAuthConfiguration;
 import org.hyperledger.besu.ethereum.api.tls.TlsConfiguration;
@@ -50,6 +51,7 @@ import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 import org.hyperledger.besu.util.ExceptionUtils;
 import org.hyperledger.besu.util.NetworkUtility;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
 import java.nio.file.Path;
@@ -59,6 +61,8 @@ import java.util.Optional;
 import java.util.StringJoiner;
 import java.util.concurrent.CompletableFuture;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Iterables;
@@ -77,6 +81,7 @@ import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.DatabindCodec;
 import io.vertx.core.net.PfxOptions;
 import io.vertx.ext.auth.User;
 import io.vertx.ext.web.Router;
@@ -93,6 +98,8 @@ public class JsonRpcHttpService {
   private static final InetSocketAddress EMPTY_SOCKET_ADDRESS = new InetSocketAddress("0.0.0.0", 0);
   private static final String APPLICATION_JSON = "application/json";
   private static final JsonRpcResponse NO_RESPONSE = new JsonRpcNoResponse();
+  private static final ObjectWriter STREAMING_WRITER =
+      DatabindCodec.mapper().writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
   private static final String EMPTY_RESPONSE = "";
 
   private final Vertx vertx;
@@ -471,7 +478,12 @@ public class JsonRpcHttpService {
     vertx.executeBlocking(
         future -> {
           final JsonRpcResponse jsonRpcResponse = process(routingContext, request, user);
-          future.complete(jsonRpcResponse);
+          if (jsonRpcResponse instanceof JsonRpcStreamedSuccessResponse) {
+            future.complete(
+                streamResponse(response, (JsonRpcStreamedSuccessResponse) jsonRpcResponse));
+          } else {
+            future.complete(jsonRpcResponse);
+          }
         },
         false,
         (res) -> {
@@ -491,6 +503,37 @@ public class JsonRpcHttpService {
         });
   }
 
+  // Runs on the worker thread, which computes the result while it is written to the client.
+  // Returns the response to send instead if streaming failed before anything was sent.
+  private JsonRpcResponse streamResponse(
+      final HttpServerResponse response, final JsonRpcStreamedSuccessResponse jsonRpcResponse) {
+    if (response.closed()) {
+      return jsonRpcResponse;
+    }
+    response
+        .setStatusCode(status(jsonRpcResponse).code())
+        .putHeader("Content-Type", APPLICATION_JSON)
+        .setChunked(true);
+    final ChunkedResponseOutputStream output = new ChunkedResponseOutputStream(response);
+    try {
+      STREAMING_WRITER.writeValue(output, jsonRpcResponse);
+      output.flush();
+      response.end();
+    } catch (final IOException | RuntimeException e) {
+      LOG.debug("Failed to stream JSON-RPC response", e);
+      if (!response.closed() && !response.headWritten()) {
+        // Nothing has been sent yet, so the client gets an error response as usual.
+        response.setChunked(false);
+        return errorResponse(jsonRpcResponse.getId(), JsonRpcError.INTERNAL_ERROR);
+      }
+      // Part of a successful response has been sent, so all that can be done is to cut it short.
+      if (!response.closed()) {
+        response.close();
+      }
+    }
+    return jsonRpcResponse;
+  }
+
   private HttpResponseStatus status(final JsonRpcResponse response) {
 
     switch (response.getType()) {
@@ -16,7 +16,6 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.internal.filter;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.Collections.emptyList;
-import static java.util.stream.Collectors.toUnmodifiableList;
 
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.BlockParameter;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
@@ -32,7 +31,9 @@ import org.hyperledger.besu.ethereum.privacy.PrivateTransactionObserver;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -172,34 +173,38 @@ public class FilterManager extends AbstractVerticle implements PrivateTransactio
     removalEvents.stream().forEach(removalEvent -> processRemovalEvent(removalEvent));
     removalEvents.clear();
 
-    final List<LogWithMetadata> logsWithMetadata = event.getLogsWithMetadata();
-    filterRepository.getFiltersOfType(LogFilter.class).stream()
-        .filter(
-            // Only keep filters where the "to" block could include the block in the event
-            filter -> {
-              final Optional<Long> maybeToBlockNumber = filter.getToBlock().getNumber();
-              return maybeToBlockNumber.isEmpty()
-                  || maybeToBlockNumber.get() >= event.getBlock().getHeader().getNumber();
-            })
-        .forEach(
-            filter -> {
-              final LogsQuery logsQuery = filter.getLogsQuery();
-              filter.addLogs(
-                  // We need to use privacy queries for private log filters but for regular
-                  // log filters we already have all the info in the event
-                  filter instanceof PrivateLogFilter
-                      ? privacyQueries
-                          .map(
-                              pq ->
-                                  pq.matchingLogs(
-                                      ((PrivateLogFilter) filter).getPrivacyGroupId(),
-                                      blockHash,
-                                      logsQuery))
-                          .orElse(emptyList())
-                      : logsWithMetadata.stream()
-                          .filter(logsQuery::matches)
-                          .collect(toUnmodifiableList()));
-            });
+    final long blockNumber = event.getBlock().getHeader().getNumber();
+    // Look up the filters matching each log in the index and group the logs by filter, keeping
+    // their order within the block
+    final Map<LogFilter, List<LogWithMetadata>> logsByFilter = new LinkedHashMap<>();
+    for (final LogWithMetadata logWithMetadata : event.getLogsWithMetadata()) {
+      for (final LogFilter filter : filterRepository.getLogFiltersMatching(logWithMetadata)) {
+        logsByFilter.computeIfAbsent(filter, f -> new ArrayList<>()).add(logWithMetadata);
+      }
+    }
+    logsByFilter.forEach(
+        (filter, logs) -> {
+          if (couldIncludeBlock(filter, blockNumber)) {
+            filter.addLogs(logs);
+          }
+        });
+
+    // We need to use privacy queries for private log filters
+    privacyQueries.ifPresent(
+        pq ->
+            filterRepository.getFiltersOfType(PrivateLogFilter.class).stream()
+                .filter(filter -> couldIncludeBlock(filter, blockNumber))
+                .forEach(
+                    filter ->
+                        filter.addLogs(
+                            pq.matchingLogs(
+                                filter.getPrivacyGroupId(), blockHash, filter.getLogsQuery()))));
+  }
+
+  // Only keep filters where the "to" block could include the block in the event
+  private static boolean couldIncludeBlock(final LogFilter filter, final long blockNumber) {
+    final Optional<Long> maybeToBlockNumber = filter.getToBlock().getNumber();
+    return maybeToBlockNumber.isEmpty() || maybeToBlockNumber.get() >= blockNumber;
   }
 
   @Override
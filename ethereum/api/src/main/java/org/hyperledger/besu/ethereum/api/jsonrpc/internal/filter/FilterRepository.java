@@ -14,8 +14,12 @@
  */
 package org.hyperledger.besu.ethereum.api.jsonrpc.internal.filter;
 
+import org.hyperledger.besu.ethereum.api.query.LogsQueryIndex;
+import org.hyperledger.besu.ethereum.core.Log;
+
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -25,6 +29,8 @@ import java.util.stream.Stream;
 public class FilterRepository {
 
   private final Map<String, Filter> filters = new ConcurrentHashMap<>();
+  // Private log filters are matched by querying the private state, so only public ones are indexed
+  private final LogsQueryIndex<LogFilter> logFilters = new LogsQueryIndex<>();
 
   public FilterRepository() {}
 
@@ -57,6 +63,16 @@ public class FilterRepository {
     return Optional.of((T) filter);
   }
 
+  /**
+   * Returns the public log filters whose query matches a log.
+   *
+   * @param log the log
+   * @return the matching log filters, excluding private log filters
+   */
+  List<LogFilter> getLogFiltersMatching(final Log log) {
+    return logFilters.matching(log);
+  }
+
   boolean exists(final String id) {
     return filters.containsKey(id);
   }
@@ -72,13 +88,24 @@ public class FilterRepository {
     }
 
     filters.put(filter.getId(), filter);
+    if (isIndexed(filter)) {
+      logFilters.put((LogFilter) filter, ((LogFilter) filter).getLogsQuery());
+    }
   }
 
   void delete(final String id) {
-    filters.remove(id);
+    final Filter removed = filters.remove(id);
+    if (isIndexed(removed)) {
+      logFilters.remove((LogFilter) removed);
+    }
   }
 
   void deleteAll() {
     filters.clear();
+    logFilters.clear();
+  }
+
+  private static boolean isIndexed(final Filter filter) {
+    return filter instanceof LogFilter && !(filter instanceof PrivateLogFilter);
   }
 }
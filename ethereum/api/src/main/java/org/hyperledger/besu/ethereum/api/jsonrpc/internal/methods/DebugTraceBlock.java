@@ -19,9 +19,11 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.TransactionTraceParams;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.BlockTrace;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.BlockTracer;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.StreamingStructLogTracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcError;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcErrorResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcStreamedSuccessResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.DebugTraceTransactionResult;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
@@ -30,11 +32,14 @@ import org.hyperledger.besu.ethereum.core.BlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.debug.TraceOptions;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.rlp.RLPException;
-import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.Optional;
 import java.util.function.Supplier;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.tuweni.bytes.Bytes;
@@ -71,17 +76,21 @@ public class DebugTraceBlock implements JsonRpcMethod {
       return new JsonRpcErrorResponse(
           requestContext.getRequest().getId(), JsonRpcError.INVALID_PARAMS);
     }
+    final Optional<TransactionTraceParams> traceParams =
+        requestContext.getOptionalParameter(1, TransactionTraceParams.class);
     final TraceOptions traceOptions =
-        requestContext
-            .getOptionalParameter(1, TransactionTraceParams.class)
-            .map(TransactionTraceParams::traceOptions)
-            .orElse(TraceOptions.DEFAULT);
+        traceParams.map(TransactionTraceParams::traceOptions).orElse(TraceOptions.DEFAULT);
 
     if (this.blockchain.blockByHash(block.getHeader().getParentHash()).isPresent()) {
+      if (traceParams.map(TransactionTraceParams::isStreaming).orElse(false)) {
+        return new JsonRpcStreamedSuccessResponse(
+            requestContext.getRequest().getId(),
+            generator -> streamDebugTraceBlockResult(block, traceOptions, generator));
+      }
       final Collection<DebugTraceTransactionResult> results =
           blockTracerSupplier
               .get()
-              .trace(block, new DebugOperationTracer(traceOptions))
+              .traceInParallel(block, traceOptions)
               .map(BlockTrace::getTransactionTraces)
               .map(DebugTraceTransactionResult::of)
               .orElse(null);
@@ -91,4 +100,18 @@ public class DebugTraceBlock implements JsonRpcMethod {
           requestContext.getRequest().getId(), JsonRpcError.PARENT_BLOCK_NOT_FOUND);
     }
   }
+
+  private void streamDebugTraceBlockResult(
+      final Block block, final TraceOptions traceOptions, final JsonGenerator generator)
+      throws IOException {
+    final StreamingStructLogTracer tracer = new StreamingStructLogTracer(traceOptions, generator);
+    // The parent state was checked beforehand, so the array is opened before replaying the block.
+    generator.writeStartArray();
+    try {
+      blockTracerSupplier.get().stream(block, tracer);
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+    generator.writeEndArray();
+  }
 }
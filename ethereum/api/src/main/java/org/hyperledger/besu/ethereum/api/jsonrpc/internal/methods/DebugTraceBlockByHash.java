@@ -24,7 +24,6 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSucces
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.DebugTraceTransactionResult;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.debug.TraceOptions;
-import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
 
 import java.util.Collection;
 import java.util.function.Supplier;
@@ -54,7 +53,7 @@ public class DebugTraceBlockByHash implements JsonRpcMethod {
     final Collection<DebugTraceTransactionResult> results =
         blockTracerSupplier
             .get()
-            .trace(blockHash, new DebugOperationTracer(traceOptions))
+            .traceInParallel(blockHash, traceOptions)
             .map(BlockTrace::getTransactionTraces)
             .map(DebugTraceTransactionResult::of)
             .orElse(null);
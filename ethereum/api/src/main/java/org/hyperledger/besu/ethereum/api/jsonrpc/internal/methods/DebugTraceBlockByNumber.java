@@ -24,7 +24,6 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.DebugTraceTran
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.debug.TraceOptions;
-import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
 
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -64,7 +63,7 @@ public class DebugTraceBlockByNumber extends AbstractBlockParameterMethod {
             hash ->
                 blockTracerSupplier
                     .get()
-                    .trace(hash, new DebugOperationTracer(traceOptions))
+                    .traceInParallel(hash, traceOptions)
                     .map(BlockTrace::getTransactionTraces)
                     .map(DebugTraceTransactionResult::of))
         .orElse(null);
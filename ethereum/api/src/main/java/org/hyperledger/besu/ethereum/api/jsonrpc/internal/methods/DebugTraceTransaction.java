@@ -17,8 +17,10 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods;
 import org.hyperledger.besu.ethereum.api.jsonrpc.RpcMethod;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.TransactionTraceParams;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.StreamingStructLogTracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.TransactionTracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcStreamedSuccessResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.DebugTraceTransactionResult;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
@@ -27,8 +29,12 @@ import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.debug.TraceOptions;
 import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Optional;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+
 public class DebugTraceTransaction implements JsonRpcMethod {
 
   private final TransactionTracer transactionTracer;
@@ -51,11 +57,17 @@ public class DebugTraceTransaction implements JsonRpcMethod {
     final Optional<TransactionWithMetadata> transactionWithMetadata =
         blockchain.transactionByHash(hash);
     if (transactionWithMetadata.isPresent()) {
+      final Optional<TransactionTraceParams> traceParams =
+          requestContext.getOptionalParameter(1, TransactionTraceParams.class);
       final TraceOptions traceOptions =
-          requestContext
-              .getOptionalParameter(1, TransactionTraceParams.class)
-              .map(TransactionTraceParams::traceOptions)
-              .orElse(TraceOptions.DEFAULT);
+          traceParams.map(TransactionTraceParams::traceOptions).orElse(TraceOptions.DEFAULT);
+      if (traceParams.map(TransactionTraceParams::isStreaming).orElse(false)) {
+        final Hash blockHash = transactionWithMetadata.get().getBlockHash().get();
+        return new JsonRpcStreamedSuccessResponse(
+            requestContext.getRequest().getId(),
+            generator ->
+                streamDebugTraceTransactionResult(blockHash, hash, traceOptions, generator));
+      }
       final DebugTraceTransactionResult debugTraceTransactionResult =
           debugTraceTransactionResult(hash, transactionWithMetadata.get(), traceOptions);
 
@@ -79,4 +91,20 @@ public class DebugTraceTransaction implements JsonRpcMethod {
         .map(DebugTraceTransactionResult::new)
         .orElse(null);
   }
+
+  private void streamDebugTraceTransactionResult(
+      final Hash blockHash,
+      final Hash hash,
+      final TraceOptions traceOptions,
+      final JsonGenerator generator)
+      throws IOException {
+    final StreamingStructLogTracer tracer = new StreamingStructLogTracer(traceOptions, generator);
+    try {
+      if (transactionTracer.streamTransaction(blockHash, hash, tracer).isEmpty()) {
+        generator.writeNull();
+      }
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
 }
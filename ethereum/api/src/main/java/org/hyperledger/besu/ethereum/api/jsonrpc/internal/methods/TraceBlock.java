@@ -26,7 +26,6 @@ import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.debug.TraceOptions;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
-import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
 
 import java.util.List;
 import java.util.function.Supplier;
@@ -83,7 +82,7 @@ public class TraceBlock extends AbstractBlockParameterMethod {
 
     blockTracerSupplier
         .get()
-        .trace(block, new DebugOperationTracer(new TraceOptions(false, false, true)))
+        .traceInParallel(block, new TraceOptions(false, false, true))
         .ifPresent(
             blockTrace ->
                 generateTracesFromTransactionTraceAndBlock(
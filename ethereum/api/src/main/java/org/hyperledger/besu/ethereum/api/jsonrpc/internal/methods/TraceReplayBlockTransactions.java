@@ -36,7 +36,6 @@ import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.debug.TraceOptions;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor.Result;
-import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
 
 import java.util.Arrays;
 import java.util.List;
@@ -106,7 +105,7 @@ public class TraceReplayBlockTransactions extends AbstractBlockParameterMethod {
 
     return blockTracerSupplier
         .get()
-        .trace(block, new DebugOperationTracer(traceOptions))
+        .traceInParallel(block, traceOptions)
         .map(BlockTrace::getTransactionTraces)
         .map((traces) -> generateTracesFromTransactionTrace(traces, block, traceTypes))
         .orElse(null);
@@ -16,7 +16,6 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods;
 
 import org.hyperledger.besu.ethereum.api.jsonrpc.RpcMethod;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
-import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.BlockTrace;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.BlockTracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.TransactionTrace;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
@@ -30,7 +29,6 @@ import org.hyperledger.besu.ethereum.debug.TraceOptions;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
 
-import java.util.Collections;
 import java.util.function.Supplier;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -78,11 +76,12 @@ public class TraceTransaction implements JsonRpcMethod {
       return emptyResult();
     }
     final TransactionTrace transactionTrace =
-        blockTracerSupplier.get()
-            .trace(block, new DebugOperationTracer(new TraceOptions(false, false, true)))
-            .map(BlockTrace::getTransactionTraces).orElse(Collections.emptyList()).stream()
-            .filter(trxTrace -> trxTrace.getTransaction().getHash().equals(transactionHash))
-            .findFirst()
+        blockTracerSupplier
+            .get()
+            .trace(
+                block,
+                transactionHash,
+                new DebugOperationTracer(new TraceOptions(false, false, true)))
             .orElseThrow();
     return generateTracesFromTransactionTraceAndBlock(protocolSchedule, transactionTrace, block);
   }
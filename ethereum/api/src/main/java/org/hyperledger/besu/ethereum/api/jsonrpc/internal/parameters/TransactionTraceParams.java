@@ -26,15 +26,28 @@ public class TransactionTraceParams {
   private final boolean disableStorage;
   private final boolean disableMemory;
   private final boolean disableStack;
+  private final boolean streaming;
 
   @JsonCreator()
   public TransactionTraceParams(
       @JsonProperty("disableStorage") final boolean disableStorage,
       @JsonProperty("disableMemory") final boolean disableMemory,
-      @JsonProperty("disableStack") final boolean disableStack) {
+      @JsonProperty("disableStack") final boolean disableStack,
+      @JsonProperty("streaming") final boolean streaming) {
     this.disableStorage = disableStorage;
     this.disableMemory = disableMemory;
     this.disableStack = disableStack;
+    this.streaming = streaming;
+  }
+
+  /**
+   * Whether struct logs are written to the response as the transaction executes, with memory and
+   * storage delta encoded, instead of being collected before the response is serialized.
+   *
+   * @return true if the trace should be streamed.
+   */
+  public boolean isStreaming() {
+    return streaming;
   }
 
   public TraceOptions traceOptions() {
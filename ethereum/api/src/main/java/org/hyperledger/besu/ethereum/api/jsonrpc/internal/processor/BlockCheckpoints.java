@@ -0,0 +1,141 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor;
+
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.AbstractWorldUpdater.StackedUpdater;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.MutableWorldView;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
+import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
+
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
+
+/**
+ * The world state before each transaction of a block, built by replaying the block's transactions
+ * once, in order, as far as they have been asked for.
+ *
+ * <p>Each checkpoint is an updater stacked on the previous one that only holds the changes made by
+ * a single transaction. Checkpoints are never modified once built, so actions can run against
+ * different checkpoints concurrently as long as they only write to updaters of their own, obtained
+ * from {@link MutableWorldView#updater()}, and never commit those. Checkpoints that have already
+ * been built are returned without waiting for a replay in progress.
+ */
+class BlockCheckpoints {
+
+  private final Block block;
+  private final Blockchain blockchain;
+  private final MutableWorldState parentState;
+  private final TransactionProcessor transactionProcessor;
+  private final Address miningBeneficiary;
+  private final BlockHashLookup blockHashLookup;
+  // The state after each replayed transaction, published by incrementing replayed.
+  private final WorldUpdater[] checkpoints;
+  private volatile int replayed = 0;
+
+  BlockCheckpoints(
+      final Block block,
+      final Blockchain blockchain,
+      final MutableWorldState parentState,
+      final TransactionProcessor transactionProcessor,
+      final Address miningBeneficiary) {
+    this.block = block;
+    this.blockchain = blockchain;
+    this.parentState = parentState;
+    this.transactionProcessor = transactionProcessor;
+    this.miningBeneficiary = miningBeneficiary;
+    this.blockHashLookup = new BlockHashLookup(block.getHeader(), blockchain);
+    this.checkpoints = new WorldUpdater[block.getBody().getTransactions().size()];
+  }
+
+  BlockHeader getHeader() {
+    return block.getHeader();
+  }
+
+  List<Transaction> getTransactions() {
+    return block.getBody().getTransactions();
+  }
+
+  TransactionProcessor getTransactionProcessor() {
+    return transactionProcessor;
+  }
+
+  OptionalInt indexOf(final Hash transactionHash) {
+    final List<Transaction> transactions = getTransactions();
+    return IntStream.range(0, transactions.size())
+        .filter(i -> transactions.get(i).getHash().equals(transactionHash))
+        .findFirst();
+  }
+
+  /**
+   * Returns the world state the transaction at {@code index} executes against, replaying the
+   * transactions before it if they haven't been yet.
+   *
+   * @param index the index of the transaction in the block
+   * @return the world state before the transaction
+   */
+  MutableWorldView stateBefore(final int index) {
+    return index == 0 ? parentState : stateAfter(index - 1);
+  }
+
+  /**
+   * Returns the world state once the transaction at {@code index} has executed, replaying the
+   * transactions up to it if they haven't been yet.
+   *
+   * @param index the index of the transaction in the block
+   * @return the world state after the transaction
+   */
+  MutableWorldView stateAfter(final int index) {
+    if (index < replayed) {
+      return checkpoints[index];
+    }
+    synchronized (this) {
+      while (replayed <= index) {
+        replayNextTransaction();
+      }
+    }
+    return checkpoints[index];
+  }
+
+  private void replayNextTransaction() {
+    final int index = replayed;
+    final WorldUpdater previous = index == 0 ? parentState.updater() : checkpoints[index - 1];
+    final WorldUpdater checkpoint = previous.updater();
+    transactionProcessor.processTransaction(
+        blockchain,
+        checkpoint,
+        block.getHeader(),
+        getTransactions().get(index),
+        miningBeneficiary,
+        blockHashLookup,
+        false,
+        TransactionValidationParams.blockReplay());
+    // Later transactions see this transaction's writes as their original storage values.
+    if (checkpoint instanceof StackedUpdater) {
+      ((StackedUpdater<?, ?>) checkpoint).markTransactionBoundary();
+    }
+    checkpoints[index] = checkpoint;
+    replayed = index + 1;
+  }
+}
@@ -20,52 +20,82 @@ import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.MutableWorldView;
 import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
 import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor;
-import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
-import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Replays the transactions of a block on top of its parent's world state.
+ *
+ * <p>A block is replayed once and the world state before each of its transactions is kept as a
+ * checkpoint, so tracing a transaction doesn't re-execute the ones before it if the block has been
+ * replayed recently, and the transactions of a block can be traced independently of each other.
+ */
 public class BlockReplay {
 
+  private static final int CHECKPOINTED_BLOCKS = 8;
+  private static final Duration CHECKPOINT_EXPIRY = Duration.ofMinutes(1);
+
   private final ProtocolSchedule protocolSchedule;
   private final Blockchain blockchain;
   private final WorldStateArchive worldStateArchive;
+  private final Optional<EthScheduler> scheduler;
+  private final Cache<Hash, BlockCheckpoints> checkpointsByBlockHash =
+      CacheBuilder.newBuilder()
+          .maximumSize(CHECKPOINTED_BLOCKS)
+          .expireAfterAccess(CHECKPOINT_EXPIRY)
+          .build();
 
   public BlockReplay(
       final ProtocolSchedule protocolSchedule,
       final Blockchain blockchain,
       final WorldStateArchive worldStateArchive) {
+    this(protocolSchedule, blockchain, worldStateArchive, Optional.empty());
+  }
+
+  public BlockReplay(
+      final ProtocolSchedule protocolSchedule,
+      final Blockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final Optional<EthScheduler> scheduler) {
     this.protocolSchedule = protocolSchedule;
     this.blockchain = blockchain;
     this.worldStateArchive = worldStateArchive;
+    this.scheduler = scheduler;
   }
 
   public Optional<BlockTrace> block(
       final Block block, final TransactionAction<TransactionTrace> action) {
-    return performActionWithBlock(
-        block.getHeader(),
-        block.getBody(),
-        (body, header, blockchain, mutableWorldState, transactionProcessor) -> {
-          List<TransactionTrace> transactionTraces =
-              body.getTransactions().stream()
-                  .map(
-                      transaction ->
-                          action.performAction(
-                              transaction,
-                              header,
-                              blockchain,
-                              mutableWorldState,
-                              transactionProcessor))
-                  .collect(Collectors.toList());
-          return Optional.of(new BlockTrace(transactionTraces));
-        });
+    return checkpoints(block)
+        .map(
+            checkpoints -> {
+              final List<Transaction> transactions = checkpoints.getTransactions();
+              final List<TransactionTrace> transactionTraces =
+                  new ArrayList<>(transactions.size());
+              for (int i = 0; i < transactions.size(); i++) {
+                transactionTraces.add(performAction(checkpoints, i, action));
+              }
+              return new BlockTrace(transactionTraces);
+            });
   }
 
   public Optional<BlockTrace> block(
@@ -73,71 +103,135 @@ public class BlockReplay {
     return getBlock(blockHash).flatMap(block -> block(block, action));
   }
 
+  /**
+   * Performs an action on every transaction of a block, each transaction getting its own action.
+   *
+   * <p>When a scheduler is available, the block is replayed on the calling thread and the action of
+   * each transaction is scheduled on the computation executor as soon as the transactions before it
+   * have been replayed, so it runs while the rest of the block is still being replayed and
+   * concurrently with the actions of the other transactions. Otherwise the actions run one after
+   * the other on the calling thread.
+   *
+   * @param block the block to replay
+   * @param actionFactory creates the action for each transaction
+   * @return the traces of the transactions, in block order, or empty if the parent state isn't
+   *     available
+   */
+  public Optional<BlockTrace> blockInParallel(
+      final Block block, final Supplier<TransactionAction<TransactionTrace>> actionFactory) {
+    if (scheduler.isEmpty()) {
+      return checkpoints(block)
+          .map(
+              checkpoints ->
+                  new BlockTrace(
+                      IntStream.range(0, checkpoints.getTransactions().size())
+                          .mapToObj(i -> performAction(checkpoints, i, actionFactory.get()))
+                          .collect(Collectors.toList())));
+    }
+    return checkpoints(block)
+        .map(
+            checkpoints -> {
+              final int transactionCount = checkpoints.getTransactions().size();
+              final List<CompletableFuture<TransactionTrace>> traces =
+                  new ArrayList<>(transactionCount);
+              try {
+                for (int i = 0; i < transactionCount; i++) {
+                  final int index = i;
+                  final TransactionAction<TransactionTrace> action = actionFactory.get();
+                  // Replays the previous transaction on this thread while earlier ones are traced.
+                  checkpoints.stateBefore(index);
+                  traces.add(
+                      scheduler
+                          .get()
+                          .scheduleComputationTask(
+                              () -> performAction(checkpoints, index, action)));
+                }
+                return new BlockTrace(
+                    traces.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+              } catch (final CompletionException e) {
+                traces.forEach(trace -> trace.cancel(false));
+                Throwables.throwIfUnchecked(e.getCause());
+                throw new RuntimeException(e.getCause());
+              } catch (final RuntimeException e) {
+                traces.forEach(trace -> trace.cancel(false));
+                throw e;
+              }
+            });
+  }
+
+  public Optional<BlockTrace> blockInParallel(
+      final Hash blockHash, final Supplier<TransactionAction<TransactionTrace>> actionFactory) {
+    return getBlock(blockHash).flatMap(block -> blockInParallel(block, actionFactory));
+  }
+
   public <T> Optional<T> beforeTransactionInBlock(
       final Hash blockHash, final Hash transactionHash, final TransactionAction<T> action) {
-    return performActionWithBlock(
-        blockHash,
-        (body, header, blockchain, mutableWorldState, transactionProcessor) -> {
-          final BlockHashLookup blockHashLookup = new BlockHashLookup(header, blockchain);
-          for (final Transaction transaction : body.getTransactions()) {
-            if (transaction.getHash().equals(transactionHash)) {
-              return Optional.of(
-                  action.performAction(
-                      transaction, header, blockchain, mutableWorldState, transactionProcessor));
-            } else {
-              final ProtocolSpec spec = protocolSchedule.getByBlockNumber(header.getNumber());
-              transactionProcessor.processTransaction(
-                  blockchain,
-                  mutableWorldState.updater(),
-                  header,
-                  transaction,
-                  spec.getMiningBeneficiaryCalculator().calculateBeneficiary(header),
-                  blockHashLookup,
-                  false,
-                  TransactionValidationParams.blockReplay());
-            }
-          }
-          return Optional.empty();
-        });
+    return getBlock(blockHash)
+        .flatMap(block -> beforeTransactionInBlock(block, transactionHash, action));
+  }
+
+  /**
+   * Performs an action on a single transaction of a block, against the world state before it. Only
+   * the transactions before it that haven't been replayed yet are executed.
+   *
+   * @param block the block containing the transaction
+   * @param transactionHash the hash of the transaction
+   * @param action the action to perform
+   * @return the result of the action, or empty if the transaction isn't in the block or the
+   *     block's parent state isn't available
+   */
+  public <T> Optional<T> beforeTransactionInBlock(
+      final Block block, final Hash transactionHash, final TransactionAction<T> action) {
+    return checkpoints(block)
+        .flatMap(
+            checkpoints -> {
+              final OptionalInt index = checkpoints.indexOf(transactionHash);
+              if (index.isEmpty()) {
+                return Optional.empty();
+              }
+              return Optional.of(performAction(checkpoints, index.getAsInt(), action));
+            });
   }
 
   public <T> Optional<T> afterTransactionInBlock(
       final Hash blockHash, final Hash transactionHash, final TransactionAction<T> action) {
-    return beforeTransactionInBlock(
-        blockHash,
-        transactionHash,
-        (transaction, blockHeader, blockchain, worldState, transactionProcessor) -> {
-          final ProtocolSpec spec = protocolSchedule.getByBlockNumber(blockHeader.getNumber());
-          transactionProcessor.processTransaction(
-              blockchain,
-              worldState.updater(),
-              blockHeader,
-              transaction,
-              spec.getMiningBeneficiaryCalculator().calculateBeneficiary(blockHeader),
-              new BlockHashLookup(blockHeader, blockchain),
-              false,
-              TransactionValidationParams.blockReplay());
-          return action.performAction(
-              transaction, blockHeader, blockchain, worldState, transactionProcessor);
-        });
+    return getBlock(blockHash)
+        .flatMap(this::checkpoints)
+        .flatMap(
+            checkpoints -> {
+              final OptionalInt index = checkpoints.indexOf(transactionHash);
+              if (index.isEmpty()) {
+                return Optional.empty();
+              }
+              return Optional.of(
+                  action.performAction(
+                      checkpoints.getTransactions().get(index.getAsInt()),
+                      checkpoints.getHeader(),
+                      blockchain,
+                      checkpoints.stateAfter(index.getAsInt()),
+                      checkpoints.getTransactionProcessor()));
+            });
   }
 
-  private <T> Optional<T> performActionWithBlock(
-      final Hash blockHash, final BlockAction<T> action) {
-    return getBlock(blockHash)
-        .flatMap(block -> performActionWithBlock(block.getHeader(), block.getBody(), action));
+  private <T> T performAction(
+      final BlockCheckpoints checkpoints, final int index, final TransactionAction<T> action) {
+    return action.performAction(
+        checkpoints.getTransactions().get(index),
+        checkpoints.getHeader(),
+        blockchain,
+        checkpoints.stateBefore(index),
+        checkpoints.getTransactionProcessor());
   }
 
-  private <T> Optional<T> performActionWithBlock(
-      final BlockHeader header, final BlockBody body, final BlockAction<T> action) {
-    if (header == null) {
+  private Optional<BlockCheckpoints> checkpoints(final Block block) {
+    final BlockHeader header = block.getHeader();
+    if (header == null || block.getBody() == null) {
       return Optional.empty();
     }
-    if (body == null) {
-      return Optional.empty();
+    final BlockCheckpoints cached = checkpointsByBlockHash.getIfPresent(header.getHash());
+    if (cached != null) {
+      return Optional.of(cached);
     }
-    final ProtocolSpec protocolSpec = protocolSchedule.getByBlockNumber(header.getNumber());
-    final TransactionProcessor transactionProcessor = protocolSpec.getTransactionProcessor();
     final BlockHeader previous = blockchain.getBlockHeader(header.getParentHash()).orElse(null);
     if (previous == null) {
       return Optional.empty();
@@ -147,7 +241,17 @@ public class BlockReplay {
     if (mutableWorldState == null) {
       return Optional.empty();
     }
-    return action.perform(body, header, blockchain, mutableWorldState, transactionProcessor);
+    final ProtocolSpec protocolSpec = protocolSchedule.getByBlockNumber(header.getNumber());
+    final BlockCheckpoints checkpoints =
+        new BlockCheckpoints(
+            block,
+            blockchain,
+            mutableWorldState,
+            protocolSpec.getTransactionProcessor(),
+            protocolSpec.getMiningBeneficiaryCalculator().calculateBeneficiary(header));
+    // Another request may have replayed the block meanwhile, in which case share its checkpoints.
+    return Optional.of(
+        checkpointsByBlockHash.asMap().merge(header.getHash(), checkpoints, (a, b) -> a));
   }
 
   private Optional<Block> getBlock(final Hash blockHash) {
@@ -161,23 +265,19 @@ public class BlockReplay {
     return Optional.empty();
   }
 
-  @FunctionalInterface
-  private interface BlockAction<T> {
-    Optional<T> perform(
-        BlockBody body,
-        BlockHeader blockHeader,
-        Blockchain blockchain,
-        MutableWorldState worldState,
-        TransactionProcessor transactionProcessor);
-  }
-
+  /**
+   * An action on a transaction of a block.
+   *
+   * <p>The world state handed to the action is shared with other actions on the same block, so the
+   * action may read from it or create updaters on top of it, but must not commit those updaters.
+   */
   @FunctionalInterface
   public interface TransactionAction<T> {
     T performAction(
         Transaction transaction,
         BlockHeader blockHeader,
         Blockchain blockchain,
-        MutableWorldState worldState,
+        MutableWorldView worldState,
         TransactionProcessor transactionProcessor);
   }
 }
@@ -15,16 +15,22 @@
 package org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor;
 
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.BlockReplay.TransactionAction;
-import org.hyperledger.besu.ethereum.core.AbstractWorldUpdater;
-import org.hyperledger.besu.ethereum.core.AbstractWorldUpdater.StackedUpdater;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.Hash;
-import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.core.MutableWorldView;
+import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.debug.TraceFrame;
+import org.hyperledger.besu.ethereum.debug.TraceOptions;
 import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor;
 import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
 import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
+import org.hyperledger.besu.ethereum.vm.OperationTracer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,8 +38,6 @@ import java.util.Optional;
 public class BlockTracer {
 
   private final BlockReplay blockReplay;
-  // Either the initial block state or the state of the prior TX, including miner rewards.
-  private WorldUpdater chainedUpdater;
 
   public BlockTracer(final BlockReplay blockReplay) {
     this.blockReplay = blockReplay;
@@ -47,30 +51,107 @@ public class BlockTracer {
     return blockReplay.block(block, prepareReplayAction(tracer));
   }
 
+  /**
+   * Traces the transactions of a block concurrently, each with its own tracer.
+   *
+   * @param blockHash the hash of the block to trace
+   * @param traceOptions the options of the tracer for each transaction
+   * @return the trace of the block, or empty if the block or its parent state isn't available
+   */
+  public Optional<BlockTrace> traceInParallel(
+      final Hash blockHash, final TraceOptions traceOptions) {
+    return blockReplay.blockInParallel(
+        blockHash, () -> prepareReplayAction(new DebugOperationTracer(traceOptions)));
+  }
+
+  /**
+   * Traces the transactions of a block concurrently, each with its own tracer.
+   *
+   * @param block the block to trace
+   * @param traceOptions the options of the tracer for each transaction
+   * @return the trace of the block, or empty if its parent state isn't available
+   */
+  public Optional<BlockTrace> traceInParallel(final Block block, final TraceOptions traceOptions) {
+    return blockReplay.blockInParallel(
+        block, () -> prepareReplayAction(new DebugOperationTracer(traceOptions)));
+  }
+
+  /**
+   * Traces a single transaction of a block, starting from the world state before it.
+   *
+   * @param block the block containing the transaction
+   * @param transactionHash the hash of the transaction to trace
+   * @param tracer the tracer for the transaction
+   * @return the trace of the transaction, or empty if it isn't in the block or the block's parent
+   *     state isn't available
+   */
+  public Optional<TransactionTrace> trace(
+      final Block block, final Hash transactionHash, final DebugOperationTracer tracer) {
+    return blockReplay.beforeTransactionInBlock(
+        block, transactionHash, prepareReplayAction(tracer));
+  }
+
+  /**
+   * Traces a block, writing the result of each transaction to the tracer's generator as it
+   * executes. The caller is responsible for the enclosing array.
+   *
+   * @param block the block to trace
+   * @param tracer the tracer writing the struct logs
+   * @return the trace of the block, without any trace frames, or empty if the block's parent state
+   *     isn't available.
+   * @throws UncheckedIOException if writing the trace fails
+   */
+  public Optional<BlockTrace> stream(final Block block, final StreamingStructLogTracer tracer) {
+    return blockReplay.block(
+        block,
+        (transaction, header, blockchain, mutableWorldState, transactionProcessor) -> {
+          try {
+            tracer.startTransaction();
+            final TransactionProcessor.Result result =
+                processTransaction(
+                    transaction,
+                    header,
+                    blockchain,
+                    mutableWorldState,
+                    transactionProcessor,
+                    tracer);
+            tracer.endTransaction(transaction.getGasLimit(), result);
+            return new TransactionTrace(transaction, result, Collections.emptyList());
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
   private TransactionAction<TransactionTrace> prepareReplayAction(
       final DebugOperationTracer tracer) {
     return (transaction, header, blockchain, mutableWorldState, transactionProcessor) -> {
-      // if we have no prior updater, it must be the first TX, so use the block's initial state
-      if (chainedUpdater == null) {
-        chainedUpdater = mutableWorldState.updater();
-      } else if (chainedUpdater instanceof AbstractWorldUpdater.StackedUpdater) {
-        ((StackedUpdater) chainedUpdater).markTransactionBoundary();
-      }
-      // create an updater for just this tx
-      chainedUpdater = chainedUpdater.updater();
       final TransactionProcessor.Result result =
-          transactionProcessor.processTransaction(
-              blockchain,
-              chainedUpdater,
-              header,
-              transaction,
-              header.getCoinbase(),
-              tracer,
-              new BlockHashLookup(header, blockchain),
-              false);
+          processTransaction(
+              transaction, header, blockchain, mutableWorldState, transactionProcessor, tracer);
       final List<TraceFrame> traceFrames = tracer.copyTraceFrames();
       tracer.reset();
       return new TransactionTrace(transaction, result, traceFrames);
     };
   }
+
+  private TransactionProcessor.Result processTransaction(
+      final Transaction transaction,
+      final BlockHeader header,
+      final Blockchain blockchain,
+      final MutableWorldView worldState,
+      final TransactionProcessor transactionProcessor,
+      final OperationTracer tracer) {
+    // The replay hands over the state before this transaction, so it only needs an updater of its
+    // own to execute in.
+    return transactionProcessor.processTransaction(
+        blockchain,
+        worldState.updater(),
+        header,
+        transaction,
+        header.getCoinbase(),
+        tracer,
+        new BlockHashLookup(header, blockchain),
+        false);
+  }
 }
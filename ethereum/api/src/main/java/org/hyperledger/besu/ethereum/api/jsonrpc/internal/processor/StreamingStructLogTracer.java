@@ -0,0 +1,260 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor;
+
+import org.hyperledger.besu.ethereum.core.Gas;
+import org.hyperledger.besu.ethereum.debug.TraceOptions;
+import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor.Result;
+import org.hyperledger.besu.ethereum.vm.ExceptionalHaltReason;
+import org.hyperledger.besu.ethereum.vm.MessageFrame;
+import org.hyperledger.besu.ethereum.vm.Operation.OperationResult;
+import org.hyperledger.besu.ethereum.vm.OperationTracer;
+import org.hyperledger.besu.ethereum.vm.internal.MemoryEntry;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Writes the struct logs of a transaction to a {@link JsonGenerator} while it executes, instead of
+ * collecting a {@link org.hyperledger.besu.ethereum.debug.TraceFrame} per operation.
+ *
+ * <p>Each struct log carries the same {@code pc}, {@code op}, {@code gas}, {@code gasCost}, {@code
+ * depth}, {@code stack}, {@code reason} and {@code error} fields as the buffered trace, but memory
+ * and storage are delta encoded:
+ *
+ * <ul>
+ *   <li>{@code memSize} is the size of memory in bytes after the operation and {@code memory} maps
+ *       the byte offset of each 32 byte word that changed since the previous operation in the same
+ *       call frame to its new value. Words of a new call frame are compared against zero.
+ *   <li>{@code storage} maps the slot written by the operation, if any, to its new value.
+ * </ul>
+ *
+ * <p>The tracer keeps one copy of the memory of each active call frame and the struct logs that
+ * could still be amended by a failed contract creation, so its footprint is bounded by the state of
+ * the EVM rather than the length of the trace.
+ */
+public class StreamingStructLogTracer implements OperationTracer {
+
+  private static final byte[] EMPTY_MEMORY = new byte[0];
+
+  private final TraceOptions options;
+  private final JsonGenerator generator;
+  private final List<byte[]> memorySnapshots = new ArrayList<>();
+  // The last struct log that isn't a RETURN and any RETURNs after it, which a failed contract
+  // creation marks with its halt reason.
+  private final Deque<PendingStructLog> pending = new ArrayDeque<>();
+  private boolean structLogsWritten;
+  private IOException failure;
+
+  public StreamingStructLogTracer(final TraceOptions options, final JsonGenerator generator) {
+    this.options = options;
+    this.generator = generator;
+  }
+
+  /**
+   * Opens the trace result of a transaction.
+   *
+   * @throws IOException if writing to the generator fails
+   */
+  public void startTransaction() throws IOException {
+    generator.writeStartObject();
+    generator.writeArrayFieldStart("structLogs");
+    memorySnapshots.clear();
+    pending.clear();
+    structLogsWritten = false;
+  }
+
+  /**
+   * Writes the struct logs still held back and closes the trace result of a transaction.
+   *
+   * @param gasLimit the gas limit of the traced transaction
+   * @param result the result of processing the transaction
+   * @throws IOException if writing to the generator failed at any point during the transaction
+   */
+  public void endTransaction(final long gasLimit, final Result result) throws IOException {
+    flushPending();
+    if (failure != null) {
+      throw failure;
+    }
+    generator.writeEndArray();
+    generator.writeNumberField("gas", gasLimit - result.getGasRemaining());
+    generator.writeBooleanField("failed", !result.isSuccessful());
+    generator.writeStringField("returnValue", result.getOutput().toUnprefixedHexString());
+    generator.writeEndObject();
+  }
+
+  @Override
+  public void traceExecution(final MessageFrame frame, final ExecuteOperation executeOperation) {
+    if (failure != null) {
+      // The client is gone, so there is no point in recording anything.
+      executeOperation.execute();
+      frame.reset();
+      return;
+    }
+    final int depth = frame.getMessageStackDepth();
+    final String opcode = frame.getCurrentOperation().getName();
+    final TokenBuffer structLog = new TokenBuffer(generator.getCodec(), false);
+    try {
+      structLog.writeStartObject();
+      structLog.writeNumberField("pc", frame.getPC());
+      structLog.writeStringField("op", opcode);
+      structLog.writeNumberField("gas", frame.getRemainingGas().toLong());
+      structLog.writeNumberField("depth", depth + 1);
+      if (options.isStackEnabled()) {
+        writeStack(frame, structLog);
+      }
+
+      final OperationResult operationResult = executeOperation.execute();
+
+      structLog.writeNumberField(
+          "gasCost", operationResult.getGasCost().map(Gas::toLong).orElse(0L));
+      if (options.isMemoryEnabled()) {
+        writeMemory(frame, depth, structLog);
+      }
+      if (options.isStorageEnabled()) {
+        writeStorage(frame, structLog);
+      }
+      if (frame.getRevertReason().isPresent()) {
+        structLog.writeStringField("reason", frame.getRevertReason().get().toShortHexString());
+      }
+      append(
+          new PendingStructLog(
+              opcode, structLog, operationResult.getHaltReason().map(Enum::name).orElse(null)));
+    } catch (final IOException e) {
+      failure = e;
+    }
+    frame.reset();
+  }
+
+  @Override
+  public void traceAccountCreationResult(
+      final MessageFrame frame, final Optional<ExceptionalHaltReason> haltReason) {
+    if (haltReason.isEmpty() || failure != null) {
+      return;
+    }
+    final String error = haltReason.get().name();
+    if (!pending.isEmpty()) {
+      final PendingStructLog first = pending.peekFirst();
+      if (!first.opcode.equals("RETURN")) {
+        first.error = error;
+      }
+    } else if (!structLogsWritten) {
+      try {
+        final TokenBuffer structLog = new TokenBuffer(generator.getCodec(), false);
+        structLog.writeStartObject();
+        structLog.writeNumberField("pc", frame.getPC());
+        structLog.writeNullField("op");
+        structLog.writeNumberField("gas", frame.getRemainingGas().toLong());
+        structLog.writeNumberField("gasCost", 0L);
+        structLog.writeNumberField("depth", frame.getMessageStackDepth() + 1);
+        append(new PendingStructLog("", structLog, error));
+      } catch (final IOException e) {
+        failure = e;
+      }
+    }
+  }
+
+  private void writeStack(final MessageFrame frame, final JsonGenerator structLog)
+      throws IOException {
+    structLog.writeArrayFieldStart("stack");
+    for (int i = frame.stackSize() - 1; i >= 0; i--) {
+      structLog.writeString(frame.getStackItem(i).toUnprefixedHexString());
+    }
+    structLog.writeEndArray();
+  }
+
+  private void writeMemory(final MessageFrame frame, final int depth, final JsonGenerator structLog)
+      throws IOException {
+    // Deeper call frames have returned, and the next call at those depths starts with new memory.
+    while (memorySnapshots.size() > depth + 1) {
+      memorySnapshots.remove(memorySnapshots.size() - 1);
+    }
+    while (memorySnapshots.size() <= depth) {
+      memorySnapshots.add(EMPTY_MEMORY);
+    }
+    final IntStream.Builder changedWords = IntStream.builder();
+    final byte[] snapshot =
+        frame.updateMemorySnapshot(memorySnapshots.get(depth), changedWords::add);
+    memorySnapshots.set(depth, snapshot);
+
+    structLog.writeNumberField("memSize", frame.memoryByteSize());
+    structLog.writeObjectFieldStart("memory");
+    final PrimitiveIterator.OfInt words = changedWords.build().iterator();
+    while (words.hasNext()) {
+      final int offset = words.nextInt() * Bytes32.SIZE;
+      structLog.writeStringField(
+          "0x" + Integer.toHexString(offset),
+          Bytes.wrap(snapshot, offset, Bytes32.SIZE).toUnprefixedHexString());
+    }
+    structLog.writeEndObject();
+  }
+
+  private void writeStorage(final MessageFrame frame, final JsonGenerator structLog)
+      throws IOException {
+    structLog.writeObjectFieldStart("storage");
+    final Optional<MemoryEntry> updatedStorage = frame.getMaybeUpdatedStorage();
+    if (updatedStorage.isPresent()) {
+      structLog.writeStringField(
+          updatedStorage.get().getOffset().toBytes().toUnprefixedHexString(),
+          updatedStorage.get().getValue().toUnprefixedHexString());
+    }
+    structLog.writeEndObject();
+  }
+
+  private void append(final PendingStructLog structLog) throws IOException {
+    if (!structLog.opcode.equals("RETURN")) {
+      flushPending();
+    }
+    pending.addLast(structLog);
+  }
+
+  private void flushPending() throws IOException {
+    while (!pending.isEmpty() && failure == null) {
+      final PendingStructLog structLog = pending.removeFirst();
+      structLog.body.serialize(generator);
+      if (structLog.error != null) {
+        generator.writeArrayFieldStart("error");
+        generator.writeString(structLog.error);
+        generator.writeEndArray();
+      }
+      generator.writeEndObject();
+      structLogsWritten = true;
+    }
+    pending.clear();
+  }
+
+  private static class PendingStructLog {
+    private final String opcode;
+    private final TokenBuffer body;
+    private String error;
+
+    PendingStructLog(final String opcode, final TokenBuffer body, final String error) {
+      this.opcode = opcode;
+      this.body = body;
+      this.error = error;
+    }
+  }
+}
@@ -19,6 +19,9 @@ import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor.Result;
 import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
 import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
 import java.util.Optional;
 
 /** Used to produce debug traces of transactions */
@@ -49,4 +52,40 @@ public class TransactionTracer {
           return new TransactionTrace(transaction, result, tracer.getTraceFrames());
         });
   }
+
+  /**
+   * Traces a transaction, writing its result to the tracer's generator as the transaction executes.
+   *
+   * @param blockHash the hash of the block containing the transaction
+   * @param transactionHash the hash of the transaction to trace
+   * @param tracer the tracer writing the struct logs
+   * @return the trace of the transaction, without any trace frames, or empty if the block or
+   *     transaction doesn't exist, in which case nothing has been written.
+   * @throws UncheckedIOException if writing the trace fails
+   */
+  public Optional<TransactionTrace> streamTransaction(
+      final Hash blockHash, final Hash transactionHash, final StreamingStructLogTracer tracer) {
+    return blockReplay.beforeTransactionInBlock(
+        blockHash,
+        transactionHash,
+        (transaction, header, blockchain, mutableWorldState, transactionProcessor) -> {
+          try {
+            tracer.startTransaction();
+            final Result result =
+                transactionProcessor.processTransaction(
+                    blockchain,
+                    mutableWorldState.updater(),
+                    header,
+                    transaction,
+                    header.getCoinbase(),
+                    tracer,
+                    new BlockHashLookup(header, blockchain),
+                    false);
+            tracer.endTransaction(transaction.getGasLimit(), result);
+            return new TransactionTrace(transaction, result, Collections.emptyList());
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
 }
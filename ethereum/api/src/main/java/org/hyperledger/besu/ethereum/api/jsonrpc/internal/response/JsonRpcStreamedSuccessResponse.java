@@ -0,0 +1,70 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.response;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+/**
+ * A successful response whose result is computed while it is being written, so it never has to be
+ * held in memory as a whole. The HTTP service streams such responses to the client in chunks,
+ * everywhere else they serialize like any other response.
+ */
+public class JsonRpcStreamedSuccessResponse extends JsonRpcSuccessResponse {
+
+  public JsonRpcStreamedSuccessResponse(final Object id, final ResultWriter resultWriter) {
+    super(id, new StreamedResult(resultWriter));
+  }
+
+  @FunctionalInterface
+  public interface ResultWriter {
+
+    /**
+     * Computes the result, writing it as a single JSON value.
+     *
+     * @param generator the generator to write the result to
+     * @throws IOException if writing to the generator fails
+     */
+    void writeTo(JsonGenerator generator) throws IOException;
+  }
+
+  private static class StreamedResult extends JsonSerializable.Base {
+
+    private final ResultWriter resultWriter;
+
+    private StreamedResult(final ResultWriter resultWriter) {
+      this.resultWriter = resultWriter;
+    }
+
+    @Override
+    public void serialize(final JsonGenerator generator, final SerializerProvider serializers)
+        throws IOException {
+      resultWriter.writeTo(generator);
+    }
+
+    @Override
+    public void serializeWithType(
+        final JsonGenerator generator,
+        final SerializerProvider serializers,
+        final TypeSerializer typeSerializer)
+        throws IOException {
+      serialize(generator, serializers);
+    }
+  }
+}
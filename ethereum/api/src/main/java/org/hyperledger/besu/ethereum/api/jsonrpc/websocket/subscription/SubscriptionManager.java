@@ -15,12 +15,16 @@
 package org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription;
 
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.JsonRpcResult;
+import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs.LogsSubscription;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs.PrivateLogsSubscription;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.SubscribeRequest;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.SubscriptionType;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.UnsubscribeRequest;
+import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.response.EncodedResult;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.response.SubscriptionResponse;
+import org.hyperledger.besu.ethereum.api.query.LogsQueryIndex;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Log;
 import org.hyperledger.besu.ethereum.privacy.PrivateTransactionEvent;
 import org.hyperledger.besu.ethereum.privacy.PrivateTransactionObserver;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
@@ -59,6 +63,7 @@ public class SubscriptionManager extends AbstractVerticle implements PrivateTran
   private final LabelledMetric<Counter> subscribeCounter;
   private final LabelledMetric<Counter> unsubscribeCounter;
   private final List<PrivateTransactionEvent> privateTransactionEvents = new ArrayList<>();
+  private final LogsQueryIndex<LogsSubscription> logsSubscriptions = new LogsQueryIndex<>();
 
   public SubscriptionManager(
       final MetricsSystem metricsSystem, final Blockchain blockchainQueries) {
@@ -94,6 +99,10 @@ public class SubscriptionManager extends AbstractVerticle implements PrivateTran
     final Subscription subscription =
         subscriptionBuilder.build(subscriptionId, request.getConnectionId(), request);
     subscriptions.put(subscription.getSubscriptionId(), subscription);
+    if (subscription instanceof LogsSubscription) {
+      final LogsSubscription logsSubscription = (LogsSubscription) subscription;
+      logsSubscriptions.put(logsSubscription, logsSubscription.getFilterParameter().getLogsQuery());
+    }
 
     return subscription.getSubscriptionId();
   }
@@ -118,6 +127,9 @@ public class SubscriptionManager extends AbstractVerticle implements PrivateTran
     final Subscription removed = subscriptions.remove(subscriptionId);
     if (removed != null) {
       unsubscribeCounter.labels(removed.getSubscriptionType().getCode()).inc();
+      if (removed instanceof LogsSubscription) {
+        logsSubscriptions.remove((LogsSubscription) removed);
+      }
     }
   }
 
@@ -145,6 +157,32 @@ public class SubscriptionManager extends AbstractVerticle implements PrivateTran
         .collect(Collectors.toList());
   }
 
+  /**
+   * Returns the logs subscriptions whose filter matches a log, found through an index of their
+   * addresses and topics rather than by checking every subscription.
+   *
+   * @param log the log
+   * @return the subscriptions whose filter matches the log
+   */
+  public List<LogsSubscription> logsSubscriptionsMatching(final Log log) {
+    return logsSubscriptions.matching(log);
+  }
+
+  /**
+   * Sends the same message to several subscriptions, serializing it only once.
+   *
+   * @param recipients the subscriptions to send the message to
+   * @param msg the message
+   */
+  public void sendMessageToSubscriptions(
+      final List<? extends Subscription> recipients, final JsonRpcResult msg) {
+    if (recipients.isEmpty()) {
+      return;
+    }
+    final JsonRpcResult encoded = new EncodedResult(msg);
+    recipients.forEach(subscription -> sendMessage(subscription.getSubscriptionId(), encoded));
+  }
+
   public void sendMessage(final Long subscriptionId, final JsonRpcResult msg) {
     final Subscription subscription = subscriptions.get(subscriptionId);
 
@@ -24,8 +24,10 @@ import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.LogWithMetadata;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 public class LogsSubscriptionService implements Consumer<LogWithMetadata> {
 
@@ -41,20 +43,22 @@ public class LogsSubscriptionService implements Consumer<LogWithMetadata> {
 
   @Override
   public void accept(final LogWithMetadata logWithMetadata) {
-    subscriptionManager.subscriptionsOfType(SubscriptionType.LOGS, LogsSubscription.class).stream()
-        .filter(
-            logsSubscription -> {
-              final FilterParameter filterParameter = logsSubscription.getFilterParameter();
-              final long blockNumber = logWithMetadata.getBlockNumber();
-              return filterParameter
-                          .getFromBlock()
-                          .getNumber()
-                          .orElse(BlockHeader.GENESIS_BLOCK_NUMBER)
-                      <= blockNumber
-                  && filterParameter.getToBlock().getNumber().orElse(Long.MAX_VALUE) >= blockNumber
-                  && filterParameter.getLogsQuery().matches(logWithMetadata);
-            })
-        .forEach(logsSubscription -> sendLogToSubscription(logWithMetadata, logsSubscription));
+    final long blockNumber = logWithMetadata.getBlockNumber();
+    final List<LogsSubscription> recipients =
+        subscriptionManager.logsSubscriptionsMatching(logWithMetadata).stream()
+            .filter(logsSubscription -> isInBlockRange(logsSubscription, blockNumber))
+            .collect(Collectors.toList());
+    if (!recipients.isEmpty()) {
+      subscriptionManager.sendMessageToSubscriptions(recipients, new LogResult(logWithMetadata));
+    }
+  }
+
+  private static boolean isInBlockRange(
+      final LogsSubscription logsSubscription, final long blockNumber) {
+    final FilterParameter filterParameter = logsSubscription.getFilterParameter();
+    return filterParameter.getFromBlock().getNumber().orElse(BlockHeader.GENESIS_BLOCK_NUMBER)
+            <= blockNumber
+        && filterParameter.getToBlock().getNumber().orElse(Long.MAX_VALUE) >= blockNumber;
   }
 
   public void checkPrivateLogs(final BlockAddedEvent event) {
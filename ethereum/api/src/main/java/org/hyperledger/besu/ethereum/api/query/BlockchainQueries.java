@@ -18,7 +18,9 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static org.hyperledger.besu.ethereum.api.query.cache.TransactionLogBloomCacher.BLOCKS_PER_BLOOM_CACHE;
 
 import org.hyperledger.besu.ethereum.api.handlers.RpcMethodTimeoutException;
+import org.hyperledger.besu.ethereum.api.query.cache.MappedLogBloomSegments;
 import org.hyperledger.besu.ethereum.api.query.cache.TransactionLogBloomCacher;
+import org.hyperledger.besu.ethereum.api.query.cache.TransactionLogIndex;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.chain.TransactionLocation;
 import org.hyperledger.besu.ethereum.core.Account;
@@ -37,9 +39,8 @@ import org.hyperledger.besu.ethereum.core.WorldState;
 import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 
-import java.io.EOFException;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -47,12 +48,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 
+import com.google.common.base.Throwables;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.tuweni.bytes.Bytes;
@@ -65,6 +69,9 @@ public class BlockchainQueries {
   private final Blockchain blockchain;
   private final Optional<Path> cachePath;
   private final Optional<TransactionLogBloomCacher> transactionLogBloomCacher;
+  private final Optional<TransactionLogIndex> transactionLogIndex;
+  private final Optional<EthScheduler> scheduler;
+  private final MappedLogBloomSegments mappedLogBloomSegments = new MappedLogBloomSegments();
 
   public BlockchainQueries(final Blockchain blockchain, final WorldStateArchive worldStateArchive) {
     this(blockchain, worldStateArchive, Optional.empty(), Optional.empty());
@@ -82,14 +89,28 @@ public class BlockchainQueries {
       final WorldStateArchive worldStateArchive,
       final Optional<Path> cachePath,
       final Optional<EthScheduler> scheduler) {
+    this(blockchain, worldStateArchive, cachePath, scheduler, false);
+  }
+
+  public BlockchainQueries(
+      final Blockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final Optional<Path> cachePath,
+      final Optional<EthScheduler> scheduler,
+      final boolean logIndexEnabled) {
     this.blockchain = blockchain;
     this.worldStateArchive = worldStateArchive;
     this.cachePath = cachePath;
+    this.scheduler = scheduler;
     this.transactionLogBloomCacher =
         (cachePath.isPresent() && scheduler.isPresent())
             ? Optional.of(
                 new TransactionLogBloomCacher(blockchain, cachePath.get(), scheduler.get()))
             : Optional.empty();
+    this.transactionLogIndex =
+        (logIndexEnabled && cachePath.isPresent() && scheduler.isPresent())
+            ? Optional.of(new TransactionLogIndex(blockchain, cachePath.get(), scheduler.get()))
+            : Optional.empty();
   }
 
   public Blockchain getBlockchain() {
@@ -100,10 +121,18 @@ public class BlockchainQueries {
     return worldStateArchive;
   }
 
+  public Optional<EthScheduler> getEthScheduler() {
+    return scheduler;
+  }
+
   public Optional<TransactionLogBloomCacher> getTransactionLogBloomCacher() {
     return transactionLogBloomCacher;
   }
 
+  public Optional<TransactionLogIndex> getTransactionLogIndex() {
+    return transactionLogIndex;
+  }
+
   /**
    * Retrieves the header hash of the block at the given height in the canonical chain.
    *
@@ -549,41 +578,43 @@ public class BlockchainQueries {
       final LogsQuery query,
       final Supplier<Boolean> isQueryAlive) {
     try {
-      final List<LogWithMetadata> result = new ArrayList<>();
       final long startSegment = fromBlockNumber / BLOCKS_PER_BLOOM_CACHE;
       final long endSegment = toBlockNumber / BLOCKS_PER_BLOOM_CACHE;
-      long currentStep = fromBlockNumber;
+      if (startSegment == endSegment || scheduler.isEmpty()) {
+        final List<LogWithMetadata> result = new ArrayList<>();
+        for (long segment = startSegment; segment <= endSegment; segment++) {
+          result.addAll(
+              matchingLogsInSegment(segment, fromBlockNumber, toBlockNumber, query, isQueryAlive));
+        }
+        return result;
+      }
+
+      // Segments are independent, scan them on the computation pool and keep the results in order
+      final List<CompletableFuture<List<LogWithMetadata>>> segmentResults = new ArrayList<>();
       for (long segment = startSegment; segment <= endSegment; segment++) {
         final long thisSegment = segment;
-        final long thisStep = currentStep;
-        final long nextStep = (segment + 1) * BLOCKS_PER_BLOOM_CACHE;
-        BackendQuery.stopIfExpired(isQueryAlive);
-        result.addAll(
-            cachePath
-                .map(path -> path.resolve("logBloom-" + thisSegment + ".cache"))
-                .filter(Files::isRegularFile)
-                .map(
-                    cacheFile -> {
+        segmentResults.add(
+            scheduler
+                .get()
+                .scheduleComputationTask(
+                    () -> {
                       try {
-                        return matchingLogsCached(
-                            thisSegment * BLOCKS_PER_BLOOM_CACHE,
-                            thisStep % BLOCKS_PER_BLOOM_CACHE,
-                            Math.min(toBlockNumber, nextStep - 1) % BLOCKS_PER_BLOOM_CACHE,
-                            query,
-                            cacheFile,
-                            isQueryAlive);
-                      } catch (Exception e) {
-                        throw new RuntimeException(e);
+                        return matchingLogsInSegment(
+                            thisSegment, fromBlockNumber, toBlockNumber, query, isQueryAlive);
+                      } catch (final Exception e) {
+                        throw new CompletionException(e);
                       }
-                    })
-                .orElseGet(
-                    () ->
-                        matchingLogsUncached(
-                            thisStep,
-                            Math.min(toBlockNumber, Math.min(toBlockNumber, nextStep - 1)),
-                            query,
-                            isQueryAlive)));
-        currentStep = nextStep;
+                    }));
+      }
+      final List<LogWithMetadata> result = new ArrayList<>();
+      try {
+        for (final CompletableFuture<List<LogWithMetadata>> segmentResult : segmentResults) {
+          result.addAll(segmentResult.join());
+        }
+      } catch (final CompletionException e) {
+        segmentResults.forEach(segmentResult -> segmentResult.cancel(false));
+        Throwables.throwIfUnchecked(e.getCause());
+        throw new RuntimeException(e.getCause());
       }
       return result;
     } catch (RpcMethodTimeoutException e) {
@@ -595,6 +626,38 @@ public class BlockchainQueries {
     }
   }
 
+  private List<LogWithMetadata> matchingLogsInSegment(
+      final long segment,
+      final long fromBlockNumber,
+      final long toBlockNumber,
+      final LogsQuery query,
+      final Supplier<Boolean> isQueryAlive)
+      throws Exception {
+    final long segmentStart = segment * BLOCKS_PER_BLOOM_CACHE;
+    final long fromBlock = Math.max(fromBlockNumber, segmentStart);
+    final long toBlock = Math.min(toBlockNumber, segmentStart + BLOCKS_PER_BLOOM_CACHE - 1);
+    BackendQuery.stopIfExpired(isQueryAlive);
+    final Optional<List<Long>> indexedBlocks =
+        transactionLogIndex.flatMap(index -> index.findCandidateBlocks(fromBlock, toBlock, query));
+    if (indexedBlocks.isPresent()) {
+      return matchingLogsIndexed(indexedBlocks.get(), query, isQueryAlive);
+    }
+    final Optional<Path> cacheFile =
+        cachePath
+            .map(path -> path.resolve("logBloom-" + segment + ".cache"))
+            .filter(Files::isRegularFile);
+    if (cacheFile.isPresent()) {
+      return matchingLogsCached(
+          segmentStart,
+          fromBlock % BLOCKS_PER_BLOOM_CACHE,
+          toBlock % BLOCKS_PER_BLOOM_CACHE,
+          query,
+          cacheFile.get(),
+          isQueryAlive);
+    }
+    return matchingLogsUncached(fromBlock, toBlock, query, isQueryAlive);
+  }
+
   private List<LogWithMetadata> matchingLogsUncached(
       final long fromBlockNumber,
       final long toBlockNumber,
@@ -613,6 +676,19 @@ public class BlockchainQueries {
         .collect(Collectors.toList());
   }
 
+  private List<LogWithMetadata> matchingLogsIndexed(
+      final List<Long> blockNumbers, final LogsQuery query, final Supplier<Boolean> isQueryAlive)
+      throws Exception {
+    final List<LogWithMetadata> results = new ArrayList<>();
+    for (final long blockNumber : blockNumbers) {
+      BackendQuery.stopIfExpired(isQueryAlive);
+      blockchain
+          .getBlockHashByNumber(blockNumber)
+          .ifPresent(blockHash -> results.addAll(matchingLogs(blockHash, query, isQueryAlive)));
+    }
+    return results;
+  }
+
   private List<LogWithMetadata> matchingLogsCached(
       final long segmentStart,
       final long offset,
@@ -622,22 +698,18 @@ public class BlockchainQueries {
       final Supplier<Boolean> isQueryAlive)
       throws Exception {
     final List<LogWithMetadata> results = new ArrayList<>();
-    try (final RandomAccessFile raf = new RandomAccessFile(cacheFile.toFile(), "r")) {
-      raf.seek(offset * 256);
-      final byte[] bloomBuff = new byte[256];
-      final Bytes bytesValue = Bytes.wrap(bloomBuff);
+    try {
+      final ByteBuffer blooms = mappedLogBloomSegments.blooms(cacheFile);
+      final long cachedBlocks = blooms.capacity() / LogsBloomFilter.BYTE_SIZE;
       for (long pos = offset; pos <= endOffset; pos++) {
         BackendQuery.stopIfExpired(isQueryAlive);
-        try {
-          raf.readFully(bloomBuff);
-        } catch (final EOFException e) {
+        if (pos >= cachedBlocks) {
           results.addAll(
               matchingLogsUncached(
                   segmentStart + pos, segmentStart + endOffset, query, isQueryAlive));
           break;
         }
-        final LogsBloomFilter logsBloom = new LogsBloomFilter(bytesValue);
-        if (query.couldMatch(logsBloom)) {
+        if (query.couldMatch(blooms, (int) pos * LogsBloomFilter.BYTE_SIZE)) {
           results.addAll(
               matchingLogs(
                   blockchain.getBlockHashByNumber(segmentStart + pos).orElseThrow(),
@@ -646,7 +718,6 @@ public class BlockchainQueries {
         }
       }
     } catch (final IOException e) {
-      e.printStackTrace(System.out);
       LOG.error("Error reading cached log blooms", e);
     }
     return results;
@@ -25,6 +25,7 @@ import org.hyperledger.besu.ethereum.core.Log;
 import org.hyperledger.besu.ethereum.core.LogTopic;
 import org.hyperledger.besu.ethereum.core.LogsBloomFilter;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -44,6 +45,8 @@ public class LogsQuery {
   private final List<List<LogTopic>> topics;
   private final List<LogsBloomFilter> addressBlooms;
   private final List<List<LogsBloomFilter>> topicsBlooms;
+  private final BloomMask[] addressMasks;
+  private final BloomMask[][] topicsMasks;
 
   @JsonCreator
   public LogsQuery(
@@ -75,6 +78,11 @@ public class LogsQuery {
                         .map(logTopic -> LogsBloomFilter.builder().insertBytes(logTopic).build())
                         .collect(Collectors.toList()))
             .collect(toUnmodifiableList());
+    this.addressMasks = addressBlooms.stream().map(BloomMask::new).toArray(BloomMask[]::new);
+    this.topicsMasks =
+        topicsBlooms.stream()
+            .map(blooms -> blooms.stream().map(BloomMask::new).toArray(BloomMask[]::new))
+            .toArray(BloomMask[][]::new);
   }
 
   public boolean couldMatch(final LogsBloomFilter bloom) {
@@ -85,6 +93,44 @@ public class LogsQuery {
                     topics -> topics.isEmpty() || topics.stream().anyMatch(bloom::couldContain)));
   }
 
+  /**
+   * Checks a bloom in place, such as one in a memory mapped log bloom cache file. Gives the same
+   * answer as {@link #couldMatch(LogsBloomFilter)} without copying the bloom.
+   *
+   * @param blooms the buffer holding the bloom
+   * @param offset the position of the bloom in the buffer
+   * @return false if no log in the bloom's block can match the query
+   */
+  public boolean couldMatch(final ByteBuffer blooms, final int offset) {
+    if (addressMasks.length > 0 && !anyContainedIn(addressMasks, blooms, offset)) {
+      return false;
+    }
+    for (final BloomMask[] topicMasks : topicsMasks) {
+      if (topicMasks.length > 0 && !anyContainedIn(topicMasks, blooms, offset)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean anyContainedIn(
+      final BloomMask[] masks, final ByteBuffer blooms, final int offset) {
+    for (final BloomMask mask : masks) {
+      if (mask.isContainedIn(blooms, offset)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public List<Address> getAddresses() {
+    return addresses;
+  }
+
+  public List<List<LogTopic>> getTopics() {
+    return topics;
+  }
+
   public boolean matches(final Log log) {
     return matchesAddresses(log.getLogger()) && matchesTopics(log.getTopics());
   }
@@ -124,6 +170,31 @@ public class LogsQuery {
     return Objects.hash(addresses, topics);
   }
 
+  /** The non zero 64 bit words of a bloom filter, a value sets at most three of them. */
+  private static class BloomMask {
+    private final int[] wordOffsets;
+    private final long[] words;
+
+    BloomMask(final LogsBloomFilter bloom) {
+      final int wordCount = LogsBloomFilter.BYTE_SIZE / Long.BYTES;
+      this.wordOffsets =
+          IntStream.range(0, wordCount)
+              .map(i -> i * Long.BYTES)
+              .filter(offset -> bloom.getLong(offset) != 0)
+              .toArray();
+      this.words = Arrays.stream(wordOffsets).mapToLong(bloom::getLong).toArray();
+    }
+
+    boolean isContainedIn(final ByteBuffer blooms, final int offset) {
+      for (int i = 0; i < words.length; i++) {
+        if ((blooms.getLong(offset + wordOffsets[i]) & words[i]) != words[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
   public static class Builder {
     private final List<Address> queryAddresses = Lists.newArrayList();
     private final List<List<LogTopic>> queryTopics = Lists.newArrayList();
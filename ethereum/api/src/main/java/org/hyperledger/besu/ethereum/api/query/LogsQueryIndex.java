@@ -0,0 +1,172 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Log;
+import org.hyperledger.besu.ethereum.core.LogTopic;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes the {@link LogsQuery} of many subscribers by address and topic, so that a log is only
+ * checked against the queries that could match it.
+ *
+ * <p>A query is indexed under its addresses if it has any, otherwise under the topics of its first
+ * topic position that doesn't accept every topic. Queries with neither are checked against every
+ * log. A log has a single logger and a single topic per position, so it finds each query at most
+ * once.
+ *
+ * @param <T> the type of the subscribers
+ */
+public class LogsQueryIndex<T> {
+
+  private final Map<T, LogsQuery> queries = new HashMap<>();
+  private final Map<Address, Set<T>> byAddress = new HashMap<>();
+  private final List<Map<LogTopic, Set<T>>> byTopic = new ArrayList<>();
+  private final Set<T> unindexed = new LinkedHashSet<>();
+
+  /**
+   * Adds a subscriber, replacing its previous query if it was already indexed.
+   *
+   * @param subscriber the subscriber
+   * @param query the logs the subscriber is interested in
+   */
+  public synchronized void put(final T subscriber, final LogsQuery query) {
+    remove(subscriber);
+    queries.put(subscriber, query);
+    if (!query.getAddresses().isEmpty()) {
+      for (final Address address : query.getAddresses()) {
+        if (address != null) {
+          byAddress.computeIfAbsent(address, key -> new LinkedHashSet<>()).add(subscriber);
+        }
+      }
+      return;
+    }
+    final int position = indexedTopicPosition(query);
+    if (position < 0) {
+      unindexed.add(subscriber);
+      return;
+    }
+    while (byTopic.size() <= position) {
+      byTopic.add(new HashMap<>());
+    }
+    for (final LogTopic topic : query.getTopics().get(position)) {
+      byTopic.get(position).computeIfAbsent(topic, key -> new LinkedHashSet<>()).add(subscriber);
+    }
+  }
+
+  /**
+   * Removes a subscriber.
+   *
+   * @param subscriber the subscriber
+   */
+  public synchronized void remove(final T subscriber) {
+    final LogsQuery query = queries.remove(subscriber);
+    if (query == null) {
+      return;
+    }
+    if (!query.getAddresses().isEmpty()) {
+      for (final Address address : query.getAddresses()) {
+        if (address != null) {
+          removeFrom(byAddress, address, subscriber);
+        }
+      }
+      return;
+    }
+    final int position = indexedTopicPosition(query);
+    if (position < 0) {
+      unindexed.remove(subscriber);
+      return;
+    }
+    for (final LogTopic topic : query.getTopics().get(position)) {
+      removeFrom(byTopic.get(position), topic, subscriber);
+    }
+  }
+
+  public synchronized void clear() {
+    queries.clear();
+    byAddress.clear();
+    byTopic.clear();
+    unindexed.clear();
+  }
+
+  public synchronized int size() {
+    return queries.size();
+  }
+
+  /**
+   * Finds the subscribers whose query matches a log.
+   *
+   * @param log the log
+   * @return the matching subscribers
+   */
+  public synchronized List<T> matching(final Log log) {
+    if (queries.isEmpty()) {
+      return List.of();
+    }
+    final List<T> matches = new ArrayList<>();
+    addMatches(byAddress.get(log.getLogger()), log, matches);
+    final List<LogTopic> topics = log.getTopics();
+    for (int i = 0; i < Math.min(topics.size(), byTopic.size()); i++) {
+      addMatches(byTopic.get(i).get(topics.get(i)), log, matches);
+    }
+    addMatches(unindexed, log, matches);
+    return matches;
+  }
+
+  private void addMatches(final Collection<T> candidates, final Log log, final List<T> matches) {
+    if (candidates == null) {
+      return;
+    }
+    for (final T candidate : candidates) {
+      if (queries.get(candidate).matches(log)) {
+        matches.add(candidate);
+      }
+    }
+  }
+
+  /**
+   * Returns the first topic position that only accepts the listed topics, or -1 if every position
+   * accepts any topic. A position with no topics at all matches no log, so indexing the query under
+   * it means the query is never found.
+   */
+  private static int indexedTopicPosition(final LogsQuery query) {
+    final List<List<LogTopic>> topics = query.getTopics();
+    for (int i = 0; i < topics.size(); i++) {
+      if (!topics.get(i).contains(null)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static <K, T> void removeFrom(
+      final Map<K, Set<T>> index, final K key, final T subscriber) {
+    final Set<T> subscribers = index.get(key);
+    if (subscribers != null) {
+      subscribers.remove(subscriber);
+      if (subscribers.isEmpty()) {
+        index.remove(key);
+      }
+    }
+  }
+}
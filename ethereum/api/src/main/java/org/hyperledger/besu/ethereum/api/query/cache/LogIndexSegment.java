@@ -0,0 +1,231 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query.cache;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Log;
+import org.hyperledger.besu.ethereum.core.LogTopic;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.bytes.MutableBytes;
+
+/**
+ * Maps the log addresses and topics of one segment of blocks to the offsets, relative to the first
+ * block of the segment, of the blocks that emitted them.
+ *
+ * <p>A segment is built in memory while its blocks are added and then sealed into a file. The file
+ * holds a directory of fixed size entries sorted by key, so a lookup is a binary search over the
+ * mapped file, followed by the offsets of every key stored as delta encoded variable length
+ * integers.
+ */
+class LogIndexSegment {
+
+  private static final byte ADDRESS_KEY = 0;
+  private static final byte TOPIC_KEY = 1;
+  private static final int KEY_SIZE = 1 + Bytes32.SIZE;
+  private static final int ENTRY_SIZE = KEY_SIZE + Integer.BYTES + Integer.BYTES;
+  private static final int[] NO_OFFSETS = new int[0];
+
+  private final Map<Bytes, Offsets> offsetsByKey = new HashMap<>();
+
+  static Bytes addressKey(final Address address) {
+    return key(ADDRESS_KEY, address);
+  }
+
+  static Bytes topicKey(final LogTopic topic) {
+    return key(TOPIC_KEY, topic);
+  }
+
+  private static Bytes key(final byte type, final Bytes value) {
+    final MutableBytes key = MutableBytes.create(KEY_SIZE);
+    key.set(0, type);
+    value.copyTo(key, KEY_SIZE - value.size());
+    return key.copy();
+  }
+
+  synchronized void add(final int offset, final Log log) {
+    add(addressKey(log.getLogger()), offset);
+    for (final LogTopic topic : log.getTopics()) {
+      add(topicKey(topic), offset);
+    }
+  }
+
+  private void add(final Bytes key, final int offset) {
+    offsetsByKey.computeIfAbsent(key, k -> new Offsets()).add(offset);
+  }
+
+  synchronized int[] get(final Bytes key) {
+    final Offsets offsets = offsetsByKey.get(key);
+    return offsets == null ? NO_OFFSETS : offsets.toArray();
+  }
+
+  synchronized void writeTo(final Path file) throws IOException {
+    final Bytes[] keys = offsetsByKey.keySet().toArray(new Bytes[0]);
+    Arrays.sort(keys, (a, b) -> Arrays.compareUnsigned(a.toArrayUnsafe(), b.toArrayUnsafe()));
+    final byte[][] encoded = new byte[keys.length][];
+    for (int i = 0; i < keys.length; i++) {
+      encoded[i] = offsetsByKey.get(keys[i]).encode();
+    }
+
+    final Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+    try (final DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+      out.writeInt(keys.length);
+      int dataOffset = 0;
+      for (int i = 0; i < keys.length; i++) {
+        out.write(keys[i].toArrayUnsafe());
+        out.writeInt(dataOffset);
+        out.writeInt(encoded[i].length);
+        dataOffset += encoded[i].length;
+      }
+      for (final byte[] data : encoded) {
+        out.write(data);
+      }
+    }
+    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Maps a sealed segment file for lookups.
+   *
+   * @param file the sealed segment
+   * @return a function returning the sorted block offsets for a key
+   * @throws IOException if the file can't be mapped
+   */
+  static Function<Bytes, int[]> open(final Path file) throws IOException {
+    final MappedByteBuffer buffer;
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    final int entries = buffer.getInt(0);
+    final int dataStart = Integer.BYTES + entries * ENTRY_SIZE;
+    return key -> {
+      final byte[] target = key.toArrayUnsafe();
+      int low = 0;
+      int high = entries - 1;
+      while (low <= high) {
+        final int mid = (low + high) >>> 1;
+        final int entry = Integer.BYTES + mid * ENTRY_SIZE;
+        final int comparison = compareKey(buffer, entry, target);
+        if (comparison < 0) {
+          low = mid + 1;
+        } else if (comparison > 0) {
+          high = mid - 1;
+        } else {
+          final int offset = buffer.getInt(entry + KEY_SIZE);
+          final int length = buffer.getInt(entry + KEY_SIZE + Integer.BYTES);
+          return Offsets.decode(buffer.duplicate().position(dataStart + offset), length);
+        }
+      }
+      return NO_OFFSETS;
+    };
+  }
+
+  private static int compareKey(final ByteBuffer buffer, final int entry, final byte[] key) {
+    for (int i = 0; i < KEY_SIZE; i++) {
+      final int comparison = Integer.compare(buffer.get(entry + i) & 0xFF, key[i] & 0xFF);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  /** Sorted, distinct block offsets. Blocks are mostly added in order so appends are cheap. */
+  private static class Offsets {
+    private int[] values = new int[2];
+    private int size;
+
+    void add(final int offset) {
+      if (size == 0 || offset > values[size - 1]) {
+        ensureCapacity();
+        values[size++] = offset;
+        return;
+      }
+      final int index = Arrays.binarySearch(values, 0, size, offset);
+      if (index < 0) {
+        final int insertAt = -index - 1;
+        ensureCapacity();
+        System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+        values[insertAt] = offset;
+        size++;
+      }
+    }
+
+    private void ensureCapacity() {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+
+    byte[] encode() {
+      final ByteBuffer buffer = ByteBuffer.allocate(size * 5);
+      int previous = -1;
+      for (int i = 0; i < size; i++) {
+        int delta = values[i] - previous;
+        previous = values[i];
+        while ((delta & ~0x7F) != 0) {
+          buffer.put((byte) ((delta & 0x7F) | 0x80));
+          delta >>>= 7;
+        }
+        buffer.put((byte) delta);
+      }
+      return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    static int[] decode(final ByteBuffer buffer, final int length) {
+      final int end = buffer.position() + length;
+      int[] result = new int[Math.max(1, length / 2)];
+      int count = 0;
+      int previous = -1;
+      while (buffer.position() < end) {
+        int delta = 0;
+        int shift = 0;
+        byte b;
+        do {
+          b = buffer.get();
+          delta |= (b & 0x7F) << shift;
+          shift += 7;
+        } while ((b & 0x80) != 0);
+        previous += delta;
+        if (count == result.length) {
+          result = Arrays.copyOf(result, count * 2);
+        }
+        result[count++] = previous;
+      }
+      return Arrays.copyOf(result, count);
+    }
+  }
+}
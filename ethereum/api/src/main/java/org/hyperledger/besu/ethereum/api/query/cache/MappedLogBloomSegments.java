@@ -0,0 +1,94 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Read only memory mapped views of the log bloom cache files, shared by every query.
+ *
+ * <p>A file is mapped again once it grows or is replaced. The {@link TransactionLogBloomCacher}
+ * never shrinks a file in place, it writes a new file and moves it over the old one, so a view is
+ * always backed by a file at least as long as the view itself.
+ */
+public class MappedLogBloomSegments {
+
+  private final ConcurrentMap<Path, MappedSegment> segments = new ConcurrentHashMap<>();
+
+  /**
+   * Returns a view of the blooms cached in a file.
+   *
+   * @param cacheFile the log bloom cache file
+   * @return a buffer holding every bloom currently in the file, read with absolute gets
+   * @throws IOException if the file can't be mapped
+   */
+  public ByteBuffer blooms(final Path cacheFile) throws IOException {
+    final BasicFileAttributes attributes =
+        Files.readAttributes(cacheFile, BasicFileAttributes.class);
+    final MappedSegment current = segments.get(cacheFile);
+    if (current != null && current.isUpToDate(attributes)) {
+      return current.blooms.duplicate();
+    }
+    final MappedSegment mapped = MappedSegment.map(cacheFile, attributes);
+    segments.put(cacheFile, mapped);
+    return mapped.blooms.duplicate();
+  }
+
+  private static class MappedSegment {
+    private final Object fileVersion;
+    private final long size;
+    private final ByteBuffer blooms;
+
+    private MappedSegment(final Object fileVersion, final long size, final ByteBuffer blooms) {
+      this.fileVersion = fileVersion;
+      this.size = size;
+      this.blooms = blooms;
+    }
+
+    static MappedSegment map(final Path cacheFile, final BasicFileAttributes attributes)
+        throws IOException {
+      try (final FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+        final long size = wholeBloomsSize(attributes);
+        return new MappedSegment(
+            fileVersion(attributes), size, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+      }
+    }
+
+    boolean isUpToDate(final BasicFileAttributes attributes) {
+      return size == wholeBloomsSize(attributes)
+          && Objects.equals(fileVersion, fileVersion(attributes));
+    }
+
+    // Only whole blooms are mapped, the last one may be mid write
+    private static long wholeBloomsSize(final BasicFileAttributes attributes) {
+      return attributes.size() - attributes.size() % TransactionLogBloomCacher.BLOOM_BITS_LENGTH;
+    }
+
+    // Replacing the file changes its key, where the file system has none fall back to the
+    // modification time, which also changes on in place writes.
+    private static Object fileVersion(final BasicFileAttributes attributes) {
+      return attributes.fileKey() != null ? attributes.fileKey() : attributes.lastModifiedTime();
+    }
+  }
+}
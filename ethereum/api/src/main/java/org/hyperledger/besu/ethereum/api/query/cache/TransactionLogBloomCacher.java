@@ -24,14 +24,17 @@ import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
@@ -127,7 +130,9 @@ public class TransactionLogBloomCacher {
   private void fillCacheFile(final long startBlock, final long stopBlock, final File currentFile)
       throws IOException {
     long blockNum = startBlock;
-    try (final OutputStream out = new FileOutputStream(currentFile)) {
+    // Queries may have the file memory mapped, so it is replaced rather than rewritten in place
+    final File tempFile = temporaryFileFor(currentFile);
+    try (final OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile))) {
       while (blockNum < stopBlock) {
         final Optional<BlockHeader> maybeHeader = blockchain.getBlockHeader(blockNum);
         if (maybeHeader.isEmpty()) {
@@ -138,6 +143,19 @@ public class TransactionLogBloomCacher {
         blockNum++;
       }
     }
+    replaceFile(tempFile, currentFile);
+  }
+
+  private static File temporaryFileFor(final File file) {
+    return new File(file.getParentFile(), file.getName() + ".tmp");
+  }
+
+  private static void replaceFile(final File source, final File target) throws IOException {
+    Files.move(
+        source.toPath(),
+        target.toPath(),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
   }
 
   void cacheLogsBloomForBlockHeader(
@@ -167,6 +185,7 @@ public class TransactionLogBloomCacher {
 
   private void cacheSingleBlock(final BlockHeader blockHeader, final File cacheFile)
       throws IOException, InvalidCacheException {
+    final long validCacheSize;
     try (final RandomAccessFile writer = new RandomAccessFile(cacheFile, "rw")) {
 
       long nbCachedBlocks = cacheFile.length() / BLOOM_BITS_LENGTH;
@@ -180,13 +199,28 @@ public class TransactionLogBloomCacher {
       writer.seek(offset);
       writer.write(ensureBloomBitsAreCorrectLength(blockHeader.getLogsBloom().toArray()));
 
-      // remove invalid logs when there was a reorg
-      final long validCacheSize = offset + BLOOM_BITS_LENGTH;
+      validCacheSize = offset + BLOOM_BITS_LENGTH;
+      if (writer.length() <= validCacheSize) {
+        return;
+      }
+    }
 
-      if (writer.length() > validCacheSize) {
-        writer.setLength(validCacheSize);
+    // remove invalid logs when there was a reorg, queries may have the file memory mapped so it
+    // can't be truncated in place
+    final File tempFile = temporaryFileFor(cacheFile);
+    try (final FileChannel source = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ);
+        final FileChannel target =
+            FileChannel.open(
+                tempFile.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+      long copied = 0;
+      while (copied < validCacheSize) {
+        copied += source.transferTo(copied, validCacheSize - copied, target);
       }
     }
+    replaceFile(tempFile, cacheFile);
   }
 
   private boolean populateLatestSegment(final long eventBlockNumber) {
@@ -201,11 +235,7 @@ public class TransactionLogBloomCacher {
         cacheSingleBlock(blockchain.getBlockHeader(blockNumber).orElseThrow(), currentFile);
         blockNumber++;
       }
-      Files.move(
-          currentFile.toPath(),
-          calculateCacheFileName(blockNumber, cacheDir).toPath(),
-          StandardCopyOption.REPLACE_EXISTING,
-          StandardCopyOption.ATOMIC_MOVE);
+      replaceFile(currentFile, calculateCacheFileName(blockNumber, cacheDir));
       return true;
     } catch (final IOException | InvalidCacheException e) {
       LOG.error("Unhandled caching exception.", e);
@@ -0,0 +1,385 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.hyperledger.besu.ethereum.api.query.cache.TransactionLogBloomCacher.BLOCKS_PER_BLOOM_CACHE;
+
+import org.hyperledger.besu.ethereum.api.query.LogsQuery;
+import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
+import org.hyperledger.besu.ethereum.chain.BlockAddedObserver;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.LogTopic;
+import org.hyperledger.besu.ethereum.core.LogWithMetadata;
+import org.hyperledger.besu.ethereum.core.LogsBloomFilter;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * An inverted index from log addresses and topics to the blocks that emitted them, kept alongside
+ * the log bloom cache in segments of {@link TransactionLogBloomCacher#BLOCKS_PER_BLOOM_CACHE}
+ * blocks.
+ *
+ * <p>The segments at the head of the chain are maintained in memory from block added events and
+ * sealed into a file once they are {@link #SEAL_DISTANCE} blocks behind the head. Older segments
+ * are built in the background when the index starts. Entries left behind by a reorg are never
+ * removed, the index only ever narrows down the blocks whose logs need to be read, so a stale entry
+ * costs no more than a false positive in a bloom filter.
+ */
+public class TransactionLogIndex implements BlockAddedObserver {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  static final long SEAL_DISTANCE = 1_000;
+
+  private final Blockchain blockchain;
+  private final Path cacheDir;
+  private final EthScheduler scheduler;
+
+  private final Map<Long, LogIndexSegment> openSegments = new ConcurrentHashMap<>();
+  // Open segments holding every block from the start of the segment
+  private final Set<Long> completeSegments = ConcurrentHashMap.newKeySet();
+  private final Set<Long> sealingSegments = ConcurrentHashMap.newKeySet();
+  // Sealed segments are mapped on their first query and stay mapped until the index is stopped.
+  private final Map<Long, Function<Bytes, int[]>> sealedSegments = new ConcurrentHashMap<>();
+  private final AtomicBoolean stopped = new AtomicBoolean(false);
+  private OptionalLong blockAddedSubscriptionId = OptionalLong.empty();
+
+  public TransactionLogIndex(
+      final Blockchain blockchain, final Path cacheDir, final EthScheduler scheduler) {
+    this.blockchain = blockchain;
+    this.cacheDir = cacheDir;
+    this.scheduler = scheduler;
+  }
+
+  public void start() {
+    LOG.info("Starting transaction log index in {}.", cacheDir);
+    try {
+      Files.createDirectories(cacheDir);
+    } catch (final IOException e) {
+      LOG.error("Unable to create transaction log index directory " + cacheDir, e);
+      return;
+    }
+    blockAddedSubscriptionId = OptionalLong.of(blockchain.observeBlockAdded(this));
+    scheduleBackfill();
+  }
+
+  public void stop() {
+    stopped.set(true);
+    blockAddedSubscriptionId.ifPresent(blockchain::removeObserver);
+    sealedSegments.clear();
+  }
+
+  @Override
+  public void onBlockAdded(final BlockAddedEvent event) {
+    if (!event.isNewCanonicalHead()) {
+      return;
+    }
+    final long headNumber = event.getBlock().getHeader().getNumber();
+    long firstAddedBlock = headNumber;
+    if (event.getEventType() == BlockAddedEvent.EventType.CHAIN_REORG) {
+      firstAddedBlock = commonAncestorNumber(event) + 1;
+      invalidateSealedSegments(firstAddedBlock, headNumber);
+    }
+    // The event carries every block of a segment that starts with it
+    if (firstAddedBlock <= headNumber - headNumber % BLOCKS_PER_BLOOM_CACHE) {
+      openSegment(headNumber);
+      completeSegments.add(headNumber / BLOCKS_PER_BLOOM_CACHE);
+    }
+    for (final LogWithMetadata log : event.getLogsWithMetadata()) {
+      if (!log.isRemoved()) {
+        openSegment(log.getBlockNumber())
+            .add((int) (log.getBlockNumber() % BLOCKS_PER_BLOOM_CACHE), log);
+      }
+    }
+    sealFinishedSegments(headNumber);
+  }
+
+  /**
+   * Looks up the blocks that may hold logs matching the query.
+   *
+   * @param fromBlock the first block of the range (inclusive)
+   * @param toBlock the last block of the range (inclusive), in the same segment as {@code
+   *     fromBlock}
+   * @param query the logs query
+   * @return the candidate block numbers in ascending order, or empty if the segment is not fully
+   *     indexed or the query doesn't name any address or topic
+   */
+  public Optional<List<Long>> findCandidateBlocks(
+      final long fromBlock, final long toBlock, final LogsQuery query) {
+    final long segment = fromBlock / BLOCKS_PER_BLOOM_CACHE;
+    checkArgument(
+        toBlock / BLOCKS_PER_BLOOM_CACHE == segment, "Block range must be within one segment");
+    final List<List<Bytes>> criteria = criteria(query);
+    if (criteria.isEmpty()) {
+      return Optional.empty();
+    }
+    final Optional<Function<Bytes, int[]>> maybeLookup = segmentLookup(segment);
+    if (maybeLookup.isEmpty()) {
+      return Optional.empty();
+    }
+    final Function<Bytes, int[]> lookup = maybeLookup.get();
+
+    int[] candidates = null;
+    for (final List<Bytes> anyOf : criteria) {
+      int[] matches = new int[0];
+      for (final Bytes key : anyOf) {
+        matches = union(matches, lookup.apply(key));
+      }
+      candidates = candidates == null ? matches : intersection(candidates, matches);
+    }
+    final long segmentStart = segment * BLOCKS_PER_BLOOM_CACHE;
+    return Optional.of(
+        Arrays.stream(candidates)
+            .mapToLong(offset -> segmentStart + offset)
+            .filter(blockNumber -> blockNumber >= fromBlock && blockNumber <= toBlock)
+            .boxed()
+            .collect(Collectors.toList()));
+  }
+
+  private static List<List<Bytes>> criteria(final LogsQuery query) {
+    final List<List<Bytes>> criteria = new ArrayList<>();
+    if (!query.getAddresses().isEmpty()) {
+      criteria.add(
+          query.getAddresses().stream()
+              .map(LogIndexSegment::addressKey)
+              .collect(Collectors.toList()));
+    }
+    // Topics are indexed regardless of their position, the position is checked against the logs.
+    for (final List<LogTopic> topics : query.getTopics()) {
+      if (!topics.isEmpty() && !topics.contains(null)) {
+        criteria.add(
+            topics.stream().map(LogIndexSegment::topicKey).collect(Collectors.toList()));
+      }
+    }
+    return criteria;
+  }
+
+  private Optional<Function<Bytes, int[]>> segmentLookup(final long segment) {
+    if (completeSegments.contains(segment)) {
+      final LogIndexSegment logIndexSegment = openSegments.get(segment);
+      if (logIndexSegment != null) {
+        return Optional.of(logIndexSegment::get);
+      }
+    }
+    return Optional.ofNullable(sealedSegments.computeIfAbsent(segment, this::mapSealedSegment));
+  }
+
+  private Function<Bytes, int[]> mapSealedSegment(final long segment) {
+    final Path segmentFile = segmentFile(segment);
+    if (!Files.isRegularFile(segmentFile)) {
+      return null;
+    }
+    try {
+      return LogIndexSegment.open(segmentFile);
+    } catch (final IOException e) {
+      LOG.error("Unable to read transaction log index segment " + segmentFile, e);
+      return null;
+    }
+  }
+
+  private LogIndexSegment openSegment(final long blockNumber) {
+    return openSegments.computeIfAbsent(
+        blockNumber / BLOCKS_PER_BLOOM_CACHE, segment -> new LogIndexSegment());
+  }
+
+  private long commonAncestorNumber(final BlockAddedEvent event) {
+    return blockchain
+        .getBlockHeader(event.getCommonAncestorHash())
+        .map(BlockHeader::getNumber)
+        .orElse(0L);
+  }
+
+  private void invalidateSealedSegments(final long fromBlock, final long headNumber) {
+    boolean invalidated = false;
+    for (long segment = fromBlock / BLOCKS_PER_BLOOM_CACHE;
+        segment <= headNumber / BLOCKS_PER_BLOOM_CACHE;
+        segment++) {
+      if (!openSegments.containsKey(segment)) {
+        try {
+          invalidated |= Files.deleteIfExists(segmentFile(segment));
+        } catch (final IOException e) {
+          LOG.error("Unable to delete transaction log index segment " + segment, e);
+        }
+        sealedSegments.remove(segment);
+      }
+    }
+    if (invalidated) {
+      LOG.info("Chain reorg past sealed transaction log index segments, rebuilding them.");
+      scheduleBackfill();
+    }
+  }
+
+  private void sealFinishedSegments(final long headNumber) {
+    for (final long segment : completeSegments) {
+      if ((segment + 1) * BLOCKS_PER_BLOOM_CACHE - 1 + SEAL_DISTANCE <= headNumber
+          && sealingSegments.add(segment)) {
+        scheduler.scheduleComputationTask(() -> seal(segment));
+      }
+    }
+  }
+
+  private boolean seal(final long segment) {
+    try {
+      final LogIndexSegment logIndexSegment = openSegments.get(segment);
+      if (logIndexSegment == null) {
+        return false;
+      }
+      logIndexSegment.writeTo(segmentFile(segment));
+      LOG.debug("Sealed transaction log index segment {}", segment);
+      return true;
+    } catch (final IOException e) {
+      // Leave the segment unindexed, queries fall back to the log bloom cache.
+      LOG.error("Unable to write transaction log index segment " + segment, e);
+      return false;
+    } finally {
+      completeSegments.remove(segment);
+      openSegments.remove(segment);
+      sealingSegments.remove(segment);
+    }
+  }
+
+  private void scheduleBackfill() {
+    scheduler.scheduleComputationTask(this::backfill);
+  }
+
+  /**
+   * Indexes every segment that is neither sealed nor held in memory from its first block, starting
+   * from the chain head so that recent blocks become queryable first.
+   *
+   * @return the number of segments indexed
+   */
+  synchronized int backfill() {
+    final long chainHead = blockchain.getChainHeadBlockNumber();
+    int indexed = 0;
+    for (long segment = chainHead / BLOCKS_PER_BLOOM_CACHE; segment >= 0; segment--) {
+      if (stopped.get()) {
+        return indexed;
+      }
+      if (completeSegments.contains(segment) || Files.isRegularFile(segmentFile(segment))) {
+        continue;
+      }
+      final long segmentStart = segment * BLOCKS_PER_BLOOM_CACHE;
+      final long segmentEnd = Math.min(segmentStart + BLOCKS_PER_BLOOM_CACHE - 1, chainHead);
+      final LogIndexSegment logIndexSegment =
+          openSegments.computeIfAbsent(segment, s -> new LogIndexSegment());
+      if (!indexBlocks(logIndexSegment, segmentStart, segmentEnd)) {
+        openSegments.remove(segment);
+        continue;
+      }
+      completeSegments.add(segment);
+      if (segmentStart + BLOCKS_PER_BLOOM_CACHE - 1 + SEAL_DISTANCE <= chainHead
+          && sealingSegments.add(segment)) {
+        seal(segment);
+      }
+      indexed++;
+    }
+    LOG.info("Transaction log index is up to date with block {}.", chainHead);
+    return indexed;
+  }
+
+  private boolean indexBlocks(
+      final LogIndexSegment logIndexSegment, final long fromBlock, final long toBlock) {
+    final LogsBloomFilter emptyBloom = LogsBloomFilter.empty();
+    for (long blockNumber = fromBlock; blockNumber <= toBlock; blockNumber++) {
+      if (stopped.get()) {
+        return false;
+      }
+      final Optional<BlockHeader> maybeHeader = blockchain.getBlockHeader(blockNumber);
+      if (maybeHeader.isEmpty()) {
+        return false;
+      }
+      final BlockHeader header = maybeHeader.get();
+      if (header.getLogsBloom().equals(emptyBloom)) {
+        continue;
+      }
+      // Blocks from before a fast sync pivot may have no receipts, those segments stay unindexed.
+      final Optional<List<TransactionReceipt>> maybeReceipts =
+          blockchain.getTxReceipts(header.getHash());
+      if (maybeReceipts.isEmpty()) {
+        return false;
+      }
+      final int offset = (int) (blockNumber % BLOCKS_PER_BLOOM_CACHE);
+      maybeReceipts.get().stream()
+          .map(TransactionReceipt::getLogs)
+          .flatMap(List::stream)
+          .forEach(log -> logIndexSegment.add(offset, log));
+    }
+    return true;
+  }
+
+  private Path segmentFile(final long segment) {
+    return cacheDir.resolve("logIndex-" + segment + ".cache");
+  }
+
+  private static int[] union(final int[] a, final int[] b) {
+    final int[] result = new int[a.length + b.length];
+    int i = 0;
+    int j = 0;
+    int size = 0;
+    while (i < a.length || j < b.length) {
+      final int next;
+      if (j == b.length || (i < a.length && a[i] < b[j])) {
+        next = a[i++];
+      } else if (i == a.length || b[j] < a[i]) {
+        next = b[j++];
+      } else {
+        next = a[i++];
+        j++;
+      }
+      result[size++] = next;
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  private static int[] intersection(final int[] a, final int[] b) {
+    final int[] result = new int[Math.min(a.length, b.length)];
+    int i = 0;
+    int j = 0;
+    int size = 0;
+    while (i < a.length && j < b.length) {
+      if (a[i] < b[j]) {
+        i++;
+      } else if (b[j] < a[i]) {
+        j++;
+      } else {
+        result[size++] = a[i];
+        i++;
+        j++;
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+}
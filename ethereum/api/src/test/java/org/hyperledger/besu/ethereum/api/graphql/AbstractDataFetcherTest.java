@@ -50,6 +50,7 @@ public abstract class AbstractDataFetcherTest {
     final GraphQLDataFetchers fetchers = new GraphQLDataFetchers(supportedCapabilities);
     fetcher = fetchers.getBlockDataFetcher();
     Mockito.when(environment.getContext()).thenReturn(context);
-    Mockito.when(context.getBlockchainQueries()).thenReturn(query);
+    Mockito.when(context.getCachingBlockchainQueries())
+        .thenReturn(new CachingBlockchainQueries(query));
   }
 }
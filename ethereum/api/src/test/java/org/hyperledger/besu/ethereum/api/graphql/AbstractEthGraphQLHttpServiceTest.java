@@ -171,7 +171,8 @@ public abstract class AbstractEthGraphQLHttpServiceTest {
             synchronizerMock);
 
     final GraphQLDataFetchers dataFetchers = new GraphQLDataFetchers(supportedCapabilities);
-    final GraphQL graphQL = GraphQLProvider.buildGraphQL(dataFetchers);
+    final GraphQL graphQL =
+        GraphQLProvider.buildGraphQL(dataFetchers, blockchainQueries::headBlockNumber);
 
     service =
         new GraphQLHttpService(
@@ -0,0 +1,116 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.graphql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
+import org.hyperledger.besu.ethereum.api.query.TransactionReceiptWithMetadata;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.chain.TransactionLocation;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator.BlockOptions;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CachingBlockchainQueriesTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+
+  @Mock private BlockchainQueries blockchainQueries;
+  @Mock private Blockchain blockchain;
+  @Mock private MutableWorldState worldState;
+
+  private CachingBlockchainQueries cachingQueries;
+
+  @Before
+  public void setUp() {
+    cachingQueries = new CachingBlockchainQueries(blockchainQueries);
+  }
+
+  @Test
+  public void blockIsLoadedOncePerHash() {
+    final Hash hash = Hash.hash(Bytes.of(1));
+    when(blockchainQueries.blockByHash(hash)).thenReturn(Optional.empty());
+
+    assertThat(cachingQueries.blockByHash(hash)).isEmpty();
+    assertThat(cachingQueries.blockByHash(hash)).isEmpty();
+
+    verify(blockchainQueries, times(1)).blockByHash(hash);
+  }
+
+  @Test
+  public void worldStateIsLoadedOncePerBlockNumber() {
+    when(blockchainQueries.getWorldState(1L)).thenReturn(Optional.of(worldState));
+
+    assertThat(cachingQueries.getWorldState(1L)).contains(worldState);
+    assertThat(cachingQueries.getWorldState(1L)).contains(worldState);
+
+    verify(blockchainQueries, times(1)).getWorldState(1L);
+  }
+
+  @Test
+  public void receiptsAreLoadedOncePerBlock() {
+    final Block block = gen.block(BlockOptions.create().setBlockNumber(1L));
+    final Hash blockHash = block.getHash();
+    final List<Transaction> transactions = block.getBody().getTransactions();
+    final List<TransactionReceipt> receipts = gen.receipts(block);
+    when(blockchainQueries.getBlockchain()).thenReturn(blockchain);
+    when(blockchainQueries.getBlockHeaderByHash(blockHash))
+        .thenReturn(Optional.of(block.getHeader()));
+    when(blockchain.getBlockBody(blockHash)).thenReturn(Optional.of(block.getBody()));
+    when(blockchain.getTxReceipts(blockHash)).thenReturn(Optional.of(receipts));
+    for (int i = 0; i < transactions.size(); i++) {
+      when(blockchainQueries.transactionLocationByHash(transactions.get(i).getHash()))
+          .thenReturn(Optional.of(new TransactionLocation(blockHash, i)));
+    }
+
+    long previousCumulativeGasUsed = 0;
+    for (int i = 0; i < transactions.size(); i++) {
+      final Transaction transaction = transactions.get(i);
+      final Optional<TransactionReceiptWithMetadata> receipt =
+          cachingQueries.transactionReceiptByTransactionHash(transaction.getHash());
+
+      assertThat(receipt).isPresent();
+      assertThat(receipt.get().getReceipt()).isEqualTo(receipts.get(i));
+      assertThat(receipt.get().getTransactionHash()).isEqualTo(transaction.getHash());
+      assertThat(receipt.get().getTransactionIndex()).isEqualTo(i);
+      assertThat(receipt.get().getBlockNumber()).isEqualTo(1L);
+      assertThat(receipt.get().getGasUsed())
+          .isEqualTo(receipts.get(i).getCumulativeGasUsed() - previousCumulativeGasUsed);
+      previousCumulativeGasUsed = receipts.get(i).getCumulativeGasUsed();
+    }
+
+    verify(blockchain, times(1)).getTxReceipts(blockHash);
+    verify(blockchain, times(1)).getBlockBody(blockHash);
+  }
+}
@@ -226,7 +226,8 @@ public class GraphQLHttpServiceCorsTest {
     supportedCapabilities.add(EthProtocol.ETH62);
     supportedCapabilities.add(EthProtocol.ETH63);
     final GraphQLDataFetchers dataFetchers = new GraphQLDataFetchers(supportedCapabilities);
-    final GraphQL graphQL = GraphQLProvider.buildGraphQL(dataFetchers);
+    final GraphQL graphQL =
+        GraphQLProvider.buildGraphQL(dataFetchers, blockchainQueries::headBlockNumber);
 
     final GraphQLHttpService graphQLHttpService =
         new GraphQLHttpService(
@@ -87,7 +87,8 @@ public class GraphQLHttpServiceHostWhitelistTest {
     supportedCapabilities.add(EthProtocol.ETH62);
     supportedCapabilities.add(EthProtocol.ETH63);
     final GraphQLDataFetchers dataFetchers = new GraphQLDataFetchers(supportedCapabilities);
-    final GraphQL graphQL = GraphQLProvider.buildGraphQL(dataFetchers);
+    final GraphQL graphQL =
+        GraphQLProvider.buildGraphQL(dataFetchers, blockchainQueries::headBlockNumber);
 
     return new GraphQLHttpService(
         vertx,
@@ -94,7 +94,7 @@ public class GraphQLHttpServiceTest {
     supportedCapabilities.add(EthProtocol.ETH62);
     supportedCapabilities.add(EthProtocol.ETH63);
     final GraphQLDataFetchers dataFetchers = new GraphQLDataFetchers(supportedCapabilities);
-    graphQL = GraphQLProvider.buildGraphQL(dataFetchers);
+    graphQL = GraphQLProvider.buildGraphQL(dataFetchers, blockchainQueries::headBlockNumber);
     service = createGraphQLHttpService();
     service.start().join();
     // Build an OkHttp client.
@@ -214,6 +214,48 @@ public class GraphQLHttpServiceTest {
     }
   }
 
+  @Test
+  public void handleTooDeepQuery() throws Exception {
+    final String query =
+        "{block{transactions{" + "logs{transaction{".repeat(8) + "hash" + "}}".repeat(8) + "}}}";
+    final RequestBody body = RequestBody.create(query, GRAPHQL);
+
+    try (final Response resp = client.newCall(buildPostRequest(body)).execute()) {
+      final JsonObject json = new JsonObject(resp.body().string());
+      testHelper.assertValidGraphQLError(json);
+      Assertions.assertThat(resp.code()).isEqualTo(400);
+      Assertions.assertThat(json.getJsonArray("errors").getJsonObject(0).getString("message"))
+          .startsWith("maximum query depth exceeded");
+    }
+  }
+
+  @Test
+  public void handleTooWideBlockRange() throws Exception {
+    final RequestBody body = RequestBody.create("{blocks(from:0, to:1000){number}}", GRAPHQL);
+
+    try (final Response resp = client.newCall(buildPostRequest(body)).execute()) {
+      final JsonObject json = new JsonObject(resp.body().string());
+      testHelper.assertValidGraphQLError(json);
+      Assertions.assertThat(resp.code()).isEqualTo(400);
+      Assertions.assertThat(json.getJsonArray("errors").getJsonObject(0).getString("message"))
+          .startsWith("maximum query complexity exceeded");
+    }
+  }
+
+  @Test
+  public void handleTooWideOpenBlockRange() throws Exception {
+    Mockito.when(blockchainQueries.headBlockNumber()).thenReturn(1000L);
+    final RequestBody body = RequestBody.create("{blocks(from:0){number}}", GRAPHQL);
+
+    try (final Response resp = client.newCall(buildPostRequest(body)).execute()) {
+      final JsonObject json = new JsonObject(resp.body().string());
+      testHelper.assertValidGraphQLError(json);
+      Assertions.assertThat(resp.code()).isEqualTo(400);
+      Assertions.assertThat(json.getJsonArray("errors").getJsonObject(0).getString("message"))
+          .startsWith("maximum query complexity exceeded");
+    }
+  }
+
   @Test
   public void query_get() throws Exception {
     final Wei price = Wei.of(16);
@@ -17,9 +17,16 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.internal.filter;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.BlockParameter;
+import org.hyperledger.besu.ethereum.api.query.LogsQuery;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Log;
+
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.apache.tuweni.bytes.Bytes;
 import org.assertj.core.util.Lists;
 import org.junit.Before;
 import org.junit.Test;
@@ -202,4 +209,26 @@ public class FilterRepositoryTest {
     assertThat(repository.exists(filter1.getId())).isFalse();
     assertThat(repository.exists(filter2.getId())).isFalse();
   }
+
+  @Test
+  public void logFiltersMatchingShouldOnlyReturnSavedPublicLogFilters() {
+    final Address address = Address.fromHexString("0x1");
+    final LogsQuery logsQuery = new LogsQuery.Builder().address(address).build();
+    final LogFilter logFilter =
+        new LogFilter("foo", BlockParameter.EARLIEST, BlockParameter.LATEST, logsQuery);
+    final PrivateLogFilter privateLogFilter =
+        new PrivateLogFilter(
+            "bar", "group", "key", BlockParameter.EARLIEST, BlockParameter.LATEST, logsQuery);
+    final Log log = new Log(address, Bytes.EMPTY, List.of());
+    repository.save(logFilter);
+    repository.save(privateLogFilter);
+
+    assertThat(repository.getLogFiltersMatching(log)).containsExactly(logFilter);
+    assertThat(repository.getLogFiltersMatching(new Log(Address.ZERO, Bytes.EMPTY, List.of())))
+        .isEmpty();
+
+    repository.delete(logFilter.getId());
+
+    assertThat(repository.getLogFiltersMatching(log)).isEmpty();
+  }
 }
@@ -99,7 +99,7 @@ public class DebugTraceBlockByHashTest {
     when(transaction2Trace.getResult()).thenReturn(transaction2Result);
     when(transaction1Result.getOutput()).thenReturn(Bytes.fromHexString("1234"));
     when(transaction2Result.getOutput()).thenReturn(Bytes.fromHexString("1234"));
-    when(blockTracer.trace(eq(blockHash), any())).thenReturn(Optional.of(blockTrace));
+    when(blockTracer.traceInParallel(eq(blockHash), any())).thenReturn(Optional.of(blockTrace));
 
     final JsonRpcSuccessResponse response =
         (JsonRpcSuccessResponse) debugTraceBlockByHash.response(request);
@@ -117,7 +117,7 @@ public class DebugTraceBlockTest {
     when(transaction2Trace.getResult()).thenReturn(transaction2Result);
     when(transaction1Result.getOutput()).thenReturn(Bytes.fromHexString("1234"));
     when(transaction2Result.getOutput()).thenReturn(Bytes.fromHexString("1234"));
-    when(blockTracer.trace(Mockito.eq(block), any())).thenReturn(Optional.of(blockTrace));
+    when(blockTracer.traceInParallel(Mockito.eq(block), any())).thenReturn(Optional.of(blockTrace));
 
     when(blockchainQueries.blockByHash(parentBlock.getHash()))
         .thenReturn(
@@ -0,0 +1,185 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.core.Gas;
+import org.hyperledger.besu.ethereum.core.MessageFrameTestFixture;
+import org.hyperledger.besu.ethereum.debug.TraceOptions;
+import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor.Result;
+import org.hyperledger.besu.ethereum.vm.AbstractOperation;
+import org.hyperledger.besu.ethereum.vm.EVM;
+import org.hyperledger.besu.ethereum.vm.ExceptionalHaltReason;
+import org.hyperledger.besu.ethereum.vm.MessageFrame;
+import org.hyperledger.besu.ethereum.vm.Operation;
+import org.hyperledger.besu.ethereum.vm.Operation.OperationResult;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StreamingStructLogTracerTest {
+
+  private static final Bytes32 WORD1 = Bytes32.fromHexString("0x01");
+  private static final Bytes32 WORD2 = Bytes32.fromHexString("0x02");
+  private static final OperationResult SUCCESS =
+      new OperationResult(Optional.of(Gas.of(3)), Optional.empty());
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final StringWriter output = new StringWriter();
+  private final MessageFrame frame = new MessageFrameTestFixture().build();
+  private JsonGenerator generator;
+
+  @Before
+  public void setUp() throws IOException {
+    generator = objectMapper.getFactory().createGenerator(output);
+    frame.setCurrentOperation(operation("MSTORE"));
+  }
+
+  @Test
+  public void shouldOnlyWriteMemoryWordsChangedByEachOperation() throws IOException {
+    final StreamingStructLogTracer tracer =
+        new StreamingStructLogTracer(new TraceOptions(false, true, false), generator);
+
+    tracer.startTransaction();
+    tracer.traceExecution(
+        frame,
+        () -> {
+          frame.writeMemory(UInt256.ZERO, UInt256.valueOf(32), WORD1);
+          frame.writeMemory(UInt256.valueOf(32), UInt256.valueOf(32), WORD2);
+          return SUCCESS;
+        });
+    tracer.traceExecution(
+        frame,
+        () -> {
+          frame.writeMemory(UInt256.valueOf(32), UInt256.valueOf(32), WORD1);
+          // Expansion alone isn't a change.
+          frame.expandMemory(UInt256.valueOf(64), UInt256.valueOf(32));
+          return SUCCESS;
+        });
+    final JsonNode structLogs = endTransaction(tracer).get("structLogs");
+
+    assertThat(structLogs).hasSize(2);
+    assertThat(structLogs.get(0).get("memSize").asLong()).isEqualTo(64);
+    assertThat(fieldNames(structLogs.get(0).get("memory"))).containsExactly("0x0", "0x20");
+    assertThat(structLogs.get(0).get("memory").get("0x20").asText())
+        .isEqualTo(WORD2.toUnprefixedHexString());
+    assertThat(structLogs.get(1).get("memSize").asLong()).isEqualTo(96);
+    assertThat(fieldNames(structLogs.get(1).get("memory"))).containsExactly("0x20");
+    assertThat(structLogs.get(1).get("memory").get("0x20").asText())
+        .isEqualTo(WORD1.toUnprefixedHexString());
+  }
+
+  @Test
+  public void shouldOnlyWriteStorageSlotWrittenByOperation() throws IOException {
+    final StreamingStructLogTracer tracer =
+        new StreamingStructLogTracer(new TraceOptions(true, false, false), generator);
+
+    tracer.startTransaction();
+    tracer.traceExecution(
+        frame,
+        () -> {
+          frame.storageWasUpdated(UInt256.ONE, UInt256.valueOf(42).toBytes());
+          return SUCCESS;
+        });
+    tracer.traceExecution(frame, () -> SUCCESS);
+    final JsonNode structLogs = endTransaction(tracer).get("structLogs");
+
+    assertThat(structLogs).hasSize(2);
+    assertThat(structLogs.get(0).get("storage").get(UInt256.ONE.toBytes().toUnprefixedHexString()))
+        .isNotNull();
+    assertThat(structLogs.get(1).get("storage").size()).isZero();
+  }
+
+  @Test
+  public void shouldWriteStackAndOperationDetails() throws IOException {
+    final StreamingStructLogTracer tracer =
+        new StreamingStructLogTracer(new TraceOptions(false, false, true), generator);
+    frame.setPC(7);
+    frame.pushStackItem(WORD1);
+    frame.pushStackItem(WORD2);
+
+    tracer.startTransaction();
+    tracer.traceExecution(frame, () -> SUCCESS);
+    final JsonNode result = endTransaction(tracer);
+    final JsonNode structLog = result.get("structLogs").get(0);
+
+    assertThat(structLog.get("pc").asInt()).isEqualTo(7);
+    assertThat(structLog.get("op").asText()).isEqualTo("MSTORE");
+    assertThat(structLog.get("gasCost").asLong()).isEqualTo(3);
+    assertThat(structLog.get("depth").asInt()).isEqualTo(1);
+    assertThat(structLog.get("stack").get(0).asText()).isEqualTo(WORD1.toUnprefixedHexString());
+    assertThat(structLog.get("stack").get(1).asText()).isEqualTo(WORD2.toUnprefixedHexString());
+    assertThat(structLog.has("memory")).isFalse();
+    assertThat(result.get("gas").asLong()).isEqualTo(21_000);
+    assertThat(result.get("failed").asBoolean()).isFalse();
+    assertThat(result.get("returnValue").asText()).isEqualTo("beef");
+  }
+
+  @Test
+  public void shouldMarkCreationFailureOnLastOperationBeforeReturn() throws IOException {
+    final StreamingStructLogTracer tracer =
+        new StreamingStructLogTracer(new TraceOptions(false, false, false), generator);
+
+    tracer.startTransaction();
+    tracer.traceExecution(frame, () -> SUCCESS);
+    tracer.traceExecution(frame, () -> SUCCESS);
+    frame.setCurrentOperation(operation("RETURN"));
+    tracer.traceExecution(frame, () -> SUCCESS);
+    tracer.traceAccountCreationResult(
+        frame, Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
+    final JsonNode structLogs = endTransaction(tracer).get("structLogs");
+
+    assertThat(structLogs).hasSize(3);
+    assertThat(structLogs.get(0).has("error")).isFalse();
+    assertThat(structLogs.get(1).get("error").get(0).asText()).isEqualTo("INSUFFICIENT_GAS");
+    assertThat(structLogs.get(2).has("error")).isFalse();
+  }
+
+  private JsonNode endTransaction(final StreamingStructLogTracer tracer) throws IOException {
+    final Result result = mock(Result.class);
+    when(result.getGasRemaining()).thenReturn(79_000L);
+    when(result.isSuccessful()).thenReturn(true);
+    when(result.getOutput()).thenReturn(Bytes.fromHexString("0xbeef"));
+    tracer.endTransaction(100_000L, result);
+    generator.flush();
+    return objectMapper.readTree(output.toString());
+  }
+
+  private static Iterable<String> fieldNames(final JsonNode node) {
+    return node::fieldNames;
+  }
+
+  private static Operation operation(final String name) {
+    return new AbstractOperation(0x52, name, 2, 0, false, 1, null) {
+      @Override
+      public OperationResult execute(final MessageFrame frame, final EVM evm) {
+        return SUCCESS;
+      }
+    };
+  }
+}
@@ -18,6 +18,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.hyperledger.besu.ethereum.chain.Blockchain;
@@ -33,6 +35,8 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
 import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor;
 import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor.Result;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
+import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
 import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 
@@ -134,6 +138,9 @@ public class TransactionTracerTest {
 
     when(blockBody.getTransactions()).thenReturn(Arrays.asList(otherTransaction, transaction));
     when(blockchain.getBlockBody(blockHash)).thenReturn(Optional.of(blockBody));
+    final WorldUpdater parentUpdater = mock(WorldUpdater.class);
+    when(mutableWorldState.updater()).thenReturn(parentUpdater);
+    when(parentUpdater.updater()).thenReturn(mock(WorldUpdater.class));
     final List<TraceFrame> traceFrames = Collections.singletonList(mock(TraceFrame.class));
     when(tracer.getTraceFrames()).thenReturn(traceFrames);
 
@@ -143,6 +150,34 @@ public class TransactionTracerTest {
     assertThat(transactionTrace.map(TransactionTrace::getTraceFrames)).contains(traceFrames);
   }
 
+  @Test
+  public void traceTransactionShouldReuseReplayedTransactionsOfTheSameBlock() {
+    when(blockchain.getBlockHeader(blockHash)).thenReturn(Optional.of(blockHeader));
+    when(blockchain.getBlockHeader(previousBlockHash)).thenReturn(Optional.of(previousBlockHeader));
+
+    when(blockBody.getTransactions()).thenReturn(Arrays.asList(otherTransaction, transaction));
+    when(blockchain.getBlockBody(blockHash)).thenReturn(Optional.of(blockBody));
+    final WorldUpdater parentUpdater = mock(WorldUpdater.class);
+    final WorldUpdater checkpoint = mock(WorldUpdater.class);
+    when(mutableWorldState.updater()).thenReturn(parentUpdater);
+    when(parentUpdater.updater()).thenReturn(checkpoint);
+
+    transactionTracer.traceTransaction(blockHash, transactionHash, tracer);
+    transactionTracer.traceTransaction(blockHash, transactionHash, tracer);
+
+    verify(transactionProcessor, times(1))
+        .processTransaction(
+            eq(blockchain),
+            eq(checkpoint),
+            eq(blockHeader),
+            eq(otherTransaction),
+            any(),
+            any(BlockHashLookup.class),
+            eq(false),
+            any(TransactionValidationParams.class));
+    verify(checkpoint, times(2)).updater();
+  }
+
   @Test
   public void traceTransactionShouldReturnResultFromProcessTransaction() {
     final Result result = mock(Result.class);
@@ -18,13 +18,20 @@ import static junit.framework.TestCase.fail;
 import static org.mockito.Mockito.mock;
 
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.JsonRpcResult;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.LogResult;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.SubscribeRequest;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.SubscriptionType;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.response.SubscriptionResponse;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.LogWithMetadata;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 
+import java.util.List;
 import java.util.UUID;
 
+import org.apache.tuweni.bytes.Bytes;
+
 import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
 import io.vertx.ext.unit.Async;
@@ -79,6 +86,45 @@ public class SubscriptionManagerSendMessageTest {
     async.awaitSuccess(VERTX_AWAIT_TIMEOUT_MILLIS);
   }
 
+  @Test
+  public void shouldSendMessageSerializedOnceAsIfSentToEachSubscription(
+      final TestContext context) {
+    final String connectionId = UUID.randomUUID().toString();
+    final SubscribeRequest subscribeRequest =
+        new SubscribeRequest(SubscriptionType.SYNCING, null, null, connectionId);
+    final JsonRpcResult result =
+        new LogResult(
+            new LogWithMetadata(
+                0,
+                100L,
+                Hash.ZERO,
+                Hash.ZERO,
+                0,
+                Address.fromHexString("0x1"),
+                Bytes.fromHexString("0x01"),
+                List.of(),
+                false));
+
+    final Long subscriptionId = subscriptionManager.subscribe(subscribeRequest);
+    final Subscription subscription = subscriptionManager.getSubscriptionById(subscriptionId);
+    final SubscriptionResponse expectedResponse = new SubscriptionResponse(subscription, result);
+
+    final Async async = context.async();
+
+    vertx
+        .eventBus()
+        .consumer(connectionId)
+        .handler(
+            msg -> {
+              context.assertEquals(Json.encode(expectedResponse), msg.body());
+              async.complete();
+            })
+        .completionHandler(
+            v -> subscriptionManager.sendMessageToSubscriptions(List.of(subscription), result));
+
+    async.awaitSuccess(VERTX_AWAIT_TIMEOUT_MILLIS);
+  }
+
   @Test
   public void shouldNotSendMessageOnTheConnectionIdEventBusAddressForAbsentSubscription(
       final TestContext context) {
@@ -30,12 +30,15 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.SubscriptionType;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.UnsubscribeRequest;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.syncing.SyncingSubscription;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Log;
 import org.hyperledger.besu.ethereum.privacy.PrivateTransactionEvent;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 
 import java.util.List;
 import java.util.UUID;
 
+import org.apache.tuweni.bytes.Bytes;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -250,6 +253,28 @@ public class SubscriptionManagerTest {
     assertThat(subscriptionManager.getSubscriptionById(subscriptionId)).isNull();
   }
 
+  @Test
+  public void logsSubscriptionsAreMatchedUntilUnsubscribed() {
+    final Address address = Address.fromHexString("0x1");
+    final FilterParameter filterParameter =
+        new FilterParameter(
+            BlockParameter.EARLIEST, BlockParameter.LATEST, List.of(address), null, null);
+    final Long subscriptionId =
+        subscriptionManager.subscribe(
+            new SubscribeRequest(SubscriptionType.LOGS, filterParameter, null, CONNECTION_ID));
+    final Log log = new Log(address, Bytes.EMPTY, List.of());
+    final Log otherLog = new Log(Address.fromHexString("0x2"), Bytes.EMPTY, List.of());
+
+    assertThat(subscriptionManager.logsSubscriptionsMatching(log))
+        .extracting(Subscription::getSubscriptionId)
+        .containsExactly(subscriptionId);
+    assertThat(subscriptionManager.logsSubscriptionsMatching(otherLog)).isEmpty();
+
+    subscriptionManager.unsubscribe(new UnsubscribeRequest(subscriptionId, CONNECTION_ID));
+
+    assertThat(subscriptionManager.logsSubscriptionsMatching(log)).isEmpty();
+  }
+
   private SubscribeRequest subscribeRequest(final String connectionId) {
     return new SubscribeRequest(SubscriptionType.SYNCING, null, null, connectionId);
   }
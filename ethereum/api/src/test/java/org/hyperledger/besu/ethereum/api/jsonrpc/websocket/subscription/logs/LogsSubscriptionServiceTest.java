@@ -17,6 +17,7 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -26,6 +27,7 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.FilterParam
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.LogResult;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.Quantity;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.SubscriptionManager;
+import org.hyperledger.besu.ethereum.api.query.LogsQueryIndex;
 import org.hyperledger.besu.ethereum.api.query.PrivacyQueries;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.Address;
@@ -98,7 +100,8 @@ public class LogsSubscriptionServiceTest {
     blockchain.appendBlock(blockWithReceipts.getBlock(), blockWithReceipts.getReceipts());
 
     final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-    verify(subscriptionManager).sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
+    verify(subscriptionManager)
+        .sendMessageToSubscriptions(eq(List.of(subscription)), captor.capture());
 
     final List<LogResult> logResults = captor.getAllValues();
 
@@ -132,7 +135,7 @@ public class LogsSubscriptionServiceTest {
 
     final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
     verify(subscriptionManager, times(2))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
+        .sendMessageToSubscriptions(eq(List.of(subscription)), captor.capture());
 
     final List<LogResult> logResults = captor.getAllValues();
 
@@ -175,7 +178,7 @@ public class LogsSubscriptionServiceTest {
 
     final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
     verify(subscriptionManager, times(3))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
+        .sendMessageToSubscriptions(eq(List.of(subscription)), captor.capture());
 
     final List<LogResult> logResults = captor.getAllValues();
 
@@ -213,7 +216,7 @@ public class LogsSubscriptionServiceTest {
 
     final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
     verify(subscriptionManager, times(targetBlocks.size() * txCount))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
+        .sendMessageToSubscriptions(eq(List.of(subscription)), captor.capture());
     final List<LogResult> logResults = captor.getAllValues();
 
     // Verify all logs are emitted
@@ -250,17 +253,15 @@ public class LogsSubscriptionServiceTest {
     registerSubscriptions(subscriptions);
     blockchain.appendBlock(blockWithReceipts.getBlock(), blockWithReceipts.getReceipts());
 
-    for (LogsSubscription subscription : subscriptions) {
-      final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-      verify(subscriptionManager)
-          .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
-
-      final List<LogResult> logResults = captor.getAllValues();
+    @SuppressWarnings("unchecked")
+    final ArgumentCaptor<List<LogsSubscription>> recipientsCaptor =
+        ArgumentCaptor.forClass(List.class);
+    final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
+    verify(subscriptionManager)
+        .sendMessageToSubscriptions(recipientsCaptor.capture(), captor.capture());
 
-      assertThat(logResults).hasSize(1);
-      final LogResult result = logResults.get(0);
-      assertLogResultMatches(result, block, receipts, txIndex, logIndex, false);
-    }
+    assertThat(recipientsCaptor.getValue()).containsExactlyInAnyOrderElementsOf(subscriptions);
+    assertLogResultMatches(captor.getValue(), block, receipts, txIndex, logIndex, false);
   }
 
   @Test
@@ -274,7 +275,7 @@ public class LogsSubscriptionServiceTest {
 
     final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
     verify(subscriptionManager, times(0))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
+        .sendMessageToSubscriptions(eq(List.of(subscription)), captor.capture());
   }
 
   @Test
@@ -288,7 +289,7 @@ public class LogsSubscriptionServiceTest {
 
     final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
     verify(subscriptionManager, times(0))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
+        .sendMessageToSubscriptions(eq(List.of(subscription)), captor.capture());
   }
 
   @Test
@@ -427,6 +428,12 @@ public class LogsSubscriptionServiceTest {
   private void registerSubscriptions(final List<LogsSubscription> subscriptions) {
     when(subscriptionManager.subscriptionsOfType(any(), any()))
         .thenReturn(Lists.newArrayList(subscriptions));
+    final LogsQueryIndex<LogsSubscription> index = new LogsQueryIndex<>();
+    subscriptions.forEach(
+        subscription -> index.put(subscription, subscription.getFilterParameter().getLogsQuery()));
+    lenient()
+        .when(subscriptionManager.logsSubscriptionsMatching(any()))
+        .thenAnswer(invocation -> index.matching(invocation.getArgument(0)));
   }
 
   private LogWithMetadata logWithMetadata() {
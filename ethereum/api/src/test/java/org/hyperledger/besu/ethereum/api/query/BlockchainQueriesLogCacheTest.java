@@ -19,6 +19,7 @@ package org.hyperledger.besu.ethereum.api.query;
 import static org.hyperledger.besu.ethereum.api.query.cache.TransactionLogBloomCacher.BLOCKS_PER_BLOOM_CACHE;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -41,6 +42,8 @@ import java.io.RandomAccessFile;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.Before;
@@ -118,6 +121,11 @@ public class BlockchainQueriesLogCacheTest {
     when(blockchain.getBlockHeader(anyLong())).thenReturn(Optional.of(fakeHeader));
     when(blockchain.getTxReceipts(any())).thenReturn(Optional.of(Collections.emptyList()));
     when(blockchain.getBlockBody(any())).thenReturn(Optional.of(fakeBody));
+    lenient()
+        .when(scheduler.scheduleComputationTask(any()))
+        .thenAnswer(
+            invocation ->
+                CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(0).get()));
     blockchainQueries =
         new BlockchainQueries(
             blockchain,
@@ -0,0 +1,127 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Log;
+import org.hyperledger.besu.ethereum.core.LogTopic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class LogsQueryIndexTest {
+
+  private static final List<Address> ADDRESSES =
+      IntStream.range(0, 4)
+          .mapToObj(i -> Address.fromHexString("0x0" + i))
+          .collect(Collectors.toList());
+  private static final List<LogTopic> TOPICS =
+      IntStream.range(0, 4)
+          .mapToObj(i -> LogTopic.of(Bytes32.leftPad(Bytes.of(i))))
+          .collect(Collectors.toList());
+
+  private final LogsQueryIndex<Integer> index = new LogsQueryIndex<>();
+
+  @Test
+  public void matchesTheSameSubscribersAsCheckingEveryQuery() {
+    final Random random = new Random(42);
+    final List<LogsQuery> queries = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      final LogsQuery query = randomQuery(random);
+      queries.add(query);
+      index.put(i, query);
+    }
+
+    for (int i = 0; i < 500; i++) {
+      final Log log = randomLog(random);
+      final List<Integer> expected =
+          IntStream.range(0, queries.size())
+              .filter(subscriber -> queries.get(subscriber).matches(log))
+              .boxed()
+              .collect(Collectors.toList());
+
+      assertThat(index.matching(log)).containsExactlyInAnyOrderElementsOf(expected);
+    }
+  }
+
+  @Test
+  public void removedSubscribersAreNotMatched() {
+    final Log log = new Log(ADDRESSES.get(0), Bytes.EMPTY, List.of(TOPICS.get(0)));
+    index.put(1, new LogsQuery(List.of(ADDRESSES.get(0)), List.of()));
+    index.put(2, new LogsQuery(List.of(), List.of(List.of(TOPICS.get(0)))));
+    index.put(3, new LogsQuery(List.of(), List.of()));
+
+    assertThat(index.matching(log)).containsExactlyInAnyOrder(1, 2, 3);
+
+    index.remove(1);
+    index.remove(2);
+    index.remove(3);
+
+    assertThat(index.matching(log)).isEmpty();
+    assertThat(index.size()).isZero();
+  }
+
+  @Test
+  public void putReplacesThePreviousQuery() {
+    final Log log = new Log(ADDRESSES.get(0), Bytes.EMPTY, List.of());
+    index.put(1, new LogsQuery(List.of(ADDRESSES.get(0)), List.of()));
+    index.put(1, new LogsQuery(List.of(ADDRESSES.get(1)), List.of()));
+
+    assertThat(index.matching(log)).isEmpty();
+    assertThat(index.matching(new Log(ADDRESSES.get(1), Bytes.EMPTY, List.of())))
+        .containsExactly(1);
+  }
+
+  private static LogsQuery randomQuery(final Random random) {
+    final List<Address> addresses = new ArrayList<>();
+    if (random.nextBoolean()) {
+      addresses.addAll(pick(random, ADDRESSES));
+    }
+    final List<List<LogTopic>> topics = new ArrayList<>();
+    final int positions = random.nextInt(3);
+    for (int i = 0; i < positions; i++) {
+      final List<LogTopic> position = new ArrayList<>(pick(random, TOPICS));
+      if (random.nextInt(4) == 0) {
+        position.add(null);
+      }
+      topics.add(position);
+    }
+    return new LogsQuery(addresses, topics);
+  }
+
+  private static Log randomLog(final Random random) {
+    final List<LogTopic> topics =
+        IntStream.range(0, random.nextInt(4))
+            .mapToObj(i -> TOPICS.get(random.nextInt(TOPICS.size())))
+            .collect(Collectors.toList());
+    return new Log(ADDRESSES.get(random.nextInt(ADDRESSES.size())), Bytes.EMPTY, topics);
+  }
+
+  private static <T> List<T> pick(final Random random, final List<T> values) {
+    final List<T> shuffled = new ArrayList<>(values);
+    Collections.shuffle(shuffled, random);
+    return shuffled.subList(0, random.nextInt(values.size()));
+  }
+}
@@ -22,7 +22,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import org.hyperledger.besu.ethereum.core.Address;
 import org.hyperledger.besu.ethereum.core.Log;
 import org.hyperledger.besu.ethereum.core.LogTopic;
+import org.hyperledger.besu.ethereum.core.LogsBloomFilter;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -73,4 +75,37 @@ public class LogsQueryTest {
                     List.of(ERC20_TRANSFER_EVENT, SECOND_ADDRESS_TOPIC, FIRST_ADDRESS_TOPIC))))
         .isTrue();
   }
+
+  @Test
+  public void bufferedBloomMatchesLikeBloomFilter() {
+    final LogsQuery query =
+        new LogsQuery(
+            singletonList(FIRST_ADDRESS),
+            List.of(
+                singletonList(ERC20_TRANSFER_EVENT),
+                List.of(FIRST_ADDRESS_TOPIC, SECOND_ADDRESS_TOPIC)));
+    final List<LogsBloomFilter> blooms =
+        List.of(
+            LogsBloomFilter.empty(),
+            bloom(new Log(FIRST_ADDRESS, Bytes.EMPTY, List.of(ERC20_TRANSFER_EVENT))),
+            bloom(new Log(FIRST_ADDRESS, Bytes.EMPTY, List.of(SECOND_ADDRESS_TOPIC))),
+            bloom(
+                new Log(
+                    FIRST_ADDRESS,
+                    Bytes.EMPTY,
+                    List.of(ERC20_TRANSFER_EVENT, SECOND_ADDRESS_TOPIC))));
+    final ByteBuffer buffer = ByteBuffer.allocate(blooms.size() * LogsBloomFilter.BYTE_SIZE);
+    blooms.forEach(bloom -> buffer.put(bloom.toArrayUnsafe()));
+
+    for (int i = 0; i < blooms.size(); i++) {
+      assertThat(query.couldMatch(buffer, i * LogsBloomFilter.BYTE_SIZE))
+          .isEqualTo(query.couldMatch(blooms.get(i)));
+    }
+    assertThat(query.couldMatch(buffer, 3 * LogsBloomFilter.BYTE_SIZE)).isTrue();
+    assertThat(query.couldMatch(buffer, LogsBloomFilter.BYTE_SIZE)).isFalse();
+  }
+
+  private static LogsBloomFilter bloom(final Log log) {
+    return LogsBloomFilter.builder().insertLog(log).build();
+  }
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.besu.ethereum.api.query.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.api.query.cache.TransactionLogBloomCacher.BLOCKS_PER_BLOOM_CACHE;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.api.query.LogsQuery;
+import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.Log;
+import org.hyperledger.besu.ethereum.core.LogTopic;
+import org.hyperledger.besu.ethereum.core.LogWithMetadata;
+import org.hyperledger.besu.ethereum.core.LogsBloomFilter;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TransactionLogIndexTest {
+
+  private static final Address ADDRESS_A = Address.fromHexString("0x123456");
+  private static final Address ADDRESS_B = Address.fromHexString("0x654321");
+  private static final LogTopic TOPIC =
+      LogTopic.fromHexString("0x0000000000000000000000000000000000000000000000000000000000000042");
+
+  @Rule public TemporaryFolder cacheDir = new TemporaryFolder();
+
+  @Mock MutableBlockchain blockchain;
+  @Mock EthScheduler scheduler;
+  private TransactionLogIndex transactionLogIndex;
+
+  @Before
+  public void setup() {
+    transactionLogIndex =
+        new TransactionLogIndex(blockchain, cacheDir.getRoot().toPath(), scheduler);
+  }
+
+  @Test
+  public void findsBlocksAddedToTheHeadSegment() {
+    transactionLogIndex.onBlockAdded(headAdvanced(0));
+    transactionLogIndex.onBlockAdded(headAdvanced(1, log(ADDRESS_A, TOPIC)));
+    transactionLogIndex.onBlockAdded(headAdvanced(2, log(ADDRESS_B)));
+    transactionLogIndex.onBlockAdded(headAdvanced(3, log(ADDRESS_B, TOPIC)));
+
+    assertThat(transactionLogIndex.findCandidateBlocks(0, 10, addressQuery(ADDRESS_A)))
+        .contains(List.of(1L));
+    assertThat(transactionLogIndex.findCandidateBlocks(0, 10, addressQuery(ADDRESS_A, ADDRESS_B)))
+        .contains(List.of(1L, 2L, 3L));
+    assertThat(transactionLogIndex.findCandidateBlocks(0, 10, topicQuery(TOPIC)))
+        .contains(List.of(1L, 3L));
+    assertThat(
+            transactionLogIndex.findCandidateBlocks(
+                0, 10, new LogsQuery(List.of(ADDRESS_B), List.of(List.of(TOPIC)))))
+        .contains(List.of(3L));
+    assertThat(transactionLogIndex.findCandidateBlocks(2, 2, topicQuery(TOPIC)))
+        .contains(Collections.emptyList());
+  }
+
+  @Test
+  public void doesNotAnswerForPartiallyIndexedSegmentsOrUnrestrictedQueries() {
+    transactionLogIndex.onBlockAdded(headAdvanced(5, log(ADDRESS_A)));
+    assertThat(transactionLogIndex.findCandidateBlocks(0, 10, addressQuery(ADDRESS_A))).isEmpty();
+
+    transactionLogIndex.onBlockAdded(headAdvanced(BLOCKS_PER_BLOOM_CACHE));
+    assertThat(
+            transactionLogIndex.findCandidateBlocks(
+                BLOCKS_PER_BLOOM_CACHE,
+                BLOCKS_PER_BLOOM_CACHE,
+                new LogsQuery(List.of(), List.of())))
+        .isEmpty();
+  }
+
+  @Test
+  public void backfillSealsSegmentsBehindTheHead() {
+    final long chainHead = backfillOneSealedAndOneOpenSegment();
+
+    assertThat(cacheDir.getRoot().toPath().resolve("logIndex-0.cache")).isRegularFile();
+    assertThat(cacheDir.getRoot().toPath().resolve("logIndex-1.cache")).doesNotExist();
+    assertThat(
+            transactionLogIndex.findCandidateBlocks(
+                0, BLOCKS_PER_BLOOM_CACHE - 1, addressQuery(ADDRESS_A)))
+        .contains(List.of(7L));
+    assertThat(
+            transactionLogIndex.findCandidateBlocks(
+                0, BLOCKS_PER_BLOOM_CACHE - 1, addressQuery(ADDRESS_B)))
+        .contains(Collections.emptyList());
+    assertThat(
+            transactionLogIndex.findCandidateBlocks(
+                BLOCKS_PER_BLOOM_CACHE, chainHead, topicQuery(TOPIC)))
+        .contains(List.of(BLOCKS_PER_BLOOM_CACHE + 3L));
+  }
+
+  @Test
+  public void keepsSealedSegmentsMappedUntilStopped() throws Exception {
+    backfillOneSealedAndOneOpenSegment();
+    final Path sealedSegment = cacheDir.getRoot().toPath().resolve("logIndex-0.cache");
+    assertThat(
+            transactionLogIndex.findCandidateBlocks(
+                0, BLOCKS_PER_BLOOM_CACHE - 1, addressQuery(ADDRESS_A)))
+        .contains(List.of(7L));
+
+    // Queries keep using the segment mapped by the first one.
+    Files.delete(sealedSegment);
+    assertThat(
+            transactionLogIndex.findCandidateBlocks(
+                0, BLOCKS_PER_BLOOM_CACHE - 1, addressQuery(ADDRESS_A)))
+        .contains(List.of(7L));
+
+    transactionLogIndex.stop();
+    assertThat(
+            transactionLogIndex.findCandidateBlocks(
+                0, BLOCKS_PER_BLOOM_CACHE - 1, addressQuery(ADDRESS_A)))
+        .isEmpty();
+  }
+
+  private long backfillOneSealedAndOneOpenSegment() {
+    final long chainHead = BLOCKS_PER_BLOOM_CACHE - 1 + TransactionLogIndex.SEAL_DISTANCE;
+    final Log log = log(ADDRESS_A, TOPIC);
+    final BlockHeader emptyHeader = new BlockHeaderTestFixture().buildHeader();
+    final BlockHeader sealedHeader = headerWithLogs(7, log);
+    final BlockHeader openHeader = headerWithLogs(BLOCKS_PER_BLOOM_CACHE + 3, log);
+    when(blockchain.getChainHeadBlockNumber()).thenReturn(chainHead);
+    when(blockchain.getBlockHeader(anyLong()))
+        .thenAnswer(
+            invocation -> {
+              final long number = invocation.getArgument(0);
+              if (number == sealedHeader.getNumber()) {
+                return Optional.of(sealedHeader);
+              } else if (number == openHeader.getNumber()) {
+                return Optional.of(openHeader);
+              }
+              return Optional.of(emptyHeader);
+            });
+    when(blockchain.getTxReceipts(sealedHeader.getHash())).thenReturn(Optional.of(receipts(log)));
+    when(blockchain.getTxReceipts(openHeader.getHash())).thenReturn(Optional.of(receipts(log)));
+
+    assertThat(transactionLogIndex.backfill()).isEqualTo(2);
+    return chainHead;
+  }
+
+  private static Log log(final Address address, final LogTopic... topics) {
+    return new Log(address, Bytes.EMPTY, List.of(topics));
+  }
+
+  private static LogsQuery addressQuery(final Address... addresses) {
+    return new LogsQuery(List.of(addresses), List.of());
+  }
+
+  private static LogsQuery topicQuery(final LogTopic topic) {
+    return new LogsQuery(List.of(), List.of(List.of(topic)));
+  }
+
+  private static List<TransactionReceipt> receipts(final Log... logs) {
+    return List.of(new TransactionReceipt(Hash.EMPTY, 0, List.of(logs), Optional.empty()));
+  }
+
+  private static BlockHeader headerWithLogs(final long number, final Log... logs) {
+    return new BlockHeaderTestFixture()
+        .number(number)
+        .logsBloom(LogsBloomFilter.builder().insertLogs(List.of(logs)).build())
+        .buildHeader();
+  }
+
+  private static BlockAddedEvent headAdvanced(final long number, final Log... logs) {
+    final Block block =
+        new Block(
+            headerWithLogs(number, logs),
+            new BlockBody(Collections.emptyList(), Collections.emptyList()));
+    final List<LogWithMetadata> logsWithMetadata =
+        Arrays.stream(logs)
+            .map(
+                log ->
+                    new LogWithMetadata(
+                        0,
+                        number,
+                        block.getHash(),
+                        Hash.EMPTY,
+                        0,
+                        log.getLogger(),
+                        log.getData(),
+                        log.getTopics(),
+                        false))
+            .collect(Collectors.toList());
+    return BlockAddedEvent.createForHeadAdvancement(block, logsWithMetadata, receipts(logs));
+  }
+}
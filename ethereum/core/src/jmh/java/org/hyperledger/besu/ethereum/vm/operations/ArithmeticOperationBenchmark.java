@@ -0,0 +1,120 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm.operations;
+
+import org.hyperledger.besu.ethereum.mainnet.ConstantinopleFixGasCalculator;
+import org.hyperledger.besu.ethereum.vm.GasCalculator;
+import org.hyperledger.besu.ethereum.vm.MessageFrame;
+import org.hyperledger.besu.ethereum.vm.OperandStack;
+import org.hyperledger.besu.ethereum.vm.Operation;
+import org.hyperledger.besu.ethereum.vm.UInt256Limbs;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+@State(Scope.Thread)
+public class ArithmeticOperationBenchmark {
+
+  private static final int OPERANDS = 1024;
+
+  @Param({
+    "ADD", "SUB", "MUL", "DIV", "MOD", "LT", "SLT", "EQ", "AND", "BYTE", "SHL", "SAR", "SIGNEXTEND"
+  })
+  public String operationName;
+
+  @Param({
+    "8", // Counters, amounts and small shifts
+    "32" // Hashes, addresses and masks
+  })
+  public int operandSize;
+
+  private OperationBenchmarkHelper operationBenchmarkHelper;
+  private Operation operation;
+  private MessageFrame frame;
+  private Bytes32[] operands;
+  private int next;
+
+  @Setup
+  public void prepare() throws Exception {
+    operationBenchmarkHelper = OperationBenchmarkHelper.create();
+    operation = createOperation(operationName, new ConstantinopleFixGasCalculator());
+    frame = operationBenchmarkHelper.createMessageFrame();
+    operands = OperationBenchmarkHelper.randomOperands(OPERANDS, operandSize, 42);
+  }
+
+  @TearDown
+  public void cleanUp() throws Exception {
+    operationBenchmarkHelper.cleanUp();
+  }
+
+  @Benchmark
+  public long executeOperation() {
+    final OperandStack stack = frame.getOperandStack();
+    final int index = next++ & (OPERANDS - 1);
+    stack.push(operands[index]);
+    stack.push(operands[index ^ 1]);
+    operation.execute(frame, null);
+    final long result = stack.limbs()[stack.index(0) + UInt256Limbs.LIMBS - 1];
+    stack.drop(1);
+    return result;
+  }
+
+  @Benchmark
+  public Bytes32 executeOperationWithStackItems() {
+    final int index = next++ & (OPERANDS - 1);
+    frame.pushStackItem(operands[index]);
+    frame.pushStackItem(operands[index ^ 1]);
+    operation.execute(frame, null);
+    return frame.popStackItem();
+  }
+
+  private static Operation createOperation(final String name, final GasCalculator gasCalculator) {
+    switch (name) {
+      case "ADD":
+        return new AddOperation(gasCalculator);
+      case "SUB":
+        return new SubOperation(gasCalculator);
+      case "MUL":
+        return new MulOperation(gasCalculator);
+      case "DIV":
+        return new DivOperation(gasCalculator);
+      case "MOD":
+        return new ModOperation(gasCalculator);
+      case "LT":
+        return new LtOperation(gasCalculator);
+      case "SLT":
+        return new SLtOperation(gasCalculator);
+      case "EQ":
+        return new EqOperation(gasCalculator);
+      case "AND":
+        return new AndOperation(gasCalculator);
+      case "BYTE":
+        return new ByteOperation(gasCalculator);
+      case "SHL":
+        return new ShlOperation(gasCalculator);
+      case "SAR":
+        return new SarOperation(gasCalculator);
+      case "SIGNEXTEND":
+        return new SignExtendOperation(gasCalculator);
+      default:
+        throw new IllegalArgumentException("Unsupported operation " + name);
+    }
+  }
+}
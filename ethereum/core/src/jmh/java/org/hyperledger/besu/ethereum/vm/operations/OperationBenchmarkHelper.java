@@ -33,9 +33,12 @@ import org.hyperledger.besu.plugin.services.storage.rocksdb.unsegmented.RocksDBK
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Random;
 
 import com.google.common.io.MoreFiles;
 import com.google.common.io.RecursiveDeleteOption;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
 
 public class OperationBenchmarkHelper {
 
@@ -118,6 +121,25 @@ public class OperationBenchmarkHelper {
         .returnStack(messageFrame.getReturnStack());
   }
 
+  /**
+   * Creates random stack operands, as unsigned values of up to the given size.
+   *
+   * @param count the number of operands
+   * @param size the size of the operands in bytes, up to 32
+   * @param seed the seed of the random values
+   * @return the operands
+   */
+  public static Bytes32[] randomOperands(final int count, final int size, final long seed) {
+    final Random random = new Random(seed);
+    final Bytes32[] operands = new Bytes32[count];
+    for (int i = 0; i < count; i++) {
+      final byte[] bytes = new byte[size];
+      random.nextBytes(bytes);
+      operands[i] = Bytes32.leftPad(Bytes.wrap(bytes));
+    }
+    return operands;
+  }
+
   public void cleanUp() throws IOException {
     keyValueStorage.close();
     MoreFiles.deleteRecursively(storageDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
@@ -19,6 +19,7 @@ import static org.apache.logging.log4j.LogManager.getLogger;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.mainnet.BlockBodyValidator;
@@ -28,7 +29,10 @@ import org.hyperledger.besu.ethereum.mainnet.HeaderValidationMode;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.logging.log4j.Logger;
 
 public class MainnetBlockValidator implements BlockValidator {
@@ -41,13 +45,48 @@ public class MainnetBlockValidator implements BlockValidator {
 
   private final BlockProcessor blockProcessor;
 
+  private final Optional<Cache<Hash, ValidatedBlock>> validatedBlocks;
+
+  private final Function<BlockHeader, Hash> validatedBlockKey;
+
   public MainnetBlockValidator(
       final BlockHeaderValidator blockHeaderValidator,
       final BlockBodyValidator blockBodyValidator,
       final BlockProcessor blockProcessor) {
+    this(blockHeaderValidator, blockBodyValidator, blockProcessor, 0, BlockHeader::getHash);
+  }
+
+  /**
+   * Creates a validator that remembers the outputs of the last {@code validatedBlockCacheSize}
+   * successfully processed blocks, so validating the same block again (for example importing a
+   * consensus proposal that was already executed when it was received) does not re-execute its
+   * transactions.
+   *
+   * <p>Remembered blocks are looked up by {@code validatedBlockKey}, which must identify the block
+   * contents that affect execution. Consensus protocols whose block hash covers fields that change
+   * between validating a proposal and importing the sealed block (such as seals or the round) need
+   * a key that ignores them.
+   *
+   * @param blockHeaderValidator the header validator
+   * @param blockBodyValidator the body validator
+   * @param blockProcessor the processor executing the block transactions
+   * @param validatedBlockCacheSize the number of processed blocks to remember, 0 disables the cache
+   * @param validatedBlockKey the function computing the key a processed block is remembered by
+   */
+  public MainnetBlockValidator(
+      final BlockHeaderValidator blockHeaderValidator,
+      final BlockBodyValidator blockBodyValidator,
+      final BlockProcessor blockProcessor,
+      final int validatedBlockCacheSize,
+      final Function<BlockHeader, Hash> validatedBlockKey) {
     this.blockHeaderValidator = blockHeaderValidator;
     this.blockBodyValidator = blockBodyValidator;
     this.blockProcessor = blockProcessor;
+    this.validatedBlockKey = validatedBlockKey;
+    this.validatedBlocks =
+        validatedBlockCacheSize > 0
+            ? Optional.of(CacheBuilder.newBuilder().maximumSize(validatedBlockCacheSize).build())
+            : Optional.empty();
   }
 
   @Override
@@ -74,6 +113,12 @@ public class MainnetBlockValidator implements BlockValidator {
       return Optional.empty();
     }
 
+    final Optional<BlockProcessingOutputs> maybeValidatedOutputs =
+        reuseValidatedBlock(context, block, parentHeader, ommerValidationMode);
+    if (maybeValidatedOutputs.isPresent()) {
+      return maybeValidatedOutputs;
+    }
+
     final MutableBlockchain blockchain = context.getBlockchain();
     final Optional<MutableWorldState> maybeWorldState =
         context.getWorldStateArchive().getMutable(parentHeader.getStateRoot());
@@ -96,7 +141,54 @@ public class MainnetBlockValidator implements BlockValidator {
       return Optional.empty();
     }
 
-    return Optional.of(new BlockProcessingOutputs(worldState, receipts));
+    final BlockProcessingOutputs outputs = new BlockProcessingOutputs(worldState, receipts);
+    validatedBlocks.ifPresent(
+        cache ->
+            cache.put(
+                validatedBlockKey.apply(header),
+                new ValidatedBlock(parentHeader.getStateRoot(), outputs)));
+    return Optional.of(outputs);
+  }
+
+  /**
+   * Returns the outputs of an earlier successful execution of the block, provided it ran on top of
+   * the same parent state and the resulting world state is still available. The body is validated
+   * again against the remembered receipts since the ommer validation mode may differ; only the
+   * transaction execution is skipped. Entries are consumed on use.
+   */
+  private Optional<BlockProcessingOutputs> reuseValidatedBlock(
+      final ProtocolContext context,
+      final Block block,
+      final BlockHeader parentHeader,
+      final HeaderValidationMode ommerValidationMode) {
+    if (!validatedBlocks.isPresent()) {
+      return Optional.empty();
+    }
+    final Cache<Hash, ValidatedBlock> cache = validatedBlocks.get();
+    final BlockHeader header = block.getHeader();
+    final Hash blockKey = validatedBlockKey.apply(header);
+    final ValidatedBlock validatedBlock = cache.getIfPresent(blockKey);
+    if (validatedBlock == null) {
+      return Optional.empty();
+    }
+    cache.invalidate(blockKey);
+
+    if (!validatedBlock.parentStateRoot.equals(parentHeader.getStateRoot())
+        || !context.getWorldStateArchive().isWorldStateAvailable(header.getStateRoot())) {
+      LOG.debug(
+          "Discarding earlier execution of block {} ({}) as its state is no longer available",
+          header.getNumber(),
+          header.getHash());
+      return Optional.empty();
+    }
+
+    final BlockProcessingOutputs outputs = validatedBlock.outputs;
+    if (!blockBodyValidator.validateBody(
+        context, block, outputs.receipts, outputs.worldState.rootHash(), ommerValidationMode)) {
+      return Optional.empty();
+    }
+    LOG.trace("Reusing earlier execution of block {} ({})", header.getNumber(), header.getHash());
+    return Optional.of(outputs);
   }
 
   @Override
@@ -116,4 +208,14 @@ public class MainnetBlockValidator implements BlockValidator {
     }
     return true;
   }
+
+  private static class ValidatedBlock {
+    private final Hash parentStateRoot;
+    private final BlockProcessingOutputs outputs;
+
+    private ValidatedBlock(final Hash parentStateRoot, final BlockProcessingOutputs outputs) {
+      this.parentStateRoot = parentStateRoot;
+      this.outputs = outputs;
+    }
+  }
 }
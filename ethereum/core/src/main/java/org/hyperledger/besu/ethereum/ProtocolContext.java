@@ -20,12 +20,16 @@ import org.hyperledger.besu.ethereum.chain.DefaultBlockchain;
 import org.hyperledger.besu.ethereum.chain.GenesisState;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
+import org.hyperledger.besu.ethereum.mainnet.StatePrefetcher;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
+import org.hyperledger.besu.ethereum.worldstate.PipelinedWorldStateStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 import org.hyperledger.besu.ethereum.worldstate.WorldStatePreimageStorage;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateSnapshot;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 
+import java.util.Optional;
 import java.util.function.BiFunction;
 
 /**
@@ -37,14 +41,24 @@ public class ProtocolContext {
   private final MutableBlockchain blockchain;
   private final WorldStateArchive worldStateArchive;
   private final Object consensusState;
+  private final Optional<StatePrefetcher> statePrefetcher;
 
   public ProtocolContext(
       final MutableBlockchain blockchain,
       final WorldStateArchive worldStateArchive,
       final Object consensusState) {
+    this(blockchain, worldStateArchive, consensusState, Optional.empty());
+  }
+
+  public ProtocolContext(
+      final MutableBlockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final Object consensusState,
+      final Optional<StatePrefetcher> statePrefetcher) {
     this.blockchain = blockchain;
     this.worldStateArchive = worldStateArchive;
     this.consensusState = consensusState;
+    this.statePrefetcher = statePrefetcher;
   }
 
   public static ProtocolContext init(
@@ -54,24 +68,80 @@ public class ProtocolContext {
       final MetricsSystem metricsSystem,
       final BiFunction<Blockchain, WorldStateArchive, Object> consensusContextFactory,
       final long reorgLoggingThreshold) {
+    return init(
+        storageProvider,
+        genesisState,
+        protocolSchedule,
+        metricsSystem,
+        consensusContextFactory,
+        reorgLoggingThreshold,
+        false,
+        0,
+        false,
+        false,
+        false);
+  }
+
+  public static ProtocolContext init(
+      final StorageProvider storageProvider,
+      final GenesisState genesisState,
+      final ProtocolSchedule protocolSchedule,
+      final MetricsSystem metricsSystem,
+      final BiFunction<Blockchain, WorldStateArchive, Object> consensusContextFactory,
+      final long reorgLoggingThreshold,
+      final boolean worldStateSnapshotEnabled,
+      final long blockchainCacheSize,
+      final boolean worldStatePipelinedPersistenceEnabled,
+      final boolean statePrefetchEnabled,
+      final boolean statePrefetchSpeculativeExecutionEnabled) {
     final BlockchainStorage blockchainStorage =
         storageProvider.createBlockchainStorage(protocolSchedule);
-    final WorldStateStorage worldStateStorage = storageProvider.createWorldStateStorage();
+    final WorldStateStorage worldStateStorage =
+        worldStatePipelinedPersistenceEnabled
+            ? new PipelinedWorldStateStorage(storageProvider.createWorldStateStorage())
+            : storageProvider.createWorldStateStorage();
     final WorldStatePreimageStorage preimageStorage =
         storageProvider.createWorldStatePreimageStorage();
 
     final MutableBlockchain blockchain =
         DefaultBlockchain.createMutable(
-            genesisState.getBlock(), blockchainStorage, metricsSystem, reorgLoggingThreshold);
+            genesisState.getBlock(),
+            blockchainStorage,
+            metricsSystem,
+            reorgLoggingThreshold,
+            blockchainCacheSize);
+    if (worldStateStorage instanceof PipelinedWorldStateStorage) {
+      ((PipelinedWorldStateStorage) worldStateStorage).rewindToWrittenWorldState(blockchain);
+    }
 
+    final Optional<WorldStateSnapshot> worldStateSnapshot =
+        worldStateSnapshotEnabled
+            ? Optional.of(
+                new WorldStateSnapshot(
+                    storageProvider.createWorldStateSnapshotStorage(),
+                    worldStateStorage,
+                    metricsSystem))
+            : Optional.empty();
     final WorldStateArchive worldStateArchive =
-        new WorldStateArchive(worldStateStorage, preimageStorage);
+        new WorldStateArchive(worldStateStorage, preimageStorage, worldStateSnapshot);
     genesisState.writeStateTo(worldStateArchive.getMutable());
 
+    final Optional<StatePrefetcher> statePrefetcher =
+        statePrefetchEnabled
+            ? Optional.of(
+                new StatePrefetcher(
+                    blockchain,
+                    worldStateArchive,
+                    protocolSchedule,
+                    statePrefetchSpeculativeExecutionEnabled,
+                    metricsSystem))
+            : Optional.empty();
+
     return new ProtocolContext(
         blockchain,
         worldStateArchive,
-        consensusContextFactory.apply(blockchain, worldStateArchive));
+        consensusContextFactory.apply(blockchain, worldStateArchive),
+        statePrefetcher);
   }
 
   public MutableBlockchain getBlockchain() {
@@ -82,6 +152,10 @@ public class ProtocolContext {
     return worldStateArchive;
   }
 
+  public Optional<StatePrefetcher> getStatePrefetcher() {
+    return statePrefetcher;
+  }
+
   public <C> C getConsensusState(final Class<C> klass) {
     return klass.cast(consensusState);
   }
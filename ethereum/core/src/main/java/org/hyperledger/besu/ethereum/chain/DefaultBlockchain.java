@@ -31,6 +31,8 @@ import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
 import org.hyperledger.besu.util.InvalidConfigurationException;
 import org.hyperledger.besu.util.Subscribers;
 
@@ -43,10 +45,14 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Streams;
 import org.apache.logging.log4j.LogManager;
@@ -65,16 +71,43 @@ public class DefaultBlockchain implements MutableBlockchain {
   private volatile int chainHeadTransactionCount;
   private volatile int chainHeadOmmerCount;
 
+  private final BlockchainCache<Hash, BlockHeader> blockHeaders;
+  private final BlockchainCache<Hash, BlockBody> blockBodies;
+  private final BlockchainCache<Hash, List<TransactionReceipt>> transactionReceipts;
+  private final BlockchainCache<Long, Hash> blockHashes;
+  // Incremented whenever canonical block numbers may map to different hashes
+  private final AtomicLong canonicalChainVersion = new AtomicLong();
+
   private DefaultBlockchain(
       final Optional<Block> genesisBlock,
       final BlockchainStorage blockchainStorage,
       final MetricsSystem metricsSystem,
-      final long reorgLoggingThreshold) {
+      final long reorgLoggingThreshold,
+      final long cacheSize) {
     checkNotNull(genesisBlock);
     checkNotNull(blockchainStorage);
     checkNotNull(metricsSystem);
 
     this.blockchainStorage = blockchainStorage;
+
+    final LabelledMetric<Counter> cacheHitCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "cache_hits_total",
+            "Total number of blockchain lookups served by the decoded block cache",
+            "cache");
+    final LabelledMetric<Counter> cacheMissCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "cache_misses_total",
+            "Total number of blockchain lookups that missed the decoded block cache",
+            "cache");
+    blockHeaders = new BlockchainCache<>(cacheSize, cacheHitCounter, cacheMissCounter, "header");
+    blockBodies = new BlockchainCache<>(cacheSize, cacheHitCounter, cacheMissCounter, "body");
+    transactionReceipts =
+        new BlockchainCache<>(cacheSize, cacheHitCounter, cacheMissCounter, "receipts");
+    blockHashes = new BlockchainCache<>(cacheSize, cacheHitCounter, cacheMissCounter, "hash");
+
     genesisBlock.ifPresent(this::setGenesis);
 
     final Hash chainHead = blockchainStorage.getChainHead().get();
@@ -132,9 +165,33 @@ public class DefaultBlockchain implements MutableBlockchain {
       final BlockchainStorage blockchainStorage,
       final MetricsSystem metricsSystem,
       final long reorgLoggingThreshold) {
+    return createMutable(genesisBlock, blockchainStorage, metricsSystem, reorgLoggingThreshold, 0);
+  }
+
+  /**
+   * Creates a blockchain that keeps decoded headers, bodies, receipts and canonical block hashes of
+   * up to {@code cacheSize} blocks in memory.
+   *
+   * @param genesisBlock the genesis block
+   * @param blockchainStorage the storage backing the blockchain
+   * @param metricsSystem the metrics system
+   * @param reorgLoggingThreshold the minimum reorg depth that is logged
+   * @param cacheSize the number of blocks to cache, 0 to disable caching
+   * @return the blockchain
+   */
+  public static MutableBlockchain createMutable(
+      final Block genesisBlock,
+      final BlockchainStorage blockchainStorage,
+      final MetricsSystem metricsSystem,
+      final long reorgLoggingThreshold,
+      final long cacheSize) {
     checkNotNull(genesisBlock);
     return new DefaultBlockchain(
-        Optional.of(genesisBlock), blockchainStorage, metricsSystem, reorgLoggingThreshold);
+        Optional.of(genesisBlock),
+        blockchainStorage,
+        metricsSystem,
+        reorgLoggingThreshold,
+        cacheSize);
   }
 
   public static Blockchain create(
@@ -144,7 +201,7 @@ public class DefaultBlockchain implements MutableBlockchain {
     checkArgument(
         validateStorageNonEmpty(blockchainStorage), "Cannot create Blockchain from empty storage");
     return new DefaultBlockchain(
-        Optional.empty(), blockchainStorage, metricsSystem, reorgLoggingThreshold);
+        Optional.empty(), blockchainStorage, metricsSystem, reorgLoggingThreshold, 0);
   }
 
   private static boolean validateStorageNonEmpty(final BlockchainStorage blockchainStorage) {
@@ -178,32 +235,38 @@ public class DefaultBlockchain implements MutableBlockchain {
 
   @Override
   public Block getChainHeadBlock() {
-    return new Block(chainHeader, blockchainStorage.getBlockBody(chainHeader.getHash()).get());
+    return new Block(chainHeader, getBlockBody(chainHeader.getHash()).get());
   }
 
   @Override
   public Optional<BlockHeader> getBlockHeader(final long blockNumber) {
-    return blockchainStorage.getBlockHash(blockNumber).flatMap(blockchainStorage::getBlockHeader);
+    return getBlockHashByNumber(blockNumber).flatMap(this::getBlockHeader);
   }
 
   @Override
   public Optional<BlockHeader> getBlockHeader(final Hash blockHeaderHash) {
-    return blockchainStorage.getBlockHeader(blockHeaderHash);
+    return blockHeaders.get(blockHeaderHash, blockchainStorage::getBlockHeader);
   }
 
   @Override
   public Optional<BlockBody> getBlockBody(final Hash blockHeaderHash) {
-    return blockchainStorage.getBlockBody(blockHeaderHash);
+    return blockBodies.get(blockHeaderHash, blockchainStorage::getBlockBody);
   }
 
   @Override
   public Optional<List<TransactionReceipt>> getTxReceipts(final Hash blockHeaderHash) {
-    return blockchainStorage.getTransactionReceipts(blockHeaderHash);
+    return transactionReceipts.get(blockHeaderHash, blockchainStorage::getTransactionReceipts);
   }
 
   @Override
   public Optional<Hash> getBlockHashByNumber(final long number) {
-    return blockchainStorage.getBlockHash(number);
+    final long version = canonicalChainVersion.get();
+    final Optional<Hash> blockHash = blockHashes.get(number, blockchainStorage::getBlockHash);
+    if (version != canonicalChainVersion.get()) {
+      // The canonical chain changed during the lookup so the cached hash may be stale
+      blockHashes.invalidate(number);
+    }
+    return blockHash;
   }
 
   @Override
@@ -217,8 +280,7 @@ public class DefaultBlockchain implements MutableBlockchain {
         .getTransactionLocation(transactionHash)
         .flatMap(
             l ->
-                blockchainStorage
-                    .getBlockBody(l.getBlockHash())
+                getBlockBody(l.getBlockHash())
                     .map(b -> b.getTransactions().get(l.getTransactionIndex())));
   }
 
@@ -260,7 +322,14 @@ public class DefaultBlockchain implements MutableBlockchain {
         updateCanonicalChainData(updater, blockWithReceipts, td);
 
     updater.commit();
+    blockHeaders.put(hash, block.getHeader());
+    blockBodies.put(hash, block.getBody());
+    transactionReceipts.put(hash, receipts);
     if (blockAddedEvent.isNewCanonicalHead()) {
+      if (blockAddedEvent.getEventType() == BlockAddedEvent.EventType.CHAIN_REORG) {
+        invalidateCanonicalBlockHashes();
+      }
+      blockHashes.put(block.getHeader().getNumber(), hash);
       updateCacheForNewCanonicalHead(block, td);
     }
 
@@ -468,6 +537,7 @@ public class DefaultBlockchain implements MutableBlockchain {
 
       handleChainReorg(updater, blockWithReceipts);
       updater.commit();
+      invalidateCanonicalBlockHashes();
 
       updateCacheForNewCanonicalHead(block, calculateTotalDifficulty(block));
       return true;
@@ -486,6 +556,11 @@ public class DefaultBlockchain implements MutableBlockchain {
     chainHeadOmmerCount = block.getBody().getOmmers().size();
   }
 
+  private void invalidateCanonicalBlockHashes() {
+    canonicalChainVersion.incrementAndGet();
+    blockHashes.invalidateAll();
+  }
+
   private static void indexTransactionForBlock(
       final BlockchainStorage.Updater updater, final Hash hash, final List<Transaction> txs) {
     for (int i = 0; i < txs.size(); i++) {
@@ -568,19 +643,16 @@ public class DefaultBlockchain implements MutableBlockchain {
   }
 
   private Optional<BlockWithReceipts> getBlockWithReceipts(final BlockHeader blockHeader) {
-    return blockchainStorage
-        .getBlockBody(blockHeader.getHash())
+    return getBlockBody(blockHeader.getHash())
         .map(body -> new Block(blockHeader, body))
         .flatMap(
             block ->
-                blockchainStorage
-                    .getTransactionReceipts(blockHeader.getHash())
+                getTxReceipts(blockHeader.getHash())
                     .map(receipts -> new BlockWithReceipts(block, receipts)));
   }
 
   private BlockWithReceipts getParentBlockWithReceipts(final BlockWithReceipts blockWithReceipts) {
-    return blockchainStorage
-        .getBlockHeader(blockWithReceipts.getHeader().getParentHash())
+    return getBlockHeader(blockWithReceipts.getHeader().getParentHash())
         .flatMap(this::getBlockWithReceipts)
         .get();
   }
@@ -615,4 +687,45 @@ public class DefaultBlockchain implements MutableBlockchain {
   private void notifyChainReorgBlockAdded(final BlockWithReceipts blockWithReceipts) {
     blockReorgObservers.forEach(observer -> observer.onBlockAdded(blockWithReceipts, this));
   }
+
+  /** A size-bounded cache of decoded blockchain data that counts its hits and misses. */
+  private static class BlockchainCache<K, V> {
+    private final Cache<K, V> cache;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    private BlockchainCache(
+        final long maximumSize,
+        final LabelledMetric<Counter> hitCounter,
+        final LabelledMetric<Counter> missCounter,
+        final String name) {
+      this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+      this.hitCounter = hitCounter.labels(name);
+      this.missCounter = missCounter.labels(name);
+    }
+
+    private Optional<V> get(final K key, final Function<K, Optional<V>> loader) {
+      final V cached = cache.getIfPresent(key);
+      if (cached != null) {
+        hitCounter.inc();
+        return Optional.of(cached);
+      }
+      missCounter.inc();
+      final Optional<V> value = loader.apply(key);
+      value.ifPresent(v -> cache.put(key, v));
+      return value;
+    }
+
+    private void put(final K key, final V value) {
+      cache.put(key, value);
+    }
+
+    private void invalidate(final K key) {
+      cache.invalidate(key);
+    }
+
+    private void invalidateAll() {
+      cache.invalidateAll();
+    }
+  }
 }
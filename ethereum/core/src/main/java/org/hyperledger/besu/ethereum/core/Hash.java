@@ -16,8 +16,12 @@ package org.hyperledger.besu.ethereum.core;
 
 import static org.hyperledger.besu.crypto.Hash.keccak256;
 
+import org.hyperledger.besu.crypto.Keccak256;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.fasterxml.jackson.annotation.JsonCreator;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
@@ -42,6 +46,21 @@ public class Hash extends DelegatingBytes32 implements org.hyperledger.besu.plug
     return new Hash(keccak256(value));
   }
 
+  /**
+   * Hashes each of the given values in one pass over a single thread local digest.
+   *
+   * @param values The values to hash.
+   * @return The hashes, in the order of the values.
+   */
+  public static List<Hash> hashAll(final List<? extends Bytes> values) {
+    final List<Bytes32> digests = Keccak256.hashAll(values);
+    final List<Hash> hashes = new ArrayList<>(digests.size());
+    for (final Bytes32 digest : digests) {
+      hashes.add(new Hash(digest));
+    }
+    return hashes;
+  }
+
   public static Hash wrap(final Bytes32 bytes) {
     if (bytes instanceof Hash) {
       return (Hash) bytes;
@@ -31,6 +31,8 @@ import org.hyperledger.besu.ethereum.vm.OperationTracer;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import com.google.common.collect.ImmutableList;
 import org.apache.logging.log4j.LogManager;
@@ -94,6 +96,8 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
 
   private final TransactionGasBudgetCalculator gasBudgetCalculator;
 
+  private Optional<ParallelTransactionProcessor> parallelTransactionProcessor = Optional.empty();
+
   protected AbstractBlockProcessor(
       final TransactionProcessor transactionProcessor,
       final TransactionReceiptFactory transactionReceiptFactory,
@@ -121,6 +125,21 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
     long legacyGasUsed = 0;
     long eip1556GasUsed = 0;
     final List<TransactionReceipt> receipts = new ArrayList<>();
+    final Address miningBeneficiary = miningBeneficiaryCalculator.calculateBeneficiary(blockHeader);
+    // Private transactions also update the private state, which isn't tracked by speculative
+    // execution.
+    final Optional<ParallelTransactionProcessor.SpeculativeBlock> speculativeBlock =
+        privateMetadataUpdater == null
+            ? parallelTransactionProcessor.flatMap(
+                processor ->
+                    processor.executeSpeculatively(
+                        blockchain,
+                        worldState,
+                        blockHeader,
+                        transactions,
+                        miningBeneficiary,
+                        transactionProcessor))
+            : Optional.empty();
 
     for (final Transaction transaction : transactions) {
       long currentGasUsed;
@@ -141,21 +160,24 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
 
       final WorldUpdater worldStateUpdater = worldState.updater();
       final BlockHashLookup blockHashLookup = new BlockHashLookup(blockHeader, blockchain);
-      final Address miningBeneficiary =
-          miningBeneficiaryCalculator.calculateBeneficiary(blockHeader);
 
+      final Supplier<TransactionProcessor.Result> execute =
+          () ->
+              transactionProcessor.processTransaction(
+                  blockchain,
+                  worldStateUpdater,
+                  blockHeader,
+                  transaction,
+                  miningBeneficiary,
+                  OperationTracer.NO_TRACING,
+                  blockHashLookup,
+                  true,
+                  TransactionValidationParams.processingBlock(),
+                  privateMetadataUpdater);
       final TransactionProcessor.Result result =
-          transactionProcessor.processTransaction(
-              blockchain,
-              worldStateUpdater,
-              blockHeader,
-              transaction,
-              miningBeneficiary,
-              OperationTracer.NO_TRACING,
-              blockHashLookup,
-              true,
-              TransactionValidationParams.processingBlock(),
-              privateMetadataUpdater);
+          speculativeBlock.isPresent()
+              ? speculativeBlock.get().apply(worldStateUpdater, execute)
+              : execute.get();
       if (result.isInvalid()) {
         return AbstractBlockProcessor.Result.failed();
       }
@@ -183,6 +205,16 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
     return AbstractBlockProcessor.Result.successful(receipts);
   }
 
+  /**
+   * Executes the transactions of the blocks processed from now on optimistically in parallel.
+   *
+   * @param parallelTransactionProcessor the processor executing the transactions
+   */
+  public void setParallelTransactionProcessor(
+      final ParallelTransactionProcessor parallelTransactionProcessor) {
+    this.parallelTransactionProcessor = Optional.of(parallelTransactionProcessor);
+  }
+
   protected MiningBeneficiaryCalculator getMiningBeneficiaryCalculator() {
     return miningBeneficiaryCalculator;
   }
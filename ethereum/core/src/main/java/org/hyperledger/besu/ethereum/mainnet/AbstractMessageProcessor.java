@@ -16,15 +16,20 @@ package org.hyperledger.besu.ethereum.mainnet;
 
 import org.hyperledger.besu.ethereum.core.Account;
 import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.ModificationNotAllowedException;
+import org.hyperledger.besu.ethereum.vm.Code;
 import org.hyperledger.besu.ethereum.vm.EVM;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 import org.hyperledger.besu.ethereum.vm.OperationTracer;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.apache.tuweni.bytes.Bytes;
+
 /**
  * A skeletal class for instantiating message processors.
  *
@@ -72,6 +77,17 @@ public abstract class AbstractMessageProcessor {
     this.forceDeleteAccountsWhenEmpty = forceDeleteAccountsWhenEmpty;
   }
 
+  /**
+   * Returns the analysed code for a code hash from the code cache of the EVM.
+   *
+   * @param codeHash the hash of the code
+   * @param codeSupplier supplies the code bytes when the code isn't cached
+   * @return the code
+   */
+  public Code getCode(final Hash codeHash, final Supplier<Bytes> codeSupplier) {
+    return evm.getCode(codeHash, codeSupplier);
+  }
+
   protected abstract void start(MessageFrame frame, final OperationTracer operationTracer);
 
   /**
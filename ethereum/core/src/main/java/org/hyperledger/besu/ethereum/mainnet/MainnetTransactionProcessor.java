@@ -320,7 +320,10 @@ public class MainnetTransactionProcessor implements TransactionProcessor {
                 .sender(senderAddress)
                 .value(transaction.getValue())
                 .apparentValue(transaction.getValue())
-                .code(new Code(contract != null ? contract.getCode() : Bytes.EMPTY))
+                .code(
+                    contract != null
+                        ? messageCallProcessor.getCode(contract.getCodeHash(), contract::getCode)
+                        : new Code())
                 .blockHeader(blockHeader)
                 .depth(0)
                 .completer(c -> {})
@@ -92,4 +92,17 @@ public class MutableProtocolSchedule implements ProtocolSchedule {
                 .setPublicWorldStateArchive(publicWorldStateArchive);
         });
   }
+
+  @Override
+  public void setParallelTransactionProcessor(
+      final ParallelTransactionProcessor parallelTransactionProcessor) {
+    protocolSpecs.forEach(
+        spec -> {
+          final BlockProcessor blockProcessor = spec.getSpec().getBlockProcessor();
+          if (blockProcessor instanceof AbstractBlockProcessor) {
+            ((AbstractBlockProcessor) blockProcessor)
+                .setParallelTransactionProcessor(parallelTransactionProcessor);
+          }
+        });
+  }
 }
@@ -0,0 +1,257 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.AbstractWorldUpdater.UpdateTrackingAccount;
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
+import org.hyperledger.besu.ethereum.vm.OperationTracer;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * Executes the transactions of a block optimistically in parallel.
+ *
+ * <p>Every transaction is first executed concurrently with the others, on its own {@link
+ * SpeculativeWorldUpdater} over the state the block starts from, recording what it reads. The
+ * block processor then goes through the transactions in order as usual, but instead of executing
+ * each one it replays the speculative changes, unless the transaction read something an earlier
+ * transaction of the block wrote, in which case it executes it again on the actual state. Either
+ * way the block state, receipts and state root end up exactly as with sequential execution, and
+ * blocks of independent transactions are executed at the speed of their slowest transaction.
+ */
+public class ParallelTransactionProcessor implements Closeable {
+
+  // Below this many transactions, executing them twice costs more than it saves.
+  public static final int MIN_TRANSACTIONS = 4;
+
+  private final ExecutorService executor;
+  private final LabelledMetric<Counter> transactionCounter;
+
+  public ParallelTransactionProcessor(final MetricsSystem metricsSystem) {
+    this(
+        Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("ParallelTransactionProcessor-%d")
+                .build()),
+        metricsSystem);
+  }
+
+  @VisibleForTesting
+  ParallelTransactionProcessor(final ExecutorService executor, final MetricsSystem metricsSystem) {
+    this.executor = executor;
+    this.transactionCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "parallel_transactions_total",
+            "Total number of transactions executed in parallel, by whether their speculative"
+                + " execution was applied or they were executed again",
+            "outcome");
+  }
+
+  /**
+   * Speculatively executes all the transactions of a block, each against the block's starting
+   * state, and waits for them to complete.
+   *
+   * @return the speculative executions, or empty if the block should be executed sequentially
+   */
+  Optional<SpeculativeBlock> executeSpeculatively(
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions,
+      final Address miningBeneficiary,
+      final TransactionProcessor transactionProcessor) {
+    if (transactions.size() < MIN_TRANSACTIONS) {
+      return Optional.empty();
+    }
+    final List<CompletableFuture<SpeculativeTransaction>> executions = new ArrayList<>();
+    boolean rejected = false;
+    for (final Transaction transaction : transactions) {
+      try {
+        executions.add(
+            CompletableFuture.supplyAsync(
+                () -> {
+                  final SpeculativeWorldUpdater updater =
+                      new SpeculativeWorldUpdater(worldState, miningBeneficiary);
+                  final TransactionProcessor.Result result =
+                      transactionProcessor.processTransaction(
+                          blockchain,
+                          updater,
+                          blockHeader,
+                          transaction,
+                          miningBeneficiary,
+                          OperationTracer.NO_TRACING,
+                          new BlockHashLookup(blockHeader, blockchain),
+                          true,
+                          TransactionValidationParams.processingBlock(),
+                          null);
+                  return new SpeculativeTransaction(updater, result);
+                },
+                executor));
+      } catch (final RejectedExecutionException e) {
+        rejected = true;
+        break;
+      }
+    }
+    // The block state is only modified once nothing reads it concurrently anymore.
+    CompletableFuture.allOf(executions.toArray(new CompletableFuture<?>[0]))
+        .handle((result, error) -> null)
+        .join();
+    if (rejected) {
+      return Optional.empty();
+    }
+    final List<SpeculativeTransaction> results = new ArrayList<>(executions.size());
+    for (final CompletableFuture<SpeculativeTransaction> execution : executions) {
+      results.add(execution.isCompletedExceptionally() ? null : execution.join());
+    }
+    return Optional.of(new SpeculativeBlock(results));
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  /** The speculative executions of the transactions of a block, applied in block order. */
+  class SpeculativeBlock {
+
+    private final List<SpeculativeTransaction> transactions;
+    private final StateWrites writes = new StateWrites();
+    private int next = 0;
+
+    private SpeculativeBlock(final List<SpeculativeTransaction> transactions) {
+      this.transactions = transactions;
+    }
+
+    /**
+     * Applies the next transaction of the block to {@code updater}, either from its speculative
+     * execution or by executing it again when the former may be stale or didn't produce a valid
+     * result, which is then only trusted if sequential execution agrees.
+     *
+     * @param updater a fresh updater over the state left by the transactions before
+     * @param execute executes the transaction against {@code updater}
+     * @return the result of the transaction
+     */
+    TransactionProcessor.Result apply(
+        final WorldUpdater updater, final Supplier<TransactionProcessor.Result> execute) {
+      final SpeculativeTransaction transaction = transactions.get(next++);
+      final TransactionProcessor.Result result;
+      if (transaction != null
+          && !transaction.result.isInvalid()
+          && !transaction.updater.dependsOn(writes)
+          && transaction.updater.applyTo(updater)) {
+        transactionCounter.labels("applied").inc();
+        result = transaction.result;
+      } else {
+        updater.revert();
+        transactionCounter.labels("executed_again").inc();
+        result = execute.get();
+      }
+      writes.record(updater);
+      return result;
+    }
+  }
+
+  private static class SpeculativeTransaction {
+
+    private final SpeculativeWorldUpdater updater;
+    private final TransactionProcessor.Result result;
+
+    private SpeculativeTransaction(
+        final SpeculativeWorldUpdater updater, final TransactionProcessor.Result result) {
+      this.updater = updater;
+      this.result = result;
+    }
+  }
+
+  /** The state written by the transactions of a block applied so far. */
+  static class StateWrites {
+
+    // Accounts whose existence, nonce, balance or code changed.
+    private final Set<Address> accounts = new HashSet<>();
+    private final Set<Address> clearedStorage = new HashSet<>();
+    private final Map<Address, Set<UInt256>> storage = new HashMap<>();
+
+    void record(final WorldUpdater updater) {
+      for (final Address address : updater.getDeletedAccountAddresses()) {
+        accounts.add(address);
+        clearedStorage.add(address);
+      }
+      for (final UpdateTrackingAccount<? extends Account> account : updater.getTouchedAccounts()) {
+        final Address address = account.getAddress();
+        final Account original = account.getWrappedAccount();
+        if (original == null) {
+          accounts.add(address);
+          clearedStorage.add(address);
+        } else if (original.getNonce() != account.getNonce()
+            || !original.getBalance().equals(account.getBalance())
+            || account.codeWasUpdated()) {
+          accounts.add(address);
+        }
+        if (account.getStorageWasCleared()) {
+          clearedStorage.add(address);
+        }
+        if (!account.getUpdatedStorage().isEmpty()) {
+          storage
+              .computeIfAbsent(address, a -> new HashSet<>())
+              .addAll(account.getUpdatedStorage().keySet());
+        }
+      }
+    }
+
+    boolean isAccountWritten(final Address address) {
+      return accounts.contains(address);
+    }
+
+    boolean isStorageWritten(final Address address, final UInt256 key) {
+      return clearedStorage.contains(address)
+          || storage.getOrDefault(address, Collections.emptySet()).contains(key);
+    }
+
+    boolean isAnyStorageWritten(final Address address) {
+      return clearedStorage.contains(address) || storage.containsKey(address);
+    }
+  }
+}
@@ -30,4 +30,6 @@ public interface ProtocolSchedule {
 
   void setPublicWorldStateArchiveForPrivacyBlockProcessor(
       WorldStateArchive publicWorldStateArchive);
+
+  void setParallelTransactionProcessor(ParallelTransactionProcessor parallelTransactionProcessor);
 }
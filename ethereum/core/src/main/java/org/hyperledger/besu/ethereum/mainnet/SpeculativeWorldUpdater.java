@@ -0,0 +1,298 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import org.hyperledger.besu.ethereum.core.AbstractWorldUpdater;
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.AccountStorageEntry;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.DefaultEvmAccount;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableAccount;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.core.WorldView;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * The updater a transaction executes against when it is executed speculatively, concurrently with
+ * the other transactions of its block, on top of the state the block starts from.
+ *
+ * <p>It records the accounts and storage slots the transaction reads, so that once the transactions
+ * before it have been applied it can tell whether it would have observed a different state, and
+ * can otherwise replay its changes onto the actual block state.
+ *
+ * <p>Every transaction pays its fee to the mining beneficiary, which would make each transaction
+ * depend on all those before it. The transaction processor pays the fee by requesting the
+ * beneficiary's account directly from this updater once execution is over, whereas the EVM only
+ * ever reaches accounts through nested updaters. So when that request is the only access to the
+ * beneficiary, its state did not influence the transaction and the fee is applied as an increment
+ * of whatever balance the beneficiary has by then.
+ */
+class SpeculativeWorldUpdater
+    extends AbstractWorldUpdater<SpeculativeWorldUpdater.RecordingWorldView, Account> {
+
+  private final Address miningBeneficiary;
+  private int miningBeneficiaryRequests;
+
+  SpeculativeWorldUpdater(final WorldView world, final Address miningBeneficiary) {
+    super(new RecordingWorldView(world, miningBeneficiary));
+    this.miningBeneficiary = miningBeneficiary;
+  }
+
+  @Override
+  protected Account getForMutation(final Address address) {
+    return wrappedWorldView().get(address);
+  }
+
+  @Override
+  public DefaultEvmAccount getAccount(final Address address) {
+    if (!address.equals(miningBeneficiary)) {
+      return super.getAccount(address);
+    }
+    miningBeneficiaryRequests++;
+    final RecordingWorldView view = wrappedWorldView();
+    view.payingFee = true;
+    try {
+      return super.getAccount(address);
+    } finally {
+      view.payingFee = false;
+    }
+  }
+
+  @Override
+  public Collection<UpdateTrackingAccount<? extends Account>> getTouchedAccounts() {
+    return new ArrayList<>(updatedAccounts());
+  }
+
+  @Override
+  public Collection<Address> getDeletedAccountAddresses() {
+    return new ArrayList<>(deletedAccounts());
+  }
+
+  @Override
+  public void revert() {
+    deletedAccounts().clear();
+    updatedAccounts().clear();
+  }
+
+  @Override
+  public void commit() {
+    throw new UnsupportedOperationException(
+        "Speculative updates are applied to the block state with applyTo");
+  }
+
+  private boolean onlyPaidFee() {
+    return miningBeneficiaryRequests == 1 && !wrappedWorldView().miningBeneficiaryObserved;
+  }
+
+  /**
+   * Whether the transaction read any state the given writes have modified.
+   *
+   * @param writes the writes of the transactions before this one in the block
+   * @return true if the transaction has to be executed again
+   */
+  boolean dependsOn(final ParallelTransactionProcessor.StateWrites writes) {
+    final RecordingWorldView view = wrappedWorldView();
+    final boolean readMiningBeneficiary = miningBeneficiaryRequests > 0 && !onlyPaidFee();
+    return (readMiningBeneficiary && writes.isAccountWritten(miningBeneficiary))
+        || view.accountReads.stream().anyMatch(writes::isAccountWritten)
+        || view.storageScans.stream().anyMatch(writes::isAnyStorageWritten)
+        || view.storageReads.entrySet().stream()
+            .anyMatch(
+                reads ->
+                    reads.getValue().stream()
+                        .anyMatch(key -> writes.isStorageWritten(reads.getKey(), key)));
+  }
+
+  /**
+   * Replays the changes made by the transaction onto {@code target}.
+   *
+   * @param target an updater over the state left by the transactions before this one, which must
+   *     not have been modified by them in any way {@link #dependsOn} would detect
+   * @return false if the changes couldn't be applied, in which case {@code target} has to be
+   *     reverted and the transaction executed again
+   */
+  boolean applyTo(final WorldUpdater target) {
+    final boolean onlyPaidFee = onlyPaidFee();
+    for (final Address address : deletedAccounts()) {
+      if (!onlyPaidFee || !address.equals(miningBeneficiary)) {
+        target.deleteAccount(address);
+      }
+    }
+    UpdateTrackingAccount<Account> beneficiary = null;
+    for (final UpdateTrackingAccount<Account> update : updatedAccounts()) {
+      if (onlyPaidFee && update.getAddress().equals(miningBeneficiary)) {
+        beneficiary = update;
+        continue;
+      }
+      final MutableAccount account;
+      if (update.getWrappedAccount() == null) {
+        account = target.createAccount(update.getAddress()).getMutable();
+      } else {
+        final DefaultEvmAccount existing = target.getAccount(update.getAddress());
+        if (existing == null) {
+          return false;
+        }
+        account = existing.getMutable();
+      }
+      account.setNonce(update.getNonce());
+      account.setBalance(update.getBalance());
+      if (update.codeWasUpdated()) {
+        account.setCode(update.getCode());
+        account.setVersion(update.getVersion());
+      }
+      if (update.getStorageWasCleared()) {
+        account.clearStorage();
+      }
+      update.getUpdatedStorage().forEach(account::setStorageValue);
+    }
+    return !onlyPaidFee || applyFee(target, beneficiary);
+  }
+
+  private boolean applyFee(
+      final WorldUpdater target, final UpdateTrackingAccount<Account> beneficiary) {
+    if (beneficiary == null) {
+      // Removed as empty after being paid nothing, as it would be now if it is still empty.
+      final Account current = target.get(miningBeneficiary);
+      if (current != null && current.isEmpty()) {
+        target.deleteAccount(miningBeneficiary);
+      }
+      return true;
+    }
+    final Account original = beneficiary.getWrappedAccount();
+    if (original == null
+        ? beneficiary.getNonce() != Account.DEFAULT_NONCE
+        : beneficiary.getNonce() != original.getNonce() || beneficiary.codeWasUpdated()) {
+      return false;
+    }
+    final Wei fee =
+        beneficiary.getBalance().subtract(original == null ? Wei.ZERO : original.getBalance());
+    if (fee.isZero()) {
+      // Whether the touched account is removed as empty depends on the transactions before.
+      final Account current = target.get(miningBeneficiary);
+      return current != null && !current.isEmpty();
+    }
+    target.getOrCreate(miningBeneficiary).getMutable().incrementBalance(fee);
+    return true;
+  }
+
+  /** A view of the block's starting state that records what is read from it. */
+  static class RecordingWorldView implements WorldView {
+
+    private final WorldView world;
+    private final Address miningBeneficiary;
+    private final Set<Address> accountReads = new HashSet<>();
+    private final Map<Address, Set<UInt256>> storageReads = new HashMap<>();
+    private final Set<Address> storageScans = new HashSet<>();
+    private boolean payingFee;
+    private boolean miningBeneficiaryObserved;
+
+    private RecordingWorldView(final WorldView world, final Address miningBeneficiary) {
+      this.world = world;
+      this.miningBeneficiary = miningBeneficiary;
+    }
+
+    @Override
+    public Account get(final Address address) {
+      if (!payingFee) {
+        accountReads.add(address);
+        if (address.equals(miningBeneficiary)) {
+          miningBeneficiaryObserved = true;
+        }
+      }
+      final Account account = world.get(address);
+      return account == null ? null : new RecordingAccount(account);
+    }
+
+    private class RecordingAccount implements Account {
+
+      private final Account account;
+
+      private RecordingAccount(final Account account) {
+        this.account = account;
+      }
+
+      @Override
+      public Address getAddress() {
+        return account.getAddress();
+      }
+
+      @Override
+      public Hash getAddressHash() {
+        return account.getAddressHash();
+      }
+
+      @Override
+      public long getNonce() {
+        return account.getNonce();
+      }
+
+      @Override
+      public Wei getBalance() {
+        return account.getBalance();
+      }
+
+      @Override
+      public Bytes getCode() {
+        return account.getCode();
+      }
+
+      @Override
+      public Hash getCodeHash() {
+        return account.getCodeHash();
+      }
+
+      @Override
+      public int getVersion() {
+        return account.getVersion();
+      }
+
+      @Override
+      public UInt256 getStorageValue(final UInt256 key) {
+        recordStorageRead(key);
+        return account.getStorageValue(key);
+      }
+
+      @Override
+      public UInt256 getOriginalStorageValue(final UInt256 key) {
+        recordStorageRead(key);
+        return account.getOriginalStorageValue(key);
+      }
+
+      @Override
+      public NavigableMap<Bytes32, AccountStorageEntry> storageEntriesFrom(
+          final Bytes32 startKeyHash, final int limit) {
+        storageScans.add(account.getAddress());
+        return account.storageEntriesFrom(startKeyHash, limit);
+      }
+
+      private void recordStorageRead(final UInt256 key) {
+        storageReads.computeIfAbsent(account.getAddress(), address -> new HashSet<>()).add(key);
+      }
+    }
+  }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.storage.keyvalue.TrieNodeCache;
+import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Warms the world state caches for a block before it is executed.
+ *
+ * <p>Block execution reads accounts, storage and code one transaction at a time, and every cold
+ * read blocks the import thread on a database lookup. As soon as a block is received the prefetcher
+ * loads the accounts and code of its senders, recipients and coinbase on a small bounded pool. It
+ * reads them from the parent's world state or, while the parent hasn't been imported yet, from the
+ * chain head's, which shares most of its trie nodes.
+ *
+ * <p>Optionally the block's transactions are also executed speculatively against a throwaway copy
+ * of the parent's world state, which reads the storage slots and contracts they touch. Nothing
+ * executed this way is ever committed.
+ *
+ * <p>Prefetching is best effort: a block is skipped when the pool is saturated, and any failure is
+ * ignored as the block will be executed regardless.
+ */
+public class StatePrefetcher implements Closeable {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  public static final int DEFAULT_THREADS = 2;
+  private static final int MAX_QUEUED_TASKS = 64;
+
+  private final Blockchain blockchain;
+  private final WorldStateArchive worldStateArchive;
+  private final ProtocolSchedule protocolSchedule;
+  private final boolean speculativeExecutionEnabled;
+  private final int parallelism;
+  private final ExecutorService executor;
+  private final LabelledMetric<Counter> blockCounter;
+  private final Counter accountCounter;
+  private final Counter transactionCounter;
+
+  public StatePrefetcher(
+      final Blockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final ProtocolSchedule protocolSchedule,
+      final boolean speculativeExecutionEnabled,
+      final MetricsSystem metricsSystem) {
+    this(
+        blockchain,
+        worldStateArchive,
+        protocolSchedule,
+        speculativeExecutionEnabled,
+        DEFAULT_THREADS,
+        new ThreadPoolExecutor(
+            DEFAULT_THREADS,
+            DEFAULT_THREADS,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_TASKS),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("StatePrefetcher-%d")
+                .build()),
+        metricsSystem);
+  }
+
+  @VisibleForTesting
+  StatePrefetcher(
+      final Blockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final ProtocolSchedule protocolSchedule,
+      final boolean speculativeExecutionEnabled,
+      final int parallelism,
+      final ExecutorService executor,
+      final MetricsSystem metricsSystem) {
+    this.blockchain = blockchain;
+    this.worldStateArchive = worldStateArchive;
+    this.protocolSchedule = protocolSchedule;
+    this.speculativeExecutionEnabled = speculativeExecutionEnabled;
+    this.parallelism = parallelism;
+    this.executor = executor;
+
+    blockCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "state_prefetch_blocks_total",
+            "Total number of blocks whose state was prefetched, by whether prefetching finished"
+                + " before the block was imported",
+            "outcome");
+    accountCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "state_prefetch_accounts_total",
+            "Total number of accounts loaded by state prefetching");
+    transactionCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "state_prefetch_transactions_total",
+            "Total number of transactions executed speculatively by state prefetching");
+  }
+
+  /**
+   * Starts loading the state the block is going to read. Returns immediately.
+   *
+   * @param block the block about to be imported
+   */
+  public void prefetch(final Block block) {
+    if (blockchain.contains(block.getHash())) {
+      return;
+    }
+    final BlockHeader header = block.getHeader();
+    final Optional<Hash> parentStateRoot =
+        blockchain
+            .getBlockHeader(header.getParentHash())
+            .map(BlockHeader::getStateRoot)
+            .filter(worldStateArchive::isWorldStateAvailable);
+    final Hash stateRoot =
+        parentStateRoot.orElseGet(() -> blockchain.getChainHeadHeader().getStateRoot());
+
+    final List<Transaction> transactions = block.getBody().getTransactions();
+    final int partitionSize = Math.max(1, (transactions.size() + parallelism - 1) / parallelism);
+    final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+    try {
+      tasks.add(submit(() -> loadAccounts(stateRoot, Stream.of(header.getCoinbase()))));
+      for (final List<Transaction> partition : Lists.partition(transactions, partitionSize)) {
+        // Recovering senders is left to the pool as well.
+        tasks.add(
+            submit(
+                () ->
+                    loadAccounts(
+                        stateRoot, partition.stream().flatMap(StatePrefetcher::accountsOf))));
+      }
+      if (speculativeExecutionEnabled && parentStateRoot.isPresent()) {
+        tasks.add(submit(() -> executeSpeculatively(block, parentStateRoot.get())));
+      }
+    } catch (final RejectedExecutionException e) {
+      blockCounter.labels("rejected").inc();
+      return;
+    }
+
+    CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+        .whenComplete(
+            (result, error) -> {
+              if (error != null) {
+                LOG.debug(
+                    "Failed to prefetch state for block {} ({})",
+                    header.getNumber(),
+                    block.getHash(),
+                    error);
+              }
+              blockCounter.labels(blockchain.contains(block.getHash()) ? "late" : "warm").inc();
+            });
+  }
+
+  private CompletableFuture<Void> submit(final Runnable task) {
+    return CompletableFuture.runAsync(() -> TrieNodeCache.prefetching(task), executor);
+  }
+
+  private static Stream<Address> accountsOf(final Transaction transaction) {
+    return Stream.concat(Stream.of(transaction.getSender()), transaction.getTo().stream());
+  }
+
+  private void loadAccounts(final Hash stateRoot, final Stream<Address> addresses) {
+    worldStateArchive
+        .get(stateRoot)
+        .ifPresent(
+            worldState ->
+                addresses.forEach(
+                    address -> {
+                      final Account account = worldState.get(address);
+                      if (account != null) {
+                        account.getCode();
+                      }
+                      accountCounter.inc();
+                    }));
+  }
+
+  private void executeSpeculatively(final Block block, final Hash parentStateRoot) {
+    final BlockHeader header = block.getHeader();
+    final ProtocolSpec protocolSpec = protocolSchedule.getByBlockNumber(header.getNumber());
+    final TransactionProcessor transactionProcessor = protocolSpec.getTransactionProcessor();
+    final Address miningBeneficiary =
+        protocolSpec.getMiningBeneficiaryCalculator().calculateBeneficiary(header);
+    final BlockHashLookup blockHashLookup = new BlockHashLookup(header, blockchain);
+    worldStateArchive
+        .getMutable(parentStateRoot)
+        .ifPresent(
+            worldState -> {
+              // Only ever committed into this updater, which is discarded.
+              final WorldUpdater blockUpdater = worldState.updater();
+              for (final Transaction transaction : block.getBody().getTransactions()) {
+                if (blockchain.contains(block.getHash())) {
+                  // The block has been imported, there is nothing left to warm.
+                  return;
+                }
+                final WorldUpdater transactionUpdater = blockUpdater.updater();
+                transactionProcessor.processTransaction(
+                    blockchain,
+                    transactionUpdater,
+                    header,
+                    transaction,
+                    miningBeneficiary,
+                    blockHashLookup,
+                    false,
+                    TransactionValidationParams.blockReplay());
+                transactionUpdater.commit();
+                transactionCounter.inc();
+              }
+            });
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
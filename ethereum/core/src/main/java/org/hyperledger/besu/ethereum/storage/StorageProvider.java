@@ -17,6 +17,7 @@ package org.hyperledger.besu.ethereum.storage;
 import org.hyperledger.besu.ethereum.chain.BlockchainStorage;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.worldstate.WorldStatePreimageStorage;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateSnapshotStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 
@@ -32,5 +33,7 @@ public interface StorageProvider extends Closeable {
 
   KeyValueStorage createPruningStorage();
 
+  WorldStateSnapshotStorage createWorldStateSnapshotStorage();
+
   boolean isWorldStateIterable();
 }
@@ -19,10 +19,12 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ScheduleBasedBlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
 import org.hyperledger.besu.ethereum.worldstate.WorldStatePreimageStorage;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateSnapshotStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 
 import java.io.IOException;
+import java.util.Optional;
 
 public class KeyValueStorageProvider implements StorageProvider {
 
@@ -30,19 +32,25 @@ public class KeyValueStorageProvider implements StorageProvider {
   private final KeyValueStorage worldStateStorage;
   private final KeyValueStorage worldStatePreimageStorage;
   private final KeyValueStorage pruningStorage;
+  private final KeyValueStorage worldStateSnapshotStorage;
   private final boolean isWorldStateIterable;
+  private final Optional<TrieNodeCache> trieNodeCache;
 
   public KeyValueStorageProvider(
       final KeyValueStorage blockchainStorage,
       final KeyValueStorage worldStateStorage,
       final KeyValueStorage worldStatePreimageStorage,
       final KeyValueStorage pruningStorage,
-      final boolean isWorldStateIterable) {
+      final KeyValueStorage worldStateSnapshotStorage,
+      final boolean isWorldStateIterable,
+      final Optional<TrieNodeCache> trieNodeCache) {
     this.blockchainStorage = blockchainStorage;
     this.worldStateStorage = worldStateStorage;
     this.worldStatePreimageStorage = worldStatePreimageStorage;
     this.pruningStorage = pruningStorage;
+    this.worldStateSnapshotStorage = worldStateSnapshotStorage;
     this.isWorldStateIterable = isWorldStateIterable;
+    this.trieNodeCache = trieNodeCache;
   }
 
   @Override
@@ -53,7 +61,7 @@ public class KeyValueStorageProvider implements StorageProvider {
 
   @Override
   public WorldStateStorage createWorldStateStorage() {
-    return new WorldStateKeyValueStorage(worldStateStorage);
+    return new WorldStateKeyValueStorage(worldStateStorage, trieNodeCache);
   }
 
   @Override
@@ -66,6 +74,11 @@ public class KeyValueStorageProvider implements StorageProvider {
     return pruningStorage;
   }
 
+  @Override
+  public WorldStateSnapshotStorage createWorldStateSnapshotStorage() {
+    return new WorldStateSnapshotKeyValueStorage(worldStateSnapshotStorage);
+  }
+
   @Override
   public boolean isWorldStateIterable() {
     return isWorldStateIterable;
@@ -76,5 +89,6 @@ public class KeyValueStorageProvider implements StorageProvider {
     blockchainStorage.close();
     worldStateStorage.close();
     pruningStorage.close();
+    worldStateSnapshotStorage.close();
   }
 }
@@ -18,13 +18,17 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCKCHAIN;
 import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.PRUNING_STATE;
 import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.WORLD_STATE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.WORLD_STATE_SNAPSHOT;
 
+import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.BesuConfiguration;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageFactory;
 import org.hyperledger.besu.services.kvstore.LimitedInMemoryKeyValueStorage;
 
+import java.util.Optional;
+
 public class KeyValueStorageProviderBuilder {
 
   private static final long DEFAULT_WORLD_STATE_PRE_IMAGE_CACHE_SIZE = 5_000L;
@@ -32,6 +36,7 @@ public class KeyValueStorageProviderBuilder {
   private KeyValueStorageFactory storageFactory;
   private BesuConfiguration commonConfiguration;
   private MetricsSystem metricsSystem;
+  private long trieNodeCacheSize;
 
   public KeyValueStorageProviderBuilder withStorageFactory(
       final KeyValueStorageFactory storageFactory) {
@@ -50,6 +55,11 @@ public class KeyValueStorageProviderBuilder {
     return this;
   }
 
+  public KeyValueStorageProviderBuilder withTrieNodeCacheSize(final long trieNodeCacheSize) {
+    this.trieNodeCacheSize = trieNodeCacheSize;
+    return this;
+  }
+
   public KeyValueStorageProvider build() {
     checkNotNull(storageFactory, "Cannot build a storage provider without a storage factory.");
     checkNotNull(
@@ -59,12 +69,27 @@ public class KeyValueStorageProviderBuilder {
 
     final KeyValueStorage worldStatePreImageStorage =
         new LimitedInMemoryKeyValueStorage(DEFAULT_WORLD_STATE_PRE_IMAGE_CACHE_SIZE);
+    final Optional<TrieNodeCache> trieNodeCache =
+        trieNodeCacheSize > 0
+            ? Optional.of(new TrieNodeCache(trieNodeCacheSize, metricsSystem))
+            : Optional.empty();
+    // Gauges aren't deduplicated by name like counters, so the gauge is registered here, once per
+    // provider, rather than by every cache.
+    trieNodeCache.ifPresent(
+        cache ->
+            metricsSystem.createLongGauge(
+                BesuMetricCategory.BLOCKCHAIN,
+                "trie_node_cache_entries",
+                "Number of trie nodes currently held in the trie node cache",
+                cache::size));
 
     return new KeyValueStorageProvider(
         storageFactory.create(BLOCKCHAIN, commonConfiguration, metricsSystem),
         storageFactory.create(WORLD_STATE, commonConfiguration, metricsSystem),
         worldStatePreImageStorage,
         storageFactory.create(PRUNING_STATE, commonConfiguration, metricsSystem),
-        storageFactory.isSegmentIsolationSupported());
+        storageFactory.create(WORLD_STATE_SNAPSHOT, commonConfiguration, metricsSystem),
+        storageFactory.isSegmentIsolationSupported(),
+        trieNodeCache);
   }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Caches trie nodes by hash, bounded by the total size of the cached node RLP. As nodes are
+ * content addressed a cached node is never stale; it only needs to be dropped when it is removed
+ * from storage.
+ */
+public class TrieNodeCache {
+
+  // Set while a thread warms the cache ahead of block execution, so that the hit and miss counters
+  // only describe the reads made while executing.
+  private static final ThreadLocal<Boolean> PREFETCHING = ThreadLocal.withInitial(() -> false);
+
+  private final Cache<Bytes32, Bytes> cache;
+  // Bumped before every invalidation, so a miss can tell whether a node it loaded may have been
+  // removed from storage while it was loading.
+  private final AtomicLong invalidations = new AtomicLong();
+  private final Counter hitCounter;
+  private final Counter missCounter;
+  private final Counter prefetchedCounter;
+
+  public TrieNodeCache(final long maxSizeInBytes, final MetricsSystem metricsSystem) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxSizeInBytes)
+            .weigher((final Bytes32 hash, final Bytes node) -> Bytes32.SIZE + node.size())
+            .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+            .build();
+
+    hitCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "trie_node_cache_hits_total",
+            "Total number of trie node reads served by the trie node cache");
+    missCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "trie_node_cache_misses_total",
+            "Total number of trie node reads that missed the trie node cache");
+    prefetchedCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "trie_node_cache_prefetched_total",
+            "Total number of trie nodes loaded into the trie node cache by prefetching");
+  }
+
+  /**
+   * Runs {@code task} on the current thread with the trie node reads it makes counted as
+   * prefetches rather than as cache hits or misses.
+   *
+   * @param task the task warming the cache
+   */
+  public static void prefetching(final Runnable task) {
+    PREFETCHING.set(true);
+    try {
+      task.run();
+    } finally {
+      PREFETCHING.set(false);
+    }
+  }
+
+  public Optional<Bytes> get(
+      final Bytes32 nodeHash, final Function<Bytes32, Optional<Bytes>> loader) {
+    final boolean prefetching = PREFETCHING.get();
+    final Bytes cached = cache.getIfPresent(nodeHash);
+    if (cached != null) {
+      if (!prefetching) {
+        hitCounter.inc();
+      }
+      return Optional.of(cached);
+    }
+    if (prefetching) {
+      prefetchedCounter.inc();
+    } else {
+      missCounter.inc();
+    }
+    final long invalidationsBeforeLoad = invalidations.get();
+    final Optional<Bytes> node = loader.apply(nodeHash);
+    node.ifPresent(
+        value -> {
+          cache.put(nodeHash, value);
+          // An invalidation that started after this check removes the entry itself, one that
+          // started before it may have pruned the node we loaded.
+          if (invalidations.get() != invalidationsBeforeLoad) {
+            cache.asMap().remove(nodeHash, value);
+          }
+        });
+    return node;
+  }
+
+  public void put(final Bytes32 nodeHash, final Bytes node) {
+    cache.put(nodeHash, node);
+  }
+
+  public void invalidate(final Bytes32 nodeHash) {
+    invalidations.incrementAndGet();
+    cache.invalidate(nodeHash);
+  }
+
+  public long size() {
+    return cache.size();
+  }
+}
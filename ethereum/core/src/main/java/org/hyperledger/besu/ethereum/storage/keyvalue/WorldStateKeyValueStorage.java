@@ -21,7 +21,11 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 import org.hyperledger.besu.util.Subscribers;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -38,9 +42,16 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
   private final Subscribers<NodesAddedListener> nodeAddedListeners = Subscribers.create();
   private final KeyValueStorage keyValueStorage;
   private final ReentrantLock lock = new ReentrantLock();
+  private final Optional<TrieNodeCache> trieNodeCache;
 
   public WorldStateKeyValueStorage(final KeyValueStorage keyValueStorage) {
+    this(keyValueStorage, Optional.empty());
+  }
+
+  public WorldStateKeyValueStorage(
+      final KeyValueStorage keyValueStorage, final Optional<TrieNodeCache> trieNodeCache) {
     this.keyValueStorage = keyValueStorage;
+    this.trieNodeCache = trieNodeCache;
   }
 
   @Override
@@ -65,11 +76,17 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
   private Optional<Bytes> getTrieNode(final Bytes32 nodeHash) {
     if (nodeHash.equals(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)) {
       return Optional.of(MerklePatriciaTrie.EMPTY_TRIE_NODE);
+    } else if (trieNodeCache.isPresent()) {
+      return trieNodeCache.get().get(nodeHash, this::getStoredTrieNode);
     } else {
-      return keyValueStorage.get(nodeHash.toArrayUnsafe()).map(Bytes::wrap);
+      return getStoredTrieNode(nodeHash);
     }
   }
 
+  private Optional<Bytes> getStoredTrieNode(final Bytes32 nodeHash) {
+    return keyValueStorage.get(nodeHash.toArrayUnsafe()).map(Bytes::wrap);
+  }
+
   @Override
   public Optional<Bytes> getNodeData(final Bytes32 hash) {
     if (hash.equals(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)) {
@@ -81,6 +98,32 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
     }
   }
 
+  @Override
+  public List<Optional<Bytes>> multiGetNodeData(final List<Bytes32> hashes) {
+    final List<Optional<Bytes>> values = new ArrayList<>(hashes.size());
+    final List<Integer> storedIndexes = new ArrayList<>(hashes.size());
+    final List<byte[]> storedKeys = new ArrayList<>(hashes.size());
+    for (int i = 0; i < hashes.size(); i++) {
+      final Bytes32 hash = hashes.get(i);
+      if (hash.equals(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)) {
+        values.add(Optional.of(MerklePatriciaTrie.EMPTY_TRIE_NODE));
+      } else if (hash.equals(Hash.EMPTY)) {
+        values.add(Optional.of(Bytes.EMPTY));
+      } else {
+        values.add(Optional.empty());
+        storedIndexes.add(i);
+        storedKeys.add(hash.toArrayUnsafe());
+      }
+    }
+    if (!storedKeys.isEmpty()) {
+      final List<Optional<byte[]>> storedValues = keyValueStorage.multiGet(storedKeys);
+      for (int i = 0; i < storedIndexes.size(); i++) {
+        values.set(storedIndexes.get(i), storedValues.get(i).map(Bytes::wrap));
+      }
+    }
+    return values;
+  }
+
   @Override
   public boolean isWorldStateAvailable(final Bytes32 rootHash) {
     return getAccountStateTrieNode(rootHash).isPresent();
@@ -88,7 +131,8 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
 
   @Override
   public Updater updater() {
-    return new Updater(lock, keyValueStorage.startTransaction(), nodeAddedListeners);
+    return new Updater(
+        lock, keyValueStorage.startTransaction(), nodeAddedListeners, trieNodeCache);
   }
 
   @Override
@@ -100,6 +144,7 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
             lock.lock();
             try {
               if (!inUseCheck.test(key) && keyValueStorage.tryDelete(key)) {
+                trieNodeCache.ifPresent(cache -> cache.invalidate(Bytes32.wrap(key)));
                 prunedKeys.incrementAndGet();
               }
             } finally {
@@ -126,19 +171,28 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
     private final KeyValueStorageTransaction transaction;
     private final Subscribers<NodesAddedListener> nodeAddedListeners;
     private final Set<Bytes32> addedNodes = new HashSet<>();
+    private final Map<Bytes32, Bytes> addedTrieNodes = new HashMap<>();
+    private final Set<Bytes32> removedTrieNodes = new HashSet<>();
     private final Lock lock;
+    private final Optional<TrieNodeCache> trieNodeCache;
 
     public Updater(
         final Lock lock,
         final KeyValueStorageTransaction transaction,
-        final Subscribers<NodesAddedListener> nodeAddedListeners) {
+        final Subscribers<NodesAddedListener> nodeAddedListeners,
+        final Optional<TrieNodeCache> trieNodeCache) {
       this.lock = lock;
       this.transaction = transaction;
       this.nodeAddedListeners = nodeAddedListeners;
+      this.trieNodeCache = trieNodeCache;
     }
 
     @Override
     public Updater removeAccountStateTrieNode(final Bytes32 nodeHash) {
+      if (trieNodeCache.isPresent()) {
+        addedTrieNodes.remove(nodeHash);
+        removedTrieNodes.add(nodeHash);
+      }
       transaction.remove(nodeHash.toArrayUnsafe());
       return this;
     }
@@ -161,8 +215,7 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
         // Don't save empty nodes
         return this;
       }
-      addedNodes.add(nodeHash);
-      transaction.put(nodeHash.toArrayUnsafe(), node.toArrayUnsafe());
+      addTrieNode(nodeHash, node);
       return this;
     }
 
@@ -172,9 +225,17 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
         // Don't save empty nodes
         return this;
       }
+      addTrieNode(nodeHash, node);
+      return this;
+    }
+
+    private void addTrieNode(final Bytes32 nodeHash, final Bytes node) {
       addedNodes.add(nodeHash);
+      if (trieNodeCache.isPresent()) {
+        removedTrieNodes.remove(nodeHash);
+        addedTrieNodes.put(nodeHash, node);
+      }
       transaction.put(nodeHash.toArrayUnsafe(), node.toArrayUnsafe());
-      return this;
     }
 
     @Override
@@ -183,6 +244,11 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
       try {
         nodeAddedListeners.forEach(listener -> listener.onNodesAdded(addedNodes));
         transaction.commit();
+        trieNodeCache.ifPresent(
+            cache -> {
+              removedTrieNodes.forEach(cache::invalidate);
+              addedTrieNodes.forEach(cache::put);
+            });
       } finally {
         lock.unlock();
       }
@@ -191,6 +257,8 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
     @Override
     public void rollback() {
       addedNodes.clear();
+      addedTrieNodes.clear();
+      removedTrieNodes.clear();
       transaction.rollback();
     }
   }
@@ -0,0 +1,198 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateSnapshotStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+public class WorldStateSnapshotKeyValueStorage implements WorldStateSnapshotStorage {
+
+  private static final Bytes ACCOUNT_PREFIX = Bytes.of(1);
+  private static final Bytes STORAGE_PREFIX = Bytes.of(2);
+  private static final Bytes STORAGE_VERSION_PREFIX = Bytes.of(3);
+  private static final Bytes SNAPSHOT_ROOT_KEY =
+      Bytes.wrap("snapshotRoot".getBytes(StandardCharsets.UTF_8));
+  private static final Bytes GENERATOR_MARKER_KEY =
+      Bytes.wrap("generatorMarker".getBytes(StandardCharsets.UTF_8));
+  private static final Bytes LAST_STORAGE_VERSION_KEY =
+      Bytes.wrap("lastStorageVersion".getBytes(StandardCharsets.UTF_8));
+
+  private final KeyValueStorage keyValueStorage;
+
+  public WorldStateSnapshotKeyValueStorage(final KeyValueStorage keyValueStorage) {
+    this.keyValueStorage = keyValueStorage;
+  }
+
+  @Override
+  public Optional<Bytes> getAccount(final Bytes32 accountHash) {
+    return get(accountKey(accountHash));
+  }
+
+  @Override
+  public long getStorageVersion(final Bytes32 accountHash) {
+    return get(storageVersionKey(accountHash)).map(Bytes::toLong).orElse(INITIAL_STORAGE_VERSION);
+  }
+
+  @Override
+  public Optional<Bytes> getStorageValue(
+      final Bytes32 accountHash, final long storageVersion, final Bytes32 slotHash) {
+    return get(storageKey(accountHash, storageVersion, slotHash));
+  }
+
+  @Override
+  public long getLastStorageVersion() {
+    return get(LAST_STORAGE_VERSION_KEY).map(Bytes::toLong).orElse(INITIAL_STORAGE_VERSION);
+  }
+
+  @Override
+  public Optional<Hash> getSnapshotRoot() {
+    return get(SNAPSHOT_ROOT_KEY).map(Bytes32::wrap).map(Hash::wrap);
+  }
+
+  @Override
+  public Optional<Bytes32> getGeneratorMarker() {
+    return get(GENERATOR_MARKER_KEY).map(Bytes32::wrap);
+  }
+
+  @Override
+  public void clear() {
+    keyValueStorage.clear();
+  }
+
+  private Optional<Bytes> get(final Bytes key) {
+    return keyValueStorage.get(key.toArrayUnsafe()).map(Bytes::wrap);
+  }
+
+  private static Bytes accountKey(final Bytes32 accountHash) {
+    return Bytes.concatenate(ACCOUNT_PREFIX, accountHash);
+  }
+
+  private static Bytes storageKey(
+      final Bytes32 accountHash, final long storageVersion, final Bytes32 slotHash) {
+    // Slots that were never cleared keep the shorter key
+    return storageVersion == INITIAL_STORAGE_VERSION
+        ? Bytes.concatenate(STORAGE_PREFIX, accountHash, slotHash)
+        : Bytes.concatenate(
+            STORAGE_PREFIX, accountHash, Bytes.ofUnsignedLong(storageVersion), slotHash);
+  }
+
+  private static Bytes storageVersionKey(final Bytes32 accountHash) {
+    return Bytes.concatenate(STORAGE_VERSION_PREFIX, accountHash);
+  }
+
+  @Override
+  public Updater updater() {
+    return new Updater(keyValueStorage.startTransaction());
+  }
+
+  public static class Updater implements WorldStateSnapshotStorage.Updater {
+    private final KeyValueStorageTransaction transaction;
+
+    public Updater(final KeyValueStorageTransaction transaction) {
+      this.transaction = transaction;
+    }
+
+    @Override
+    public WorldStateSnapshotStorage.Updater putAccount(
+        final Bytes32 accountHash, final Bytes account) {
+      set(accountKey(accountHash), account);
+      return this;
+    }
+
+    @Override
+    public WorldStateSnapshotStorage.Updater removeAccount(final Bytes32 accountHash) {
+      remove(accountKey(accountHash));
+      return this;
+    }
+
+    @Override
+    public WorldStateSnapshotStorage.Updater putStorageValue(
+        final Bytes32 accountHash,
+        final long storageVersion,
+        final Bytes32 slotHash,
+        final Bytes value) {
+      set(storageKey(accountHash, storageVersion, slotHash), value);
+      return this;
+    }
+
+    @Override
+    public WorldStateSnapshotStorage.Updater removeStorageValue(
+        final Bytes32 accountHash, final long storageVersion, final Bytes32 slotHash) {
+      remove(storageKey(accountHash, storageVersion, slotHash));
+      return this;
+    }
+
+    @Override
+    public WorldStateSnapshotStorage.Updater setStorageVersion(
+        final Bytes32 accountHash, final long storageVersion) {
+      if (storageVersion == INITIAL_STORAGE_VERSION) {
+        remove(storageVersionKey(accountHash));
+      } else {
+        set(storageVersionKey(accountHash), Bytes.ofUnsignedLong(storageVersion));
+      }
+      return this;
+    }
+
+    @Override
+    public WorldStateSnapshotStorage.Updater setLastStorageVersion(final long storageVersion) {
+      set(LAST_STORAGE_VERSION_KEY, Bytes.ofUnsignedLong(storageVersion));
+      return this;
+    }
+
+    @Override
+    public WorldStateSnapshotStorage.Updater setSnapshotRoot(final Hash snapshotRoot) {
+      set(SNAPSHOT_ROOT_KEY, snapshotRoot);
+      return this;
+    }
+
+    @Override
+    public WorldStateSnapshotStorage.Updater setGeneratorMarker(final Bytes32 marker) {
+      set(GENERATOR_MARKER_KEY, marker);
+      return this;
+    }
+
+    @Override
+    public WorldStateSnapshotStorage.Updater removeGeneratorMarker() {
+      remove(GENERATOR_MARKER_KEY);
+      return this;
+    }
+
+    @Override
+    public void commit() {
+      transaction.commit();
+    }
+
+    @Override
+    public void rollback() {
+      transaction.rollback();
+    }
+
+    private void set(final Bytes key, final Bytes value) {
+      transaction.put(key.toArrayUnsafe(), value.toArrayUnsafe());
+    }
+
+    private void remove(final Bytes key) {
+      transaction.remove(key.toArrayUnsafe());
+    }
+  }
+}
@@ -29,11 +29,11 @@ public class Code {
   /** The bytes representing the code. */
   private final Bytes bytes;
 
-  /** Used to cache valid jump destinations. */
-  private BitSet validJumpDestinations;
+  /** Used to cache valid jump and jump sub destinations. */
+  private volatile JumpDestinations jumpDestinations;
 
-  /** Used to cache valid jump sub destinations. */
-  private BitSet validJumpSubDestinations;
+  /** The code decoded for the operations of the EVM that last executed it. */
+  private volatile DecodedCode decodedCode;
 
   /**
    * Public constructor.
@@ -81,60 +81,59 @@ public class Code {
   /**
    * Determine whether a specified destination is a valid jump target.
    *
-   * @param evm the EVM executing this code
-   * @param frame The current message frame
    * @param destination The destination we're checking for validity.
    * @return Whether or not this location is a valid jump destination.
    */
-  public boolean isValidJumpDestination(
-      final EVM evm, final MessageFrame frame, final UInt256 destination) {
+  public boolean isValidJumpDestination(final UInt256 destination) {
     if (!destination.fitsInt()) return false;
 
     final int jumpDestination = destination.intValue();
     if (jumpDestination >= getSize()) return false;
 
-    if (validJumpDestinations == null) {
-      // Calculate valid jump destinations
-      validJumpDestinations = new BitSet(getSize());
-      evm.forEachOperation(
-          this,
-          frame.getContractAccountVersion(),
-          (final Operation op, final Integer offset) -> {
-            if (op.getOpcode() == JumpDestOperation.OPCODE) {
-              validJumpDestinations.set(offset);
-            }
-          });
-    }
-    return validJumpDestinations.get(jumpDestination);
+    return jumpDestinations().validJumpDestinations.get(jumpDestination);
   }
 
   /**
    * Determine whether a specified destination is a valid jump sub target.
    *
-   * @param evm the EVM executing this code
-   * @param frame The current message frame
    * @param destination The destination we're checking for validity.
    * @return Whether or not this location is a valid jump sub destination.
    */
-  public boolean isValidJumpSubDestination(
-      final EVM evm, final MessageFrame frame, final UInt256 destination) {
+  public boolean isValidJumpSubDestination(final UInt256 destination) {
     if (!destination.fitsInt()) return false;
     final int jumpDestination = destination.intValue();
     if (jumpDestination >= getSize()) return false;
 
-    if (validJumpSubDestinations == null) {
-      // Calculate valid jump destinations
-      validJumpSubDestinations = new BitSet(getSize());
-      evm.forEachOperation(
-          this,
-          frame.getContractAccountVersion(),
-          (final Operation op, final Integer offset) -> {
-            if (op.getOpcode() == BeginSubOperation.OPCODE) {
-              validJumpSubDestinations.set(offset);
-            }
-          });
+    return jumpDestinations().validJumpSubDestinations.get(jumpDestination);
+  }
+
+  private JumpDestinations jumpDestinations() {
+    // Code may be shared between threads through the code cache, the analysis is idempotent so a
+    // racing thread at worst repeats it.
+    JumpDestinations result = jumpDestinations;
+    if (result == null) {
+      result = new JumpDestinations(bytes);
+      jumpDestinations = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the code decoded for the given operations, decoding it if it was last decoded for other
+   * operations or not at all.
+   *
+   * @param operations the operations of the executing EVM
+   * @param contractAccountVersion the version of the account holding the code
+   * @return the decoded code
+   */
+  DecodedCode decode(final OperationRegistry operations, final int contractAccountVersion) {
+    // Like the jump destinations, decoding is idempotent so racing threads at worst repeat it.
+    DecodedCode result = decodedCode;
+    if (result == null || !result.isDecodedWith(operations, contractAccountVersion)) {
+      result = new DecodedCode(bytes, operations, contractAccountVersion);
+      decodedCode = result;
     }
-    return validJumpSubDestinations.get(jumpDestination);
+    return result;
   }
 
   public Bytes getBytes() {
@@ -145,4 +144,35 @@ public class Code {
   public String toString() {
     return MoreObjects.toStringHelper(this).add("bytes", bytes).toString();
   }
+
+  /**
+   * Valid JUMPDEST and BEGINSUB offsets, found in a single pass that skips over PUSH data. The
+   * opcodes that carry immediate data are the same in every fork, so the result does not depend on
+   * the EVM executing the code.
+   */
+  private static class JumpDestinations {
+    private static final int PUSH1 = 0x60;
+    private static final int PUSH32 = 0x7f;
+
+    private final BitSet validJumpDestinations;
+    private final BitSet validJumpSubDestinations;
+
+    private JumpDestinations(final Bytes bytes) {
+      final int size = bytes.size();
+      validJumpDestinations = new BitSet(size);
+      validJumpSubDestinations = new BitSet(size);
+      int pc = 0;
+      while (pc < size) {
+        final int opcode = bytes.get(pc) & 0xff;
+        if (opcode == JumpDestOperation.OPCODE) {
+          validJumpDestinations.set(pc);
+        } else if (opcode == BeginSubOperation.OPCODE) {
+          validJumpSubDestinations.set(pc);
+        } else if (opcode >= PUSH1 && opcode <= PUSH32) {
+          pc += opcode - PUSH1 + 1;
+        }
+        pc++;
+      }
+    }
+  }
 }
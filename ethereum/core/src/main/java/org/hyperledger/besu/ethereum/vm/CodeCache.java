@@ -0,0 +1,87 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+
+import java.util.function.Supplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Caches {@link Code} by code hash so that contracts called repeatedly keep their jump destination
+ * analysis and decoded operations. The analysis doesn't depend on the fork, so by default a single
+ * cache is shared by every {@link EVM}; the code is decoded again when an EVM with other operations
+ * executes it.
+ */
+public class CodeCache {
+
+  private static final long DEFAULT_MAX_SIZE_IN_BYTES = 64 * 1024 * 1024;
+  private static final CodeCache SHARED = new CodeCache(DEFAULT_MAX_SIZE_IN_BYTES);
+
+  private final Cache<Hash, Code> cache;
+  private volatile Counter hitCounter = NoOpMetricsSystem.NO_OP_COUNTER;
+  private volatile Counter missCounter = NoOpMetricsSystem.NO_OP_COUNTER;
+
+  public CodeCache(final long maxSizeInBytes) {
+    // Weigh the code along with the two bitmaps of its jump destination analysis and the operation
+    // reference and block index kept per byte once it's decoded
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxSizeInBytes)
+            .weigher(
+                (final Hash codeHash, final Code code) ->
+                    code.getSize() + code.getSize() / 4 + code.getSize() * 8)
+            .build();
+  }
+
+  public static CodeCache shared() {
+    return SHARED;
+  }
+
+  public void registerMetrics(final MetricsSystem metricsSystem) {
+    hitCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "code_cache_hits_total",
+            "Total number of contract code lookups served by the code cache");
+    missCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "code_cache_misses_total",
+            "Total number of contract code lookups that missed the code cache");
+  }
+
+  public Code getOrCreate(final Hash codeHash, final Supplier<Bytes> codeSupplier) {
+    if (codeHash.equals(Hash.EMPTY)) {
+      return new Code();
+    }
+    final Code cached = cache.getIfPresent(codeHash);
+    if (cached != null) {
+      hitCounter.inc();
+      return cached;
+    }
+    missCounter.inc();
+    final Code code = new Code(codeSupplier.get());
+    cache.put(codeHash, code);
+    return code;
+  }
+}
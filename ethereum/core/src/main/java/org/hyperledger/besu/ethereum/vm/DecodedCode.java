@@ -0,0 +1,167 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm;
+
+import org.hyperledger.besu.ethereum.core.Gas;
+import org.hyperledger.besu.ethereum.vm.operations.AbstractFixedCostOperation;
+import org.hyperledger.besu.ethereum.vm.operations.BeginSubOperation;
+import org.hyperledger.besu.ethereum.vm.operations.GasOperation;
+import org.hyperledger.besu.ethereum.vm.operations.InvalidOperation;
+import org.hyperledger.besu.ethereum.vm.operations.JumpDestOperation;
+import org.hyperledger.besu.ethereum.vm.operations.PushOperation;
+import org.hyperledger.besu.ethereum.vm.operations.StopOperation;
+
+import java.util.Arrays;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Code decoded once for a given set of operations, so that the {@link EVM} doesn't have to look up
+ * the operation for every step.
+ *
+ * <p>Runs of fixed cost operations that don't touch the program counter, the remaining gas or the
+ * frame state are grouped into blocks. The EVM charges the gas of a whole block at once and then
+ * executes its operations without checking gas, falling back to single steps when the remaining gas
+ * doesn't cover the block. Blocks also carry the immediate values of their PUSH operations as
+ * limbs, ready to be copied onto the {@link OperandStack}.
+ */
+final class DecodedCode {
+  private static final int PUSH1 = 0x60;
+  private static final int PUSH32 = 0x7f;
+
+  private final OperationRegistry registry;
+  private final int contractAccountVersion;
+
+  /** The operation for the byte at each offset of the code. */
+  final Operation[] operations;
+  /** For each offset, one more than the index of the block starting there, or zero. */
+  final int[] blockAt;
+  /** The total gas cost of each block. */
+  final Gas[] blockGas;
+  /** The offset following the last operation of each block. */
+  final int[] blockEnd;
+  /** The index in {@link #immediates} of the first PUSH immediate of each block. */
+  final int[] blockImmediates;
+  /** The PUSH immediates of all the blocks, {@link UInt256Limbs#LIMBS} limbs each. */
+  final long[] immediates;
+
+  DecodedCode(
+      final Bytes code, final OperationRegistry registry, final int contractAccountVersion) {
+    this.registry = registry;
+    this.contractAccountVersion = contractAccountVersion;
+
+    final int size = code.size();
+    final Operation[] invalidOperations = new Operation[256];
+    operations = new Operation[size];
+    for (int pc = 0; pc < size; pc++) {
+      final int opcode = code.get(pc) & 0xff;
+      final Operation operation = registry.get(opcode, contractAccountVersion);
+      if (operation != null) {
+        operations[pc] = operation;
+      } else {
+        if (invalidOperations[opcode] == null) {
+          invalidOperations[opcode] = new InvalidOperation(opcode, null);
+        }
+        operations[pc] = invalidOperations[opcode];
+      }
+    }
+
+    blockAt = new int[size];
+    Gas[] gas = new Gas[16];
+    int[] ends = new int[16];
+    int[] firstImmediates = new int[16];
+    long[] values = new long[16 * UInt256Limbs.LIMBS];
+    int blocks = 0;
+    int immediateCount = 0;
+
+    int pc = 0;
+    while (pc < size) {
+      if (!isFoldable(operations[pc])) {
+        pc += instructionSize(code, pc);
+        continue;
+      }
+      if (blocks == gas.length) {
+        gas = Arrays.copyOf(gas, blocks * 2);
+        ends = Arrays.copyOf(ends, blocks * 2);
+        firstImmediates = Arrays.copyOf(firstImmediates, blocks * 2);
+      }
+      final int start = pc;
+      Gas blockCost = Gas.ZERO;
+      firstImmediates[blocks] = immediateCount * UInt256Limbs.LIMBS;
+      do {
+        final Operation operation = operations[pc];
+        blockCost = blockCost.plus(((AbstractFixedCostOperation) operation).getGasCost());
+        if (operation instanceof PushOperation) {
+          if ((immediateCount + 1) * UInt256Limbs.LIMBS > values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+          }
+          pushImmediate(code, pc, operation.getOpSize() - 1, values, immediateCount);
+          immediateCount++;
+        }
+        pc += operation.getOpSize();
+      } while (pc < size
+          && isFoldable(operations[pc])
+          && !(operations[pc] instanceof JumpDestOperation));
+      blockAt[start] = blocks + 1;
+      gas[blocks] = blockCost;
+      ends[blocks] = Math.min(pc, size);
+      blocks++;
+    }
+
+    blockGas = Arrays.copyOf(gas, blocks);
+    blockEnd = Arrays.copyOf(ends, blocks);
+    blockImmediates = Arrays.copyOf(firstImmediates, blocks);
+    immediates = Arrays.copyOf(values, immediateCount * UInt256Limbs.LIMBS);
+  }
+
+  boolean isDecodedWith(final OperationRegistry registry, final int contractAccountVersion) {
+    return this.registry == registry && this.contractAccountVersion == contractAccountVersion;
+  }
+
+  /**
+   * Whether the operation can run inside a block. Operations that jump, halt successfully or read
+   * the remaining gas end the block, since the gas of the whole block has already been charged
+   * when they run.
+   */
+  private static boolean isFoldable(final Operation operation) {
+    return operation instanceof AbstractFixedCostOperation
+        && !operation.getUpdatesProgramCounter()
+        && !(operation instanceof StopOperation)
+        && !(operation instanceof GasOperation)
+        && !(operation instanceof BeginSubOperation);
+  }
+
+  private static int instructionSize(final Bytes code, final int pc) {
+    final int opcode = code.get(pc) & 0xff;
+    return opcode >= PUSH1 && opcode <= PUSH32 ? opcode - PUSH1 + 2 : 1;
+  }
+
+  /**
+   * Decodes the immediate of a PUSH the same way as {@link PushOperation}: bytes missing past the
+   * end of the code are taken to be zero.
+   */
+  private static void pushImmediate(
+      final Bytes code, final int pc, final int length, final long[] values, final int index) {
+    final byte[] word = new byte[UInt256Limbs.LIMBS * Long.BYTES];
+    final int copyLength = Math.min(length, code.size() - pc - 1);
+    for (int i = 0; i < copyLength; i++) {
+      word[word.length - length + i] = code.get(pc + 1 + i);
+    }
+    for (int i = 0; i < word.length; i++) {
+      values[index * UInt256Limbs.LIMBS + i / Long.BYTES] |=
+          (word[i] & 0xFFL) << (8 * (Long.BYTES - 1 - i % Long.BYTES));
+    }
+  }
+}
@@ -17,16 +17,19 @@ package org.hyperledger.besu.ethereum.vm;
 import static org.apache.logging.log4j.LogManager.getLogger;
 
 import org.hyperledger.besu.ethereum.core.Gas;
+import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.vm.FixedStack.OverflowException;
 import org.hyperledger.besu.ethereum.vm.FixedStack.UnderflowException;
 import org.hyperledger.besu.ethereum.vm.MessageFrame.State;
 import org.hyperledger.besu.ethereum.vm.Operation.OperationResult;
+import org.hyperledger.besu.ethereum.vm.operations.AbstractFixedCostOperation;
 import org.hyperledger.besu.ethereum.vm.operations.InvalidOperation;
+import org.hyperledger.besu.ethereum.vm.operations.PushOperation;
 import org.hyperledger.besu.ethereum.vm.operations.StopOperation;
 import org.hyperledger.besu.ethereum.vm.operations.VirtualOperation;
 
 import java.util.Optional;
-import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.logging.log4j.Logger;
@@ -44,61 +47,133 @@ public class EVM {
 
   private final OperationRegistry operations;
   private final Operation endOfScriptStop;
+  private final CodeCache codeCache;
 
   public EVM(final OperationRegistry operations, final GasCalculator gasCalculator) {
+    this(operations, gasCalculator, CodeCache.shared());
+  }
+
+  public EVM(
+      final OperationRegistry operations,
+      final GasCalculator gasCalculator,
+      final CodeCache codeCache) {
     this.operations = operations;
     this.endOfScriptStop = new VirtualOperation(new StopOperation(gasCalculator));
+    this.codeCache = codeCache;
   }
 
   public void runToHalt(final MessageFrame frame, final OperationTracer operationTracer) {
+    if (operationTracer == OperationTracer.NO_TRACING && !LOG.isTraceEnabled()) {
+      runDecoded(frame);
+      return;
+    }
     while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
       executeNextOperation(frame, operationTracer);
     }
   }
 
-  void forEachOperation(
-      final Code code,
-      final int contractAccountVersion,
-      final BiConsumer<Operation, Integer> operationDelegate) {
-    int pc = 0;
-    final int length = code.getSize();
-
-    while (pc < length) {
-      final Operation curOp = operationAtOffset(code, contractAccountVersion, pc);
-      operationDelegate.accept(curOp, pc);
-      pc += curOp.getOpSize();
+  /**
+   * Runs the frame over its decoded code. Nothing observes the individual steps, so blocks of fixed
+   * cost operations are charged their gas once and executed back to back.
+   */
+  private void runDecoded(final MessageFrame frame) {
+    final DecodedCode code = frame.getCode().decode(operations, frame.getContractAccountVersion());
+    final Operation[] decodedOperations = code.operations;
+    while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
+      final int pc = frame.getPC();
+      if (pc >= decodedOperations.length) {
+        frame.setCurrentOperation(endOfScriptStop);
+        executeCurrentOperation(frame);
+        continue;
+      }
+      final int block = code.blockAt[pc] - 1;
+      if (block >= 0 && frame.getRemainingGas().compareTo(code.blockGas[block]) >= 0) {
+        executeBlock(frame, code, block);
+      } else {
+        frame.setCurrentOperation(decodedOperations[pc]);
+        executeCurrentOperation(frame);
+      }
+    }
+  }
+
+  private void executeBlock(final MessageFrame frame, final DecodedCode code, final int block) {
+    frame.decrementRemainingGas(code.blockGas[block]);
+    final Operation[] decodedOperations = code.operations;
+    final OperandStack stack = frame.getOperandStack();
+    final int end = code.blockEnd[block];
+    int immediate = code.blockImmediates[block];
+    int pc = frame.getPC();
+    while (pc < end) {
+      final Operation operation = decodedOperations[pc];
+      frame.setCurrentOperation(operation);
+      if (operation instanceof PushOperation) {
+        try {
+          final int index = stack.pushIndex();
+          System.arraycopy(code.immediates, immediate, stack.limbs(), index, UInt256Limbs.LIMBS);
+        } catch (final OverflowException oe) {
+          halt(frame, ExceptionalHaltReason.TOO_MANY_STACK_ITEMS);
+          return;
+        }
+        immediate += UInt256Limbs.LIMBS;
+      } else {
+        final Optional<ExceptionalHaltReason> haltReason =
+            ((AbstractFixedCostOperation) operation)
+                .executeWithoutGasCheck(frame, this)
+                .getHaltReason();
+        if (haltReason.isPresent()) {
+          halt(frame, haltReason.get());
+          return;
+        }
+      }
+      pc += operation.getOpSize();
+      frame.setPC(pc);
     }
   }
 
+  private static void halt(final MessageFrame frame, final ExceptionalHaltReason haltReason) {
+    LOG.trace("MessageFrame evaluation halted because of {}", haltReason);
+    frame.setExceptionalHaltReason(Optional.of(haltReason));
+    frame.setState(State.EXCEPTIONAL_HALT);
+  }
+
+  /**
+   * Returns the analysed code for a code hash, creating it if it isn't already cached.
+   *
+   * @param codeHash the hash of the code
+   * @param codeSupplier supplies the code bytes when the code isn't cached
+   * @return the code
+   */
+  public Code getCode(final Hash codeHash, final Supplier<Bytes> codeSupplier) {
+    return codeCache.getOrCreate(codeHash, codeSupplier);
+  }
+
   private void executeNextOperation(
       final MessageFrame frame, final OperationTracer operationTracer) {
     frame.setCurrentOperation(
         operationAtOffset(frame.getCode(), frame.getContractAccountVersion(), frame.getPC()));
-    operationTracer.traceExecution(
-        frame,
-        () -> {
-          OperationResult result;
-          try {
-            result = frame.getCurrentOperation().execute(frame, this);
-          } catch (final OverflowException oe) {
-            result = OVERFLOW_RESPONSE;
-          } catch (final UnderflowException ue) {
-            result = UNDERFLOW_RESPONSE;
-          }
-          frame.setGasCost(result.getGasCost());
-          logState(frame, result.getGasCost().orElse(Gas.ZERO));
-          final Optional<ExceptionalHaltReason> haltReason = result.getHaltReason();
-          if (haltReason.isPresent()) {
-            LOG.trace("MessageFrame evaluation halted because of {}", haltReason.get());
-            frame.setExceptionalHaltReason(haltReason);
-            frame.setState(State.EXCEPTIONAL_HALT);
-          } else if (result.getGasCost().isPresent()) {
-            frame.decrementRemainingGas(result.getGasCost().get());
-          }
-          incrementProgramCounter(frame);
-
-          return result;
-        });
+    operationTracer.traceExecution(frame, () -> executeCurrentOperation(frame));
+  }
+
+  private OperationResult executeCurrentOperation(final MessageFrame frame) {
+    OperationResult result;
+    try {
+      result = frame.getCurrentOperation().execute(frame, this);
+    } catch (final OverflowException oe) {
+      result = OVERFLOW_RESPONSE;
+    } catch (final UnderflowException ue) {
+      result = UNDERFLOW_RESPONSE;
+    }
+    frame.setGasCost(result.getGasCost());
+    logState(frame, result.getGasCost().orElse(Gas.ZERO));
+    final Optional<ExceptionalHaltReason> haltReason = result.getHaltReason();
+    if (haltReason.isPresent()) {
+      halt(frame, haltReason.get());
+    } else if (result.getGasCost().isPresent()) {
+      frame.decrementRemainingGas(result.getGasCost().get());
+    }
+    incrementProgramCounter(frame);
+
+    return result;
   }
 
   private void incrementProgramCounter(final MessageFrame frame) {
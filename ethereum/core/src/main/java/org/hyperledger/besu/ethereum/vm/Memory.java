@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.vm;
 
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.function.IntConsumer;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
@@ -380,6 +381,30 @@ public class Memory {
     System.arraycopy(bytes.toArrayUnsafe(), 0, data, start, Bytes32.SIZE);
   }
 
+  /**
+   * Brings a copy of memory up to date, reporting every 32-bytes word that differs from the copy.
+   *
+   * <p>Words beyond the end of the copy are compared against zero, so expanding memory without
+   * writing to it reports nothing.
+   *
+   * @param snapshot the previous copy of memory, which may be empty.
+   * @param changedWord notified with the index of each word that changed, in ascending order.
+   * @return the up to date copy, which is {@code snapshot} itself unless memory has grown.
+   */
+  byte[] updateSnapshot(final byte[] snapshot, final IntConsumer changedWord) {
+    final byte[] target =
+        snapshot.length == data.length ? snapshot : Arrays.copyOf(snapshot, data.length);
+    for (int word = 0; word < dataSize256; word++) {
+      final int from = word * Bytes32.SIZE;
+      final int to = from + Bytes32.SIZE;
+      if (Arrays.mismatch(data, from, to, target, from, to) >= 0) {
+        System.arraycopy(data, from, target, from, Bytes32.SIZE);
+        changedWord.accept(word);
+      }
+    }
+    return target;
+  }
+
   @Override
   public String toString() {
     return Bytes.wrap(data).toHexString();
@@ -40,6 +40,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
@@ -481,6 +482,15 @@ public class MessageFrame {
     return stack.size();
   }
 
+  /**
+   * Returns the operand stack, for operations computing on the limbs of its items in place.
+   *
+   * @return the operand stack
+   */
+  public OperandStack getOperandStack() {
+    return stack;
+  }
+
   /**
    * Tests if the return stack is full
    *
@@ -576,6 +586,18 @@ public class MessageFrame {
     return memory.getActiveWords();
   }
 
+  /**
+   * Brings a copy of this frame's memory up to date, reporting every 32-bytes word that differs
+   * from the copy. Words beyond the end of the copy are compared against zero.
+   *
+   * @param snapshot the previous copy of memory, or an empty array
+   * @param changedWord notified with the index of each word that changed
+   * @return the up to date copy, which is {@code snapshot} itself unless memory has grown
+   */
+  public byte[] updateMemorySnapshot(final byte[] snapshot, final IntConsumer changedWord) {
+    return memory.updateSnapshot(snapshot, changedWord);
+  }
+
   /**
    * Returns the revertReason as string
    *
@@ -1057,7 +1079,7 @@ public class MessageFrame {
     return maybeUpdatedMemory;
   }
 
-  Optional<MemoryEntry> getMaybeUpdatedStorage() {
+  public Optional<MemoryEntry> getMaybeUpdatedStorage() {
     return maybeUpdatedStorage;
   }
 
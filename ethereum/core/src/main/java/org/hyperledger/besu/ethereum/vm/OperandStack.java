@@ -16,11 +16,228 @@
 
 package org.hyperledger.besu.ethereum.vm;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.hyperledger.besu.ethereum.vm.UInt256Limbs.LIMBS;
+
+import org.hyperledger.besu.ethereum.vm.FixedStack.OverflowException;
+import org.hyperledger.besu.ethereum.vm.FixedStack.UnderflowException;
+
+import java.util.Arrays;
+
 import org.apache.tuweni.bytes.Bytes32;
 
-public class OperandStack extends FixedStack<Bytes32> {
+/**
+ * The operand stack of the Ethereum Virtual Machine (EVM).
+ *
+ * <p>Words are stored as four 64-bit limbs each, most significant first, in a single flat array, so
+ * that operations can compute on them in place with {@link UInt256Limbs} without allocating. The
+ * {@link Bytes32} accessors copy words in and out of the array, for the operations and tracers
+ * that work on whole words.
+ */
+public class OperandStack {
+
+  private static final int INITIAL_CAPACITY = 32;
+
+  private final int maxSize;
+
+  // Grown up to maxSize words as needed, since most frames only use a few.
+  private long[] limbs;
+
+  private int top;
 
   public OperandStack(final int maxSize) {
-    super(maxSize, Bytes32.class);
+    checkArgument(maxSize >= 0, "max size must be non-negative");
+
+    this.maxSize = maxSize;
+    this.limbs = new long[Math.min(maxSize, INITIAL_CAPACITY) * LIMBS];
+    this.top = -1;
+  }
+
+  public Bytes32 get(final int offset) {
+    if (offset < 0 || offset >= size()) {
+      throw new IndexOutOfBoundsException();
+    }
+
+    return toBytes32((top - offset) * LIMBS);
+  }
+
+  public Bytes32 pop() {
+    if (top < 0) {
+      throw new UnderflowException();
+    }
+
+    return toBytes32(top-- * LIMBS);
+  }
+
+  /**
+   * Pops the specified number of operands from the stack.
+   *
+   * @param items the number of operands to pop off the stack
+   * @throws IllegalArgumentException if the items to pop is negative.
+   * @throws UnderflowException when the items to pop is greater than {@link #size()}
+   */
+  void bulkPop(final int items) {
+    if (items < 0) {
+      throw new IllegalArgumentException(
+          String.format("requested number of items to bulk pop (%d) is negative", items));
+    }
+    checkArgument(items > 0, "number of items to pop must be greater than 0");
+    drop(items);
+  }
+
+  public void push(final Bytes32 operand) {
+    final int index = pushIndex();
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[index + i] = operand.getLong(i * Long.BYTES);
+    }
+  }
+
+  public void set(final int offset, final Bytes32 operand) {
+    if (offset < 0 || offset >= size()) {
+      throw new IndexOutOfBoundsException();
+    }
+
+    final int index = (top - offset) * LIMBS;
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[index + i] = operand.getLong(i * Long.BYTES);
+    }
+  }
+
+  /**
+   * Returns the array holding the limbs of the words on the stack. The array is replaced as the
+   * stack grows, so it's only valid until the next push.
+   *
+   * @return the limbs of the words on the stack
+   */
+  public long[] limbs() {
+    return limbs;
+  }
+
+  /**
+   * Returns the index in {@link #limbs()} of the most significant limb of the item at the
+   * specified offset.
+   *
+   * @param offset the item's position relative to the top of the stack
+   * @return the index of the item's first limb
+   * @throws UnderflowException if the stack holds no more than {@code offset} items
+   */
+  public int index(final int offset) {
+    if (offset >= size()) {
+      throw new UnderflowException();
+    }
+    return (top - offset) * LIMBS;
+  }
+
+  /**
+   * Pushes a new item onto the stack, leaving its limbs to be set by the caller.
+   *
+   * @return the index in {@link #limbs()} of the new item's first limb
+   * @throws OverflowException if the stack is full
+   */
+  public int pushIndex() {
+    final int nextTop = top + 1;
+    if (nextTop == maxSize) {
+      throw new OverflowException();
+    }
+    if ((nextTop + 1) * LIMBS > limbs.length) {
+      limbs = Arrays.copyOf(limbs, Math.min(limbs.length * 2, maxSize * LIMBS));
+    }
+    top = nextTop;
+    return nextTop * LIMBS;
+  }
+
+  /**
+   * Removes the specified number of items from the top of the stack.
+   *
+   * @param items the number of items to remove
+   * @throws UnderflowException when the stack holds fewer items
+   */
+  public void drop(final int items) {
+    if (items > size()) {
+      throw new UnderflowException();
+    }
+    top -= items;
+  }
+
+  /**
+   * Pushes a copy of the item at the specified offset.
+   *
+   * @param offset the item's position relative to the top of the stack
+   * @throws UnderflowException if the stack holds no more than {@code offset} items
+   * @throws OverflowException if the stack is full
+   */
+  public void dup(final int offset) {
+    final int source = index(offset);
+    final int target = pushIndex();
+    System.arraycopy(limbs, source, limbs, target, LIMBS);
+  }
+
+  /**
+   * Swaps the item at the top of the stack with the item at the specified offset.
+   *
+   * @param offset the other item's position relative to the top of the stack
+   * @throws UnderflowException if the stack holds no more than {@code offset} items
+   */
+  public void swap(final int offset) {
+    final int other = index(offset);
+    final int first = top * LIMBS;
+    for (int i = 0; i < LIMBS; i++) {
+      final long limb = limbs[first + i];
+      limbs[first + i] = limbs[other + i];
+      limbs[other + i] = limb;
+    }
+  }
+
+  public int size() {
+    return top + 1;
+  }
+
+  public boolean isFull() {
+    return top + 1 >= maxSize;
+  }
+
+  public boolean isEmpty() {
+    return top < 0;
+  }
+
+  private Bytes32 toBytes32(final int index) {
+    final byte[] bytes = new byte[Bytes32.SIZE];
+    for (int i = 0; i < LIMBS; i++) {
+      long limb = limbs[index + i];
+      for (int j = (i + 1) * Long.BYTES - 1; j >= i * Long.BYTES; j--) {
+        bytes[j] = (byte) limb;
+        limb >>>= 8;
+      }
+    }
+    return Bytes32.wrap(bytes);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < size(); ++i) {
+      builder.append(String.format("\n0x%04X ", i)).append(toBytes32(i * LIMBS));
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = 0; i < size() * LIMBS; i++) {
+      result = 31 * result + Long.hashCode(limbs[i]);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (!(other instanceof OperandStack)) {
+      return false;
+    }
+
+    final OperandStack that = (OperandStack) other;
+    final int length = size() * LIMBS;
+    return that.size() == size() && Arrays.equals(limbs, 0, length, that.limbs, 0, length);
   }
 }
@@ -0,0 +1,409 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm;
+
+import java.math.BigInteger;
+
+/**
+ * Static arithmetic on 256-bit words stored as four 64-bit limbs in a {@code long[]}, most
+ * significant limb first, as held by the {@link OperandStack}.
+ *
+ * <p>Words are designated by the index of their most significant limb. Binary operations take the
+ * EVM's first operand {@code a} and second operand {@code b} and store their result in place of
+ * {@code b}; unary operations store their result in place of their operand. Nothing is allocated
+ * except by the general case of the division and modulo operations.
+ */
+public final class UInt256Limbs {
+  public static final int LIMBS = 4;
+
+  private UInt256Limbs() {}
+
+  public static void add(final long[] w, final int a, final int b) {
+    long carry = 0;
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      final long x = w[a + i];
+      final long sum = x + w[b + i];
+      final long result = sum + carry;
+      carry = (Long.compareUnsigned(sum, x) < 0 || Long.compareUnsigned(result, sum) < 0) ? 1 : 0;
+      w[b + i] = result;
+    }
+  }
+
+  public static void sub(final long[] w, final int a, final int b) {
+    long borrow = 0;
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      final long x = w[a + i];
+      final long y = w[b + i];
+      w[b + i] = x - y - borrow;
+      borrow = (Long.compareUnsigned(x, y) < 0 || (borrow != 0 && x == y)) ? 1 : 0;
+    }
+  }
+
+  public static void mul(final long[] w, final int a, final int b) {
+    // Limbs numbered from the least significant, and products truncated to 256 bits.
+    final long a0 = w[a + 3];
+    final long a1 = w[a + 2];
+    final long a2 = w[a + 1];
+    final long a3 = w[a];
+    final long b0 = w[b + 3];
+    final long b1 = w[b + 2];
+    final long b2 = w[b + 1];
+    final long b3 = w[b];
+
+    long lo = a0 * b0;
+    long carry = multiplyHighUnsigned(a0, b0);
+    final long r0 = lo;
+    lo = a0 * b1;
+    long r1 = lo + carry;
+    carry = multiplyHighUnsigned(a0, b1) + carryOut(r1, lo);
+    lo = a0 * b2;
+    long r2 = lo + carry;
+    carry = multiplyHighUnsigned(a0, b2) + carryOut(r2, lo);
+    long r3 = a0 * b3 + carry;
+
+    lo = a1 * b0;
+    r1 += lo;
+    carry = multiplyHighUnsigned(a1, b0) + carryOut(r1, lo);
+    lo = a1 * b1;
+    long sum = r2 + lo;
+    long carryIn = carryOut(sum, lo);
+    r2 = sum + carry;
+    carry = multiplyHighUnsigned(a1, b1) + carryIn + carryOut(r2, sum);
+    r3 += a1 * b2 + carry;
+
+    lo = a2 * b0;
+    r2 += lo;
+    carry = multiplyHighUnsigned(a2, b0) + carryOut(r2, lo);
+    r3 += a2 * b1 + carry;
+
+    r3 += a3 * b0;
+
+    w[b] = r3;
+    w[b + 1] = r2;
+    w[b + 2] = r1;
+    w[b + 3] = r0;
+  }
+
+  public static void div(final long[] w, final int a, final int b) {
+    if (allZero(w, b)) {
+      return;
+    }
+    if (compareUnsigned(w, a, b) < 0) {
+      setZero(w, b);
+      return;
+    }
+    if (fitsLong(w, a)) {
+      // Both fit, as the divisor isn't larger than the dividend.
+      setLong(w, b, Long.divideUnsigned(w[a + 3], w[b + 3]));
+      return;
+    }
+    final int shift = powerOfTwo(w, b);
+    if (shift >= 0) {
+      copy(w, a, b);
+      shiftRight(w, b, shift, 0);
+      return;
+    }
+    if (fitsInt(w, b)) {
+      divideByInt(w, a, b, false);
+      return;
+    }
+    set(w, b, toBigInteger(w, a).divide(toBigInteger(w, b)));
+  }
+
+  public static void mod(final long[] w, final int a, final int b) {
+    if (allZero(w, b)) {
+      return;
+    }
+    if (compareUnsigned(w, a, b) < 0) {
+      copy(w, a, b);
+      return;
+    }
+    if (fitsLong(w, a)) {
+      setLong(w, b, Long.remainderUnsigned(w[a + 3], w[b + 3]));
+      return;
+    }
+    final int shift = powerOfTwo(w, b);
+    if (shift >= 0) {
+      copy(w, a, b);
+      maskLowBits(w, b, shift);
+      return;
+    }
+    if (fitsInt(w, b)) {
+      divideByInt(w, a, b, true);
+      return;
+    }
+    set(w, b, toBigInteger(w, a).mod(toBigInteger(w, b)));
+  }
+
+  public static void lt(final long[] w, final int a, final int b) {
+    setBoolean(w, b, compareUnsigned(w, a, b) < 0);
+  }
+
+  public static void gt(final long[] w, final int a, final int b) {
+    setBoolean(w, b, compareUnsigned(w, a, b) > 0);
+  }
+
+  public static void slt(final long[] w, final int a, final int b) {
+    setBoolean(w, b, compareSigned(w, a, b) < 0);
+  }
+
+  public static void sgt(final long[] w, final int a, final int b) {
+    setBoolean(w, b, compareSigned(w, a, b) > 0);
+  }
+
+  public static void eq(final long[] w, final int a, final int b) {
+    setBoolean(
+        w,
+        b,
+        w[a] == w[b] && w[a + 1] == w[b + 1] && w[a + 2] == w[b + 2] && w[a + 3] == w[b + 3]);
+  }
+
+  public static void isZero(final long[] w, final int a) {
+    setBoolean(w, a, allZero(w, a));
+  }
+
+  public static void and(final long[] w, final int a, final int b) {
+    for (int i = 0; i < LIMBS; i++) {
+      w[b + i] &= w[a + i];
+    }
+  }
+
+  public static void or(final long[] w, final int a, final int b) {
+    for (int i = 0; i < LIMBS; i++) {
+      w[b + i] |= w[a + i];
+    }
+  }
+
+  public static void xor(final long[] w, final int a, final int b) {
+    for (int i = 0; i < LIMBS; i++) {
+      w[b + i] ^= w[a + i];
+    }
+  }
+
+  public static void not(final long[] w, final int a) {
+    for (int i = 0; i < LIMBS; i++) {
+      w[a + i] = ~w[a + i];
+    }
+  }
+
+  /** Stores the byte of {@code b} at the index {@code a}, counted from the most significant. */
+  public static void byteAt(final long[] w, final int a, final int b) {
+    if (!fitsLong(w, a) || Long.compareUnsigned(w[a + 3], 32) >= 0) {
+      setZero(w, b);
+      return;
+    }
+    final int index = (int) w[a + 3];
+    setLong(w, b, (w[b + index / 8] >>> (56 - (index % 8) * 8)) & 0xFF);
+  }
+
+  /** Shifts {@code b} left by {@code a} bits. */
+  public static void shl(final long[] w, final int a, final int b) {
+    if (!fitsLong(w, a) || Long.compareUnsigned(w[a + 3], 256) >= 0) {
+      setZero(w, b);
+      return;
+    }
+    final int shift = (int) w[a + 3];
+    final int limbShift = shift / 64;
+    final int bitShift = shift % 64;
+    for (int i = 0; i < LIMBS; i++) {
+      final long high = limb(w, b, i + limbShift, 0);
+      w[b + i] =
+          bitShift == 0
+              ? high
+              : (high << bitShift) | (limb(w, b, i + limbShift + 1, 0) >>> (64 - bitShift));
+    }
+  }
+
+  /** Shifts {@code b} right by {@code a} bits. */
+  public static void shr(final long[] w, final int a, final int b) {
+    if (!fitsLong(w, a) || Long.compareUnsigned(w[a + 3], 256) >= 0) {
+      setZero(w, b);
+      return;
+    }
+    shiftRight(w, b, (int) w[a + 3], 0);
+  }
+
+  /** Shifts {@code b} right by {@code a} bits, extending its sign. */
+  public static void sar(final long[] w, final int a, final int b) {
+    final long fill = w[b] < 0 ? -1L : 0L;
+    if (!fitsLong(w, a) || Long.compareUnsigned(w[a + 3], 256) >= 0) {
+      for (int i = 0; i < LIMBS; i++) {
+        w[b + i] = fill;
+      }
+      return;
+    }
+    shiftRight(w, b, (int) w[a + 3], fill);
+  }
+
+  /** Extends the sign of {@code b} from its byte {@code a}, counted from the least significant. */
+  public static void signExtend(final long[] w, final int a, final int b) {
+    // Any index >= 31 leaves the value unchanged.
+    if (!fitsLong(w, a) || Long.compareUnsigned(w[a + 3], 31) >= 0) {
+      return;
+    }
+    final int signBit = (int) w[a + 3] * 8 + 7;
+    final int limb = b + LIMBS - 1 - signBit / 64;
+    final int bit = signBit % 64;
+    final boolean negative = ((w[limb] >>> bit) & 1) != 0;
+    final long mask = bit == 63 ? -1L : (1L << (bit + 1)) - 1;
+    w[limb] = negative ? w[limb] | ~mask : w[limb] & mask;
+    for (int i = b; i < limb; i++) {
+      w[i] = negative ? -1L : 0L;
+    }
+  }
+
+  public static BigInteger toBigInteger(final long[] w, final int a) {
+    final byte[] bytes = new byte[LIMBS * Long.BYTES + 1];
+    for (int i = 0; i < LIMBS; i++) {
+      long limb = w[a + i];
+      for (int j = Long.BYTES; j > 0; j--) {
+        bytes[1 + i * Long.BYTES + j - 1] = (byte) limb;
+        limb >>>= 8;
+      }
+    }
+    return new BigInteger(bytes);
+  }
+
+  private static void set(final long[] w, final int a, final BigInteger value) {
+    final byte[] bytes = value.toByteArray();
+    setZero(w, a);
+    // The value is positive and fits in 256 bits, plus a leading sign byte.
+    for (int i = 0; i < Math.min(bytes.length, LIMBS * Long.BYTES); i++) {
+      final int bitOffset = i * 8;
+      final long octet = bytes[bytes.length - 1 - i] & 0xFFL;
+      w[a + LIMBS - 1 - bitOffset / 64] |= octet << (bitOffset % 64);
+    }
+  }
+
+  private static int compareUnsigned(final long[] w, final int a, final int b) {
+    for (int i = 0; i < LIMBS; i++) {
+      if (w[a + i] != w[b + i]) {
+        return Long.compareUnsigned(w[a + i], w[b + i]);
+      }
+    }
+    return 0;
+  }
+
+  private static int compareSigned(final long[] w, final int a, final int b) {
+    if (w[a] != w[b]) {
+      return Long.compare(w[a], w[b]);
+    }
+    for (int i = 1; i < LIMBS; i++) {
+      if (w[a + i] != w[b + i]) {
+        return Long.compareUnsigned(w[a + i], w[b + i]);
+      }
+    }
+    return 0;
+  }
+
+  private static boolean allZero(final long[] w, final int a) {
+    return (w[a] | w[a + 1] | w[a + 2] | w[a + 3]) == 0;
+  }
+
+  private static boolean fitsLong(final long[] w, final int a) {
+    return (w[a] | w[a + 1] | w[a + 2]) == 0;
+  }
+
+  private static boolean fitsInt(final long[] w, final int a) {
+    return fitsLong(w, a) && (w[a + 3] >>> 32) == 0;
+  }
+
+  // Returns the exponent of the word if it's a power of two, -1 otherwise.
+  private static int powerOfTwo(final long[] w, final int a) {
+    int exponent = -1;
+    for (int i = 0; i < LIMBS; i++) {
+      final long limb = w[a + i];
+      if (limb != 0) {
+        if (exponent >= 0 || Long.bitCount(limb) != 1) {
+          return -1;
+        }
+        exponent = (LIMBS - 1 - i) * 64 + Long.numberOfTrailingZeros(limb);
+      }
+    }
+    return exponent;
+  }
+
+  // Divides a by the 32-bit divisor b, one 32-bit digit at a time, most significant first.
+  private static void divideByInt(final long[] w, final int a, final int b, final boolean mod) {
+    final long divisor = w[b + 3];
+    long remainder = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long limb = w[a + i];
+      final long high = (remainder << 32) | (limb >>> 32);
+      final long highQuotient = Long.divideUnsigned(high, divisor);
+      remainder = Long.remainderUnsigned(high, divisor);
+      final long low = (remainder << 32) | (limb & 0xFFFFFFFFL);
+      final long lowQuotient = Long.divideUnsigned(low, divisor);
+      remainder = Long.remainderUnsigned(low, divisor);
+      if (!mod) {
+        w[b + i] = (highQuotient << 32) | lowQuotient;
+      }
+    }
+    if (mod) {
+      setLong(w, b, remainder);
+    }
+  }
+
+  private static void shiftRight(final long[] w, final int a, final int shift, final long fill) {
+    final int limbShift = shift / 64;
+    final int bitShift = shift % 64;
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      final long low = limb(w, a, i - limbShift, fill);
+      w[a + i] =
+          bitShift == 0
+              ? low
+              : (low >>> bitShift) | (limb(w, a, i - limbShift - 1, fill) << (64 - bitShift));
+    }
+  }
+
+  private static void maskLowBits(final long[] w, final int a, final int bits) {
+    final int limbs = bits / 64;
+    final int bit = bits % 64;
+    for (int i = 0; i < LIMBS - limbs; i++) {
+      w[a + i] = i == LIMBS - limbs - 1 ? w[a + i] & ((1L << bit) - 1) : 0;
+    }
+  }
+
+  private static long limb(final long[] w, final int a, final int index, final long fill) {
+    return index < 0 || index >= LIMBS ? fill : w[a + index];
+  }
+
+  private static void copy(final long[] w, final int from, final int to) {
+    System.arraycopy(w, from, w, to, LIMBS);
+  }
+
+  private static void setZero(final long[] w, final int a) {
+    setLong(w, a, 0);
+  }
+
+  private static void setBoolean(final long[] w, final int a, final boolean value) {
+    setLong(w, a, value ? 1 : 0);
+  }
+
+  private static void setLong(final long[] w, final int a, final long value) {
+    w[a] = 0;
+    w[a + 1] = 0;
+    w[a + 2] = 0;
+    w[a + 3] = value;
+  }
+
+  private static long carryOut(final long sum, final long addend) {
+    return Long.compareUnsigned(sum, addend) < 0 ? 1 : 0;
+  }
+
+  private static long multiplyHighUnsigned(final long x, final long y) {
+    return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+  }
+}
@@ -27,7 +27,7 @@ import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
 import java.util.Optional;
 
-abstract class AbstractFixedCostOperation extends AbstractOperation {
+public abstract class AbstractFixedCostOperation extends AbstractOperation {
 
   protected final OperationResult successResponse;
   protected final OperationResult outOfGasResponse;
@@ -80,5 +80,27 @@ abstract class AbstractFixedCostOperation extends AbstractOperation {
     }
   }
 
+  /**
+   * Executes the operation without checking the remaining gas. The caller is responsible for
+   * having charged {@link #getGasCost()} beforehand.
+   *
+   * @param frame The frame for execution of this operation.
+   * @param evm The EVM for execution of this operation.
+   * @return the gas cost and any exceptional halt reasons of the operation.
+   */
+  public final OperationResult executeWithoutGasCheck(final MessageFrame frame, final EVM evm) {
+    try {
+      return executeFixedCostOperation(frame, evm);
+    } catch (final UnderflowException ufe) {
+      return underflowResponse;
+    } catch (final OverflowException ofe) {
+      return overflowResponse;
+    }
+  }
+
+  public Gas getGasCost() {
+    return gasCost;
+  }
+
   protected abstract OperationResult executeFixedCostOperation(MessageFrame frame, EVM evm);
 }
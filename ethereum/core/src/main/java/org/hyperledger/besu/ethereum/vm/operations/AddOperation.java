@@ -17,8 +17,8 @@ package org.hyperledger.besu.ethereum.vm.operations;
 import org.hyperledger.besu.ethereum.vm.EVM;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
-
-import org.apache.tuweni.units.bigints.UInt256;
+import org.hyperledger.besu.ethereum.vm.OperandStack;
+import org.hyperledger.besu.ethereum.vm.UInt256Limbs;
 
 public class AddOperation extends AbstractFixedCostOperation {
 
@@ -28,12 +28,10 @@ public class AddOperation extends AbstractFixedCostOperation {
 
   @Override
   public OperationResult executeFixedCostOperation(final MessageFrame frame, final EVM evm) {
-    final UInt256 value0 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value1 = UInt256.fromBytes(frame.popStackItem());
-
-    final UInt256 result = value0.add(value1);
+    final OperandStack stack = frame.getOperandStack();
+    UInt256Limbs.add(stack.limbs(), stack.index(0), stack.index(1));
+    stack.drop(1);
 
-    frame.pushStackItem(result.toBytes());
     return successResponse;
   }
 }
@@ -17,8 +17,8 @@ package org.hyperledger.besu.ethereum.vm.operations;
 import org.hyperledger.besu.ethereum.vm.EVM;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
-
-import org.apache.tuweni.units.bigints.UInt256;
+import org.hyperledger.besu.ethereum.vm.OperandStack;
+import org.hyperledger.besu.ethereum.vm.UInt256Limbs;
 
 public class AndOperation extends AbstractFixedCostOperation {
 
@@ -28,11 +28,9 @@ public class AndOperation extends AbstractFixedCostOperation {
 
   @Override
   public OperationResult executeFixedCostOperation(final MessageFrame frame, final EVM evm) {
-    final UInt256 value0 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value1 = UInt256.fromBytes(frame.popStackItem());
-
-    final UInt256 result = value0.and(value1);
-    frame.pushStackItem(result.toBytes());
+    final OperandStack stack = frame.getOperandStack();
+    UInt256Limbs.and(stack.limbs(), stack.index(0), stack.index(1));
+    stack.drop(1);
 
     return successResponse;
   }
@@ -17,9 +17,8 @@ package org.hyperledger.besu.ethereum.vm.operations;
 import org.hyperledger.besu.ethereum.vm.EVM;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
-
-import org.apache.tuweni.bytes.MutableBytes32;
-import org.apache.tuweni.units.bigints.UInt256;
+import org.hyperledger.besu.ethereum.vm.OperandStack;
+import org.hyperledger.besu.ethereum.vm.UInt256Limbs;
 
 public class ByteOperation extends AbstractFixedCostOperation {
 
@@ -27,31 +26,11 @@ public class ByteOperation extends AbstractFixedCostOperation {
     super(0x1A, "BYTE", 2, 1, false, 1, gasCalculator, gasCalculator.getVeryLowTierGasCost());
   }
 
-  private UInt256 getByte(final UInt256 seq, final UInt256 offset) {
-    if (!offset.fitsInt()) {
-      return UInt256.ZERO;
-    }
-
-    final int index = offset.intValue();
-    if (index >= 32) {
-      return UInt256.ZERO;
-    }
-
-    final byte b = seq.toBytes().get(index);
-    final MutableBytes32 res = MutableBytes32.create();
-    res.set(31, b);
-    return UInt256.fromBytes(res);
-  }
-
   @Override
   public OperationResult executeFixedCostOperation(final MessageFrame frame, final EVM evm) {
-    final UInt256 value0 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value1 = UInt256.fromBytes(frame.popStackItem());
-
-    // Stack items are reversed for the BYTE operation.
-    final UInt256 result = getByte(value1, value0);
-
-    frame.pushStackItem(result.toBytes());
+    final OperandStack stack = frame.getOperandStack();
+    UInt256Limbs.byteAt(stack.limbs(), stack.index(0), stack.index(1));
+    stack.drop(1);
 
     return successResponse;
   }
@@ -17,8 +17,8 @@ package org.hyperledger.besu.ethereum.vm.operations;
 import org.hyperledger.besu.ethereum.vm.EVM;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
-
-import org.apache.tuweni.units.bigints.UInt256;
+import org.hyperledger.besu.ethereum.vm.OperandStack;
+import org.hyperledger.besu.ethereum.vm.UInt256Limbs;
 
 public class IsZeroOperation extends AbstractFixedCostOperation {
 
@@ -28,9 +28,8 @@ public class IsZeroOperation extends AbstractFixedCostOperation {
 
   @Override
   public OperationResult executeFixedCostOperation(final MessageFrame frame, final EVM evm) {
-    final UInt256 value = UInt256.fromBytes(frame.popStackItem());
-
-    frame.pushStackItem(value.isZero() ? UInt256.ONE.toBytes() : UInt256.ZERO.toBytes());
+    final OperandStack stack = frame.getOperandStack();
+    UInt256Limbs.isZero(stack.limbs(), stack.index(0));
 
     return successResponse;
   }
@@ -39,7 +39,7 @@ public class JumpOperation extends AbstractFixedCostOperation {
   public OperationResult executeFixedCostOperation(final MessageFrame frame, final EVM evm) {
     final UInt256 jumpDestination = UInt256.fromBytes(frame.popStackItem());
     final Code code = frame.getCode();
-    if (!code.isValidJumpDestination(evm, frame, jumpDestination)) {
+    if (!code.isValidJumpDestination(jumpDestination)) {
       return invalidJumpResponse;
     } else {
       frame.setPC(jumpDestination.intValue());
@@ -48,7 +48,7 @@ public class JumpSubOperation extends AbstractFixedCostOperation {
     }
 
     final UInt256 location = UInt256.fromBytes(frame.popStackItem());
-    if (!code.isValidJumpSubDestination(evm, frame, location)) {
+    if (!code.isValidJumpSubDestination(location)) {
       return invalidJumpDestinationResponse;
     }
 
@@ -17,9 +17,8 @@ package org.hyperledger.besu.ethereum.vm.operations;
 import org.hyperledger.besu.ethereum.vm.EVM;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
-
-import org.apache.tuweni.bytes.MutableBytes32;
-import org.apache.tuweni.units.bigints.UInt256;
+import org.hyperledger.besu.ethereum.vm.OperandStack;
+import org.hyperledger.besu.ethereum.vm.UInt256Limbs;
 
 public class SignExtendOperation extends AbstractFixedCostOperation {
 
@@ -29,32 +28,10 @@ public class SignExtendOperation extends AbstractFixedCostOperation {
 
   @Override
   public OperationResult executeFixedCostOperation(final MessageFrame frame, final EVM evm) {
-    final UInt256 value0 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value1 = UInt256.fromBytes(frame.popStackItem());
-
-    // Stack items are reversed for the SIGNEXTEND operation.
-    final UInt256 result = signExtend(value1, value0);
-
-    frame.pushStackItem(result.toBytes());
+    final OperandStack stack = frame.getOperandStack();
+    UInt256Limbs.signExtend(stack.limbs(), stack.index(0), stack.index(1));
+    stack.drop(1);
 
     return successResponse;
   }
-
-  private static UInt256 signExtend(final UInt256 v1, final UInt256 v2) {
-    final MutableBytes32 result = MutableBytes32.create();
-
-    // Any value >= 31 imply an index <= 0, so no work to do (note that 0 itself is a valid index,
-    // but copying the 0th byte to itself is only so useful).
-    if (!v2.fitsInt() || v2.intValue() >= 31) {
-      v1.toBytes().copyTo(result);
-      return UInt256.fromBytes(result);
-    }
-
-    // This is safe, since other < 31.
-    final int byteIndex = 32 - 1 - v2.toBytes().getInt(32 - 4);
-    final byte toSet = v1.toBytes().get(byteIndex) < 0 ? (byte) 0xFF : 0x00;
-    result.mutableSlice(0, byteIndex).fill(toSet);
-    v1.toBytes().slice(byteIndex).copyTo(result, byteIndex);
-    return UInt256.fromBytes(result);
-  }
 }
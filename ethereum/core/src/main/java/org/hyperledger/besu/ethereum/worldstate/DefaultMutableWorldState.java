@@ -28,7 +28,9 @@ import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.rlp.RLPException;
 import org.hyperledger.besu.ethereum.rlp.RLPInput;
 import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.trie.NodeUpdater;
 import org.hyperledger.besu.ethereum.trie.StoredMerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateReadCache.CachedAccount;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -38,6 +40,7 @@ import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -46,6 +49,9 @@ import org.apache.tuweni.units.bigints.UInt256;
 
 public class DefaultMutableWorldState implements MutableWorldState {
 
+  // Below this many storage tries, hashing or committing them in parallel costs more than it saves.
+  private static final int PARALLEL_STORAGE_TRIES_THRESHOLD = 8;
+
   private final WorldStateStorage worldStateStorage;
   private final WorldStatePreimageStorage preimageStorage;
 
@@ -56,6 +62,13 @@ public class DefaultMutableWorldState implements MutableWorldState {
   private final Map<Bytes32, UInt256> newStorageKeyPreimages = new HashMap<>();
   private final Map<Bytes32, Address> newAccountKeyPreimages = new HashMap<>();
 
+  private final Optional<WorldStateSnapshot> snapshot;
+  // Changes since the state was last persisted, and the persisted root they apply on top of.
+  private WorldStateSnapshot.Diff snapshotDiff = new WorldStateSnapshot.Diff();
+  private Hash persistedRootHash;
+  // Reads since the state was last persisted, shared with the copies made since.
+  private WorldStateReadCache readCache;
+
   public DefaultMutableWorldState(
       final WorldStateStorage storage, final WorldStatePreimageStorage preimageStorage) {
     this(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH, storage, preimageStorage);
@@ -65,9 +78,29 @@ public class DefaultMutableWorldState implements MutableWorldState {
       final Bytes32 rootHash,
       final WorldStateStorage worldStateStorage,
       final WorldStatePreimageStorage preimageStorage) {
+    this(rootHash, worldStateStorage, preimageStorage, Optional.empty());
+  }
+
+  public DefaultMutableWorldState(
+      final Bytes32 rootHash,
+      final WorldStateStorage worldStateStorage,
+      final WorldStatePreimageStorage preimageStorage,
+      final Optional<WorldStateSnapshot> snapshot) {
+    this(rootHash, worldStateStorage, preimageStorage, snapshot, new WorldStateReadCache());
+  }
+
+  private DefaultMutableWorldState(
+      final Bytes32 rootHash,
+      final WorldStateStorage worldStateStorage,
+      final WorldStatePreimageStorage preimageStorage,
+      final Optional<WorldStateSnapshot> snapshot,
+      final WorldStateReadCache readCache) {
     this.worldStateStorage = worldStateStorage;
     this.accountStateTrie = newAccountStateTrie(rootHash);
     this.preimageStorage = preimageStorage;
+    this.snapshot = snapshot;
+    this.persistedRootHash = Hash.wrap(rootHash);
+    this.readCache = readCache;
   }
 
   public DefaultMutableWorldState(final WorldState worldState) {
@@ -82,6 +115,9 @@ public class DefaultMutableWorldState implements MutableWorldState {
     this.worldStateStorage = other.worldStateStorage;
     this.preimageStorage = other.preimageStorage;
     this.accountStateTrie = newAccountStateTrie(other.accountStateTrie.getRootHash());
+    this.snapshot = other.snapshot;
+    this.persistedRootHash = other.rootHash();
+    this.readCache = other.readCache.copy();
   }
 
   private MerklePatriciaTrie<Bytes32, Bytes> newAccountStateTrie(final Bytes32 rootHash) {
@@ -101,34 +137,48 @@ public class DefaultMutableWorldState implements MutableWorldState {
 
   @Override
   public MutableWorldState copy() {
-    return new DefaultMutableWorldState(rootHash(), worldStateStorage, preimageStorage);
+    return new DefaultMutableWorldState(
+        rootHash(), worldStateStorage, preimageStorage, snapshot, readCache.copy());
   }
 
   @Override
   public Account get(final Address address) {
-    final Hash addressHash = Hash.hash(address);
-    return accountStateTrie
-        .get(addressHash)
-        .map(bytes -> deserializeAccount(address, addressHash, bytes))
-        .orElse(null);
+    return getAccount(address);
+  }
+
+  private WorldStateAccount getAccount(final Address address) {
+    final WorldStateReadCache cache = readCache;
+    CachedAccount account = cache.getAccount(address);
+    if (account == null) {
+      final Hash addressHash = Hash.hash(address);
+      account =
+          new CachedAccount(
+              addressHash,
+              getAccountValue(addressHash)
+                  .map(bytes -> StateTrieAccountValue.readFrom(RLP.input(bytes)))
+                  .orElse(null));
+      cache.cacheAccount(address, account);
+    }
+    return account.getValue() == null
+        ? null
+        : new WorldStateAccount(address, account.getAddressHash(), account.getValue(), cache);
+  }
+
+  private Optional<Bytes> getAccountValue(final Hash addressHash) {
+    if (snapshot.isPresent() && !snapshotDiff.isAccountUpdated(addressHash)) {
+      final Optional<Bytes> value = snapshot.get().getAccount(persistedRootHash, addressHash);
+      if (value.isPresent()) {
+        return value.filter(bytes -> !bytes.isEmpty());
+      }
+    }
+    return accountStateTrie.get(addressHash);
   }
 
   private WorldStateAccount deserializeAccount(
       final Address address, final Hash addressHash, final Bytes encoded) throws RLPException {
     final RLPInput in = RLP.input(encoded);
     final StateTrieAccountValue accountValue = StateTrieAccountValue.readFrom(in);
-    return new WorldStateAccount(address, addressHash, accountValue);
-  }
-
-  private static Bytes serializeAccount(
-      final long nonce,
-      final Wei balance,
-      final Hash storageRoot,
-      final Hash codeHash,
-      final int version) {
-    final StateTrieAccountValue accountValue =
-        new StateTrieAccountValue(nonce, balance, storageRoot, codeHash, version);
-    return RLP.encode(accountValue::writeTo);
+    return new WorldStateAccount(address, addressHash, accountValue, readCache);
   }
 
   @Override
@@ -171,12 +221,23 @@ public class DefaultMutableWorldState implements MutableWorldState {
     for (final Bytes code : updatedAccountCode.values()) {
       stateUpdater.putCode(code);
     }
-    // Commit account storage tries
-    for (final MerklePatriciaTrie<Bytes32, Bytes> updatedStorage : updatedStorageTries.values()) {
-      updatedStorage.commit(stateUpdater::putAccountStorageTrieNode);
+    // Commit account storage tries, independent tries in parallel
+    if (updatedStorageTries.size() < PARALLEL_STORAGE_TRIES_THRESHOLD) {
+      for (final MerklePatriciaTrie<Bytes32, Bytes> updatedStorage : updatedStorageTries.values()) {
+        updatedStorage.commit(stateUpdater::putAccountStorageTrieNode);
+      }
+    } else {
+      final NodeUpdater storageNodeUpdater =
+          (nodeHash, node) -> {
+            synchronized (stateUpdater) {
+              stateUpdater.putAccountStorageTrieNode(nodeHash, node);
+            }
+          };
+      updatedStorageTries.values().parallelStream()
+          .forEach(updatedStorage -> updatedStorage.commit(storageNodeUpdater));
     }
     // Commit account updates
-    accountStateTrie.commit(stateUpdater::putAccountStateTrieNode);
+    accountStateTrie.commitInParallel(stateUpdater::putAccountStateTrieNode);
 
     // Persist preimages
     final WorldStatePreimageStorage.Updater preimageUpdater = preimageStorage.updater();
@@ -187,10 +248,18 @@ public class DefaultMutableWorldState implements MutableWorldState {
     updatedStorageTries.clear();
     updatedAccountCode.clear();
     newStorageKeyPreimages.clear();
+    readCache = new WorldStateReadCache();
 
     // Push changes to underlying storage
     preimageUpdater.commit();
     stateUpdater.commit();
+
+    // The snapshot follows the trie, so it's only updated once the new state is available
+    final Hash newRootHash = rootHash();
+    final WorldStateSnapshot.Diff diff = snapshotDiff;
+    snapshot.ifPresent(s -> s.update(persistedRootHash, newRootHash, diff));
+    snapshotDiff = new WorldStateSnapshot.Diff();
+    persistedRootHash = newRootHash;
   }
 
   private Optional<UInt256> getStorageTrieKeyPreimage(final Bytes32 trieKey) {
@@ -212,15 +281,22 @@ public class DefaultMutableWorldState implements MutableWorldState {
 
     final StateTrieAccountValue accountValue;
 
+    // The cache of the state the account was read from, which persisting the state replaces.
+    private final WorldStateReadCache readCache;
+
     // Lazily initialized since we don't always access storage.
     private volatile MerklePatriciaTrie<Bytes32, Bytes> storageTrie;
 
     private WorldStateAccount(
-        final Address address, final Hash addressHash, final StateTrieAccountValue accountValue) {
+        final Address address,
+        final Hash addressHash,
+        final StateTrieAccountValue accountValue,
+        final WorldStateReadCache readCache) {
 
       this.address = address;
       this.addressHash = addressHash;
       this.accountValue = accountValue;
+      this.readCache = readCache;
     }
 
     private MerklePatriciaTrie<Bytes32, Bytes> storageTrie() {
@@ -269,7 +345,13 @@ public class DefaultMutableWorldState implements MutableWorldState {
       if (codeHash.equals(Hash.EMPTY)) {
         return Bytes.EMPTY;
       }
-      return worldStateStorage.getCode(codeHash).orElse(Bytes.EMPTY);
+      final Bytes cachedCode = readCache.getCode(codeHash);
+      if (cachedCode != null) {
+        return cachedCode;
+      }
+      final Optional<Bytes> code = worldStateStorage.getCode(codeHash);
+      code.ifPresent(value -> readCache.cacheCode(codeHash, value));
+      return code.orElse(Bytes.EMPTY);
     }
 
     @Override
@@ -289,11 +371,27 @@ public class DefaultMutableWorldState implements MutableWorldState {
 
     @Override
     public UInt256 getStorageValue(final UInt256 key) {
-      final Optional<Bytes> val = storageTrie().get(Hash.hash(key.toBytes()));
-      if (!val.isPresent()) {
-        return UInt256.ZERO;
+      final UInt256 cachedValue = readCache.getStorageValue(address, key);
+      if (cachedValue != null) {
+        return cachedValue;
       }
-      return convertToUInt256(val.get());
+      final UInt256 value =
+          getStorageValueBytes(Hash.hash(key.toBytes()))
+              .map(this::convertToUInt256)
+              .orElse(UInt256.ZERO);
+      readCache.cacheStorageValue(address, key, value);
+      return value;
+    }
+
+    private Optional<Bytes> getStorageValueBytes(final Hash slotHash) {
+      if (snapshot.isPresent() && !snapshotDiff.isStorageUpdated(addressHash, slotHash)) {
+        final Optional<Bytes> value =
+            snapshot.get().getStorageValue(persistedRootHash, addressHash, slotHash);
+        if (value.isPresent()) {
+          return value.filter(bytes -> !bytes.isEmpty());
+        }
+      }
+      return storageTrie().get(slotHash);
     }
 
     @Override
@@ -347,13 +445,7 @@ public class DefaultMutableWorldState implements MutableWorldState {
 
     @Override
     protected WorldStateAccount getForMutation(final Address address) {
-      final DefaultMutableWorldState wrapped = wrappedWorldView();
-      final Hash addressHash = Hash.hash(address);
-      return wrapped
-          .accountStateTrie
-          .get(addressHash)
-          .map(bytes -> wrapped.deserializeAccount(address, addressHash, bytes))
-          .orElse(null);
+      return wrappedWorldView().getAccount(address);
     }
 
     @Override
@@ -375,28 +467,40 @@ public class DefaultMutableWorldState implements MutableWorldState {
     @Override
     public void commit() {
       final DefaultMutableWorldState wrapped = wrappedWorldView();
+      final boolean trackSnapshot = wrapped.snapshot.isPresent();
 
       for (final Address address : deletedAccounts()) {
         final Hash addressHash = Hash.hash(address);
         wrapped.accountStateTrie.remove(addressHash);
         wrapped.updatedStorageTries.remove(address);
         wrapped.updatedAccountCode.remove(address);
+        wrapped.readCache.accountCommitted(address, new CachedAccount(addressHash, null));
+        wrapped.readCache.storageCleared(address);
+        if (trackSnapshot) {
+          wrapped.snapshotDiff.removeAccount(addressHash);
+        }
       }
 
+      // Apply code and storage changes first, so the storage roots of all the updated accounts
+      // can be computed together before they are folded into the account trie.
+      final Map<Address, Hash> codeHashes = new HashMap<>();
+      final Map<Address, MerklePatriciaTrie<Bytes32, Bytes>> storageTriesToHash = new HashMap<>();
       for (final UpdateTrackingAccount<WorldStateAccount> updated : updatedAccounts()) {
         final WorldStateAccount origin = updated.getWrappedAccount();
 
         // Save the code in key-value storage ...
-        Hash codeHash = origin == null ? Hash.EMPTY : origin.getCodeHash();
         if (updated.codeWasUpdated()) {
-          codeHash = Hash.hash(updated.getCode());
+          codeHashes.put(updated.getAddress(), Hash.hash(updated.getCode()));
           wrapped.updatedAccountCode.put(updated.getAddress(), updated.getCode());
         }
         // ...and storage in the account trie first.
         final boolean freshState = origin == null || updated.getStorageWasCleared();
-        Hash storageRoot = freshState ? Hash.EMPTY_TRIE_HASH : origin.getStorageRoot();
         if (freshState) {
           wrapped.updatedStorageTries.remove(updated.getAddress());
+          wrapped.readCache.storageCleared(updated.getAddress());
+          if (trackSnapshot && origin != null) {
+            wrapped.snapshotDiff.clearStorage(updated.getAddressHash());
+          }
         }
         final Map<UInt256, UInt256> updatedStorage = updated.getUpdatedStorage();
         if (!updatedStorage.isEmpty()) {
@@ -406,33 +510,71 @@ public class DefaultMutableWorldState implements MutableWorldState {
                   ? wrapped.newAccountStorageTrie(Hash.EMPTY_TRIE_HASH)
                   : origin.storageTrie();
           wrapped.updatedStorageTries.put(updated.getAddress(), storageTrie);
+          storageTriesToHash.put(updated.getAddress(), storageTrie);
           for (final Map.Entry<UInt256, UInt256> entry : updatedStorage.entrySet()) {
             final UInt256 value = entry.getValue();
             final Hash keyHash = Hash.hash(entry.getKey().toBytes());
+            wrapped.readCache.storageValueCommitted(updated.getAddress(), entry.getKey(), value);
             if (value.isZero()) {
               storageTrie.remove(keyHash);
+              if (trackSnapshot) {
+                wrapped.snapshotDiff.removeStorageValue(updated.getAddressHash(), keyHash);
+              }
             } else {
               wrapped.newStorageKeyPreimages.put(keyHash, entry.getKey());
-              storageTrie.put(
-                  keyHash, RLP.encode(out -> out.writeBytes(entry.getValue().toMinimalBytes())));
+              final Bytes encodedValue =
+                  RLP.encode(out -> out.writeBytes(entry.getValue().toMinimalBytes()));
+              storageTrie.put(keyHash, encodedValue);
+              if (trackSnapshot) {
+                wrapped.snapshotDiff.putStorageValue(
+                    updated.getAddressHash(), keyHash, encodedValue);
+              }
             }
           }
-          storageRoot = Hash.wrap(storageTrie.getRootHash());
         }
+      }
+
+      final Map<Address, Hash> storageRoots = computeStorageRoots(storageTriesToHash);
+      for (final UpdateTrackingAccount<WorldStateAccount> updated : updatedAccounts()) {
+        final WorldStateAccount origin = updated.getWrappedAccount();
+        final Hash codeHash =
+            codeHashes.getOrDefault(
+                updated.getAddress(), origin == null ? Hash.EMPTY : origin.getCodeHash());
+        final boolean freshState = origin == null || updated.getStorageWasCleared();
+        final Hash storageRoot =
+            storageRoots.getOrDefault(
+                updated.getAddress(),
+                freshState ? Hash.EMPTY_TRIE_HASH : origin.getStorageRoot());
 
         // Save address preimage
         wrapped.newAccountKeyPreimages.put(updated.getAddressHash(), updated.getAddress());
         // Lastly, save the new account.
-        final Bytes account =
-            serializeAccount(
+        final StateTrieAccountValue accountValue =
+            new StateTrieAccountValue(
                 updated.getNonce(),
                 updated.getBalance(),
                 storageRoot,
                 codeHash,
                 updated.getVersion());
+        final Bytes account = RLP.encode(accountValue::writeTo);
 
         wrapped.accountStateTrie.put(updated.getAddressHash(), account);
+        wrapped.readCache.accountCommitted(
+            updated.getAddress(), new CachedAccount(updated.getAddressHash(), accountValue));
+        if (trackSnapshot) {
+          wrapped.snapshotDiff.putAccount(updated.getAddressHash(), account);
+        }
       }
     }
+
+    private static Map<Address, Hash> computeStorageRoots(
+        final Map<Address, MerklePatriciaTrie<Bytes32, Bytes>> storageTries) {
+      final Stream<Map.Entry<Address, MerklePatriciaTrie<Bytes32, Bytes>>> entries =
+          storageTries.size() < PARALLEL_STORAGE_TRIES_THRESHOLD
+              ? storageTries.entrySet().stream()
+              : storageTries.entrySet().parallelStream();
+      return entries.collect(
+          Collectors.toMap(Map.Entry::getKey, entry -> Hash.wrap(entry.getValue().getRootHash())));
+    }
   }
 }
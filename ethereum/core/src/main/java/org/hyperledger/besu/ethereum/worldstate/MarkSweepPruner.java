@@ -18,6 +18,7 @@ import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.trie.NodeLoader;
 import org.hyperledger.besu.ethereum.trie.StoredMerklePatriciaTrie;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
@@ -27,6 +28,8 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -185,7 +188,7 @@ public class MarkSweepPruner {
 
   private MerklePatriciaTrie<Bytes32, Bytes> createStateTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStateTrieNode,
+        batchedNodeLoader(worldStateStorage::getAccountStateTrieNode),
         rootHash,
         Function.identity(),
         Function.identity());
@@ -193,12 +196,27 @@ public class MarkSweepPruner {
 
   private MerklePatriciaTrie<Bytes32, Bytes> createStorageTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStorageTrieNode,
+        batchedNodeLoader(worldStateStorage::getAccountStorageTrieNode),
         rootHash,
         Function.identity(),
         Function.identity());
   }
 
+  private NodeLoader batchedNodeLoader(final NodeLoader nodeLoader) {
+    // Marking visits every child of a branch, so load them with a single storage read
+    return new NodeLoader() {
+      @Override
+      public Optional<Bytes> getNode(final Bytes32 hash) {
+        return nodeLoader.getNode(hash);
+      }
+
+      @Override
+      public List<Optional<Bytes>> getNodes(final List<Bytes32> hashes) {
+        return worldStateStorage.multiGetNodeData(hashes);
+      }
+    };
+  }
+
   private void processAccountState(final Bytes value) {
     final StateTrieAccountValue accountValue = StateTrieAccountValue.readFrom(RLP.input(value));
     markNode(accountValue.getCodeHash());
@@ -0,0 +1,341 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Predicate;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * A {@link WorldStateStorage} that takes the disk write of committed updates off the caller's
+ * thread.
+ *
+ * <p>Committing an updater only publishes its nodes to an in-memory overlay and queues them for a
+ * single background writer, so the world state of block N is readable (and block N + 1 can execute
+ * on top of it) while N is still being written to the underlying storage. Batches are written in
+ * commit order and leave the overlay once the underlying transaction has committed. At most {@code
+ * maxPendingBatches} batches are kept in flight; committing more blocks until the writer catches
+ * up.
+ *
+ * <p>A failed write is reported by the next commit or {@link #flush()}, and stops any further
+ * writes so that the underlying storage never skips a batch.
+ *
+ * <p>Blocks are appended to the chain once their state is staged, so after a crash the newest
+ * blocks may have no state in storage. {@link #rewindToWrittenWorldState(MutableBlockchain)} moves
+ * the chain head back to a block whose state was written.
+ */
+public class PipelinedWorldStateStorage implements WorldStateStorage, Closeable {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  public static final int DEFAULT_MAX_PENDING_BATCHES = 2;
+
+  private final WorldStateStorage storage;
+  private final ExecutorService writer;
+  private final int maxPendingBatches;
+  private final Semaphore pendingCapacity;
+  // Newest batches first, so a lookup finds the most recent value of a node.
+  private final Deque<PendingBatch> pendingBatches = new ConcurrentLinkedDeque<>();
+  private volatile RuntimeException writeFailure;
+
+  public PipelinedWorldStateStorage(final WorldStateStorage storage) {
+    this(
+        storage,
+        DEFAULT_MAX_PENDING_BATCHES,
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("WorldStateWriter-%d")
+                .build()));
+  }
+
+  @VisibleForTesting
+  PipelinedWorldStateStorage(
+      final WorldStateStorage storage,
+      final int maxPendingBatches,
+      final ExecutorService writer) {
+    this.storage = storage;
+    this.maxPendingBatches = maxPendingBatches;
+    this.pendingCapacity = new Semaphore(maxPendingBatches);
+    this.writer = writer;
+  }
+
+  @Override
+  public Optional<Bytes> getCode(final Bytes32 codeHash) {
+    return getPending(codeHash).or(() -> storage.getCode(codeHash));
+  }
+
+  @Override
+  public Optional<Bytes> getAccountStateTrieNode(final Bytes32 nodeHash) {
+    return getPending(nodeHash).or(() -> storage.getAccountStateTrieNode(nodeHash));
+  }
+
+  @Override
+  public Optional<Bytes> getAccountStorageTrieNode(final Bytes32 nodeHash) {
+    return getPending(nodeHash).or(() -> storage.getAccountStorageTrieNode(nodeHash));
+  }
+
+  @Override
+  public Optional<Bytes> getNodeData(final Bytes32 hash) {
+    return getPending(hash).or(() -> storage.getNodeData(hash));
+  }
+
+  @Override
+  public List<Optional<Bytes>> multiGetNodeData(final List<Bytes32> hashes) {
+    if (pendingBatches.isEmpty()) {
+      return storage.multiGetNodeData(hashes);
+    }
+    final List<Optional<Bytes>> values = new ArrayList<>(hashes.size());
+    final List<Integer> storedIndexes = new ArrayList<>();
+    final List<Bytes32> storedHashes = new ArrayList<>();
+    for (int i = 0; i < hashes.size(); i++) {
+      final Optional<Bytes> pending = getPending(hashes.get(i));
+      values.add(pending);
+      if (!pending.isPresent()) {
+        storedIndexes.add(i);
+        storedHashes.add(hashes.get(i));
+      }
+    }
+    if (!storedHashes.isEmpty()) {
+      final List<Optional<Bytes>> storedValues = storage.multiGetNodeData(storedHashes);
+      for (int i = 0; i < storedIndexes.size(); i++) {
+        values.set(storedIndexes.get(i), storedValues.get(i));
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public boolean isWorldStateAvailable(final Bytes32 rootHash) {
+    return getPending(rootHash).isPresent() || storage.isWorldStateAvailable(rootHash);
+  }
+
+  private Optional<Bytes> getPending(final Bytes32 hash) {
+    for (final PendingBatch batch : pendingBatches) {
+      final Bytes value = batch.nodes.get(hash);
+      if (value != null) {
+        return Optional.of(value);
+      }
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public Updater updater() {
+    return new PipelinedUpdater();
+  }
+
+  @Override
+  public long prune(final Predicate<byte[]> inUseCheck) {
+    flush();
+    return storage.prune(inUseCheck);
+  }
+
+  @Override
+  public long addNodeAddedListener(final NodesAddedListener listener) {
+    return storage.addNodeAddedListener(listener);
+  }
+
+  @Override
+  public void removeNodeAddedListener(final long id) {
+    storage.removeNodeAddedListener(id);
+  }
+
+  /**
+   * Rewinds the chain head to the newest block whose world state reached the underlying storage.
+   * Only the last {@code maxPendingBatches} blocks can have been left without state by an unclean
+   * shutdown; if none of the blocks in that window has state the head is left alone, as the state
+   * is missing for another reason, such as a fast sync in progress.
+   *
+   * @param blockchain the blockchain whose world state is kept in this storage
+   */
+  public void rewindToWrittenWorldState(final MutableBlockchain blockchain) {
+    final long chainHead = blockchain.getChainHeadBlockNumber();
+    final long oldest = Math.max(0, chainHead - maxPendingBatches);
+    for (long blockNumber = chainHead; blockNumber >= oldest; blockNumber--) {
+      final Optional<BlockHeader> header = blockchain.getBlockHeader(blockNumber);
+      if (header.isPresent() && storage.isWorldStateAvailable(header.get().getStateRoot())) {
+        if (blockNumber < chainHead) {
+          LOG.warn(
+              "World state of blocks {} to {} is missing from storage, rewinding chain head to {}",
+              blockNumber + 1,
+              chainHead,
+              blockNumber);
+          blockchain.rewindToBlock(blockNumber);
+        }
+        return;
+      }
+    }
+  }
+
+  /** Waits until every committed batch has been written to the underlying storage. */
+  public void flush() {
+    checkWriteFailure();
+    try {
+      writer.submit(() -> {}).get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while flushing world state", e);
+    } catch (final ExecutionException e) {
+      throw new IllegalStateException("Unable to flush world state", e.getCause());
+    }
+    checkWriteFailure();
+  }
+
+  @Override
+  public void close() {
+    if (writer.isShutdown()) {
+      return;
+    }
+    try {
+      flush();
+    } catch (final RuntimeException e) {
+      LOG.error("World state was not fully written to storage", e);
+    } finally {
+      writer.shutdown();
+    }
+  }
+
+  private void checkWriteFailure() {
+    final RuntimeException failure = writeFailure;
+    if (failure != null) {
+      throw new IllegalStateException("Unable to write world state", failure);
+    }
+  }
+
+  private void enqueue(final PendingBatch batch) {
+    checkWriteFailure();
+    try {
+      pendingCapacity.acquire();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while committing world state", e);
+    }
+    pendingBatches.addFirst(batch);
+    writer.execute(() -> write(batch));
+  }
+
+  private void write(final PendingBatch batch) {
+    try {
+      if (writeFailure == null) {
+        final Updater updater = storage.updater();
+        batch.removedAccountStateTrieNodes.forEach(updater::removeAccountStateTrieNode);
+        batch.code.forEach(updater::putCode);
+        batch.accountStateTrieNodes.forEach(updater::putAccountStateTrieNode);
+        batch.accountStorageTrieNodes.forEach(updater::putAccountStorageTrieNode);
+        updater.commit();
+      }
+    } catch (final RuntimeException e) {
+      LOG.error("Failed to write world state to storage", e);
+      writeFailure = e;
+    } finally {
+      // Keep serving a failed batch from memory, nothing after it reaches storage anyway.
+      if (writeFailure == null) {
+        pendingBatches.remove(batch);
+      }
+      pendingCapacity.release();
+    }
+  }
+
+  private static class PendingBatch {
+    // All values are keyed by their hash, so one lookup map covers code and both kinds of nodes.
+    private final Map<Bytes32, Bytes> nodes = new HashMap<>();
+    private final Map<Bytes32, Bytes> code = new HashMap<>();
+    private final Map<Bytes32, Bytes> accountStateTrieNodes = new HashMap<>();
+    private final Map<Bytes32, Bytes> accountStorageTrieNodes = new HashMap<>();
+    private final List<Bytes32> removedAccountStateTrieNodes = new ArrayList<>();
+  }
+
+  private class PipelinedUpdater implements WorldStateStorage.Updater {
+    private PendingBatch batch = new PendingBatch();
+
+    @Override
+    public Updater removeAccountStateTrieNode(final Bytes32 nodeHash) {
+      batch.nodes.remove(nodeHash);
+      batch.accountStateTrieNodes.remove(nodeHash);
+      batch.removedAccountStateTrieNodes.add(nodeHash);
+      return this;
+    }
+
+    @Override
+    public Updater putCode(final Bytes32 codeHash, final Bytes code) {
+      if (code.size() == 0) {
+        // Don't save empty values
+        return this;
+      }
+      batch.nodes.put(codeHash, code);
+      batch.code.put(codeHash, code);
+      return this;
+    }
+
+    @Override
+    public Updater putAccountStateTrieNode(final Bytes32 nodeHash, final Bytes node) {
+      if (nodeHash.equals(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)) {
+        // Don't save empty nodes
+        return this;
+      }
+      batch.nodes.put(nodeHash, node);
+      batch.accountStateTrieNodes.put(nodeHash, node);
+      return this;
+    }
+
+    @Override
+    public Updater putAccountStorageTrieNode(final Bytes32 nodeHash, final Bytes node) {
+      if (nodeHash.equals(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)) {
+        // Don't save empty nodes
+        return this;
+      }
+      batch.nodes.put(nodeHash, node);
+      batch.accountStorageTrieNodes.put(nodeHash, node);
+      return this;
+    }
+
+    @Override
+    public void commit() {
+      final PendingBatch committed = batch;
+      batch = new PendingBatch();
+      if (committed.nodes.isEmpty() && committed.removedAccountStateTrieNodes.isEmpty()) {
+        return;
+      }
+      enqueue(committed);
+    }
+
+    @Override
+    public void rollback() {
+      batch = new PendingBatch();
+    }
+  }
+}
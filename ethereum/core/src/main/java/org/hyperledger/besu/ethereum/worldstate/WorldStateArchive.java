@@ -32,14 +32,23 @@ public class WorldStateArchive {
   private final WorldStateStorage worldStateStorage;
   private final WorldStatePreimageStorage preimageStorage;
   private final WorldStateProofProvider worldStateProof;
+  private final Optional<WorldStateSnapshot> snapshot;
 
   private static final Hash EMPTY_ROOT_HASH = Hash.wrap(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH);
 
   public WorldStateArchive(
       final WorldStateStorage worldStateStorage, final WorldStatePreimageStorage preimageStorage) {
+    this(worldStateStorage, preimageStorage, Optional.empty());
+  }
+
+  public WorldStateArchive(
+      final WorldStateStorage worldStateStorage,
+      final WorldStatePreimageStorage preimageStorage,
+      final Optional<WorldStateSnapshot> snapshot) {
     this.worldStateStorage = worldStateStorage;
     this.preimageStorage = preimageStorage;
     this.worldStateProof = new WorldStateProofProvider(worldStateStorage);
+    this.snapshot = snapshot;
   }
 
   public Optional<WorldState> get(final Hash rootHash) {
@@ -54,7 +63,8 @@ public class WorldStateArchive {
     if (!worldStateStorage.isWorldStateAvailable(rootHash)) {
       return Optional.empty();
     }
-    return Optional.of(new DefaultMutableWorldState(rootHash, worldStateStorage, preimageStorage));
+    return Optional.of(
+        new DefaultMutableWorldState(rootHash, worldStateStorage, preimageStorage, snapshot));
   }
 
   public WorldState get() {
@@ -73,6 +83,10 @@ public class WorldStateArchive {
     return worldStateStorage;
   }
 
+  public Optional<WorldStateSnapshot> getSnapshot() {
+    return snapshot;
+  }
+
   public Optional<WorldStateProof> getAccountProof(
       final Hash worldStateRoot,
       final Address accountAddress,
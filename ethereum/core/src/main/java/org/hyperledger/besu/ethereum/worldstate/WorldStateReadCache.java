@@ -0,0 +1,196 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Hash;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * Decoded accounts, code and storage values read from a {@link DefaultMutableWorldState}, so that
+ * repeated reads within a block avoid hashing keys, walking the tries and decoding values again.
+ *
+ * <p>Values read from the state the cache was created for are shared by all the copies of the world
+ * state made since, and may be populated concurrently. Accounts and storage committed since are
+ * kept apart, per copy, and take precedence over the values read. Absent accounts and empty slots
+ * are cached as well.
+ */
+final class WorldStateReadCache {
+
+  // Values of the state the cache was created for, which never change.
+  private final Map<Address, CachedAccount> accounts;
+  private final Map<Address, Map<UInt256, UInt256>> storage;
+  private final Map<Hash, Bytes> code;
+
+  // Changes committed since, copied on write once shared with a copy of the world state.
+  private Map<Address, CachedAccount> committedAccounts;
+  private Map<Address, Map<UInt256, UInt256>> committedStorage;
+  private Set<Address> clearedStorage;
+  private boolean committedShared;
+
+  WorldStateReadCache() {
+    this(
+        new ConcurrentHashMap<>(),
+        new ConcurrentHashMap<>(),
+        new ConcurrentHashMap<>(),
+        new HashMap<>(),
+        new HashMap<>(),
+        new HashSet<>());
+  }
+
+  private WorldStateReadCache(
+      final Map<Address, CachedAccount> accounts,
+      final Map<Address, Map<UInt256, UInt256>> storage,
+      final Map<Hash, Bytes> code,
+      final Map<Address, CachedAccount> committedAccounts,
+      final Map<Address, Map<UInt256, UInt256>> committedStorage,
+      final Set<Address> clearedStorage) {
+    this.accounts = accounts;
+    this.storage = storage;
+    this.code = code;
+    this.committedAccounts = committedAccounts;
+    this.committedStorage = committedStorage;
+    this.clearedStorage = clearedStorage;
+  }
+
+  /**
+   * Returns a cache for a copy of the world state. Both caches share the values read, and the
+   * changes committed so far until either commits more.
+   *
+   * @return the cache of the copy
+   */
+  WorldStateReadCache copy() {
+    committedShared = true;
+    final WorldStateReadCache copy =
+        new WorldStateReadCache(
+            accounts, storage, code, committedAccounts, committedStorage, clearedStorage);
+    copy.committedShared = true;
+    return copy;
+  }
+
+  /**
+   * Returns the cached account.
+   *
+   * @param address the address of the account
+   * @return the cached account, whose value is null if the account doesn't exist, or null if the
+   *     account isn't cached
+   */
+  CachedAccount getAccount(final Address address) {
+    final CachedAccount committed = committedAccounts.get(address);
+    return committed != null ? committed : accounts.get(address);
+  }
+
+  void cacheAccount(final Address address, final CachedAccount account) {
+    if (!committedAccounts.containsKey(address)) {
+      accounts.putIfAbsent(address, account);
+    }
+  }
+
+  /**
+   * Returns the cached storage value.
+   *
+   * @param address the address of the account
+   * @param key the storage slot
+   * @return the cached value, zero for empty slots, or null if the slot isn't cached
+   */
+  UInt256 getStorageValue(final Address address, final UInt256 key) {
+    final Map<UInt256, UInt256> committed = committedStorage.get(address);
+    if (committed != null) {
+      final UInt256 value = committed.get(key);
+      if (value != null) {
+        return value;
+      }
+    }
+    if (clearedStorage.contains(address)) {
+      return null;
+    }
+    final Map<UInt256, UInt256> values = storage.get(address);
+    return values == null ? null : values.get(key);
+  }
+
+  void cacheStorageValue(final Address address, final UInt256 key, final UInt256 value) {
+    if (clearedStorage.contains(address)) {
+      return;
+    }
+    final Map<UInt256, UInt256> committed = committedStorage.get(address);
+    if (committed != null && committed.containsKey(key)) {
+      return;
+    }
+    storage.computeIfAbsent(address, a -> new ConcurrentHashMap<>()).putIfAbsent(key, value);
+  }
+
+  Bytes getCode(final Hash codeHash) {
+    return code.get(codeHash);
+  }
+
+  void cacheCode(final Hash codeHash, final Bytes value) {
+    code.putIfAbsent(codeHash, value);
+  }
+
+  void accountCommitted(final Address address, final CachedAccount account) {
+    copyCommittedIfShared();
+    committedAccounts.put(address, account);
+  }
+
+  void storageCleared(final Address address) {
+    copyCommittedIfShared();
+    committedStorage.remove(address);
+    clearedStorage.add(address);
+  }
+
+  void storageValueCommitted(final Address address, final UInt256 key, final UInt256 value) {
+    copyCommittedIfShared();
+    committedStorage.computeIfAbsent(address, a -> new HashMap<>()).put(key, value);
+  }
+
+  private void copyCommittedIfShared() {
+    if (!committedShared) {
+      return;
+    }
+    committedAccounts = new HashMap<>(committedAccounts);
+    final Map<Address, Map<UInt256, UInt256>> storageCopy = new HashMap<>();
+    committedStorage.forEach((address, values) -> storageCopy.put(address, new HashMap<>(values)));
+    committedStorage = storageCopy;
+    clearedStorage = new HashSet<>(clearedStorage);
+    committedShared = false;
+  }
+
+  /** An account as read from the world state, whose value is null if the account doesn't exist. */
+  static final class CachedAccount {
+    private final Hash addressHash;
+    private final StateTrieAccountValue value;
+
+    CachedAccount(final Hash addressHash, final StateTrieAccountValue value) {
+      this.addressHash = addressHash;
+      this.value = value;
+    }
+
+    Hash getAddressHash() {
+      return addressHash;
+    }
+
+    StateTrieAccountValue getValue() {
+      return value;
+    }
+  }
+}
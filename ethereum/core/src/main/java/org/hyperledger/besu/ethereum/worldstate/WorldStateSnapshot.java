@@ -0,0 +1,510 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.trie.MerkleTrieException;
+import org.hyperledger.besu.ethereum.trie.StoredMerklePatriciaTrie;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Maintains a flat copy of a single world state so that account and storage reads against that
+ * state avoid walking the tries. The trie remains the source of truth: the snapshot only answers
+ * reads for the exact root it currently represents, and only for accounts that have already been
+ * generated.
+ *
+ * <p>The snapshot follows the world states persisted on top of it. Transitions persisted on top of
+ * other roots, and recently applied transitions, are retained so the snapshot can be moved across
+ * short chain reorganisations without being regenerated.
+ */
+public class WorldStateSnapshot {
+
+  private static final Logger LOG = LogManager.getLogger();
+  private static final int MAX_RETAINED_TRANSITIONS = 128;
+
+  private final WorldStateSnapshotStorage snapshotStorage;
+  private final WorldStateStorage worldStateStorage;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // Transitions applied to the snapshot, most recent first.
+  private final Deque<Transition> appliedTransitions = new ArrayDeque<>();
+  // Transitions persisted on top of a root other than the snapshot root, keyed by resulting root.
+  private final Map<Hash, Transition> pendingTransitions =
+      new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Hash, Transition> eldest) {
+          return size() > MAX_RETAINED_TRANSITIONS;
+        }
+      };
+
+  private final Counter hitCounter;
+  private final Counter missCounter;
+
+  private volatile Hash snapshotRoot;
+  private volatile Optional<Bytes32> generatorMarker;
+  private long lastStorageVersion;
+
+  public WorldStateSnapshot(
+      final WorldStateSnapshotStorage snapshotStorage,
+      final WorldStateStorage worldStateStorage,
+      final MetricsSystem metricsSystem) {
+    this.snapshotStorage = snapshotStorage;
+    this.worldStateStorage = worldStateStorage;
+    // An empty snapshot is a complete snapshot of the empty world state.
+    final Optional<Hash> storedRoot = snapshotStorage.getSnapshotRoot();
+    this.snapshotRoot = storedRoot.orElse(Hash.EMPTY_TRIE_HASH);
+    this.generatorMarker =
+        storedRoot.isPresent() ? snapshotStorage.getGeneratorMarker() : Optional.empty();
+    this.lastStorageVersion = snapshotStorage.getLastStorageVersion();
+
+    hitCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "world_state_snapshot_hits_total",
+            "Total number of world state reads served by the flat snapshot");
+    missCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "world_state_snapshot_misses_total",
+            "Total number of world state reads the flat snapshot could not serve");
+  }
+
+  /**
+   * Reads an account from the snapshot.
+   *
+   * @param rootHash the root of the world state being read
+   * @param accountHash the hash of the account address
+   * @return the account RLP, {@link Bytes#EMPTY} if the account does not exist, or empty if the
+   *     snapshot can't answer for this root and account.
+   */
+  public Optional<Bytes> getAccount(final Hash rootHash, final Bytes32 accountHash) {
+    lock.readLock().lock();
+    try {
+      if (!canServe(rootHash, accountHash)) {
+        missCounter.inc();
+        return Optional.empty();
+      }
+      hitCounter.inc();
+      return Optional.of(snapshotStorage.getAccount(accountHash).orElse(Bytes.EMPTY));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Reads a storage slot from the snapshot.
+   *
+   * @param rootHash the root of the world state being read
+   * @param accountHash the hash of the account address
+   * @param slotHash the hash of the storage slot
+   * @return the slot value as stored in the storage trie, {@link Bytes#EMPTY} if the slot is unset,
+   *     or empty if the snapshot can't answer for this root and account.
+   */
+  public Optional<Bytes> getStorageValue(
+      final Hash rootHash, final Bytes32 accountHash, final Bytes32 slotHash) {
+    lock.readLock().lock();
+    try {
+      if (!canServe(rootHash, accountHash)) {
+        missCounter.inc();
+        return Optional.empty();
+      }
+      hitCounter.inc();
+      final long storageVersion = snapshotStorage.getStorageVersion(accountHash);
+      return Optional.of(
+          snapshotStorage
+              .getStorageValue(accountHash, storageVersion, slotHash)
+              .orElse(Bytes.EMPTY));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private boolean canServe(final Hash rootHash, final Bytes32 accountHash) {
+    return snapshotRoot.equals(rootHash) && isGenerated(accountHash);
+  }
+
+  private boolean isGenerated(final Bytes32 accountHash) {
+    return generatorMarker.map(marker -> accountHash.compareTo(marker) < 0).orElse(true);
+  }
+
+  public Hash getSnapshotRoot() {
+    return snapshotRoot;
+  }
+
+  public boolean isGenerating() {
+    return generatorMarker.isPresent();
+  }
+
+  Optional<Bytes32> getGeneratorMarker() {
+    return generatorMarker;
+  }
+
+  /**
+   * Records a world state transition that has just been persisted to the trie.
+   *
+   * @param baseRoot the root the changes were made on top of
+   * @param newRoot the root after the changes
+   * @param diff the account and storage changes
+   */
+  public void update(final Hash baseRoot, final Hash newRoot, final Diff diff) {
+    if (baseRoot.equals(newRoot)) {
+      return;
+    }
+    final Transition transition = new Transition(baseRoot, newRoot, diff);
+    lock.writeLock().lock();
+    try {
+      if (snapshotRoot.equals(baseRoot)) {
+        apply(transition);
+      } else if (!snapshotRoot.equals(newRoot)) {
+        pendingTransitions.put(newRoot, transition);
+      }
+    } catch (final MerkleTrieException e) {
+      LOG.warn("Unable to update world state snapshot to {}: {}", newRoot, e.getMessage());
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Moves the snapshot to the given root by rolling back applied transitions and applying retained
+   * ones.
+   *
+   * @param targetRoot the root to move to
+   * @return true if the snapshot now represents the target root
+   */
+  public boolean moveTo(final Hash targetRoot) {
+    lock.writeLock().lock();
+    try {
+      if (snapshotRoot.equals(targetRoot)) {
+        return true;
+      }
+      final Set<Hash> rollbackRoots = new HashSet<>();
+      rollbackRoots.add(snapshotRoot);
+      appliedTransitions.forEach(transition -> rollbackRoots.add(transition.baseRoot));
+
+      final Deque<Transition> forward = new ArrayDeque<>();
+      Hash root = targetRoot;
+      while (!rollbackRoots.contains(root)) {
+        final Transition transition = pendingTransitions.get(root);
+        if (transition == null || forward.size() >= MAX_RETAINED_TRANSITIONS) {
+          return false;
+        }
+        forward.push(transition);
+        root = transition.baseRoot;
+      }
+
+      while (!snapshotRoot.equals(root)) {
+        if (!canRollback(appliedTransitions.peek())) {
+          return false;
+        }
+        rollback(appliedTransitions.pop());
+      }
+      for (final Transition transition : forward) {
+        pendingTransitions.remove(transition.newRoot);
+        apply(transition);
+      }
+      return true;
+    } catch (final MerkleTrieException e) {
+      LOG.debug("Unable to move world state snapshot to {}: {}", targetRoot, e.getMessage());
+      return false;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Discards the snapshot contents and starts generating it again for the given root.
+   *
+   * @param rootHash the root of the world state to generate
+   */
+  public void reset(final Hash rootHash) {
+    lock.writeLock().lock();
+    try {
+      snapshotStorage.clear();
+      snapshotStorage
+          .updater()
+          .setSnapshotRoot(rootHash)
+          .setGeneratorMarker(Bytes32.ZERO)
+          .commit();
+      snapshotRoot = rootHash;
+      generatorMarker = Optional.of(Bytes32.ZERO);
+      lastStorageVersion = WorldStateSnapshotStorage.INITIAL_STORAGE_VERSION;
+      appliedTransitions.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Writes generated values for accounts at or beyond the generator marker, provided the snapshot
+   * root hasn't moved since they were read.
+   */
+  boolean writeGenerated(
+      final Hash expectedRoot, final Consumer<WorldStateSnapshotStorage.Updater> writes) {
+    lock.writeLock().lock();
+    try {
+      if (!snapshotRoot.equals(expectedRoot)) {
+        return false;
+      }
+      final WorldStateSnapshotStorage.Updater updater = snapshotStorage.updater();
+      writes.accept(updater);
+      updater.commit();
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Writes generated values and advances the generator marker, provided the snapshot root hasn't
+   * moved since they were read. An empty marker completes the generation.
+   */
+  boolean advanceGenerator(
+      final Hash expectedRoot,
+      final Consumer<WorldStateSnapshotStorage.Updater> writes,
+      final Optional<Bytes32> nextMarker) {
+    lock.writeLock().lock();
+    try {
+      if (!snapshotRoot.equals(expectedRoot)) {
+        return false;
+      }
+      final WorldStateSnapshotStorage.Updater updater = snapshotStorage.updater();
+      writes.accept(updater);
+      nextMarker.ifPresentOrElse(updater::setGeneratorMarker, updater::removeGeneratorMarker);
+      updater.commit();
+      generatorMarker = nextMarker;
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Removes values written for accounts the generator has not yet reached. */
+  void discardGenerated(final Consumer<WorldStateSnapshotStorage.Updater> removals) {
+    lock.writeLock().lock();
+    try {
+      final WorldStateSnapshotStorage.Updater updater = snapshotStorage.updater();
+      removals.accept(updater);
+      updater.commit();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void apply(final Transition transition) {
+    final WorldStateSnapshotStorage.Updater updater = snapshotStorage.updater();
+    // Cleared storage moves to a new version, leaving the previous one intact for rollbacks.
+    final Map<Bytes32, Long> previousStorageVersions = new HashMap<>();
+    final Map<Bytes32, Long> storageVersions = new HashMap<>();
+    for (final Bytes32 accountHash : transition.diff.clearedStorage) {
+      if (isGenerated(accountHash)) {
+        previousStorageVersions.put(accountHash, snapshotStorage.getStorageVersion(accountHash));
+        storageVersions.put(accountHash, ++lastStorageVersion);
+        updater.setStorageVersion(accountHash, lastStorageVersion);
+      }
+    }
+    if (!storageVersions.isEmpty()) {
+      updater.setLastStorageVersion(lastStorageVersion);
+    }
+    transition.diff.accounts.forEach(
+        (accountHash, account) -> {
+          if (isGenerated(accountHash)) {
+            putAccount(updater, accountHash, account);
+          }
+        });
+    transition.diff.storage.forEach(
+        (accountHash, slots) -> {
+          if (isGenerated(accountHash)) {
+            final long storageVersion =
+                storageVersions.computeIfAbsent(accountHash, snapshotStorage::getStorageVersion);
+            slots.forEach(
+                (slotHash, value) ->
+                    putStorageValue(updater, accountHash, storageVersion, slotHash, value));
+          }
+        });
+    updater.setSnapshotRoot(transition.newRoot).commit();
+    snapshotRoot = transition.newRoot;
+
+    transition.previousStorageVersions = previousStorageVersions;
+    appliedTransitions.push(transition);
+    if (appliedTransitions.size() > MAX_RETAINED_TRANSITIONS) {
+      appliedTransitions.removeLast();
+    }
+  }
+
+  /**
+   * Storage cleared by a transition is rolled back by switching to the version it had before, which
+   * only exists if the account had already been generated when the transition was applied.
+   */
+  private boolean canRollback(final Transition transition) {
+    return transition.diff.clearedStorage.stream()
+        .allMatch(
+            accountHash ->
+                !isGenerated(accountHash)
+                    || transition.previousStorageVersions.containsKey(accountHash));
+  }
+
+  private void rollback(final Transition transition) {
+    final Hash baseRoot = transition.baseRoot;
+    final WorldStateSnapshotStorage.Updater updater = snapshotStorage.updater();
+    transition.diff.accounts.forEach(
+        (accountHash, account) -> {
+          if (isGenerated(accountHash)) {
+            putAccount(updater, accountHash, accountAt(baseRoot, accountHash).orElse(Bytes.EMPTY));
+          }
+        });
+    transition.diff.storage.forEach(
+        (accountHash, slots) -> {
+          if (isGenerated(accountHash)
+              && !transition.previousStorageVersions.containsKey(accountHash)) {
+            final long storageVersion = snapshotStorage.getStorageVersion(accountHash);
+            final MerklePatriciaTrie<Bytes32, Bytes> storageTrie =
+                storageTrie(baseRoot, accountHash);
+            slots
+                .keySet()
+                .forEach(
+                    slotHash ->
+                        putStorageValue(
+                            updater,
+                            accountHash,
+                            storageVersion,
+                            slotHash,
+                            storageTrie.get(slotHash).orElse(Bytes.EMPTY)));
+          }
+        });
+    transition.previousStorageVersions.forEach(updater::setStorageVersion);
+    updater.setSnapshotRoot(baseRoot).commit();
+    snapshotRoot = baseRoot;
+    pendingTransitions.put(transition.newRoot, transition);
+  }
+
+  private static void putAccount(
+      final WorldStateSnapshotStorage.Updater updater,
+      final Bytes32 accountHash,
+      final Bytes account) {
+    if (account.isEmpty()) {
+      updater.removeAccount(accountHash);
+    } else {
+      updater.putAccount(accountHash, account);
+    }
+  }
+
+  private static void putStorageValue(
+      final WorldStateSnapshotStorage.Updater updater,
+      final Bytes32 accountHash,
+      final long storageVersion,
+      final Bytes32 slotHash,
+      final Bytes value) {
+    if (value.isEmpty()) {
+      updater.removeStorageValue(accountHash, storageVersion, slotHash);
+    } else {
+      updater.putStorageValue(accountHash, storageVersion, slotHash, value);
+    }
+  }
+
+  private Optional<Bytes> accountAt(final Hash rootHash, final Bytes32 accountHash) {
+    return new StoredMerklePatriciaTrie<Bytes32, Bytes>(
+            worldStateStorage::getAccountStateTrieNode, rootHash, b -> b, b -> b)
+        .get(accountHash);
+  }
+
+  private MerklePatriciaTrie<Bytes32, Bytes> storageTrie(
+      final Hash rootHash, final Bytes32 accountHash) {
+    final Bytes32 storageRoot =
+        accountAt(rootHash, accountHash)
+            .map(account -> StateTrieAccountValue.readFrom(RLP.input(account)).getStorageRoot())
+            .orElse(Hash.EMPTY_TRIE_HASH);
+    return new StoredMerklePatriciaTrie<>(
+        worldStateStorage::getAccountStorageTrieNode, storageRoot, b -> b, b -> b);
+  }
+
+  /**
+   * Account and storage changes made by a world state since it was last persisted. Removed
+   * accounts and slots are recorded as {@link Bytes#EMPTY}.
+   */
+  public static class Diff {
+    private final Map<Bytes32, Bytes> accounts = new HashMap<>();
+    private final Map<Bytes32, Map<Bytes32, Bytes>> storage = new HashMap<>();
+    private final Set<Bytes32> clearedStorage = new HashSet<>();
+
+    public void putAccount(final Bytes32 accountHash, final Bytes account) {
+      accounts.put(accountHash, account);
+    }
+
+    public void removeAccount(final Bytes32 accountHash) {
+      accounts.put(accountHash, Bytes.EMPTY);
+      clearStorage(accountHash);
+    }
+
+    public void clearStorage(final Bytes32 accountHash) {
+      storage.remove(accountHash);
+      clearedStorage.add(accountHash);
+    }
+
+    public void putStorageValue(
+        final Bytes32 accountHash, final Bytes32 slotHash, final Bytes value) {
+      storage.computeIfAbsent(accountHash, __ -> new HashMap<>()).put(slotHash, value);
+    }
+
+    public void removeStorageValue(final Bytes32 accountHash, final Bytes32 slotHash) {
+      putStorageValue(accountHash, slotHash, Bytes.EMPTY);
+    }
+
+    public boolean isAccountUpdated(final Bytes32 accountHash) {
+      return accounts.containsKey(accountHash);
+    }
+
+    public boolean isStorageUpdated(final Bytes32 accountHash, final Bytes32 slotHash) {
+      return clearedStorage.contains(accountHash)
+          || storage.getOrDefault(accountHash, Collections.emptyMap()).containsKey(slotHash);
+    }
+  }
+
+  private static class Transition {
+    private final Hash baseRoot;
+    private final Hash newRoot;
+    private final Diff diff;
+    // Storage versions of the accounts it cleared, as they were before it was applied.
+    private Map<Bytes32, Long> previousStorageVersions = Collections.emptyMap();
+
+    private Transition(final Hash baseRoot, final Hash newRoot, final Diff diff) {
+      this.baseRoot = baseRoot;
+      this.newRoot = newRoot;
+      this.diff = diff;
+    }
+  }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import static org.hyperledger.besu.ethereum.worldstate.WorldStateSnapshotStorage.INITIAL_STORAGE_VERSION;
+
+import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.trie.MerkleTrieException;
+import org.hyperledger.besu.ethereum.trie.StoredMerklePatriciaTrie;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Keeps the {@link WorldStateSnapshot} on the canonical chain head and generates its contents in
+ * the background, in account hash order, whenever it has to be rebuilt.
+ */
+public class WorldStateSnapshotGenerator implements Closeable {
+
+  private static final Logger LOG = LogManager.getLogger();
+  private static final int ACCOUNT_BATCH_SIZE = 1_000;
+  private static final int STORAGE_BATCH_SIZE = 10_000;
+
+  private final WorldStateSnapshot snapshot;
+  private final WorldStateStorage worldStateStorage;
+  private final Blockchain blockchain;
+  private final ExecutorService executorService;
+  private final AtomicReference<State> state = new AtomicReference<>(State.IDLE);
+  private final AtomicBoolean generationScheduled = new AtomicBoolean(false);
+  private Long blockAddedObserverId;
+
+  @VisibleForTesting
+  WorldStateSnapshotGenerator(
+      final WorldStateSnapshot snapshot,
+      final WorldStateStorage worldStateStorage,
+      final Blockchain blockchain,
+      final ExecutorService executorService) {
+    this.snapshot = snapshot;
+    this.worldStateStorage = worldStateStorage;
+    this.blockchain = blockchain;
+    this.executorService = executorService;
+  }
+
+  public WorldStateSnapshotGenerator(
+      final WorldStateSnapshot snapshot,
+      final WorldStateStorage worldStateStorage,
+      final Blockchain blockchain) {
+    this(
+        snapshot,
+        worldStateStorage,
+        blockchain,
+        new ThreadPoolExecutor(
+            0,
+            1,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setPriority(Thread.MIN_PRIORITY)
+                .setNameFormat("WorldStateSnapshot-%d")
+                .build()));
+  }
+
+  public void start() {
+    if (state.compareAndSet(State.IDLE, State.RUNNING)) {
+      LOG.info("Starting world state snapshot generator.");
+      blockAddedObserverId = blockchain.observeBlockAdded(this::handleNewBlock);
+      final Hash chainHeadRoot = blockchain.getChainHeadHeader().getStateRoot();
+      execute(() -> followChainHead(chainHeadRoot));
+    }
+  }
+
+  public void stop() {
+    if (state.compareAndSet(State.RUNNING, State.STOPPED)) {
+      LOG.info("Stopping world state snapshot generator.");
+      blockchain.removeObserver(blockAddedObserverId);
+      executorService.shutdownNow();
+    }
+  }
+
+  @Override
+  public void close() {
+    stop();
+  }
+
+  private void handleNewBlock(final BlockAddedEvent event) {
+    if (!event.isNewCanonicalHead()) {
+      return;
+    }
+    final Hash stateRoot = event.getBlock().getHeader().getStateRoot();
+    execute(() -> followChainHead(stateRoot));
+  }
+
+  private void followChainHead(final Hash stateRoot) {
+    if (!snapshot.moveTo(stateRoot) && worldStateStorage.isWorldStateAvailable(stateRoot)) {
+      LOG.info("Generating world state snapshot for state root {}", stateRoot);
+      snapshot.reset(stateRoot);
+    }
+    scheduleGeneration();
+  }
+
+  private void scheduleGeneration() {
+    if (snapshot.isGenerating() && generationScheduled.compareAndSet(false, true)) {
+      execute(this::generateBatch);
+    }
+  }
+
+  private void generateBatch() {
+    generationScheduled.set(false);
+    if (state.get() != State.RUNNING) {
+      return;
+    }
+    try {
+      generateAccounts();
+    } catch (final MerkleTrieException e) {
+      // The state being generated is no longer available, wait for the next chain head.
+      LOG.debug("Paused world state snapshot generation: {}", e.getMessage());
+      return;
+    }
+    if (!snapshot.isGenerating()) {
+      LOG.info("World state snapshot generated for state root {}", snapshot.getSnapshotRoot());
+    }
+    scheduleGeneration();
+  }
+
+  @VisibleForTesting
+  void generateAccounts() {
+    final Optional<Bytes32> marker = snapshot.getGeneratorMarker();
+    if (marker.isEmpty()) {
+      return;
+    }
+    final Hash rootHash = snapshot.getSnapshotRoot();
+    final NavigableMap<Bytes32, Bytes> accounts =
+        new TreeMap<>(
+            new StoredMerklePatriciaTrie<Bytes32, Bytes>(
+                    worldStateStorage::getAccountStateTrieNode, rootHash, b -> b, b -> b)
+                .entriesFrom(marker.get(), ACCOUNT_BATCH_SIZE + 1));
+    final Optional<Bytes32> nextMarker =
+        accounts.size() > ACCOUNT_BATCH_SIZE
+            ? Optional.of(accounts.pollLastEntry().getKey())
+            : Optional.empty();
+
+    // Storage versions only change once an account is generated, so all storage written here uses
+    // the initial version.
+    final Map<Bytes32, Map<Bytes32, Bytes>> storage = new HashMap<>();
+    // Storage too large to be written with its account is written ahead in batches.
+    final Map<Bytes32, Hash> storageWrittenAhead = new HashMap<>();
+    for (final Map.Entry<Bytes32, Bytes> account : accounts.entrySet()) {
+      final Hash storageRoot =
+          StateTrieAccountValue.readFrom(RLP.input(account.getValue())).getStorageRoot();
+      if (!storageRoot.equals(Hash.EMPTY_TRIE_HASH)
+          && !generateStorage(
+              rootHash, account.getKey(), storageRoot, storage, storageWrittenAhead)) {
+        discardStorage(storageWrittenAhead);
+        return;
+      }
+    }
+
+    final boolean advanced =
+        snapshot.advanceGenerator(
+            rootHash,
+            updater -> {
+              accounts.forEach(updater::putAccount);
+              storage.forEach(
+                  (accountHash, slots) ->
+                      slots.forEach(
+                          (slotHash, value) ->
+                              updater.putStorageValue(
+                                  accountHash, INITIAL_STORAGE_VERSION, slotHash, value)));
+            },
+            nextMarker);
+    if (!advanced) {
+      discardStorage(storageWrittenAhead);
+    }
+  }
+
+  private boolean generateStorage(
+      final Hash rootHash,
+      final Bytes32 accountHash,
+      final Hash storageRoot,
+      final Map<Bytes32, Map<Bytes32, Bytes>> storage,
+      final Map<Bytes32, Hash> storageWrittenAhead) {
+    final MerklePatriciaTrie<Bytes32, Bytes> storageTrie = storageTrie(storageRoot);
+    NavigableMap<Bytes32, Bytes> slots =
+        new TreeMap<>(storageTrie.entriesFrom(Bytes32.ZERO, STORAGE_BATCH_SIZE + 1));
+    if (slots.size() <= STORAGE_BATCH_SIZE) {
+      storage.put(accountHash, slots);
+      return true;
+    }
+
+    storageWrittenAhead.put(accountHash, storageRoot);
+    while (true) {
+      final Optional<Bytes32> nextSlot =
+          slots.size() > STORAGE_BATCH_SIZE
+              ? Optional.of(slots.pollLastEntry().getKey())
+              : Optional.empty();
+      final Map<Bytes32, Bytes> batch = slots;
+      if (!snapshot.writeGenerated(
+          rootHash,
+          updater ->
+              batch.forEach(
+                  (slotHash, value) ->
+                      updater.putStorageValue(
+                          accountHash, INITIAL_STORAGE_VERSION, slotHash, value)))) {
+        return false;
+      }
+      if (nextSlot.isEmpty()) {
+        return true;
+      }
+      slots = new TreeMap<>(storageTrie.entriesFrom(nextSlot.get(), STORAGE_BATCH_SIZE + 1));
+    }
+  }
+
+  private void discardStorage(final Map<Bytes32, Hash> storageWrittenAhead) {
+    storageWrittenAhead.forEach(
+        (accountHash, storageRoot) -> {
+          final Map<Bytes32, Bytes> slots =
+              storageTrie(storageRoot).entriesFrom(Bytes32.ZERO, Integer.MAX_VALUE);
+          snapshot.discardGenerated(
+              updater ->
+                  slots
+                      .keySet()
+                      .forEach(
+                          slot ->
+                              updater.removeStorageValue(
+                                  accountHash, INITIAL_STORAGE_VERSION, slot)));
+        });
+  }
+
+  private MerklePatriciaTrie<Bytes32, Bytes> storageTrie(final Bytes32 storageRoot) {
+    return new StoredMerklePatriciaTrie<>(
+        worldStateStorage::getAccountStorageTrieNode, storageRoot, b -> b, b -> b);
+  }
+
+  private void execute(final Runnable action) {
+    if (state.get() != State.RUNNING) {
+      return;
+    }
+    try {
+      executorService.execute(action);
+    } catch (final Throwable t) {
+      LOG.error("World state snapshot generator failed", t);
+    }
+  }
+
+  private enum State {
+    IDLE,
+    RUNNING,
+    STOPPED
+  }
+}
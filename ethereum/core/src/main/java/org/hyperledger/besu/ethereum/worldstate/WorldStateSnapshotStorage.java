@@ -0,0 +1,95 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Flat copy of the accounts and storage slots of a single world state, keyed by account hash and
+ * account hash, storage version and slot hash. Values are stored exactly as they appear in the
+ * leaves of the corresponding tries.
+ *
+ * <p>Clearing the storage of an account moves it to a new storage version rather than removing its
+ * slots, so slots written under an earlier version are simply no longer read.
+ */
+public interface WorldStateSnapshotStorage {
+
+  long INITIAL_STORAGE_VERSION = 0;
+
+  Optional<Bytes> getAccount(Bytes32 accountHash);
+
+  /**
+   * The version the storage slots of an account are currently read from.
+   *
+   * @param accountHash the hash of the account address
+   * @return the storage version, {@link #INITIAL_STORAGE_VERSION} if the storage of the account has
+   *     never been cleared.
+   */
+  long getStorageVersion(Bytes32 accountHash);
+
+  Optional<Bytes> getStorageValue(Bytes32 accountHash, long storageVersion, Bytes32 slotHash);
+
+  /**
+   * The most recently assigned storage version. Versions are never reused until the snapshot is
+   * cleared.
+   *
+   * @return the last storage version, {@link #INITIAL_STORAGE_VERSION} if none was assigned.
+   */
+  long getLastStorageVersion();
+
+  Optional<Hash> getSnapshotRoot();
+
+  /**
+   * The first account hash that has not yet been generated from the trie.
+   *
+   * @return the generator marker, or empty if the snapshot has been completely generated.
+   */
+  Optional<Bytes32> getGeneratorMarker();
+
+  void clear();
+
+  Updater updater();
+
+  interface Updater {
+
+    Updater putAccount(Bytes32 accountHash, Bytes account);
+
+    Updater removeAccount(Bytes32 accountHash);
+
+    Updater putStorageValue(
+        Bytes32 accountHash, long storageVersion, Bytes32 slotHash, Bytes value);
+
+    Updater removeStorageValue(Bytes32 accountHash, long storageVersion, Bytes32 slotHash);
+
+    Updater setStorageVersion(Bytes32 accountHash, long storageVersion);
+
+    Updater setLastStorageVersion(long storageVersion);
+
+    Updater setSnapshotRoot(Hash snapshotRoot);
+
+    Updater setGeneratorMarker(Bytes32 marker);
+
+    Updater removeGeneratorMarker();
+
+    void commit();
+
+    void rollback();
+  }
+}
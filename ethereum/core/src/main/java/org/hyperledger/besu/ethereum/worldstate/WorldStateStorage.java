@@ -17,8 +17,10 @@ package org.hyperledger.besu.ethereum.worldstate;
 import org.hyperledger.besu.ethereum.core.Hash;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
@@ -33,6 +35,10 @@ public interface WorldStateStorage {
 
   Optional<Bytes> getNodeData(Bytes32 hash);
 
+  default List<Optional<Bytes>> multiGetNodeData(final List<Bytes32> hashes) {
+    return hashes.stream().map(this::getNodeData).collect(Collectors.toList());
+  }
+
   boolean isWorldStateAvailable(Bytes32 rootHash);
 
   default boolean contains(final Bytes32 hash) {
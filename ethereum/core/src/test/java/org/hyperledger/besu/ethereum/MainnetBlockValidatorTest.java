@@ -0,0 +1,136 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.BlockValidator.BlockProcessingOutputs;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.mainnet.BlockBodyValidator;
+import org.hyperledger.besu.ethereum.mainnet.BlockHeaderValidator;
+import org.hyperledger.besu.ethereum.mainnet.BlockProcessor;
+import org.hyperledger.besu.ethereum.mainnet.HeaderValidationMode;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MainnetBlockValidatorTest {
+
+  private static final Hash PARENT_STATE_ROOT = Hash.hash(Hash.ZERO);
+  private static final Hash STATE_ROOT = Hash.hash(PARENT_STATE_ROOT);
+
+  @Mock private BlockHeaderValidator blockHeaderValidator;
+  @Mock private BlockBodyValidator blockBodyValidator;
+  @Mock private BlockProcessor blockProcessor;
+  @Mock private BlockProcessor.Result processingResult;
+  @Mock private ProtocolContext context;
+  @Mock private MutableBlockchain blockchain;
+  @Mock private WorldStateArchive worldStateArchive;
+  @Mock private MutableWorldState worldState;
+  @Mock private Block block;
+  @Mock private BlockHeader header;
+  @Mock private BlockHeader parentHeader;
+
+  private final List<TransactionReceipt> receipts = Collections.emptyList();
+
+  @Before
+  public void setUp() {
+    when(context.getBlockchain()).thenReturn(blockchain);
+    when(context.getWorldStateArchive()).thenReturn(worldStateArchive);
+    when(block.getHeader()).thenReturn(header);
+    lenient().when(header.getHash()).thenReturn(Hash.ZERO);
+    when(header.getParentHash()).thenReturn(Hash.EMPTY);
+    lenient().when(header.getStateRoot()).thenReturn(STATE_ROOT);
+    when(parentHeader.getStateRoot()).thenReturn(PARENT_STATE_ROOT);
+    when(blockchain.getBlockHeader(Hash.EMPTY)).thenReturn(Optional.of(parentHeader));
+    when(blockHeaderValidator.validateHeader(eq(header), eq(parentHeader), eq(context), any()))
+        .thenReturn(true);
+    when(worldStateArchive.getMutable(PARENT_STATE_ROOT)).thenReturn(Optional.of(worldState));
+    when(worldState.rootHash()).thenReturn(STATE_ROOT);
+    when(blockProcessor.processBlock(blockchain, worldState, block)).thenReturn(processingResult);
+    when(processingResult.isSuccessful()).thenReturn(true);
+    when(processingResult.getReceipts()).thenReturn(receipts);
+    when(blockBodyValidator.validateBody(eq(context), eq(block), anyList(), eq(STATE_ROOT), any()))
+        .thenReturn(true);
+  }
+
+  @Test
+  public void shouldReuseOutputsOfAlreadyValidatedBlock() {
+    final MainnetBlockValidator validator = cachingValidator();
+    when(worldStateArchive.isWorldStateAvailable(STATE_ROOT)).thenReturn(true);
+
+    final Optional<BlockProcessingOutputs> proposalOutputs = validate(validator);
+    final Optional<BlockProcessingOutputs> importOutputs = validate(validator);
+
+    assertThat(proposalOutputs).isPresent();
+    assertThat(importOutputs).containsSame(proposalOutputs.get());
+    verify(blockProcessor, times(1)).processBlock(blockchain, worldState, block);
+    verify(blockHeaderValidator, times(2))
+        .validateHeader(eq(header), eq(parentHeader), eq(context), any());
+  }
+
+  @Test
+  public void shouldExecuteBlockAgainWhenResultingStateIsNoLongerAvailable() {
+    final MainnetBlockValidator validator = cachingValidator();
+    when(worldStateArchive.isWorldStateAvailable(STATE_ROOT)).thenReturn(false);
+
+    assertThat(validate(validator)).isPresent();
+    assertThat(validate(validator)).isPresent();
+
+    verify(blockProcessor, times(2)).processBlock(blockchain, worldState, block);
+  }
+
+  @Test
+  public void shouldExecuteBlockAgainWithoutCache() {
+    final MainnetBlockValidator validator =
+        new MainnetBlockValidator(blockHeaderValidator, blockBodyValidator, blockProcessor);
+
+    assertThat(validate(validator)).isPresent();
+    assertThat(validate(validator)).isPresent();
+
+    verify(blockProcessor, times(2)).processBlock(blockchain, worldState, block);
+  }
+
+  private MainnetBlockValidator cachingValidator() {
+    return new MainnetBlockValidator(
+        blockHeaderValidator, blockBodyValidator, blockProcessor, 4, BlockHeader::getHash);
+  }
+
+  private Optional<BlockProcessingOutputs> validate(final MainnetBlockValidator validator) {
+    return validator.validateAndProcessBlock(
+        context, block, HeaderValidationMode.FULL, HeaderValidationMode.FULL);
+  }
+}
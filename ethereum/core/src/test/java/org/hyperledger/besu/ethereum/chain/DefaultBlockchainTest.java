@@ -684,6 +684,55 @@ public class DefaultBlockchainTest {
     assertThat(blockchain.blockIsOnCanonicalChain(originalHead.getHash())).isFalse();
   }
 
+  @Test
+  public void cachedBlockchainReflectsReorgsAndRewinds() {
+    final BlockDataGenerator gen = new BlockDataGenerator(3);
+
+    final List<Block> chain = gen.blockSequence(4);
+    final List<List<TransactionReceipt>> blockReceipts =
+        chain.stream().map(gen::receipts).collect(Collectors.toList());
+    final KeyValueStorage kvStore = new InMemoryKeyValueStorage();
+    final DefaultBlockchain blockchain =
+        (DefaultBlockchain)
+            DefaultBlockchain.createMutable(
+                chain.get(0), createStorage(kvStore), new NoOpMetricsSystem(), 0, 16);
+    for (int i = 1; i < chain.size(); i++) {
+      blockchain.appendBlock(chain.get(i), blockReceipts.get(i));
+    }
+    // Read every block so that the canonical hashes are cached
+    for (int i = 0; i < chain.size(); i++) {
+      assertBlockDataIsStored(blockchain, chain.get(i), blockReceipts.get(i));
+    }
+
+    // Reorg the last two blocks away with a heavier block at height 2
+    final BlockDataGenerator.BlockOptions options =
+        new BlockDataGenerator.BlockOptions()
+            .setParentHash(chain.get(1).getHash())
+            .setBlockNumber(2)
+            .setDifficulty(
+                chain
+                    .get(2)
+                    .getHeader()
+                    .getDifficulty()
+                    .add(chain.get(3).getHeader().getDifficulty())
+                    .add(1L));
+    final Block fork = gen.block(options);
+    final List<TransactionReceipt> forkReceipts = gen.receipts(fork);
+    blockchain.appendBlock(fork, forkReceipts);
+
+    assertBlockIsHead(blockchain, fork);
+    assertBlockDataIsStored(blockchain, fork, forkReceipts);
+    assertThat(blockchain.getBlockHashByNumber(3)).isEmpty();
+    assertThat(blockchain.getBlockHeader(3)).isEmpty();
+
+    blockchain.rewindToBlock(1);
+
+    assertBlockIsHead(blockchain, chain.get(1));
+    assertThat(blockchain.getBlockHashByNumber(2)).isEmpty();
+    // Data keyed by hash stays available for blocks that left the canonical chain
+    assertThat(blockchain.getBlockHeader(fork.getHash())).contains(fork.getHeader());
+  }
+
   @Test
   public void appendBlockForFork() {
     final BlockDataGenerator gen = new BlockDataGenerator(2);
@@ -0,0 +1,343 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.config.StubGenesisConfigOptions;
+import org.hyperledger.besu.crypto.SECP256K1.KeyPair;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.InMemoryStorageProvider;
+import org.hyperledger.besu.ethereum.core.MutableAccount;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.PrivacyParameters;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+import org.hyperledger.besu.ethereum.core.Util;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidator.TransactionInvalidReason;
+import org.hyperledger.besu.ethereum.referencetests.ReferenceTestBlockchain;
+import org.hyperledger.besu.metrics.StubMetricsSystem;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelTransactionProcessorTest {
+
+  private static final BigInteger CHAIN_ID = BigInteger.valueOf(42);
+
+  // Stores the second word of its call data in the slot given by the first.
+  private static final Address STORE_CONTRACT = Address.fromHexString("0x2000");
+  private static final Bytes STORE_CODE = Bytes.fromHexString("0x6020356000355500");
+  // Forwards its call data to STORE_CONTRACT.
+  private static final Address CALLER_CONTRACT = Address.fromHexString("0x2001");
+  private static final Bytes CALLER_CODE =
+      Bytes.fromHexString(
+          "0x366000600037600060003660006000730000000000000000000000000000000000002000"
+              + "5af15000");
+  // Self destructs, sending its balance to the caller.
+  private static final Address SELF_DESTRUCT_CONTRACT = Address.fromHexString("0x2002");
+  private static final Bytes SELF_DESTRUCT_CODE = Bytes.fromHexString("0x33ff");
+  private static final Address EMPTY_ACCOUNT = Address.fromHexString("0xc0ffee01");
+
+  private final Blockchain blockchain = new ReferenceTestBlockchain();
+  private final List<KeyPair> senders = new ArrayList<>();
+  private final BlockHeader header = header(Address.fromHexString("0xc0ffee"));
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
+  private final ParallelTransactionProcessor parallelTransactionProcessor =
+      new ParallelTransactionProcessor(Executors.newFixedThreadPool(4), metricsSystem);
+
+  public ParallelTransactionProcessorTest() {
+    for (int i = 0; i < 4; i++) {
+      senders.add(KeyPair.generate());
+    }
+  }
+
+  @After
+  public void tearDown() {
+    parallelTransactionProcessor.close();
+  }
+
+  @Test
+  public void independentTransactionsAreAppliedFromSpeculativeExecution() {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < senders.size(); i++) {
+      transactions.add(transfer(senders.get(i), 0, recipient(i)));
+    }
+
+    assertParallelMatchesSequential(header, transactions);
+    assertTransactionCounts(4, 0);
+  }
+
+  @Test
+  public void transactionsReadingEarlierWritesAreExecutedAgain() {
+    final List<Transaction> transactions = new ArrayList<>();
+    transactions.add(transfer(senders.get(0), 0, recipient(0)));
+    transactions.add(transfer(senders.get(1), 0, recipient(1)));
+    // Reads an account created by an earlier transaction.
+    transactions.add(transfer(senders.get(2), 0, recipient(0)));
+    // Sends to the mining beneficiary, which every transaction pays.
+    transactions.add(transfer(senders.get(3), 0, header.getCoinbase()));
+
+    assertParallelMatchesSequential(header, transactions);
+    assertTransactionCounts(2, 2);
+  }
+
+  @Test
+  public void transactionsOfTheSameSenderAreExecutedAgain() {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < senders.size(); i++) {
+      transactions.add(transfer(senders.get(i), 0, recipient(i)));
+    }
+    for (int i = 0; i < senders.size(); i++) {
+      transactions.add(transfer(senders.get(i), 1, recipient(i + senders.size())));
+    }
+
+    assertParallelMatchesSequential(header, transactions);
+    assertTransactionCounts(4, 4);
+  }
+
+  @Test
+  public void transactionsReadingStorageWrittenEarlierAreExecutedAgain() {
+    final List<Transaction> transactions = new ArrayList<>();
+    transactions.add(store(senders.get(0), STORE_CONTRACT, 1, 1));
+    transactions.add(store(senders.get(1), STORE_CONTRACT, 2, 2));
+    // Same slot as the first transaction.
+    transactions.add(store(senders.get(2), STORE_CONTRACT, 1, 3));
+    transactions.add(transfer(senders.get(3), 0, recipient(3)));
+
+    assertParallelMatchesSequential(header, transactions);
+    assertTransactionCounts(3, 1);
+  }
+
+  @Test
+  public void contractCallsMatchSequentialExecution() {
+    final List<Transaction> transactions = new ArrayList<>();
+    transactions.add(store(senders.get(0), CALLER_CONTRACT, 5, 1));
+    transactions.add(store(senders.get(1), STORE_CONTRACT, 6, 2));
+    // Writes the slot the first transaction wrote through the caller contract.
+    transactions.add(store(senders.get(2), CALLER_CONTRACT, 5, 3));
+    transactions.add(store(senders.get(3), CALLER_CONTRACT, 7, 4));
+
+    assertParallelMatchesSequential(header, transactions);
+    assertTransactionCounts(3, 1);
+  }
+
+  @Test
+  public void selfDestructMatchesSequentialExecution() {
+    final List<Transaction> transactions = new ArrayList<>();
+    transactions.add(store(senders.get(0), SELF_DESTRUCT_CONTRACT, 0, 0));
+    transactions.add(store(senders.get(1), STORE_CONTRACT, 1, 1));
+    // Recreates the account destroyed by the first transaction.
+    transactions.add(transfer(senders.get(2), 0, SELF_DESTRUCT_CONTRACT));
+    transactions.add(transfer(senders.get(3), 0, recipient(3)));
+
+    assertParallelMatchesSequential(header, transactions);
+    assertTransactionCounts(3, 1);
+  }
+
+  @Test
+  public void zeroFeesToEmptyMiningBeneficiaryMatchSequentialExecution() {
+    final BlockHeader emptyCoinbaseHeader = header(EMPTY_ACCOUNT);
+    final List<Transaction> transactions = new ArrayList<>();
+    // Removes the empty beneficiary.
+    transactions.add(transfer(senders.get(0), 0, recipient(0), Wei.ZERO));
+    // Recreates it.
+    transactions.add(transfer(senders.get(1), 0, recipient(1), Wei.of(2)));
+    // Touches it without removing it.
+    transactions.add(transfer(senders.get(2), 0, recipient(2), Wei.ZERO));
+    transactions.add(transfer(senders.get(3), 0, recipient(3), Wei.ZERO));
+
+    assertParallelMatchesSequential(emptyCoinbaseHeader, transactions);
+    assertTransactionCounts(4, 0);
+  }
+
+  @Test
+  public void zeroFeesToMissingMiningBeneficiaryMatchSequentialExecution() {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < senders.size(); i++) {
+      transactions.add(transfer(senders.get(i), 0, recipient(i), Wei.ZERO));
+    }
+
+    assertParallelMatchesSequential(header, transactions);
+    assertTransactionCounts(4, 0);
+  }
+
+  @Test
+  public void invalidSpeculativeResultIsExecutedAgain() {
+    final TransactionProcessor transactionProcessor = mock(TransactionProcessor.class);
+    when(transactionProcessor.processTransaction(
+            any(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+        .thenReturn(
+            MainnetTransactionProcessor.Result.invalid(
+                ValidationResult.invalid(TransactionInvalidReason.INTERNAL_ERROR)));
+    final TransactionProcessor.Result executed = mock(TransactionProcessor.Result.class);
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < senders.size(); i++) {
+      transactions.add(transfer(senders.get(i), 0, recipient(i)));
+    }
+    final MutableWorldState worldState = createWorldState();
+
+    final ParallelTransactionProcessor.SpeculativeBlock speculativeBlock =
+        parallelTransactionProcessor
+            .executeSpeculatively(
+                blockchain,
+                worldState,
+                header,
+                transactions,
+                header.getCoinbase(),
+                transactionProcessor)
+            .orElseThrow();
+
+    for (int i = 0; i < transactions.size(); i++) {
+      assertThat(speculativeBlock.apply(worldState.updater(), () -> executed)).isSameAs(executed);
+    }
+    assertTransactionCounts(0, 4);
+  }
+
+  @Test
+  public void invalidTransactionFailsBlock() {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < senders.size(); i++) {
+      transactions.add(transfer(senders.get(i), 0, recipient(i)));
+    }
+    transactions.add(transfer(senders.get(0), 5, recipient(4)));
+
+    final MutableWorldState worldState = createWorldState();
+    final BlockProcessor.Result result =
+        createBlockProcessor(true)
+            .processBlock(blockchain, worldState, header, transactions, Collections.emptyList());
+
+    assertThat(result.isSuccessful()).isFalse();
+  }
+
+  private void assertParallelMatchesSequential(
+      final BlockHeader blockHeader, final List<Transaction> transactions) {
+    final MutableWorldState sequentialState = createWorldState();
+    final BlockProcessor.Result sequential =
+        createBlockProcessor(false)
+            .processBlock(
+                blockchain, sequentialState, blockHeader, transactions, Collections.emptyList());
+    final MutableWorldState parallelState = createWorldState();
+    final BlockProcessor.Result parallel =
+        createBlockProcessor(true)
+            .processBlock(
+                blockchain, parallelState, blockHeader, transactions, Collections.emptyList());
+
+    assertThat(sequential.isSuccessful()).isTrue();
+    assertThat(parallel.isSuccessful()).isTrue();
+    assertThat(parallel.getReceipts()).isEqualTo(sequential.getReceipts());
+    assertThat(parallelState.rootHash()).isEqualTo(sequentialState.rootHash());
+  }
+
+  private void assertTransactionCounts(final long applied, final long executedAgain) {
+    assertThat(metricsSystem.getCounterValue("parallel_transactions_total", "applied"))
+        .isEqualTo(applied);
+    assertThat(metricsSystem.getCounterValue("parallel_transactions_total", "executed_again"))
+        .isEqualTo(executedAgain);
+  }
+
+  private BlockProcessor createBlockProcessor(final boolean parallel) {
+    final ProtocolSchedule protocolSchedule =
+        new ProtocolScheduleBuilder(
+                new StubGenesisConfigOptions().constantinopleFixBlock(0),
+                CHAIN_ID,
+                Function.identity(),
+                new PrivacyParameters(),
+                false)
+            .createProtocolSchedule();
+    if (parallel) {
+      protocolSchedule.setParallelTransactionProcessor(parallelTransactionProcessor);
+    }
+    return protocolSchedule.getByBlockNumber(header.getNumber()).getBlockProcessor();
+  }
+
+  private MutableWorldState createWorldState() {
+    final MutableWorldState worldState = InMemoryStorageProvider.createInMemoryWorldState();
+    final WorldUpdater updater = worldState.updater();
+    for (final KeyPair sender : senders) {
+      updater.createAccount(Util.publicKeyToAddress(sender.getPublicKey()), 0, Wei.of(1_000_000));
+    }
+    updater.createAccount(STORE_CONTRACT, 1, Wei.ZERO).getMutable().setCode(STORE_CODE);
+    updater.createAccount(CALLER_CONTRACT, 1, Wei.ZERO).getMutable().setCode(CALLER_CODE);
+    final MutableAccount selfDestructContract =
+        updater.createAccount(SELF_DESTRUCT_CONTRACT, 1, Wei.of(5_000)).getMutable();
+    selfDestructContract.setCode(SELF_DESTRUCT_CODE);
+    selfDestructContract.setStorageValue(UInt256.ONE, UInt256.ONE);
+    updater.createAccount(EMPTY_ACCOUNT);
+    updater.commit();
+    worldState.persist();
+    return worldState;
+  }
+
+  private Transaction transfer(final KeyPair sender, final long nonce, final Address to) {
+    return transfer(sender, nonce, to, Wei.of(2));
+  }
+
+  private Transaction transfer(
+      final KeyPair sender, final long nonce, final Address to, final Wei gasPrice) {
+    return new TransactionTestFixture()
+        .chainId(Optional.of(CHAIN_ID))
+        .nonce(nonce)
+        .gasPrice(gasPrice)
+        .gasLimit(21_000)
+        .to(Optional.of(to))
+        .value(Wei.of(1_000))
+        .createTransaction(sender);
+  }
+
+  private Transaction store(
+      final KeyPair sender, final Address contract, final long key, final long value) {
+    return new TransactionTestFixture()
+        .chainId(Optional.of(CHAIN_ID))
+        .nonce(0)
+        .gasPrice(Wei.of(2))
+        .gasLimit(100_000)
+        .to(Optional.of(contract))
+        .value(Wei.ZERO)
+        .payload(
+            Bytes.concatenate(UInt256.valueOf(key).toBytes(), UInt256.valueOf(value).toBytes()))
+        .createTransaction(sender);
+  }
+
+  private static BlockHeader header(final Address coinbase) {
+    return new BlockHeaderTestFixture()
+        .number(1)
+        .gasLimit(10_000_000)
+        .coinbase(coinbase)
+        .buildHeader();
+  }
+
+  private static Address recipient(final int index) {
+    return Address.fromHexString(String.format("0x%040x", 0x1000 + index));
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.config.StubGenesisConfigOptions;
+import org.hyperledger.besu.crypto.SECP256K1.KeyPair;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator.BlockOptions;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableAccount;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.PrivacyParameters;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+import org.hyperledger.besu.ethereum.core.Util;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.storage.keyvalue.TrieNodeCache;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStatePreimageKeyValueStorage;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StatePrefetcherTest {
+
+  private static final Bytes CODE = Bytes.fromHexString("0x600160005260206000f3");
+  // Reads storage slot 1.
+  private static final Bytes SLOAD_CODE = Bytes.fromHexString("0x60015400");
+  private static final BigInteger CHAIN_ID = BigInteger.valueOf(42);
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final WorldStateKeyValueStorage worldStateStorage =
+      spy(new WorldStateKeyValueStorage(new InMemoryKeyValueStorage()));
+  private final WorldStateArchive worldStateArchive =
+      new WorldStateArchive(
+          worldStateStorage, new WorldStatePreimageKeyValueStorage(new InMemoryKeyValueStorage()));
+  private final Blockchain blockchain = mock(Blockchain.class);
+  private final BlockHeader parentHeader = mock(BlockHeader.class);
+  private final ExecutorService executor = MoreExecutors.newDirectExecutorService();
+
+  private Block block;
+  private Hash stateRoot;
+
+  @Before
+  public void setUp() {
+    final Address recipient = gen.address();
+    final Transaction transaction = gen.transaction(Bytes.EMPTY, recipient);
+
+    final MutableWorldState worldState = worldStateArchive.getMutable();
+    final WorldUpdater updater = worldState.updater();
+    updater.createAccount(transaction.getSender()).getMutable().setBalance(Wei.of(100));
+    updater.createAccount(recipient).getMutable().setCode(CODE);
+    updater.commit();
+    worldState.persist();
+    stateRoot = worldState.rootHash();
+
+    final Hash parentHash = gen.hash();
+    block = gen.block(BlockOptions.create().setParentHash(parentHash).addTransaction(transaction));
+    when(blockchain.getBlockHeader(parentHash)).thenReturn(Optional.of(parentHeader));
+    when(parentHeader.getStateRoot()).thenReturn(stateRoot);
+    clearInvocations(worldStateStorage);
+  }
+
+  @Test
+  public void shouldLoadAccountsAndCodeFromParentState() {
+    createPrefetcher().prefetch(block);
+
+    verify(worldStateStorage, atLeastOnce()).getAccountStateTrieNode(any());
+    verify(worldStateStorage).getCode(Hash.hash(CODE));
+  }
+
+  @Test
+  public void shouldFallBackToChainHeadStateWhenParentStateIsUnavailable() {
+    when(blockchain.getBlockHeader(block.getHeader().getParentHash()))
+        .thenReturn(Optional.empty());
+    final BlockHeader chainHead = mock(BlockHeader.class);
+    when(chainHead.getStateRoot()).thenReturn(stateRoot);
+    when(blockchain.getChainHeadHeader()).thenReturn(chainHead);
+
+    createPrefetcher().prefetch(block);
+
+    verify(worldStateStorage).getCode(Hash.hash(CODE));
+  }
+
+  @Test
+  public void shouldNotPrefetchImportedBlocks() {
+    when(blockchain.contains(block.getHash())).thenReturn(true);
+
+    createPrefetcher().prefetch(block);
+
+    verify(worldStateStorage, never()).getAccountStateTrieNode(any());
+    verify(worldStateStorage, never()).getCode(any());
+  }
+
+  @Test
+  public void shouldSkipBlockWhenPoolIsSaturated() {
+    executor.shutdown();
+
+    assertThatCode(() -> createPrefetcher().prefetch(block)).doesNotThrowAnyException();
+    verify(worldStateStorage, never()).getCode(any());
+  }
+
+  @Test
+  public void shouldWarmTrieNodeCacheWithStateReadBySpeculativeExecution() {
+    final InMemoryKeyValueStorage keyValueStorage = new InMemoryKeyValueStorage();
+    final WorldStatePreimageKeyValueStorage preimageStorage =
+        new WorldStatePreimageKeyValueStorage(new InMemoryKeyValueStorage());
+    final KeyPair senderKeys = KeyPair.generate();
+    final Address contract = gen.address();
+
+    // Built without the cache, so that only the prefetcher puts nodes into it.
+    final MutableWorldState worldState =
+        new WorldStateArchive(new WorldStateKeyValueStorage(keyValueStorage), preimageStorage)
+            .getMutable();
+    final WorldUpdater updater = worldState.updater();
+    updater
+        .createAccount(Util.publicKeyToAddress(senderKeys.getPublicKey()))
+        .getMutable()
+        .setBalance(Wei.of(1_000_000));
+    final MutableAccount contractAccount = updater.createAccount(contract).getMutable();
+    contractAccount.setCode(SLOAD_CODE);
+    contractAccount.setStorageValue(UInt256.ONE, UInt256.valueOf(0x42));
+    updater.commit();
+    worldState.persist();
+    final Hash parentStateRoot = worldState.rootHash();
+
+    final TrieNodeCache trieNodeCache = new TrieNodeCache(1024 * 1024, new NoOpMetricsSystem());
+    final WorldStateArchive cachedWorldStateArchive =
+        new WorldStateArchive(
+            new WorldStateKeyValueStorage(keyValueStorage, Optional.of(trieNodeCache)),
+            preimageStorage);
+    final Transaction transaction =
+        new TransactionTestFixture()
+            .chainId(Optional.of(CHAIN_ID))
+            .gasPrice(Wei.of(1))
+            .gasLimit(100_000)
+            .to(Optional.of(contract))
+            .value(Wei.ZERO)
+            .createTransaction(senderKeys);
+    final Hash parentHash = gen.hash();
+    final Block speculativeBlock =
+        gen.block(
+            BlockOptions.create()
+                .setBlockNumber(1)
+                .setParentHash(parentHash)
+                .addTransaction(transaction));
+    final BlockHeader speculativeParentHeader = mock(BlockHeader.class);
+    when(speculativeParentHeader.getStateRoot()).thenReturn(parentStateRoot);
+    when(blockchain.getBlockHeader(parentHash)).thenReturn(Optional.of(speculativeParentHeader));
+
+    createPrefetcher(cachedWorldStateArchive, protocolSchedule(), true).prefetch(speculativeBlock);
+
+    // Remove the state behind the cache's back, what execution read is still served by the cache.
+    keyValueStorage.clear();
+    assertThat(cachedWorldStateArchive.get(parentStateRoot))
+        .hasValueSatisfying(
+            state -> {
+              assertThat(state.get(transaction.getSender())).isNotNull();
+              assertThat(state.get(contract).getStorageValue(UInt256.ONE))
+                  .isEqualTo(UInt256.valueOf(0x42));
+            });
+  }
+
+  private StatePrefetcher createPrefetcher() {
+    return createPrefetcher(worldStateArchive, mock(ProtocolSchedule.class), false);
+  }
+
+  private StatePrefetcher createPrefetcher(
+      final WorldStateArchive worldStateArchive,
+      final ProtocolSchedule protocolSchedule,
+      final boolean speculativeExecutionEnabled) {
+    return new StatePrefetcher(
+        blockchain,
+        worldStateArchive,
+        protocolSchedule,
+        speculativeExecutionEnabled,
+        2,
+        executor,
+        new NoOpMetricsSystem());
+  }
+
+  private static ProtocolSchedule protocolSchedule() {
+    return new ProtocolScheduleBuilder(
+            new StubGenesisConfigOptions().constantinopleFixBlock(0),
+            CHAIN_ID,
+            Function.identity(),
+            new PrivacyParameters(),
+            false)
+        .createProtocolSchedule();
+  }
+}
@@ -19,8 +19,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStateKeyValueStorage.Updater;
 import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.units.bigints.UInt256;
 import org.junit.Test;
@@ -151,6 +155,27 @@ public class KeyValueStorageWorldStateStorageTest {
     assertThat(storage.getNodeData(Hash.hash(bytes))).contains(bytes);
   }
 
+  @Test
+  public void multiGetNodeData_returnsValuesInRequestOrder() {
+    final Bytes bytes = Bytes.fromHexString("0x123456");
+    final Bytes missing = Bytes.fromHexString("0x654321");
+    final WorldStateKeyValueStorage storage = emptyStorage();
+    storage.updater().putAccountStorageTrieNode(Hash.hash(bytes), bytes).commit();
+
+    assertThat(
+            storage.multiGetNodeData(
+                List.of(
+                    Hash.EMPTY,
+                    Hash.hash(missing),
+                    Hash.hash(bytes),
+                    MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)))
+        .containsExactly(
+            Optional.of(Bytes.EMPTY),
+            Optional.empty(),
+            Optional.of(bytes),
+            Optional.of(MerklePatriciaTrie.EMPTY_TRIE_NODE));
+  }
+
   @Test
   public void reconcilesNonConflictingUpdaters() {
     final Bytes bytesA = Bytes.fromHexString("0x12");
@@ -184,6 +209,45 @@ public class KeyValueStorageWorldStateStorageTest {
     assertThat(emptyStorage().isWorldStateAvailable(Hash.EMPTY_TRIE_HASH)).isTrue();
   }
 
+  @Test
+  public void trieNodeCache_servesCommittedNodesUntilPruned() {
+    final InMemoryKeyValueStorage keyValueStorage = new InMemoryKeyValueStorage();
+    final WorldStateKeyValueStorage storage =
+        new WorldStateKeyValueStorage(
+            keyValueStorage,
+            Optional.of(new TrieNodeCache(1024 * 1024, new NoOpMetricsSystem())));
+    final Bytes node = Bytes.fromHexString("0x123456");
+    final Hash nodeHash = Hash.hash(node);
+    storage.updater().putAccountStateTrieNode(nodeHash, node).commit();
+
+    // Remove the node behind the cache's back, it's still served from the cache
+    keyValueStorage.tryDelete(nodeHash.toArrayUnsafe());
+    assertThat(storage.getAccountStateTrieNode(nodeHash)).contains(node);
+
+    storage.updater().putAccountStateTrieNode(nodeHash, node).commit();
+    storage.prune(key -> false);
+    assertThat(storage.getAccountStateTrieNode(nodeHash)).isEmpty();
+  }
+
+  @Test
+  public void trieNodeCache_doesNotKeepNodeInvalidatedWhileLoading() {
+    final TrieNodeCache cache = new TrieNodeCache(1024 * 1024, new NoOpMetricsSystem());
+    final Bytes node = Bytes.fromHexString("0x123456");
+    final Hash nodeHash = Hash.hash(node);
+
+    final Optional<Bytes> loaded =
+        cache.get(
+            nodeHash,
+            hash -> {
+              // The node is pruned after the miss has read it from storage
+              cache.invalidate(hash);
+              return Optional.of(node);
+            });
+
+    assertThat(loaded).contains(node);
+    assertThat(cache.size()).isZero();
+  }
+
   private WorldStateKeyValueStorage emptyStorage() {
     return new WorldStateKeyValueStorage(new InMemoryKeyValueStorage());
   }
@@ -0,0 +1,82 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.Test;
+
+public class CodeCacheTest {
+
+  // PUSH1 0x5b JUMPDEST PUSH2 0x5c5b BEGINSUB
+  private static final Bytes CODE = Bytes.fromHexString("0x605b5b615c5b5c");
+
+  private final CodeCache codeCache = new CodeCache(1024 * 1024);
+
+  @Test
+  public void shouldReuseCodeForTheSameHash() {
+    final AtomicInteger loads = new AtomicInteger();
+    final Hash codeHash = Hash.hash(CODE);
+
+    final Code first =
+        codeCache.getOrCreate(
+            codeHash,
+            () -> {
+              loads.incrementAndGet();
+              return CODE;
+            });
+    final Code second =
+        codeCache.getOrCreate(
+            codeHash,
+            () -> {
+              loads.incrementAndGet();
+              return CODE;
+            });
+
+    assertThat(second).isSameAs(first);
+    assertThat(second.getBytes()).isEqualTo(CODE);
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  public void shouldNotLoadEmptyCode() {
+    final Code code =
+        codeCache.getOrCreate(
+            Hash.EMPTY,
+            () -> {
+              throw new IllegalStateException("Empty code should not be loaded");
+            });
+
+    assertThat(code.getSize()).isZero();
+  }
+
+  @Test
+  public void shouldIgnoreJumpDestinationsInPushData() {
+    final Code code = codeCache.getOrCreate(Hash.hash(CODE), () -> CODE);
+
+    assertThat(code.isValidJumpDestination(UInt256.valueOf(1))).isFalse();
+    assertThat(code.isValidJumpDestination(UInt256.valueOf(2))).isTrue();
+    assertThat(code.isValidJumpDestination(UInt256.valueOf(5))).isFalse();
+    assertThat(code.isValidJumpSubDestination(UInt256.valueOf(4))).isFalse();
+    assertThat(code.isValidJumpSubDestination(UInt256.valueOf(6))).isTrue();
+    assertThat(code.isValidJumpDestination(UInt256.valueOf(7))).isFalse();
+  }
+}
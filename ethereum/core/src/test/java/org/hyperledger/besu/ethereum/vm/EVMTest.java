@@ -19,10 +19,25 @@ import static org.mockito.ArgumentMatchers.anyByte;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
+import org.hyperledger.besu.ethereum.core.ExecutionContextTestFixture;
+import org.hyperledger.besu.ethereum.core.Gas;
+import org.hyperledger.besu.ethereum.core.MessageFrameTestFixture;
 import org.hyperledger.besu.ethereum.mainnet.FrontierGasCalculator;
+import org.hyperledger.besu.ethereum.vm.operations.AddOperation;
+import org.hyperledger.besu.ethereum.vm.operations.DupOperation;
+import org.hyperledger.besu.ethereum.vm.operations.GasOperation;
+import org.hyperledger.besu.ethereum.vm.operations.JumpDestOperation;
+import org.hyperledger.besu.ethereum.vm.operations.JumpiOperation;
+import org.hyperledger.besu.ethereum.vm.operations.PushOperation;
 import org.hyperledger.besu.ethereum.vm.operations.StopOperation;
+import org.hyperledger.besu.ethereum.vm.operations.SubOperation;
+import org.hyperledger.besu.ethereum.vm.operations.SwapOperation;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -61,4 +76,80 @@ public class EVMTest {
     assertThat(operation).isNotNull();
     assertThat(operation.isVirtualOperation()).isFalse();
   }
+
+  @Test
+  public void decodedExecutionMatchesTracedExecution() {
+    // Counts down from 5 in a loop, accumulating one word per iteration, then reads the remaining
+    // gas and ends with a PUSH2 truncated by the end of the code.
+    final Code code =
+        new Code(Bytes.fromHexString("0x6005" + "5b80600a01906001900380600257" + "5a61ff"));
+    final EVM decodingEvm = new EVM(arithmeticOperations(), gasCalculator);
+    final ExecutionContextTestFixture context = ExecutionContextTestFixture.create();
+    final OperationTracer passThroughTracer =
+        (frame, executeOperation) -> executeOperation.execute();
+
+    for (long gas = 0; gas <= 300; gas++) {
+      final MessageFrame decoded = executingFrame(context, code, gas);
+      final MessageFrame traced = executingFrame(context, code, gas);
+
+      decodingEvm.runToHalt(decoded, OperationTracer.NO_TRACING);
+      decodingEvm.runToHalt(traced, passThroughTracer);
+
+      assertThat(decoded.getState()).isEqualTo(traced.getState());
+      assertThat(decoded.getExceptionalHaltReason()).isEqualTo(traced.getExceptionalHaltReason());
+      assertThat(decoded.getPC()).isEqualTo(traced.getPC());
+      assertThat(stackItems(decoded)).isEqualTo(stackItems(traced));
+      if (traced.getState() == MessageFrame.State.CODE_SUCCESS) {
+        assertThat(decoded.getRemainingGas()).isEqualTo(traced.getRemainingGas());
+      }
+    }
+  }
+
+  @Test
+  public void decodedCodeIsReusedForTheSameOperations() {
+    final Code code = new Code(Bytes.fromHexString("0x6001600201"));
+    final OperationRegistry registry = arithmeticOperations();
+
+    final DecodedCode decoded = code.decode(registry, 0);
+
+    assertThat(code.decode(registry, 0)).isSameAs(decoded);
+    assertThat(code.decode(arithmeticOperations(), 0)).isNotSameAs(decoded);
+    assertThat(decoded.blockGas).hasSize(1);
+    assertThat(decoded.immediates).containsExactly(0, 0, 0, 1, 0, 0, 0, 2);
+  }
+
+  private OperationRegistry arithmeticOperations() {
+    final OperationRegistry registry = new OperationRegistry();
+    registry.put(new StopOperation(gasCalculator), 0);
+    registry.put(new AddOperation(gasCalculator), 0);
+    registry.put(new SubOperation(gasCalculator), 0);
+    registry.put(new JumpiOperation(gasCalculator), 0);
+    registry.put(new GasOperation(gasCalculator), 0);
+    registry.put(new JumpDestOperation(gasCalculator), 0);
+    registry.put(new PushOperation(1, gasCalculator), 0);
+    registry.put(new PushOperation(2, gasCalculator), 0);
+    registry.put(new DupOperation(1, gasCalculator), 0);
+    registry.put(new SwapOperation(1, gasCalculator), 0);
+    return registry;
+  }
+
+  private static MessageFrame executingFrame(
+      final ExecutionContextTestFixture context, final Code code, final long gas) {
+    final MessageFrame frame =
+        new MessageFrameTestFixture()
+            .executionContextTestFixture(context)
+            .code(code)
+            .initialGas(Gas.of(gas))
+            .build();
+    frame.setState(MessageFrame.State.CODE_EXECUTING);
+    return frame;
+  }
+
+  private static List<Bytes32> stackItems(final MessageFrame frame) {
+    final List<Bytes32> items = new ArrayList<>();
+    for (int i = 0; i < frame.stackSize(); i++) {
+      items.add(frame.getStackItem(i));
+    }
+    return items;
+  }
 }
@@ -16,6 +16,9 @@ package org.hyperledger.besu.ethereum.vm;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.google.common.base.Strings;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
@@ -147,6 +150,24 @@ public class MemoryTest {
     assertThat(memory.getWord(UInt256.valueOf(64))).isEqualTo(Bytes32.ZERO);
   }
 
+  @Test
+  public void shouldReportWordsChangedSinceSnapshot() {
+    memory.setWord(UInt256.ZERO, WORD1);
+    memory.setWord(UInt256.valueOf(64), WORD3);
+    final List<Integer> changedWords = new ArrayList<>();
+    byte[] snapshot = memory.updateSnapshot(new byte[0], changedWords::add);
+    assertThat(changedWords).containsExactly(0, 2);
+    assertThat(Bytes.wrap(snapshot)).isEqualTo(Bytes.concatenate(WORD1, Bytes32.ZERO, WORD3));
+
+    changedWords.clear();
+    memory.setWord(UInt256.valueOf(32), WORD2);
+    memory.setWord(UInt256.valueOf(128), Bytes32.ZERO);
+    snapshot = memory.updateSnapshot(snapshot, changedWords::add);
+    assertThat(changedWords).containsExactly(1);
+    assertThat(snapshot).hasSize(160);
+    assertThat(memory.getWord(UInt256.valueOf(32))).isEqualTo(Bytes32.wrap(snapshot, 32));
+  }
+
   private static Bytes32 fillBytes32(final long value) {
     return Bytes32.fromHexString(Strings.repeat(Long.toString(value), 64));
   }
@@ -19,6 +19,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import org.hyperledger.besu.ethereum.vm.FixedStack.OverflowException;
 import org.hyperledger.besu.ethereum.vm.FixedStack.UnderflowException;
 
+import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import org.junit.Test;
 
@@ -106,4 +107,45 @@ public class OperandStackTest {
     assertThat(stack.get(1)).isEqualTo(Bytes32.fromHexString("0x02"));
     assertThat(stack.get(2)).isEqualTo(Bytes32.fromHexString("0x04"));
   }
+
+  @Test
+  public void dupAndSwap() {
+    final OperandStack stack = new OperandStack(4);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.push(Bytes32.fromHexString("0x02"));
+    stack.push(Bytes32.fromHexString("0x03"));
+    stack.dup(2);
+    assertThat(stack.size()).isEqualTo(4);
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString("0x01"));
+    stack.swap(1);
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString("0x03"));
+    assertThat(stack.get(1)).isEqualTo(Bytes32.fromHexString("0x01"));
+  }
+
+  @Test(expected = UnderflowException.class)
+  public void index_StackUnderflow() {
+    final OperandStack stack = new OperandStack(2);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.index(1);
+  }
+
+  @Test(expected = OverflowException.class)
+  public void dup_StackOverflow() {
+    final OperandStack stack = new OperandStack(1);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.dup(0);
+  }
+
+  @Test
+  public void growsUpToMaxSize() {
+    final OperandStack stack = new OperandStack(1024);
+    for (int i = 0; i < 1023; i++) {
+      stack.push(Bytes32.leftPad(Bytes.ofUnsignedInt(i)));
+    }
+    assertThat(stack.size()).isEqualTo(1023);
+    assertThat(stack.isFull()).isFalse();
+    for (int i = 1022; i >= 0; i--) {
+      assertThat(stack.pop()).isEqualTo(Bytes32.leftPad(Bytes.ofUnsignedInt(i)));
+    }
+  }
 }
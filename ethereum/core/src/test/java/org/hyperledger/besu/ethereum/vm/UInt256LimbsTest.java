@@ -0,0 +1,171 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.function.BinaryOperator;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class UInt256LimbsTest {
+
+  private static final BigInteger MODULUS = BigInteger.ONE.shiftLeft(256);
+  private static final BigInteger MAX = MODULUS.subtract(BigInteger.ONE);
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void arithmeticMatchesBigInteger() {
+    check(UInt256Limbs::add, BigInteger::add);
+    check(UInt256Limbs::sub, BigInteger::subtract);
+    check(UInt256Limbs::mul, BigInteger::multiply);
+    check(UInt256Limbs::div, (a, b) -> b.signum() == 0 ? BigInteger.ZERO : a.divide(b));
+    check(UInt256Limbs::mod, (a, b) -> b.signum() == 0 ? BigInteger.ZERO : a.mod(b));
+  }
+
+  @Test
+  public void comparisonsMatchBigInteger() {
+    check(UInt256Limbs::lt, (a, b) -> bool(a.compareTo(b) < 0));
+    check(UInt256Limbs::gt, (a, b) -> bool(a.compareTo(b) > 0));
+    check(UInt256Limbs::slt, (a, b) -> bool(signed(a).compareTo(signed(b)) < 0));
+    check(UInt256Limbs::sgt, (a, b) -> bool(signed(a).compareTo(signed(b)) > 0));
+    check(UInt256Limbs::eq, (a, b) -> bool(a.equals(b)));
+  }
+
+  @Test
+  public void bitwiseOperationsMatchBigInteger() {
+    check(UInt256Limbs::and, BigInteger::and);
+    check(UInt256Limbs::or, BigInteger::or);
+    check(UInt256Limbs::xor, BigInteger::xor);
+    check(
+        UInt256Limbs::byteAt,
+        (index, value) ->
+            index.compareTo(BigInteger.valueOf(32)) >= 0
+                ? BigInteger.ZERO
+                : value.shiftRight(8 * (31 - index.intValue())).and(BigInteger.valueOf(0xFF)));
+  }
+
+  @Test
+  public void shiftsMatchBigInteger() {
+    check(
+        UInt256Limbs::shl,
+        (shift, value) -> fitsShift(shift) ? value.shiftLeft(shift.intValue()) : BigInteger.ZERO);
+    check(
+        UInt256Limbs::shr,
+        (shift, value) -> fitsShift(shift) ? value.shiftRight(shift.intValue()) : BigInteger.ZERO);
+    check(
+        UInt256Limbs::sar,
+        (shift, value) -> signed(value).shiftRight(fitsShift(shift) ? shift.intValue() : 256));
+    check(
+        UInt256Limbs::signExtend,
+        (index, value) -> {
+          if (index.compareTo(BigInteger.valueOf(31)) >= 0) {
+            return value;
+          }
+          final int bits = 8 * index.intValue() + 8;
+          final BigInteger low = value.and(BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE));
+          return value.testBit(bits - 1) ? low.subtract(BigInteger.ONE.shiftLeft(bits)) : low;
+        });
+  }
+
+  @Test
+  public void unaryOperations() {
+    for (int i = 0; i < 1000; i++) {
+      final BigInteger value = randomWord();
+      final long[] limbs = limbsOf(value);
+      UInt256Limbs.not(limbs, 0);
+      assertThat(UInt256Limbs.toBigInteger(limbs, 0)).isEqualTo(MAX.xor(value));
+      UInt256Limbs.isZero(limbs, 0);
+      assertThat(UInt256Limbs.toBigInteger(limbs, 0)).isEqualTo(bool(MAX.equals(value)));
+    }
+  }
+
+  @Test
+  public void operandsAreReadFromTheStack() {
+    final OperandStack stack = new OperandStack(3);
+    stack.push(Bytes32.fromHexString("0x05"));
+    stack.push(Bytes32.fromHexString("0x03"));
+    UInt256Limbs.sub(stack.limbs(), stack.index(0), stack.index(1));
+    stack.drop(1);
+    assertThat(stack.size()).isEqualTo(1);
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString("0x" + "ff".repeat(31) + "fe"));
+  }
+
+  private void check(final LimbOperation operation, final BinaryOperator<BigInteger> expected) {
+    for (int i = 0; i < 5000; i++) {
+      final BigInteger a = i % 4 == 0 ? BigInteger.valueOf(random.nextInt(300)) : randomWord();
+      final BigInteger b = randomWord();
+      final long[] limbs = new long[2 * UInt256Limbs.LIMBS];
+      System.arraycopy(limbsOf(a), 0, limbs, 0, UInt256Limbs.LIMBS);
+      System.arraycopy(limbsOf(b), 0, limbs, UInt256Limbs.LIMBS, UInt256Limbs.LIMBS);
+
+      operation.apply(limbs, 0, UInt256Limbs.LIMBS);
+
+      assertThat(UInt256Limbs.toBigInteger(limbs, UInt256Limbs.LIMBS))
+          .describedAs("a=%s b=%s", a.toString(16), b.toString(16))
+          .isEqualTo(expected.apply(a, b).mod(MODULUS));
+      assertThat(UInt256Limbs.toBigInteger(limbs, 0)).isEqualTo(a);
+    }
+  }
+
+  // Mixes the edge cases of the operations with uniformly random words.
+  private BigInteger randomWord() {
+    switch (random.nextInt(7)) {
+      case 0:
+        return BigInteger.valueOf(random.nextInt(300));
+      case 1:
+        return BigInteger.ONE.shiftLeft(random.nextInt(256));
+      case 2:
+        return new BigInteger(64, random);
+      case 3:
+        return new BigInteger(32, random);
+      case 4:
+        return MAX.subtract(BigInteger.valueOf(random.nextInt(4)));
+      case 5:
+        return new BigInteger(random.nextInt(256) + 1, random);
+      default:
+        return new BigInteger(256, random);
+    }
+  }
+
+  private static long[] limbsOf(final BigInteger value) {
+    final long[] limbs = new long[UInt256Limbs.LIMBS];
+    for (int i = 0; i < UInt256Limbs.LIMBS; i++) {
+      limbs[UInt256Limbs.LIMBS - 1 - i] = value.shiftRight(64 * i).longValue();
+    }
+    return limbs;
+  }
+
+  private static BigInteger signed(final BigInteger value) {
+    return value.testBit(255) ? value.subtract(MODULUS) : value;
+  }
+
+  private static BigInteger bool(final boolean value) {
+    return value ? BigInteger.ONE : BigInteger.ZERO;
+  }
+
+  private static boolean fitsShift(final BigInteger shift) {
+    return shift.compareTo(BigInteger.valueOf(256)) < 0;
+  }
+
+  @FunctionalInterface
+  private interface LimbOperation {
+    void apply(long[] limbs, int a, int b);
+  }
+}
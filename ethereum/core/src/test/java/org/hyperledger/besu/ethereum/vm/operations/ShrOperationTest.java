@@ -14,14 +14,15 @@
  */
 package org.hyperledger.besu.ethereum.vm.operations;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.hyperledger.besu.ethereum.core.Gas;
 import org.hyperledger.besu.ethereum.mainnet.SpuriousDragonGasCalculator;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
+import org.hyperledger.besu.ethereum.vm.OperandStack;
 
 import java.util.Arrays;
 
@@ -126,12 +127,13 @@ public class ShrOperationTest {
   @Test
   public void shiftOperation() {
     final MessageFrame frame = mock(MessageFrame.class);
-    when(frame.stackSize()).thenReturn(2);
+    final OperandStack stack = new OperandStack(2);
+    stack.push(Bytes32.fromHexString(number));
+    stack.push(Bytes32.fromHexStringLenient(shift));
+    when(frame.getOperandStack()).thenReturn(stack);
     when(frame.getRemainingGas()).thenReturn(Gas.of(100));
-    when(frame.popStackItem())
-        .thenReturn(Bytes32.fromHexStringLenient(shift))
-        .thenReturn(Bytes32.fromHexString(number));
     operation.execute(frame, null);
-    verify(frame).pushStackItem(Bytes32.fromHexString(expectedResult));
+    assertThat(stack.size()).isEqualTo(1);
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString(expectedResult));
   }
 }
@@ -16,6 +16,11 @@ package org.hyperledger.besu.ethereum.worldstate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hyperledger.besu.ethereum.core.InMemoryStorageProvider.createInMemoryWorldState;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
 import org.hyperledger.besu.ethereum.core.Account;
 import org.hyperledger.besu.ethereum.core.AccountStorageEntry;
@@ -677,4 +682,120 @@ public class DefaultMutableWorldStateTest {
     worldState.persist();
     assertThat(worldState.get(ADDRESS).storageEntriesFrom(Hash.ZERO, 10)).isEqualTo(finalEntries);
   }
+
+  @Test
+  public void manyStorageTriesCommittedTogetherMatchIndividualCommits() {
+    final MutableWorldState together = createEmpty();
+    final MutableWorldState individually = createEmpty();
+
+    final WorldUpdater togetherUpdater = together.updater();
+    for (int i = 1; i <= 20; i++) {
+      final Address address = Address.fromHexString(String.format("0x%040x", i));
+      final MutableAccount account = togetherUpdater.createAccount(address).getMutable();
+      account.setStorageValue(UInt256.ONE, UInt256.valueOf(i));
+      account.setStorageValue(UInt256.valueOf(i), UInt256.ONE);
+
+      final WorldUpdater individualUpdater = individually.updater();
+      final MutableAccount individualAccount =
+          individualUpdater.createAccount(address).getMutable();
+      individualAccount.setStorageValue(UInt256.ONE, UInt256.valueOf(i));
+      individualAccount.setStorageValue(UInt256.valueOf(i), UInt256.ONE);
+      individualUpdater.commit();
+    }
+    togetherUpdater.commit();
+
+    assertThat(together.rootHash()).isEqualTo(individually.rootHash());
+    together.persist();
+    individually.persist();
+    assertThat(together.rootHash()).isEqualTo(individually.rootHash());
+    final Address last = Address.fromHexString(String.format("0x%040x", 20));
+    assertThat(together.get(last).getStorageValue(UInt256.valueOf(20))).isEqualTo(UInt256.ONE);
+  }
+
+  @Test
+  public void repeatedReadsAreServedFromCache() {
+    final KeyValueStorage storage = new InMemoryKeyValueStorage();
+    final MutableWorldState setup = createEmpty(new WorldStateKeyValueStorage(storage));
+    final WorldUpdater setupUpdater = setup.updater();
+    final MutableAccount setupAccount = setupUpdater.createAccount(ADDRESS).getMutable();
+    setupAccount.setBalance(Wei.of(100000));
+    setupAccount.setStorageValue(UInt256.ONE, UInt256.valueOf(2));
+    setupUpdater.commit();
+    setup.persist();
+
+    final WorldStateKeyValueStorage worldStateStorage =
+        spy(new WorldStateKeyValueStorage(storage));
+    final MutableWorldState worldState =
+        new DefaultMutableWorldState(
+            setup.rootHash(),
+            worldStateStorage,
+            new WorldStatePreimageKeyValueStorage(new InMemoryKeyValueStorage()));
+    assertThat(worldState.get(ADDRESS).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.valueOf(2));
+    assertThat(worldState.get(ADDRESS).getStorageValue(UInt256.valueOf(3))).isEqualTo(UInt256.ZERO);
+    assertThat(worldState.get(Address.ZERO)).isNull();
+    clearInvocations(worldStateStorage);
+
+    assertThat(worldState.get(ADDRESS).getBalance()).isEqualTo(Wei.of(100000));
+    assertThat(worldState.get(ADDRESS).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.valueOf(2));
+    assertThat(worldState.get(ADDRESS).getStorageValue(UInt256.valueOf(3))).isEqualTo(UInt256.ZERO);
+    assertThat(worldState.get(Address.ZERO)).isNull();
+    assertThat(worldState.copy().get(ADDRESS).getStorageValue(UInt256.ONE))
+        .isEqualTo(UInt256.valueOf(2));
+    verify(worldStateStorage, never()).getAccountStateTrieNode(any());
+    verify(worldStateStorage, never()).getAccountStorageTrieNode(any());
+  }
+
+  @Test
+  public void cachedValuesFollowCommittedChanges() {
+    final MutableWorldState worldState = createEmpty();
+    final WorldUpdater setupUpdater = worldState.updater();
+    setupUpdater.createAccount(ADDRESS).getMutable().setStorageValue(UInt256.ONE, UInt256.ONE);
+    setupUpdater.commit();
+    assertThat(worldState.get(ADDRESS).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.ONE);
+    assertThat(worldState.get(ADDRESS).getBalance()).isEqualTo(Wei.ZERO);
+
+    final WorldUpdater updater = worldState.updater();
+    final MutableAccount account = updater.getAccount(ADDRESS).getMutable();
+    account.setBalance(Wei.of(5));
+    account.setStorageValue(UInt256.ONE, UInt256.valueOf(2));
+    updater.commit();
+    assertThat(worldState.get(ADDRESS).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.valueOf(2));
+    assertThat(worldState.get(ADDRESS).getBalance()).isEqualTo(Wei.of(5));
+
+    final WorldUpdater deleteUpdater = worldState.updater();
+    deleteUpdater.deleteAccount(ADDRESS);
+    deleteUpdater.commit();
+    assertThat(worldState.get(ADDRESS)).isNull();
+
+    final WorldUpdater recreateUpdater = worldState.updater();
+    recreateUpdater.createAccount(ADDRESS);
+    recreateUpdater.commit();
+    assertThat(worldState.get(ADDRESS).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.ZERO);
+    worldState.persist();
+    assertThat(worldState.get(ADDRESS).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.ZERO);
+  }
+
+  @Test
+  public void copiesDoNotSeeLaterCommits() {
+    final MutableWorldState worldState = createEmpty();
+    final WorldUpdater setupUpdater = worldState.updater();
+    setupUpdater.createAccount(ADDRESS).getMutable().setStorageValue(UInt256.ONE, UInt256.ONE);
+    setupUpdater.commit();
+    worldState.persist();
+    assertThat(worldState.get(ADDRESS).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.ONE);
+
+    final MutableWorldState copy = worldState.copy();
+    final WorldUpdater updater = worldState.updater();
+    updater.getAccount(ADDRESS).getMutable().setStorageValue(UInt256.ONE, UInt256.valueOf(2));
+    updater.commit();
+
+    assertThat(worldState.get(ADDRESS).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.valueOf(2));
+    assertThat(copy.get(ADDRESS).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.ONE);
+
+    final WorldUpdater copyUpdater = copy.updater();
+    copyUpdater.getAccount(ADDRESS).getMutable().setStorageValue(UInt256.ONE, UInt256.valueOf(3));
+    copyUpdater.commit();
+    assertThat(copy.get(ADDRESS).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.valueOf(3));
+    assertThat(worldState.get(ADDRESS).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.valueOf(2));
+  }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableAccount;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldState;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStatePreimageKeyValueStorage;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.After;
+import org.junit.Test;
+
+public class PipelinedWorldStateStorageTest {
+
+  private static final Address ADDRESS =
+      Address.fromHexString("0xa94f5374fce5edbc8e2a8697c15331677e6ebf0b");
+  private static final Hash NODE_HASH = Hash.hash(Bytes.of(1));
+
+  private final WorldStatePreimageStorage preimageStorage =
+      new WorldStatePreimageKeyValueStorage(new InMemoryKeyValueStorage());
+  private final ExecutorService writer = Executors.newSingleThreadExecutor();
+
+  @After
+  public void tearDown() {
+    writer.shutdownNow();
+  }
+
+  @Test
+  public void persistedStateIsReadableBeforeItIsWritten() throws Exception {
+    final WorldStateKeyValueStorage storage =
+        new WorldStateKeyValueStorage(new InMemoryKeyValueStorage());
+    final PipelinedWorldStateStorage pipelinedStorage =
+        new PipelinedWorldStateStorage(storage, 2, writer);
+    final CountDownLatch writerBlocked = new CountDownLatch(1);
+    writer.execute(
+        () -> {
+          try {
+            writerBlocked.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+
+    final MutableWorldState worldState =
+        new DefaultMutableWorldState(pipelinedStorage, preimageStorage);
+    final WorldUpdater updater = worldState.updater();
+    final MutableAccount account = updater.createAccount(ADDRESS).getMutable();
+    account.setBalance(Wei.of(100));
+    account.setStorageValue(UInt256.ONE, UInt256.valueOf(2));
+    updater.commit();
+    worldState.persist();
+    final Hash rootHash = worldState.rootHash();
+
+    assertThat(storage.isWorldStateAvailable(rootHash)).isFalse();
+    assertThat(pipelinedStorage.isWorldStateAvailable(rootHash)).isTrue();
+    final WorldState pendingState =
+        new DefaultMutableWorldState(rootHash, pipelinedStorage, preimageStorage);
+    assertThat(pendingState.get(ADDRESS).getBalance()).isEqualTo(Wei.of(100));
+    assertThat(pendingState.get(ADDRESS).getStorageValue(UInt256.ONE))
+        .isEqualTo(UInt256.valueOf(2));
+
+    writerBlocked.countDown();
+    pipelinedStorage.flush();
+
+    assertThat(storage.isWorldStateAvailable(rootHash)).isTrue();
+    final WorldState writtenState =
+        new DefaultMutableWorldState(rootHash, storage, preimageStorage);
+    assertThat(writtenState.get(ADDRESS).getStorageValue(UInt256.ONE))
+        .isEqualTo(UInt256.valueOf(2));
+  }
+
+  @Test
+  public void writtenBatchesLeaveTheOverlay() {
+    final WorldStateStorage storage = mock(WorldStateStorage.class);
+    final WorldStateStorage.Updater storageUpdater = mock(WorldStateStorage.Updater.class);
+    when(storage.updater()).thenReturn(storageUpdater);
+    final PipelinedWorldStateStorage pipelinedStorage =
+        new PipelinedWorldStateStorage(storage, 2, MoreExecutors.newDirectExecutorService());
+
+    pipelinedStorage.updater().putAccountStateTrieNode(NODE_HASH, Bytes.of(1)).commit();
+
+    verify(storageUpdater).putAccountStateTrieNode(NODE_HASH, Bytes.of(1));
+    verify(storageUpdater).commit();
+    assertThat(pipelinedStorage.getAccountStateTrieNode(NODE_HASH)).isEmpty();
+  }
+
+  @Test
+  public void failedWriteIsReportedAndStopsFurtherWrites() {
+    final WorldStateStorage storage = mock(WorldStateStorage.class);
+    final WorldStateStorage.Updater storageUpdater = mock(WorldStateStorage.Updater.class);
+    when(storage.updater()).thenReturn(storageUpdater);
+    doThrow(new IllegalStateException("disk full")).when(storageUpdater).commit();
+    final PipelinedWorldStateStorage pipelinedStorage =
+        new PipelinedWorldStateStorage(storage, 2, MoreExecutors.newDirectExecutorService());
+
+    pipelinedStorage.updater().putAccountStateTrieNode(NODE_HASH, Bytes.of(1)).commit();
+
+    assertThat(pipelinedStorage.getAccountStateTrieNode(NODE_HASH)).contains(Bytes.of(1));
+    final WorldStateStorage.Updater next =
+        pipelinedStorage.updater().putAccountStorageTrieNode(Hash.EMPTY, Bytes.of(2));
+    assertThatThrownBy(next::commit).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(pipelinedStorage::flush).isInstanceOf(IllegalStateException.class);
+    verify(storageUpdater, never()).putAccountStorageTrieNode(Hash.EMPTY, Bytes.of(2));
+  }
+
+  @Test
+  public void chainHeadIsRewoundToTheNewestWrittenWorldState() {
+    final WorldStateStorage storage = mock(WorldStateStorage.class);
+    final MutableBlockchain blockchain = mockBlockchain(10);
+    when(storage.isWorldStateAvailable(stateRoot(blockchain, 10))).thenReturn(false);
+    when(storage.isWorldStateAvailable(stateRoot(blockchain, 9))).thenReturn(true);
+    final PipelinedWorldStateStorage pipelinedStorage =
+        new PipelinedWorldStateStorage(storage, 2, writer);
+
+    pipelinedStorage.rewindToWrittenWorldState(blockchain);
+
+    verify(blockchain).rewindToBlock(9);
+  }
+
+  @Test
+  public void chainHeadIsKeptWhenItsWorldStateWasWritten() {
+    final WorldStateStorage storage = mock(WorldStateStorage.class);
+    final MutableBlockchain blockchain = mockBlockchain(10);
+    when(storage.isWorldStateAvailable(stateRoot(blockchain, 10))).thenReturn(true);
+    final PipelinedWorldStateStorage pipelinedStorage =
+        new PipelinedWorldStateStorage(storage, 2, writer);
+
+    pipelinedStorage.rewindToWrittenWorldState(blockchain);
+
+    verify(blockchain, never()).rewindToBlock(anyLong());
+  }
+
+  @Test
+  public void chainHeadIsKeptWhenNoRecentBlockHasWorldState() {
+    // e.g. while fast sync is still downloading the world state
+    final WorldStateStorage storage = mock(WorldStateStorage.class);
+    final MutableBlockchain blockchain = mockBlockchain(10);
+    final PipelinedWorldStateStorage pipelinedStorage =
+        new PipelinedWorldStateStorage(storage, 2, writer);
+
+    pipelinedStorage.rewindToWrittenWorldState(blockchain);
+
+    verify(blockchain, never()).rewindToBlock(anyLong());
+  }
+
+  private MutableBlockchain mockBlockchain(final long chainHead) {
+    final BlockDataGenerator gen = new BlockDataGenerator();
+    final MutableBlockchain blockchain = mock(MutableBlockchain.class);
+    when(blockchain.getChainHeadBlockNumber()).thenReturn(chainHead);
+    for (long number = 0; number <= chainHead; number++) {
+      final BlockHeader header = gen.header(number);
+      when(blockchain.getBlockHeader(number)).thenReturn(Optional.of(header));
+    }
+    return blockchain;
+  }
+
+  private Hash stateRoot(final MutableBlockchain blockchain, final long blockNumber) {
+    return blockchain.getBlockHeader(blockNumber).orElseThrow().getStateRoot();
+  }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableAccount;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStatePreimageKeyValueStorage;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStateSnapshotKeyValueStorage;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.Test;
+
+public class WorldStateSnapshotTest {
+
+  private static final Address ADDRESS =
+      Address.fromHexString("0xa94f5374fce5edbc8e2a8697c15331677e6ebf0b");
+  private static final Address OTHER_ADDRESS =
+      Address.fromHexString("0x095e7baea6a6c7c4c2dfeb977efac326af552d87");
+
+  private static final Hash SLOT_ONE = Hash.hash(UInt256.ONE.toBytes());
+  private static final Hash SLOT_TWO = Hash.hash(UInt256.valueOf(2).toBytes());
+
+  private final InMemoryKeyValueStorage worldStateKeyValueStorage = new InMemoryKeyValueStorage();
+  private final WorldStateKeyValueStorage worldStateStorage =
+      new WorldStateKeyValueStorage(worldStateKeyValueStorage);
+  private final WorldStatePreimageKeyValueStorage preimageStorage =
+      new WorldStatePreimageKeyValueStorage(new InMemoryKeyValueStorage());
+  private final WorldStateSnapshot snapshot =
+      new WorldStateSnapshot(
+          new WorldStateSnapshotKeyValueStorage(new InMemoryKeyValueStorage()),
+          worldStateStorage,
+          new NoOpMetricsSystem());
+  private final WorldStateArchive archive =
+      new WorldStateArchive(worldStateStorage, preimageStorage, Optional.of(snapshot));
+
+  @Test
+  public void snapshotFollowsPersistedState() {
+    final MutableWorldState worldState = archive.getMutable();
+    setAccount(worldState, ADDRESS, 100, UInt256.ONE, UInt256.valueOf(42));
+    worldState.persist();
+
+    final Hash rootHash = worldState.rootHash();
+    assertThat(snapshot.getSnapshotRoot()).isEqualTo(rootHash);
+    assertThat(snapshot.getAccount(rootHash, Hash.hash(ADDRESS))).isNotEmpty();
+    assertThat(snapshot.getAccount(rootHash, Hash.hash(OTHER_ADDRESS))).contains(Bytes.EMPTY);
+    assertThat(
+            snapshot.getStorageValue(
+                rootHash, Hash.hash(ADDRESS), Hash.hash(UInt256.ONE.toBytes())))
+        .isNotEmpty();
+
+    final Account account = archive.get(rootHash).get().get(ADDRESS);
+    assertThat(account.getBalance()).isEqualTo(Wei.of(100));
+    assertThat(account.getStorageValue(UInt256.ONE)).isEqualTo(UInt256.valueOf(42));
+  }
+
+  @Test
+  public void snapshotOnlyServesItsOwnRoot() {
+    final MutableWorldState worldState = archive.getMutable();
+    setAccount(worldState, ADDRESS, 100, UInt256.ONE, UInt256.valueOf(42));
+    worldState.persist();
+    final Hash firstRoot = worldState.rootHash();
+
+    setAccount(worldState, ADDRESS, 200, UInt256.ONE, UInt256.valueOf(43));
+    worldState.persist();
+
+    assertThat(snapshot.getAccount(firstRoot, Hash.hash(ADDRESS))).isEmpty();
+    final Account account = archive.get(firstRoot).get().get(ADDRESS);
+    assertThat(account.getBalance()).isEqualTo(Wei.of(100));
+    assertThat(account.getStorageValue(UInt256.ONE)).isEqualTo(UInt256.valueOf(42));
+  }
+
+  @Test
+  public void pendingChangesAreNotReadFromSnapshot() {
+    final MutableWorldState worldState = archive.getMutable();
+    setAccount(worldState, ADDRESS, 100, UInt256.ONE, UInt256.valueOf(42));
+    worldState.persist();
+
+    setAccount(worldState, ADDRESS, 200, UInt256.ONE, UInt256.valueOf(43));
+    assertThat(worldState.get(ADDRESS).getBalance()).isEqualTo(Wei.of(200));
+    assertThat(worldState.get(ADDRESS).getStorageValue(UInt256.ONE))
+        .isEqualTo(UInt256.valueOf(43));
+  }
+
+  @Test
+  public void movesAcrossForks() {
+    final MutableWorldState base = archive.getMutable();
+    setAccount(base, ADDRESS, 100, UInt256.ONE, UInt256.valueOf(42));
+    base.persist();
+    final Hash baseRoot = base.rootHash();
+
+    final MutableWorldState fork1 = archive.getMutable(baseRoot).get();
+    setAccount(fork1, OTHER_ADDRESS, 1, UInt256.ONE, UInt256.ONE);
+    fork1.persist();
+
+    final MutableWorldState fork2 = archive.getMutable(baseRoot).get();
+    final WorldUpdater updater = fork2.updater();
+    updater.deleteAccount(ADDRESS);
+    updater.commit();
+    fork2.persist();
+    assertThat(snapshot.getSnapshotRoot()).isEqualTo(fork1.rootHash());
+
+    assertThat(snapshot.moveTo(fork2.rootHash())).isTrue();
+    assertThat(snapshot.getAccount(fork2.rootHash(), Hash.hash(ADDRESS))).contains(Bytes.EMPTY);
+    assertThat(snapshot.getAccount(fork2.rootHash(), Hash.hash(OTHER_ADDRESS)))
+        .contains(Bytes.EMPTY);
+    assertThat(
+            snapshot.getStorageValue(
+                fork2.rootHash(), Hash.hash(ADDRESS), Hash.hash(UInt256.ONE.toBytes())))
+        .contains(Bytes.EMPTY);
+
+    assertThat(snapshot.moveTo(fork1.rootHash())).isTrue();
+    assertThat(archive.get(fork1.rootHash()).get().get(ADDRESS).getStorageValue(UInt256.ONE))
+        .isEqualTo(UInt256.valueOf(42));
+    assertThat(archive.get(fork1.rootHash()).get().get(OTHER_ADDRESS).getBalance())
+        .isEqualTo(Wei.of(1));
+  }
+
+  @Test
+  public void generatesSnapshotFromTrie() {
+    final MutableWorldState worldState =
+        new DefaultMutableWorldState(worldStateStorage, preimageStorage);
+    setAccount(worldState, ADDRESS, 100, UInt256.ONE, UInt256.valueOf(42));
+    setAccount(worldState, OTHER_ADDRESS, 5, UInt256.valueOf(7), UInt256.valueOf(8));
+    worldState.persist();
+    final Hash rootHash = worldState.rootHash();
+
+    snapshot.reset(rootHash);
+    assertThat(snapshot.isGenerating()).isTrue();
+    assertThat(snapshot.getAccount(rootHash, Hash.hash(ADDRESS))).isEmpty();
+
+    final WorldStateSnapshotGenerator generator =
+        new WorldStateSnapshotGenerator(
+            snapshot, worldStateStorage, mock(Blockchain.class), mock(ExecutorService.class));
+    generator.generateAccounts();
+
+    assertThat(snapshot.isGenerating()).isFalse();
+    final Account account = archive.get(rootHash).get().get(OTHER_ADDRESS);
+    assertThat(account.getBalance()).isEqualTo(Wei.of(5));
+    assertThat(account.getStorageValue(UInt256.valueOf(7))).isEqualTo(UInt256.valueOf(8));
+    assertThat(
+            snapshot.getStorageValue(
+                rootHash, Hash.hash(ADDRESS), Hash.hash(UInt256.ONE.toBytes())))
+        .isNotEmpty();
+  }
+
+  @Test
+  public void clearingStorageDoesNotReadPreviousStorage() {
+    final MutableWorldState worldState = archive.getMutable();
+    setAccount(worldState, ADDRESS, 100, UInt256.ONE, UInt256.valueOf(42));
+    worldState.persist();
+    final Hash storageRoot =
+        StateTrieAccountValue.readFrom(
+                RLP.input(snapshot.getAccount(worldState.rootHash(), Hash.hash(ADDRESS)).get()))
+            .getStorageRoot();
+    worldStateKeyValueStorage.tryDelete(storageRoot.toArrayUnsafe());
+
+    final WorldUpdater updater = worldState.updater();
+    updater.deleteAccount(ADDRESS);
+    updater.commit();
+    worldState.persist();
+
+    final Hash rootHash = worldState.rootHash();
+    assertThat(snapshot.getSnapshotRoot()).isEqualTo(rootHash);
+    assertThat(snapshot.getAccount(rootHash, Hash.hash(ADDRESS))).contains(Bytes.EMPTY);
+    assertThat(snapshot.getStorageValue(rootHash, Hash.hash(ADDRESS), SLOT_ONE))
+        .contains(Bytes.EMPTY);
+  }
+
+  @Test
+  public void movesAcrossClearedStorage() {
+    final MutableWorldState worldState = archive.getMutable();
+    setAccount(worldState, ADDRESS, 100, UInt256.ONE, UInt256.valueOf(42));
+    worldState.persist();
+    final Hash baseRoot = worldState.rootHash();
+
+    final WorldUpdater updater = worldState.updater();
+    updater.deleteAccount(ADDRESS);
+    updater.commit();
+    setAccount(worldState, ADDRESS, 1, UInt256.valueOf(2), UInt256.valueOf(7));
+    worldState.persist();
+    final Hash clearedRoot = worldState.rootHash();
+    assertStorage(clearedRoot, UInt256.ZERO, UInt256.valueOf(7));
+
+    assertThat(snapshot.moveTo(baseRoot)).isTrue();
+    assertStorage(baseRoot, UInt256.valueOf(42), UInt256.ZERO);
+
+    assertThat(snapshot.moveTo(clearedRoot)).isTrue();
+    assertStorage(clearedRoot, UInt256.ZERO, UInt256.valueOf(7));
+    assertThat(archive.get(clearedRoot).get().get(ADDRESS).getStorageValue(UInt256.ONE))
+        .isEqualTo(UInt256.ZERO);
+  }
+
+  @Test
+  public void doesNotRollBackStorageClearedBeforeAccountWasGenerated() {
+    final MutableWorldState worldState = archive.getMutable();
+    setAccount(worldState, ADDRESS, 100, UInt256.ONE, UInt256.valueOf(42));
+    worldState.persist();
+    final Hash baseRoot = worldState.rootHash();
+    snapshot.reset(baseRoot);
+
+    final WorldUpdater updater = worldState.updater();
+    updater.deleteAccount(ADDRESS);
+    updater.commit();
+    setAccount(worldState, ADDRESS, 1, UInt256.valueOf(2), UInt256.valueOf(7));
+    worldState.persist();
+    final Hash clearedRoot = worldState.rootHash();
+    assertThat(snapshot.getSnapshotRoot()).isEqualTo(clearedRoot);
+
+    new WorldStateSnapshotGenerator(
+            snapshot, worldStateStorage, mock(Blockchain.class), mock(ExecutorService.class))
+        .generateAccounts();
+    assertStorage(clearedRoot, UInt256.ZERO, UInt256.valueOf(7));
+
+    assertThat(snapshot.moveTo(baseRoot)).isFalse();
+    assertThat(snapshot.getSnapshotRoot()).isEqualTo(clearedRoot);
+    assertStorage(clearedRoot, UInt256.ZERO, UInt256.valueOf(7));
+  }
+
+  private void assertStorage(
+      final Hash rootHash, final UInt256 slotOneValue, final UInt256 slotTwoValue) {
+    assertThat(snapshot.getStorageValue(rootHash, Hash.hash(ADDRESS), SLOT_ONE))
+        .contains(encoded(slotOneValue));
+    assertThat(snapshot.getStorageValue(rootHash, Hash.hash(ADDRESS), SLOT_TWO))
+        .contains(encoded(slotTwoValue));
+  }
+
+  private static Bytes encoded(final UInt256 value) {
+    return value.isZero() ? Bytes.EMPTY : RLP.encode(out -> out.writeBytes(value.toMinimalBytes()));
+  }
+
+  private static void setAccount(
+      final MutableWorldState worldState,
+      final Address address,
+      final long balance,
+      final UInt256 key,
+      final UInt256 value) {
+    final WorldUpdater updater = worldState.updater();
+    final MutableAccount account = updater.getOrCreate(address).getMutable();
+    account.setBalance(Wei.of(balance));
+    account.setStorageValue(key, value);
+    updater.commit();
+  }
+}
@@ -28,6 +28,8 @@ public class EthProtocolConfiguration {
   public static final int DEFAULT_MAX_GET_NODE_DATA = 384;
   public static final int DEFAULT_MAX_GET_POOLED_TRANSACTIONS = 256;
   public static final boolean DEFAULT_ETH_65_ENABLED = false;
+  // Incoming messages are dispatched on the network threads unless a queue capacity is set.
+  public static final int DEFAULT_PEER_MESSAGE_QUEUE_CAPACITY = 0;
 
   private final int maxGetBlockHeaders;
   private final int maxGetBlockBodies;
@@ -35,6 +37,7 @@ public class EthProtocolConfiguration {
   private final int maxGetNodeData;
   private final int maxGetPooledTransactions;
   private final boolean eth65Enabled;
+  private final int peerMessageQueueCapacity;
 
   public EthProtocolConfiguration(
       final int maxGetBlockHeaders,
@@ -43,12 +46,31 @@ public class EthProtocolConfiguration {
       final int maxGetNodeData,
       final int maxGetPooledTransactions,
       final boolean eth65Enabled) {
+    this(
+        maxGetBlockHeaders,
+        maxGetBlockBodies,
+        maxGetReceipts,
+        maxGetNodeData,
+        maxGetPooledTransactions,
+        eth65Enabled,
+        DEFAULT_PEER_MESSAGE_QUEUE_CAPACITY);
+  }
+
+  public EthProtocolConfiguration(
+      final int maxGetBlockHeaders,
+      final int maxGetBlockBodies,
+      final int maxGetReceipts,
+      final int maxGetNodeData,
+      final int maxGetPooledTransactions,
+      final boolean eth65Enabled,
+      final int peerMessageQueueCapacity) {
     this.maxGetBlockHeaders = maxGetBlockHeaders;
     this.maxGetBlockBodies = maxGetBlockBodies;
     this.maxGetReceipts = maxGetReceipts;
     this.maxGetNodeData = maxGetNodeData;
     this.maxGetPooledTransactions = maxGetPooledTransactions;
     this.eth65Enabled = eth65Enabled;
+    this.peerMessageQueueCapacity = peerMessageQueueCapacity;
   }
 
   public static EthProtocolConfiguration defaultConfig() {
@@ -89,6 +111,16 @@ public class EthProtocolConfiguration {
     return eth65Enabled;
   }
 
+  /**
+   * The size in bytes of the incoming messages queued per peer and priority class before they are
+   * dispatched, or 0 to dispatch messages on the network threads as they arrive.
+   *
+   * @return the peer message queue capacity in bytes
+   */
+  public int getPeerMessageQueueCapacity() {
+    return peerMessageQueueCapacity;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -102,12 +134,18 @@ public class EthProtocolConfiguration {
         && maxGetBlockBodies == that.maxGetBlockBodies
         && maxGetReceipts == that.maxGetReceipts
         && maxGetNodeData == that.maxGetNodeData
-        && maxGetPooledTransactions == that.maxGetPooledTransactions;
+        && maxGetPooledTransactions == that.maxGetPooledTransactions
+        && peerMessageQueueCapacity == that.peerMessageQueueCapacity;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(maxGetBlockHeaders, maxGetBlockBodies, maxGetReceipts, maxGetNodeData);
+    return Objects.hash(
+        maxGetBlockHeaders,
+        maxGetBlockBodies,
+        maxGetReceipts,
+        maxGetNodeData,
+        peerMessageQueueCapacity);
   }
 
   @Override
@@ -118,6 +156,7 @@ public class EthProtocolConfiguration {
         .add("maxGetReceipts", maxGetReceipts)
         .add("maxGetNodeData", maxGetNodeData)
         .add("maxGetPooledTransactions", maxGetPooledTransactions)
+        .add("peerMessageQueueCapacity", peerMessageQueueCapacity)
         .toString();
   }
 
@@ -139,6 +178,9 @@ public class EthProtocolConfiguration {
 
     private boolean eth65Enabled = EthProtocolConfiguration.DEFAULT_ETH_65_ENABLED;
 
+    private int peerMessageQueueCapacity =
+        EthProtocolConfiguration.DEFAULT_PEER_MESSAGE_QUEUE_CAPACITY;
+
     public Builder maxGetBlockHeaders(final PositiveNumber maxGetBlockHeaders) {
       this.maxGetBlockHeaders = maxGetBlockHeaders;
       return this;
@@ -169,6 +211,11 @@ public class EthProtocolConfiguration {
       return this;
     }
 
+    public Builder peerMessageQueueCapacity(final int peerMessageQueueCapacity) {
+      this.peerMessageQueueCapacity = peerMessageQueueCapacity;
+      return this;
+    }
+
     public EthProtocolConfiguration build() {
       return new EthProtocolConfiguration(
           maxGetBlockHeaders.getValue(),
@@ -176,7 +223,8 @@ public class EthProtocolConfiguration {
           maxGetReceipts.getValue(),
           maxGetNodeData.getValue(),
           maxGetPooledTransactions.getValue(),
-          eth65Enabled);
+          eth65Enabled,
+          peerMessageQueueCapacity);
     }
   }
 }
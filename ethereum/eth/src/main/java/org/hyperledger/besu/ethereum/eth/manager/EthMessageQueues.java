@@ -0,0 +1,361 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager;
+
+import org.hyperledger.besu.ethereum.eth.messages.EthPV62;
+import org.hyperledger.besu.ethereum.eth.messages.EthPV63;
+import org.hyperledger.besu.ethereum.eth.messages.EthPV65;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Bounded per-peer queues between the network threads and the handlers of incoming Eth messages.
+ *
+ * <p>Each peer has a queue per {@link Priority} class, bounded by the total size in bytes of the
+ * messages it holds. Peers with queued messages are drained by a pool of workers, which serve first
+ * the peers whose next message has the highest priority, and always dispatch a peer's highest
+ * priority message first. Messages of the same class from a peer are dispatched in the order they
+ * were received. When a queue is full, the incoming message is dropped or the peer disconnected,
+ * depending on its class.
+ */
+public class EthMessageQueues {
+  private static final Logger LOG = LogManager.getLogger();
+
+  // Messages dispatched for a peer before other peers get a turn.
+  private static final int MAX_MESSAGES_PER_DRAIN = 16;
+
+  /** Message classes, in decreasing priority. */
+  public enum Priority {
+    BLOCKS(1, OverflowPolicy.DROP),
+    RESPONSES(1, OverflowPolicy.DISCONNECT),
+    REQUESTS(2, OverflowPolicy.DROP),
+    TRANSACTIONS(4, OverflowPolicy.DROP);
+
+    // The fraction of the queue capacity available to the class, as a divisor.
+    private final int capacityDivisor;
+    private final OverflowPolicy overflowPolicy;
+
+    Priority(final int capacityDivisor, final OverflowPolicy overflowPolicy) {
+      this.capacityDivisor = capacityDivisor;
+      this.overflowPolicy = overflowPolicy;
+    }
+
+    public static Priority of(final int code) {
+      switch (code) {
+        case EthPV62.NEW_BLOCK:
+        case EthPV62.NEW_BLOCK_HASHES:
+          return BLOCKS;
+        case EthPV62.BLOCK_HEADERS:
+        case EthPV62.BLOCK_BODIES:
+        case EthPV63.NODE_DATA:
+        case EthPV63.RECEIPTS:
+          return RESPONSES;
+        case EthPV62.TRANSACTIONS:
+        case EthPV65.NEW_POOLED_TRANSACTION_HASHES:
+        case EthPV65.POOLED_TRANSACTIONS:
+          return TRANSACTIONS;
+        default:
+          return REQUESTS;
+      }
+    }
+
+    private String metricName() {
+      return name().toLowerCase(Locale.US);
+    }
+  }
+
+  private enum OverflowPolicy {
+    // Block announcements are repeated by other peers, and request and transaction senders cope
+    // with unanswered messages.
+    DROP,
+    // Responses are only received for our own requests, so a peer overflowing them is sending far
+    // more than it was asked for.
+    DISCONNECT
+  }
+
+  private final EthMessages ethMessages;
+  private final EthPeers ethPeers;
+  private final long capacity;
+  private final ExecutorService executor;
+  private final Map<EthPeer, PeerMessageQueue> queues = new ConcurrentHashMap<>();
+  private final Map<Priority, AtomicInteger> queuedMessages = new EnumMap<>(Priority.class);
+  private final AtomicLong drainSequence = new AtomicLong();
+  private final LabelledMetric<Counter> overflowCounter;
+
+  /**
+   * Creates the queues.
+   *
+   * @param ethPeers the peers to dispatch messages to
+   * @param ethMessages the message handlers to dispatch messages to
+   * @param capacity the size in bytes of the messages queued per peer and class
+   * @param workerCount the number of workers dispatching messages
+   * @param metricsSystem the metrics system
+   */
+  public EthMessageQueues(
+      final EthPeers ethPeers,
+      final EthMessages ethMessages,
+      final long capacity,
+      final int workerCount,
+      final MetricsSystem metricsSystem) {
+    this(
+        ethPeers,
+        ethMessages,
+        capacity,
+        MonitoredExecutors.newFixedThreadPool(
+            EthMessageQueues.class.getSimpleName(),
+            workerCount,
+            new PriorityBlockingQueue<>(),
+            metricsSystem),
+        metricsSystem);
+  }
+
+  @VisibleForTesting
+  EthMessageQueues(
+      final EthPeers ethPeers,
+      final EthMessages ethMessages,
+      final long capacity,
+      final ExecutorService executor,
+      final MetricsSystem metricsSystem) {
+    this.ethPeers = ethPeers;
+    this.ethMessages = ethMessages;
+    this.capacity = capacity;
+    this.executor = executor;
+    for (final Priority priority : Priority.values()) {
+      final AtomicInteger depth = new AtomicInteger();
+      queuedMessages.put(priority, depth);
+      metricsSystem.createIntegerGauge(
+          BesuMetricCategory.PEERS,
+          "message_queue_" + priority.metricName() + "_current",
+          "Number of " + priority.metricName() + " messages queued for dispatch across peers",
+          depth::get);
+    }
+    this.overflowCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.PEERS,
+            "message_queue_overflows_total",
+            "Total number of messages received while their peer's queue was full, by class and"
+                + " whether the message was dropped or the peer disconnected",
+            "class",
+            "action");
+    ethPeers.subscribeDisconnect(this::remove);
+  }
+
+  /**
+   * Queues a message for dispatch to its peer and handlers.
+   *
+   * @param message the message received
+   */
+  public void enqueue(final EthMessage message) {
+    final EthPeer peer = message.getPeer();
+    if (peer.isDisconnected()) {
+      return;
+    }
+    final Priority priority = Priority.of(message.getData().getCode());
+    final PeerMessageQueue queue = queues.computeIfAbsent(peer, PeerMessageQueue::new);
+    if (!queue.offer(priority, message)) {
+      overflow(peer, priority);
+      return;
+    }
+    queue.scheduleDrain();
+  }
+
+  public int queuedMessages(final Priority priority) {
+    return queuedMessages.get(priority).get();
+  }
+
+  public void stop() {
+    executor.shutdownNow();
+  }
+
+  public void awaitStop() throws InterruptedException {
+    if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+      LOG.error("{} workers did not shutdown cleanly.", getClass().getSimpleName());
+    }
+  }
+
+  private void overflow(final EthPeer peer, final Priority priority) {
+    if (priority.overflowPolicy == OverflowPolicy.DISCONNECT) {
+      overflowCounter.labels(priority.metricName(), "disconnected").inc();
+      LOG.debug("Disconnecting peer whose {} message queue is full: {}", priority, peer);
+      peer.disconnect(DisconnectReason.USELESS_PEER);
+    } else {
+      overflowCounter.labels(priority.metricName(), "dropped").inc();
+      LOG.trace("Dropping message from peer whose {} message queue is full: {}", priority, peer);
+    }
+  }
+
+  private void remove(final EthPeer peer) {
+    final PeerMessageQueue queue = queues.remove(peer);
+    if (queue != null) {
+      queue.clear();
+    }
+  }
+
+  private void dispatch(final EthMessage message) {
+    try {
+      ethPeers.dispatchMessage(message.getPeer(), message);
+      ethMessages.dispatch(message);
+    } catch (final RuntimeException e) {
+      LOG.debug("Error while processing message from peer {}", message.getPeer(), e);
+    }
+  }
+
+  private class PeerMessageQueue {
+    private final EthPeer peer;
+    private final Map<Priority, Deque<EthMessage>> messages = new EnumMap<>(Priority.class);
+    private final Map<Priority, Long> sizes = new EnumMap<>(Priority.class);
+    private boolean draining;
+
+    private PeerMessageQueue(final EthPeer peer) {
+      this.peer = peer;
+      for (final Priority priority : Priority.values()) {
+        messages.put(priority, new ArrayDeque<>());
+        sizes.put(priority, 0L);
+      }
+    }
+
+    private synchronized boolean offer(final Priority priority, final EthMessage message) {
+      final Deque<EthMessage> queue = messages.get(priority);
+      final long size = sizes.get(priority) + message.getData().getSize();
+      // A message larger than the capacity is still accepted when nothing else is queued.
+      if (!queue.isEmpty() && size > capacity / priority.capacityDivisor) {
+        return false;
+      }
+      queue.add(message);
+      sizes.put(priority, size);
+      queuedMessages.get(priority).incrementAndGet();
+      return true;
+    }
+
+    private synchronized EthMessage poll() {
+      for (final Map.Entry<Priority, Deque<EthMessage>> entry : messages.entrySet()) {
+        final EthMessage message = entry.getValue().poll();
+        if (message != null) {
+          sizes.put(entry.getKey(), sizes.get(entry.getKey()) - message.getData().getSize());
+          queuedMessages.get(entry.getKey()).decrementAndGet();
+          return message;
+        }
+      }
+      return null;
+    }
+
+    private synchronized Priority nextPriority() {
+      for (final Map.Entry<Priority, Deque<EthMessage>> entry : messages.entrySet()) {
+        if (!entry.getValue().isEmpty()) {
+          return entry.getKey();
+        }
+      }
+      return null;
+    }
+
+    private synchronized void clear() {
+      messages.forEach(
+          (priority, queue) -> {
+            queuedMessages.get(priority).addAndGet(-queue.size());
+            queue.clear();
+            sizes.put(priority, 0L);
+          });
+    }
+
+    private void scheduleDrain() {
+      final Priority priority;
+      synchronized (this) {
+        if (draining) {
+          return;
+        }
+        priority = nextPriority();
+        if (priority == null) {
+          return;
+        }
+        draining = true;
+      }
+      try {
+        executor.execute(new Drain(this, priority, drainSequence.getAndIncrement()));
+      } catch (final RejectedExecutionException e) {
+        // Shutting down.
+        synchronized (this) {
+          draining = false;
+        }
+      }
+    }
+
+    private void drain() {
+      try {
+        for (int i = 0; i < MAX_MESSAGES_PER_DRAIN; i++) {
+          final EthMessage message = poll();
+          if (message == null) {
+            break;
+          }
+          if (peer.isDisconnected()) {
+            remove(peer);
+            break;
+          }
+          dispatch(message);
+        }
+      } finally {
+        synchronized (this) {
+          draining = false;
+        }
+      }
+      if (!peer.isDisconnected()) {
+        scheduleDrain();
+      }
+    }
+  }
+
+  /** Drains a peer's queue, ordered by the priority of its next message, then first come first. */
+  private static class Drain implements Runnable, Comparable<Drain> {
+    private final PeerMessageQueue queue;
+    private final Priority priority;
+    private final long sequence;
+
+    private Drain(final PeerMessageQueue queue, final Priority priority, final long sequence) {
+      this.queue = queue;
+      this.priority = priority;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public void run() {
+      queue.drain();
+    }
+
+    @Override
+    public int compareTo(final Drain other) {
+      final int byPriority = priority.compareTo(other.priority);
+      return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+    }
+  }
+}
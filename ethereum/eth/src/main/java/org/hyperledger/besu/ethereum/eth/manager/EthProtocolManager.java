@@ -42,6 +42,7 @@ import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 import java.math.BigInteger;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -67,6 +68,7 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
   private final Blockchain blockchain;
   private final BlockBroadcaster blockBroadcaster;
   private final List<PeerValidator> peerValidators;
+  private final Optional<EthMessageQueues> messageQueues;
 
   public EthProtocolManager(
       final Blockchain blockchain,
@@ -81,6 +83,36 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
       final boolean fastSyncEnabled,
       final EthScheduler scheduler,
       final ForkIdManager forkIdManager) {
+    this(
+        blockchain,
+        networkId,
+        worldStateArchive,
+        transactionPool,
+        ethereumWireProtocolConfiguration,
+        ethPeers,
+        ethMessages,
+        ethContext,
+        peerValidators,
+        fastSyncEnabled,
+        scheduler,
+        forkIdManager,
+        Optional.empty());
+  }
+
+  public EthProtocolManager(
+      final Blockchain blockchain,
+      final BigInteger networkId,
+      final WorldStateArchive worldStateArchive,
+      final TransactionPool transactionPool,
+      final EthProtocolConfiguration ethereumWireProtocolConfiguration,
+      final EthPeers ethPeers,
+      final EthMessages ethMessages,
+      final EthContext ethContext,
+      final List<PeerValidator> peerValidators,
+      final boolean fastSyncEnabled,
+      final EthScheduler scheduler,
+      final ForkIdManager forkIdManager,
+      final Optional<EthMessageQueues> messageQueues) {
     this.networkId = networkId;
     this.peerValidators = peerValidators;
     this.scheduler = scheduler;
@@ -94,6 +126,7 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
     this.ethPeers = ethPeers;
     this.ethMessages = ethMessages;
     this.ethContext = ethContext;
+    this.messageQueues = messageQueues;
 
     this.blockBroadcaster = new BlockBroadcaster(ethContext);
 
@@ -207,6 +240,7 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
   public void stop() {
     if (stopped.compareAndSet(false, true)) {
       LOG.info("Stopping {} Subprotocol.", getSupportedProtocol());
+      messageQueues.ifPresent(EthMessageQueues::stop);
       scheduler.stop();
       shutdown.countDown();
     } else {
@@ -217,6 +251,9 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
   @Override
   public void awaitStop() throws InterruptedException {
     shutdown.await();
+    if (messageQueues.isPresent()) {
+      messageQueues.get().awaitStop();
+    }
     scheduler.awaitStop();
     LOG.info("{} Subprotocol stopped.", getSupportedProtocol());
   }
@@ -257,8 +294,12 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
       peer.disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
       return;
     }
-    ethPeers.dispatchMessage(peer, ethMessage);
-    ethMessages.dispatch(ethMessage);
+    if (messageQueues.isPresent()) {
+      messageQueues.get().enqueue(ethMessage);
+    } else {
+      ethPeers.dispatchMessage(peer, ethMessage);
+      ethMessages.dispatch(ethMessage);
+    }
   }
 
   @Override
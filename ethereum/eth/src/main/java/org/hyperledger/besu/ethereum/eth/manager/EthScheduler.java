@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.eth.manager;
 
 import static org.hyperledger.besu.util.FutureUtils.propagateResult;
 
+import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.eth.manager.task.EthTask;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.services.pipeline.Pipeline;
@@ -23,17 +24,20 @@ import org.hyperledger.besu.util.ExceptionUtils;
 
 import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -47,6 +51,7 @@ public class EthScheduler {
   private final AtomicBoolean stopped = new AtomicBoolean(false);
   private final CountDownLatch shutdown = new CountDownLatch(1);
   private static final int TX_WORKER_CAPACITY = 1000000;
+  private static final int MIN_SENDERS_PER_WORKER = 16;
 
   protected final ExecutorService syncWorkerExecutor;
   protected final ScheduledExecutorService scheduler;
@@ -149,6 +154,43 @@ public class EthScheduler {
     return CompletableFuture.supplyAsync(computation, computationExecutor);
   }
 
+  /**
+   * Recovers and caches the sender of each transaction, spreading the signature recoveries across
+   * the computation executor. The calling thread takes part in the work and returns once every
+   * transaction has been claimed, so it never blocks waiting on a busy executor. Transactions whose
+   * sender can't be recovered are left for validation to reject.
+   *
+   * @param transactions the transactions to recover senders for
+   */
+  public void recoverTransactionSenders(final List<Transaction> transactions) {
+    final int helpers =
+        Math.min(
+                Runtime.getRuntime().availableProcessors(),
+                transactions.size() / MIN_SENDERS_PER_WORKER)
+            - 1;
+    final AtomicInteger nextIndex = new AtomicInteger();
+    final Runnable recoverSenders =
+        () -> {
+          for (int i = nextIndex.getAndIncrement();
+              i < transactions.size();
+              i = nextIndex.getAndIncrement()) {
+            try {
+              transactions.get(i).getSender();
+            } catch (final RuntimeException e) {
+              LOG.trace("Unable to recover sender of transaction", e);
+            }
+          }
+        };
+    try {
+      for (int i = 0; i < helpers; i++) {
+        computationExecutor.execute(recoverSenders);
+      }
+    } catch (final RejectedExecutionException e) {
+      // Shutting down, the calling thread finishes the remaining work on its own.
+    }
+    recoverSenders.run();
+  }
+
   public CompletableFuture<Void> scheduleFutureTask(
       final Runnable command, final Duration duration) {
     final CompletableFuture<Void> promise = new CompletableFuture<>();
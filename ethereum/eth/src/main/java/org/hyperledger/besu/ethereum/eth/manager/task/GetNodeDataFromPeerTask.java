@@ -91,12 +91,13 @@ public class GetNodeDataFromPeerTask extends AbstractPeerRequestTask<Map<Hash, B
 
   private Optional<Map<Hash, Bytes>> mapNodeDataByHash(final List<Bytes> nodeData) {
     final Map<Hash, Bytes> nodeDataByHash = new HashMap<>();
-    for (final Bytes data : nodeData) {
-      final Hash hash = Hash.hash(data);
+    final List<Hash> nodeDataHashes = Hash.hashAll(nodeData);
+    for (int i = 0; i < nodeData.size(); i++) {
+      final Hash hash = nodeDataHashes.get(i);
       if (!hashes.contains(hash)) {
         return Optional.empty();
       }
-      nodeDataByHash.put(hash, data);
+      nodeDataByHash.put(hash, nodeData.get(i));
     }
     return Optional.of(nodeDataByHash);
   }
@@ -288,6 +288,9 @@ public class BlockPropagationManager {
       return CompletableFuture.completedFuture(block);
     }
 
+    // Start loading the state the block reads while its header is validated.
+    protocolContext.getStatePrefetcher().ifPresent(prefetcher -> prefetcher.prefetch(block));
+
     final BlockHeader parent =
         protocolContext
             .getBlockchain()
@@ -315,6 +318,7 @@ public class BlockPropagationManager {
     if (blockHeaderValidator.validateHeader(
         block.getHeader(), parent, protocolContext, HeaderValidationMode.FULL)) {
       ethContext.getScheduler().scheduleSyncWorkerTask(() -> broadcastBlock(block, parent));
+      ethContext.getScheduler().recoverTransactionSenders(block.getBody().getTransactions());
       return runImportTask(block);
     } else {
       importingBlocks.remove(block.getHash());
@@ -15,11 +15,13 @@
 package org.hyperledger.besu.ethereum.eth.sync.fullsync;
 
 import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
 import org.hyperledger.besu.ethereum.eth.manager.EthPeer;
 import org.hyperledger.besu.ethereum.eth.sync.CheckpointHeaderFetcher;
 import org.hyperledger.besu.ethereum.eth.sync.CheckpointHeaderValidationStep;
+import org.hyperledger.besu.ethereum.eth.sync.CheckpointRange;
 import org.hyperledger.besu.ethereum.eth.sync.CheckpointRangeSource;
 import org.hyperledger.besu.ethereum.eth.sync.DownloadBodiesStep;
 import org.hyperledger.besu.ethereum.eth.sync.DownloadHeadersStep;
@@ -92,21 +94,28 @@ public class FullSyncDownloadPipelineFactory implements DownloadPipelineFactory
     final FullImportBlockStep importBlockStep =
         new FullImportBlockStep(protocolSchedule, protocolContext, ethContext);
 
-    return PipelineBuilder.createPipelineFrom(
-            "fetchCheckpoints",
-            checkpointRangeSource,
-            downloaderParallelism,
-            metricsSystem.createLabelledCounter(
-                BesuMetricCategory.SYNCHRONIZER,
-                "chain_download_pipeline_processed_total",
-                "Number of entries process by each chain download pipeline stage",
-                "step",
-                "action"))
-        .thenProcessAsyncOrdered("downloadHeaders", downloadHeadersStep, downloaderParallelism)
-        .thenFlatMap("validateHeadersJoin", validateHeadersJoinUpStep, singleHeaderBufferSize)
-        .inBatches(headerRequestSize)
-        .thenProcessAsyncOrdered("downloadBodies", downloadBodiesStep, downloaderParallelism)
-        .thenFlatMap("extractTxSignatures", extractTxSignaturesStep, singleHeaderBufferSize)
+    final PipelineBuilder<CheckpointRange, Block> blocks =
+        PipelineBuilder.createPipelineFrom(
+                "fetchCheckpoints",
+                checkpointRangeSource,
+                downloaderParallelism,
+                metricsSystem.createLabelledCounter(
+                    BesuMetricCategory.SYNCHRONIZER,
+                    "chain_download_pipeline_processed_total",
+                    "Number of entries process by each chain download pipeline stage",
+                    "step",
+                    "action"))
+            .thenProcessAsyncOrdered("downloadHeaders", downloadHeadersStep, downloaderParallelism)
+            .thenFlatMap("validateHeadersJoin", validateHeadersJoinUpStep, singleHeaderBufferSize)
+            .inBatches(headerRequestSize)
+            .thenProcessAsyncOrdered("downloadBodies", downloadBodiesStep, downloaderParallelism)
+            .thenFlatMap("extractTxSignatures", extractTxSignaturesStep, singleHeaderBufferSize);
+    // Blocks wait in the pipeline's buffers before they are imported, long enough to warm the
+    // state they read.
+    return protocolContext
+        .getStatePrefetcher()
+        .map(prefetcher -> blocks.thenProcess("prefetchState", new PrefetchStateStep(prefetcher)))
+        .orElse(blocks)
         .andFinishWith("importBlock", importBlockStep);
   }
 
@@ -0,0 +1,35 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.sync.fullsync;
+
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.mainnet.StatePrefetcher;
+
+import java.util.function.Function;
+
+public class PrefetchStateStep implements Function<Block, Block> {
+
+  private final StatePrefetcher statePrefetcher;
+
+  public PrefetchStateStep(final StatePrefetcher statePrefetcher) {
+    this.statePrefetcher = statePrefetcher;
+  }
+
+  @Override
+  public Block apply(final Block block) {
+    statePrefetcher.prefetch(block);
+    return block;
+  }
+}
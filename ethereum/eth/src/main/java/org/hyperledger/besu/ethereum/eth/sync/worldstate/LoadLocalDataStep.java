@@ -21,10 +21,14 @@ import org.hyperledger.besu.plugin.services.metrics.Counter;
 import org.hyperledger.besu.services.pipeline.Pipe;
 import org.hyperledger.besu.services.tasks.Task;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
 
 public class LoadLocalDataStep {
 
@@ -45,13 +49,47 @@ public class LoadLocalDataStep {
       final Task<NodeDataRequest> task, final Pipe<Task<NodeDataRequest>> completedTasks) {
     final NodeDataRequest request = task.getData();
     final Optional<Bytes> existingData = request.getExistingData(worldStateStorage);
-    if (existingData.isPresent()) {
-      existingNodeCounter.inc();
-      request.setData(existingData.get());
-      request.setRequiresPersisting(false);
-      completedTasks.put(task);
+    if (completeIfPresent(task, existingData, completedTasks)) {
       return Stream.empty();
     }
     return Stream.of(task);
   }
+
+  /**
+   * Looks up the data for a batch of requests with a single storage read, completing those that are
+   * already available locally.
+   *
+   * @param tasks the tasks to look up
+   * @param completedTasks the pipe to send tasks with existing data to
+   * @return the tasks whose data must be requested from peers
+   */
+  public Stream<Task<NodeDataRequest>> loadLocalData(
+      final List<Task<NodeDataRequest>> tasks, final Pipe<Task<NodeDataRequest>> completedTasks) {
+    final List<Bytes32> hashes =
+        tasks.stream().map(task -> task.getData().getHash()).collect(Collectors.toList());
+    final List<Optional<Bytes>> existingData = worldStateStorage.multiGetNodeData(hashes);
+    final List<Task<NodeDataRequest>> missingTasks = new ArrayList<>(tasks.size());
+    for (int i = 0; i < tasks.size(); i++) {
+      final Task<NodeDataRequest> task = tasks.get(i);
+      if (!completeIfPresent(task, existingData.get(i), completedTasks)) {
+        missingTasks.add(task);
+      }
+    }
+    return missingTasks.stream();
+  }
+
+  private boolean completeIfPresent(
+      final Task<NodeDataRequest> task,
+      final Optional<Bytes> existingData,
+      final Pipe<Task<NodeDataRequest>> completedTasks) {
+    if (existingData.isEmpty()) {
+      return false;
+    }
+    final NodeDataRequest request = task.getData();
+    existingNodeCounter.inc();
+    request.setData(existingData.get());
+    request.setRequiresPersisting(false);
+    completedTasks.put(task);
+    return true;
+  }
 }
@@ -19,12 +19,13 @@ import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransactions
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransactions.TransactionAddedStatus.ALREADY_KNOWN;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransactions.TransactionAddedStatus.REJECTED_UNDERPRICED_REPLACEMENT;
 
-import org.hyperledger.besu.ethereum.core.AccountTransactionOrder;
 import org.hyperledger.besu.ethereum.core.Address;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.Wei;
 import org.hyperledger.besu.ethereum.core.fees.EIP1559;
+import org.hyperledger.besu.ethereum.core.fees.TransactionPriceCalculator;
 import org.hyperledger.besu.ethereum.mainnet.TransactionValidator.TransactionInvalidReason;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
@@ -36,17 +37,18 @@ import org.hyperledger.besu.util.number.Percentage;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.NavigableSet;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
@@ -59,7 +61,12 @@ import com.google.common.collect.EvictingQueue;
  * Holds the current set of pending transactions with the ability to iterate them based on priority
  * for mining or look-up by hash.
  *
- * <p>This class is safe for use across multiple threads.
+ * <p>Transactions are kept in nonce order per sender. Mining takes the best priced head of the
+ * sender queues first, local transactions ahead of remote ones, and when the pool is full the
+ * cheapest transaction among the highest nonce of each sender is dropped.
+ *
+ * <p>This class is safe for use across multiple threads. The lock is only held while the pool is
+ * updated or copied, so adding transactions doesn't wait for block creation to evaluate them.
  */
 public class PendingTransactions {
 
@@ -68,13 +75,9 @@ public class PendingTransactions {
 
   private final EvictingQueue<Hash> newPooledHashes;
   private final Map<Hash, TransactionInfo> pendingTransactions = new ConcurrentHashMap<>();
-  private final NavigableSet<TransactionInfo> prioritizedTransactions =
-      new TreeSet<>(
-          comparing(TransactionInfo::isReceivedFromLocalSource)
-              .thenComparing(TransactionInfo::getSequence)
-              .reversed());
   private final Map<Address, TransactionsForSenderInfo> transactionsBySender =
       new ConcurrentHashMap<>();
+  private final Object lock = new Object();
 
   private final Subscribers<PendingTransactionListener> pendingTransactionSubscribers =
       Subscribers.create();
@@ -90,6 +93,8 @@ public class PendingTransactions {
   private final long maxPendingTransactions;
   private final TransactionPoolReplacementHandler transactionReplacementHandler;
   private final Supplier<BlockHeader> chainHeadHeaderSupplier;
+  private final Optional<EIP1559> eip1559;
+  private final TransactionPriceCalculator transactionPriceCalculator;
 
   public PendingTransactions(
       final int maxTransactionRetentionHours,
@@ -106,6 +111,11 @@ public class PendingTransactions {
     this.newPooledHashes = EvictingQueue.create(maxPooledTransactionHashes);
     this.chainHeadHeaderSupplier = chainHeadHeaderSupplier;
     this.transactionReplacementHandler = new TransactionPoolReplacementHandler(eip1559, priceBump);
+    this.eip1559 = eip1559;
+    this.transactionPriceCalculator =
+        eip1559.isPresent()
+            ? TransactionPriceCalculator.eip1559()
+            : TransactionPriceCalculator.frontier();
     final LabelledMetric<Counter> transactionAddedCounter =
         metricsSystem.createLabelledCounter(
             BesuMetricCategory.TRANSACTION_POOL,
@@ -183,11 +193,10 @@ public class PendingTransactions {
   }
 
   private void doRemoveTransaction(final Transaction transaction, final boolean addedToBlock) {
-    synchronized (prioritizedTransactions) {
+    synchronized (lock) {
       final TransactionInfo removedTransactionInfo =
           pendingTransactions.remove(transaction.getHash());
       if (removedTransactionInfo != null) {
-        prioritizedTransactions.remove(removedTransactionInfo);
         removeTransactionTrackedBySenderAndNonce(transaction);
         incrementTransactionRemovedCounter(
             removedTransactionInfo.isReceivedFromLocalSource(), addedToBlock);
@@ -203,45 +212,75 @@ public class PendingTransactions {
   }
 
   public void selectTransactions(final TransactionSelector selector) {
-    synchronized (prioritizedTransactions) {
-      final List<Transaction> transactionsToRemove = new ArrayList<>();
-      final Map<Address, AccountTransactionOrder> accountTransactions = new HashMap<>();
-      for (final TransactionInfo transactionInfo : prioritizedTransactions) {
-        final AccountTransactionOrder accountTransactionOrder =
-            accountTransactions.computeIfAbsent(
-                transactionInfo.getSender(), this::createSenderTransactionOrder);
-
-        for (final Transaction transactionToProcess :
-            accountTransactionOrder.transactionsToProcess(transactionInfo.getTransaction())) {
-          final TransactionSelectionResult result =
-              selector.evaluateTransaction(transactionToProcess);
-          switch (result) {
-            case DELETE_TRANSACTION_AND_CONTINUE:
-              transactionsToRemove.add(transactionToProcess);
-              break;
-            case CONTINUE:
-              break;
-            case COMPLETE_OPERATION:
-              transactionsToRemove.forEach(this::removeTransaction);
-              return;
-            default:
-              throw new RuntimeException("Illegal value for TransactionSelectionResult.");
-          }
-        }
+    final Comparator<TransactionInfo> priority = priority(currentBaseFee());
+    final PriorityQueue<Deque<TransactionInfo>> senderQueues =
+        new PriorityQueue<>(
+            comparing((final Deque<TransactionInfo> queue) -> queue.peekFirst(), priority));
+    synchronized (lock) {
+      transactionsBySender.values().stream()
+          .filter(transactionsForSender -> !transactionsForSender.getTransactionsInfos().isEmpty())
+          .forEach(
+              transactionsForSender ->
+                  senderQueues.add(
+                      new ArrayDeque<>(transactionsForSender.getTransactionsInfos().values())));
+    }
+
+    final List<Transaction> transactionsToRemove = new ArrayList<>();
+    while (!senderQueues.isEmpty()) {
+      final Deque<TransactionInfo> senderQueue = senderQueues.poll();
+      final Transaction transactionToProcess = senderQueue.pollFirst().getTransaction();
+      final TransactionSelectionResult result = selector.evaluateTransaction(transactionToProcess);
+      switch (result) {
+        case DELETE_TRANSACTION_AND_CONTINUE:
+          transactionsToRemove.add(transactionToProcess);
+          break;
+        case CONTINUE:
+          break;
+        case COMPLETE_OPERATION:
+          transactionsToRemove.forEach(this::removeTransaction);
+          return;
+        default:
+          throw new RuntimeException("Illegal value for TransactionSelectionResult.");
       }
-      transactionsToRemove.forEach(this::removeTransaction);
+      if (!senderQueue.isEmpty()) {
+        senderQueues.add(senderQueue);
+      }
+    }
+    transactionsToRemove.forEach(this::removeTransaction);
+  }
+
+  private Comparator<TransactionInfo> priority(final Optional<Long> baseFee) {
+    return comparing(TransactionInfo::isReceivedFromLocalSource)
+        .thenComparing((final TransactionInfo info) -> priceOf(info, baseFee))
+        .reversed()
+        .thenComparing(TransactionInfo::getSequence);
+  }
+
+  private Wei priceOf(final TransactionInfo transactionInfo, final Optional<Long> baseFee) {
+    return transactionPriceCalculator.price(transactionInfo.getTransaction(), baseFee);
+  }
+
+  private Optional<Long> currentBaseFee() {
+    if (eip1559.isEmpty()) {
+      return Optional.empty();
     }
+    // Until the chain head has a base fee EIP-1559 transactions are ranked by their premium
+    return Optional.of(chainHeadHeaderSupplier.get().getBaseFee().orElse(0L));
   }
 
-  private AccountTransactionOrder createSenderTransactionOrder(final Address address) {
-    return new AccountTransactionOrder(
-        transactionsBySender.get(address).getTransactionsInfos().values().stream()
-            .map(TransactionInfo::getTransaction));
+  private TransactionInfo lowestPriorityTransaction() {
+    // Only the highest nonce of each sender is considered so that dropping it leaves no nonce gap
+    return transactionsBySender.values().stream()
+        .filter(transactionsForSender -> !transactionsForSender.getTransactionsInfos().isEmpty())
+        .map(transactionsForSender -> transactionsForSender.getTransactionsInfos().lastEntry())
+        .map(Map.Entry::getValue)
+        .max(priority(currentBaseFee()))
+        .orElseThrow();
   }
 
   private TransactionAddedStatus addTransaction(final TransactionInfo transactionInfo) {
     Optional<Transaction> droppedTransaction = Optional.empty();
-    synchronized (prioritizedTransactions) {
+    synchronized (lock) {
       if (pendingTransactions.containsKey(transactionInfo.getHash())) {
         return ALREADY_KNOWN;
       }
@@ -251,12 +290,11 @@ public class PendingTransactions {
       if (!transactionAddedStatus.equals(ADDED)) {
         return transactionAddedStatus;
       }
-      prioritizedTransactions.add(transactionInfo);
       pendingTransactions.put(transactionInfo.getHash(), transactionInfo);
       tryEvictTransactionHash(transactionInfo.getHash());
 
       if (pendingTransactions.size() > maxPendingTransactions) {
-        final TransactionInfo toRemove = prioritizedTransactions.last();
+        final TransactionInfo toRemove = lowestPriorityTransaction();
         doRemoveTransaction(toRemove.getTransaction(), false);
         droppedTransaction = Optional.of(toRemove.getTransaction());
       }
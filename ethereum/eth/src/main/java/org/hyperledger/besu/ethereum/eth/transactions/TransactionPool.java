@@ -46,6 +46,7 @@ import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
 import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.HashSet;
@@ -76,6 +77,7 @@ public class TransactionPool implements BlockAddedObserver {
   private final TransactionBatchAddedListener transactionBatchAddedListener;
   private final Optional<TransactionBatchAddedListener> pendingTransactionBatchAddedListener;
   private final SyncState syncState;
+  private final EthContext ethContext;
   private final Wei minTransactionGasPrice;
   private final LabelledMetric<Counter> duplicateTransactionCounter;
   private final PeerTransactionTracker peerTransactionTracker;
@@ -107,6 +109,7 @@ public class TransactionPool implements BlockAddedObserver {
     this.transactionBatchAddedListener = transactionBatchAddedListener;
     this.pendingTransactionBatchAddedListener = pendingTransactionBatchAddedListener;
     this.syncState = syncState;
+    this.ethContext = ethContext;
     this.peerTransactionTracker = peerTransactionTracker;
     this.maybePeerPendingTransactionTracker = maybePeerPendingTransactionTracker;
     this.minTransactionGasPrice = minTransactionGasPrice;
@@ -191,7 +194,7 @@ public class TransactionPool implements BlockAddedObserver {
     if (!syncState.isInSync(SYNC_TOLERANCE)) {
       return;
     }
-    final Set<Transaction> addedTransactions = new HashSet<>();
+    final List<Transaction> candidateTransactions = new ArrayList<>(transactions.size());
     for (final Transaction transaction : transactions) {
       pendingTransactions.tryEvictTransactionHash(transaction.getHash());
       if (pendingTransactions.containsTransaction(transaction.getHash())) {
@@ -203,6 +206,12 @@ public class TransactionPool implements BlockAddedObserver {
       if (transactionGasPrice.compareTo(minTransactionGasPrice) < 0) {
         continue;
       }
+      candidateTransactions.add(transaction);
+    }
+    // Validation needs every sender, recover them up front rather than one at a time.
+    ethContext.getScheduler().recoverTransactionSenders(candidateTransactions);
+    final Set<Transaction> addedTransactions = new HashSet<>();
+    for (final Transaction transaction : candidateTransactions) {
       final ValidationResult<TransactionInvalidReason> validationResult =
           validateTransaction(transaction);
       if (validationResult.isValid()) {
@@ -0,0 +1,155 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.eth.manager.EthMessageQueues.Priority;
+import org.hyperledger.besu.ethereum.eth.manager.EthPeer.DisconnectCallback;
+import org.hyperledger.besu.ethereum.eth.messages.EthPV62;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.RawMessage;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.testutil.MockExecutorService;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class EthMessageQueuesTest {
+
+  private static final long CAPACITY = 400;
+
+  private final EthPeers ethPeers = mock(EthPeers.class);
+  private final EthMessages ethMessages = mock(EthMessages.class);
+  private final EthPeer peer = mock(EthPeer.class);
+  private final MockExecutorService executor = new MockExecutorService();
+  private EthMessageQueues messageQueues;
+
+  @Before
+  public void setUp() {
+    executor.setAutoRun(false);
+    messageQueues =
+        new EthMessageQueues(ethPeers, ethMessages, CAPACITY, executor, new NoOpMetricsSystem());
+  }
+
+  @Test
+  public void dispatchesHighestPriorityMessagesFirst() {
+    messageQueues.enqueue(message(EthPV62.TRANSACTIONS, 10));
+    messageQueues.enqueue(message(EthPV62.GET_BLOCK_HEADERS, 10));
+    messageQueues.enqueue(message(EthPV62.BLOCK_HEADERS, 10));
+    messageQueues.enqueue(message(EthPV62.NEW_BLOCK, 10));
+    assertThat(messageQueues.queuedMessages(Priority.BLOCKS)).isEqualTo(1);
+
+    runPendingTasks();
+
+    final ArgumentCaptor<EthMessage> dispatched = ArgumentCaptor.forClass(EthMessage.class);
+    verify(ethMessages, times(4)).dispatch(dispatched.capture());
+    assertThat(dispatched.getAllValues())
+        .extracting(message -> message.getData().getCode())
+        .containsExactly(
+            EthPV62.NEW_BLOCK,
+            EthPV62.BLOCK_HEADERS,
+            EthPV62.GET_BLOCK_HEADERS,
+            EthPV62.TRANSACTIONS);
+    verify(ethPeers, times(4)).dispatchMessage(any(), any());
+    assertThat(messageQueues.queuedMessages(Priority.BLOCKS)).isZero();
+  }
+
+  @Test
+  public void dispatchesMessagesOfTheSameClassInOrder() {
+    final EthMessage first = message(EthPV62.BLOCK_HEADERS, 10);
+    final EthMessage second = message(EthPV62.BLOCK_BODIES, 10);
+    messageQueues.enqueue(first);
+    messageQueues.enqueue(second);
+
+    runPendingTasks();
+
+    final ArgumentCaptor<EthMessage> dispatched = ArgumentCaptor.forClass(EthMessage.class);
+    verify(ethMessages, times(2)).dispatch(dispatched.capture());
+    assertThat(dispatched.getAllValues()).containsExactly(first, second);
+  }
+
+  @Test
+  public void dropsTransactionsWhenQueueIsFull() {
+    // Transactions may use a quarter of the capacity.
+    messageQueues.enqueue(message(EthPV62.TRANSACTIONS, 60));
+    messageQueues.enqueue(message(EthPV62.TRANSACTIONS, 60));
+    assertThat(messageQueues.queuedMessages(Priority.TRANSACTIONS)).isEqualTo(1);
+
+    runPendingTasks();
+
+    verify(ethMessages, times(1)).dispatch(any());
+    verify(peer, never()).disconnect(any());
+  }
+
+  @Test
+  public void acceptsOversizedMessageIntoEmptyQueue() {
+    messageQueues.enqueue(message(EthPV62.TRANSACTIONS, CAPACITY * 2));
+    assertThat(messageQueues.queuedMessages(Priority.TRANSACTIONS)).isEqualTo(1);
+  }
+
+  @Test
+  public void disconnectsPeerOverflowingResponses() {
+    messageQueues.enqueue(message(EthPV62.BLOCK_HEADERS, 300));
+    messageQueues.enqueue(message(EthPV62.BLOCK_BODIES, 300));
+
+    verify(peer).disconnect(DisconnectReason.USELESS_PEER);
+    assertThat(messageQueues.queuedMessages(Priority.RESPONSES)).isEqualTo(1);
+  }
+
+  @Test
+  public void discardsQueuedMessagesWhenPeerDisconnects() {
+    final ArgumentCaptor<DisconnectCallback> disconnectCallback =
+        ArgumentCaptor.forClass(DisconnectCallback.class);
+    verify(ethPeers).subscribeDisconnect(disconnectCallback.capture());
+    messageQueues.enqueue(message(EthPV62.NEW_BLOCK, 10));
+    messageQueues.enqueue(message(EthPV62.TRANSACTIONS, 10));
+
+    when(peer.isDisconnected()).thenReturn(true);
+    disconnectCallback.getValue().onDisconnect(peer);
+    runPendingTasks();
+
+    assertThat(messageQueues.queuedMessages(Priority.BLOCKS)).isZero();
+    assertThat(messageQueues.queuedMessages(Priority.TRANSACTIONS)).isZero();
+    verify(ethMessages, never()).dispatch(any());
+  }
+
+  @Test
+  public void ignoresMessagesFromDisconnectedPeers() {
+    when(peer.isDisconnected()).thenReturn(true);
+    messageQueues.enqueue(message(EthPV62.NEW_BLOCK, 10));
+
+    assertThat(messageQueues.queuedMessages(Priority.BLOCKS)).isZero();
+    assertThat(executor.getPendingFuturesCount()).isZero();
+  }
+
+  private EthMessage message(final int code, final long size) {
+    return new EthMessage(peer, new RawMessage(code, Bytes.wrap(new byte[(int) size])));
+  }
+
+  private void runPendingTasks() {
+    while (executor.getPendingFuturesCount() > 0) {
+      executor.runPendingFutures();
+    }
+  }
+}
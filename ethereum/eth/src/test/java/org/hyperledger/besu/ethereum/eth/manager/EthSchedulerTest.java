@@ -21,13 +21,20 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import org.hyperledger.besu.crypto.SECP256K1;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
 import org.hyperledger.besu.testutil.MockExecutorService;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -207,4 +214,22 @@ public class EthSchedulerTest {
     assertThat(task.isFailed()).isTrue();
     assertThat(task.isCancelled()).isTrue();
   }
+
+  @Test
+  public void recoverTransactionSenders_doesNotWaitForComputationExecutor() {
+    final SECP256K1.KeyPair keyPair = SECP256K1.KeyPair.generate();
+    final List<Transaction> transactions =
+        IntStream.range(0, 64)
+            .mapToObj(nonce -> new TransactionTestFixture().nonce(nonce).createTransaction(keyPair))
+            .collect(Collectors.toList());
+    ethScheduler.disableAutoRun();
+
+    ethScheduler.recoverTransactionSenders(transactions);
+    // Any helpers handed to the executor find the work already claimed.
+    ethScheduler.runPendingFutures();
+
+    assertThat(transactions)
+        .extracting(Transaction::getSender)
+        .containsOnly(Address.extract(keyPair.getPublicKey()));
+  }
 }
@@ -26,6 +26,7 @@ import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.services.pipeline.Pipe;
 import org.hyperledger.besu.services.tasks.Task;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -71,4 +72,21 @@ public class LoadLocalDataStepTest {
     request.persist(updater);
     verifyZeroInteractions(updater);
   }
+
+  @Test
+  public void shouldOnlyReturnTasksWithoutLocalDataWhenLoadingBatch() {
+    final Hash missingHash = Hash.hash(Bytes.of(4, 5, 6));
+    final Task<NodeDataRequest> missingTask =
+        new StubTask(NodeDataRequest.createAccountDataRequest(missingHash));
+    when(worldStateStorage.multiGetNodeData(List.of(HASH, missingHash)))
+        .thenReturn(List.of(Optional.of(DATA), Optional.empty()));
+
+    final Stream<Task<NodeDataRequest>> output =
+        loadLocalDataStep.loadLocalData(List.of(task, missingTask), completedTasks);
+
+    assertThat(completedTasks.poll()).isSameAs(task);
+    assertThat(completedTasks.poll()).isNull();
+    assertThat(request.getData()).isEqualTo(DATA);
+    assertThat(output).containsExactly(missingTask);
+  }
 }
@@ -114,7 +114,7 @@ public class PendingTransactionsTest {
   }
 
   @Test
-  public void shouldDropOldestTransactionWhenLimitExceeded() {
+  public void shouldDropHighestNonceTransactionWhenLimitExceeded() {
     final Transaction oldestTransaction = createTransaction(0);
     transactions.addRemoteTransaction(oldestTransaction);
     for (int i = 1; i < MAX_TRANSACTIONS; i++) {
@@ -123,9 +123,25 @@ public class PendingTransactionsTest {
     assertThat(transactions.size()).isEqualTo(MAX_TRANSACTIONS);
     assertThat(metricsSystem.getCounterValue(REMOVED_COUNTER, REMOTE, DROPPED)).isZero();
 
-    transactions.addRemoteTransaction(createTransaction(MAX_TRANSACTIONS + 1));
+    final Transaction highestNonceTransaction = createTransaction(MAX_TRANSACTIONS + 1);
+    transactions.addRemoteTransaction(highestNonceTransaction);
+    assertThat(transactions.size()).isEqualTo(MAX_TRANSACTIONS);
+    assertTransactionPending(oldestTransaction);
+    assertTransactionNotPending(highestNonceTransaction);
+    assertThat(metricsSystem.getCounterValue(REMOVED_COUNTER, REMOTE, DROPPED)).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldDropCheapestTransactionWhenLimitExceeded() {
+    final Transaction cheapestTransaction = transactionWithNonceSenderAndGasPrice(0, KEYS2, 1);
+    transactions.addRemoteTransaction(cheapestTransaction);
+    for (int i = 0; i < MAX_TRANSACTIONS; i++) {
+      transactions.addRemoteTransaction(transactionWithNonceSenderAndGasPrice(i, KEYS1, 10));
+    }
+
     assertThat(transactions.size()).isEqualTo(MAX_TRANSACTIONS);
-    assertTransactionNotPending(oldestTransaction);
+    assertTransactionNotPending(cheapestTransaction);
+    assertThat(transactions.getNextNonceForSender(SENDER1)).hasValue(MAX_TRANSACTIONS);
     assertThat(metricsSystem.getCounterValue(REMOVED_COUNTER, REMOTE, DROPPED)).isEqualTo(1);
   }
 
@@ -165,7 +181,8 @@ public class PendingTransactionsTest {
       transactions.addLocalTransaction(createTransaction(i));
     }
     assertThat(transactions.size()).isEqualTo(MAX_TRANSACTIONS);
-    assertTransactionNotPending(firstLocalTransaction);
+    assertTransactionPending(firstLocalTransaction);
+    assertTransactionNotPending(createTransaction(MAX_TRANSACTIONS));
   }
 
   @Test
@@ -285,6 +302,27 @@ public class PendingTransactionsTest {
     assertThat(parsedTransactions.get(1)).isEqualTo(transaction1);
   }
 
+  @Test
+  public void selectTransactionsByGasPriceInNonceOrderPerSender() {
+    final Transaction sender1Transaction1 = transactionWithNonceSenderAndGasPrice(1, KEYS1, 1);
+    final Transaction sender1Transaction2 = transactionWithNonceSenderAndGasPrice(2, KEYS1, 5);
+    final Transaction sender2Transaction1 = transactionWithNonceSenderAndGasPrice(1, KEYS2, 2);
+
+    transactions.addRemoteTransaction(sender1Transaction2);
+    transactions.addRemoteTransaction(sender1Transaction1);
+    transactions.addRemoteTransaction(sender2Transaction1);
+
+    final List<Transaction> parsedTransactions = Lists.newArrayList();
+    transactions.selectTransactions(
+        transaction -> {
+          parsedTransactions.add(transaction);
+          return PendingTransactions.TransactionSelectionResult.CONTINUE;
+        });
+
+    assertThat(parsedTransactions)
+        .containsExactly(sender2Transaction1, sender1Transaction1, sender1Transaction2);
+  }
+
   @Test
   public void shouldNotSelectReplacedTransaction() {
     final Transaction transaction1 = transactionWithNonceSenderAndGasPrice(1, KEYS1, 1);
@@ -15,8 +15,6 @@
 package org.hyperledger.besu.ethereum.p2p.rlpx.framing;
 
 import static io.netty.buffer.ByteBufUtil.hexDump;
-import static io.netty.buffer.Unpooled.wrappedBuffer;
-import static org.bouncycastle.pqc.math.linearalgebra.ByteUtils.xor;
 
 import org.hyperledger.besu.ethereum.p2p.rlpx.handshake.HandshakeSecrets;
 import org.hyperledger.besu.ethereum.p2p.rlpx.handshake.Handshaker;
@@ -24,20 +22,19 @@ import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.RawMessage;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
 import java.util.Arrays;
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.errorprone.annotations.FormatMethod;
 import io.netty.buffer.ByteBuf;
 import org.apache.tuweni.bytes.Bytes;
-import org.apache.tuweni.bytes.MutableBytes;
-import org.bouncycastle.crypto.BlockCipher;
-import org.bouncycastle.crypto.StreamCipher;
-import org.bouncycastle.crypto.engines.AESEngine;
-import org.bouncycastle.crypto.modes.SICBlockCipher;
-import org.bouncycastle.crypto.params.KeyParameter;
-import org.bouncycastle.crypto.params.ParametersWithIV;
 
 /**
  * This component is responsible for reading and composing RLPx protocol frames, conformant to the
@@ -50,6 +47,11 @@ import org.bouncycastle.crypto.params.ParametersWithIV;
  * fragmented frames, as well as streams of multiple messages within the same incoming buffer, as
  * long as the order of incoming bytes matches the underlying TCP sequence.
  *
+ * <p>Encryption goes through the JCE AES implementation, which the JVM backs with AES-NI
+ * instructions where available, and operates directly on the Netty buffers: outgoing frames are
+ * encrypted in place in the output buffer, and incoming frames are decrypted straight from the
+ * input buffer into the array the message payload is sliced from.
+ *
  * @see <a href="https://github.com/ethereum/devp2p/blob/master/rlpx.md#framing">RLPx framing</a>
  */
 public class Framer {
@@ -73,9 +75,15 @@ public class Framer {
 
   private final HandshakeSecrets secrets;
   private static final SnappyCompressor compressor = new SnappyCompressor();
-  private final StreamCipher encryptor;
-  private final StreamCipher decryptor;
-  private final BlockCipher macEncryptor;
+  private final Cipher encryptor;
+  private final Cipher decryptor;
+  // Framing and deframing each have their own MAC cipher and scratch blocks, so they share no
+  // state.
+  private final Cipher egressMacEncryptor;
+  private final Cipher ingressMacEncryptor;
+  private final byte[] egressHeader = new byte[LENGTH_HEADER_DATA];
+  private final byte[] ingressHeader = new byte[LENGTH_HEADER_DATA];
+  private final byte[] receivedMac = new byte[LENGTH_MAC];
   private boolean headerProcessed;
   private int frameSize;
   private boolean compressionEnabled = false;
@@ -88,17 +96,14 @@ public class Framer {
   public Framer(final HandshakeSecrets secrets) {
     this.secrets = secrets;
 
-    final KeyParameter aesKey = new KeyParameter(secrets.getAesSecret());
-    final KeyParameter macKey = new KeyParameter(secrets.getMacSecret());
-
-    encryptor = new SICBlockCipher(new AESEngine());
-    encryptor.init(true, new ParametersWithIV(aesKey, IV));
+    final SecretKeySpec aesKey = new SecretKeySpec(secrets.getAesSecret(), "AES");
+    final SecretKeySpec macKey = new SecretKeySpec(secrets.getMacSecret(), "AES");
 
-    decryptor = new SICBlockCipher(new AESEngine());
-    decryptor.init(false, new ParametersWithIV(aesKey, IV));
+    encryptor = streamCipher(Cipher.ENCRYPT_MODE, aesKey);
+    decryptor = streamCipher(Cipher.DECRYPT_MODE, aesKey);
 
-    macEncryptor = new AESEngine();
-    macEncryptor.init(true, macKey);
+    egressMacEncryptor = blockCipher(macKey);
+    ingressMacEncryptor = blockCipher(macKey);
   }
 
   public void enableCompression() {
@@ -122,6 +127,7 @@ public class Framer {
    *
    * <p>This method can be called repetitively whenever new bytes appear in the buffer. It is worthy
    * to note that the byte buffer is not consumed unless the next expected amount of bytes appears.
+   * Consumed bytes are left for the caller to discard.
    *
    * <p>If there is more than one message in the byte buffer, only the first one is returned,
    * consuming it from the byte buffer. The caller should call this method again with the same byte
@@ -130,12 +136,16 @@ public class Framer {
    * <p>When this method throws an exception, it is recommended that the caller scraps away the RLPx
    * connection, as the digests and stream ciphers could have become corrupted.
    *
+   * <p>Deframing only touches ingress state, so it doesn't need to be synchronized with {@link
+   * #frame(MessageData, ByteBuf)}, but it must be called by a single thread at a time, as the
+   * channel's event loop does.
+   *
    * @param buf The buffer containing no messages, partial messages or multiple messages.
    * @return The first fully extracted message from this buffer, or <code>null</code> if no message
    *     could be extracted yet.
    * @throws FramingException Thrown when a decryption or internal error occurs.
    */
-  public synchronized MessageData deframe(final ByteBuf buf) throws FramingException {
+  public MessageData deframe(final ByteBuf buf) throws FramingException {
     if (buf == null || !buf.isReadable()) {
       return null;
     }
@@ -147,7 +157,6 @@ public class Framer {
       }
       frameSize = processHeader(buf.readSlice(LENGTH_FULL_HEADER));
       headerProcessed = true;
-      buf.discardReadBytes();
     }
 
     final int size = frameSize + padding16(frameSize) + LENGTH_MAC;
@@ -156,7 +165,6 @@ public class Framer {
     }
 
     final MessageData msg = processFrame(buf.readSlice(size), frameSize);
-    buf.discardReadBytes();
     headerProcessed = false;
     return msg;
   }
@@ -178,50 +186,40 @@ public class Framer {
           LENGTH_FULL_HEADER, encryptedHeader.readableBytes());
     }
 
-    // Decrypt the header.
-    final byte[] hCipher = new byte[LENGTH_HEADER_DATA];
-    final byte[] hMac = new byte[LENGTH_MAC];
-    encryptedHeader.readBytes(hCipher).readBytes(hMac);
+    final byte[] h = ingressHeader;
+    encryptedHeader.readBytes(h);
 
     // Header MAC validation.
-    byte[] expectedMac = new byte[16];
-    macEncryptor.processBlock(secrets.getIngressMac(), 0, expectedMac, 0);
-    expectedMac = secrets.updateIngress(xor(expectedMac, hCipher)).getIngressMac();
-    expectedMac = Arrays.copyOf(expectedMac, LENGTH_MAC);
-
-    validateMac(hMac, expectedMac);
+    secrets.updateIngress(
+        updateMacSeed(ingressMacEncryptor, secrets.getIngressMac(), h), 0, LENGTH_MAC);
+    validateMac(encryptedHeader, secrets.getIngressMac());
 
     // Perform the header decryption.
-    decryptor.processBytes(hCipher, 0, hCipher.length, hCipher, 0);
-    final ByteBuf h = wrappedBuffer(hCipher);
+    process(decryptor, h, h.length, h);
 
     // Read the frame length.
-    final byte[] length = new byte[3];
-    h.readBytes(length);
-    int frameSize = length[0] & 0xff;
-    frameSize = (frameSize << 8) + (length[1] & 0xff);
-    frameSize = (frameSize << 8) + (length[2] & 0xff);
+    int frameSize = h[0] & 0xff;
+    frameSize = (frameSize << 8) + (h[1] & 0xff);
+    frameSize = (frameSize << 8) + (h[2] & 0xff);
 
     // Discard the header data (RLP): being set to fixed value 0xc28080 (list of two null
     // elements) by other clients.
-    final int headerDataLength = RLP.calculateSize(Bytes.wrapByteBuffer(h.nioBuffer()));
-    if (h.readableBytes() < headerDataLength) {
+    final int remaining = LENGTH_HEADER_DATA - LENGTH_FRAME_SIZE;
+    final int headerDataLength = RLP.calculateSize(Bytes.wrap(h, LENGTH_FRAME_SIZE, remaining));
+    if (remaining < headerDataLength) {
       throw error(
           "Expected at least %d readable bytes while processing header, remaining: %s",
-          headerDataLength, h.readableBytes());
+          headerDataLength, remaining);
     }
-    h.skipBytes(headerDataLength);
 
     // Discard padding in header (= zero-fill to 16-byte boundary).
-    h.skipBytes(padding16(LENGTH_FRAME_SIZE + headerDataLength));
-
-    if (h.readableBytes() != 0) {
+    final int padding = padding16(LENGTH_FRAME_SIZE + headerDataLength);
+    if (remaining - headerDataLength - padding != 0) {
       throw error(
           "Expected no more readable bytes while processing header, remaining: %s",
-          h.readableBytes());
+          remaining - headerDataLength - padding);
     }
 
-    h.discardReadBytes();
     return frameSize;
   }
 
@@ -241,50 +239,44 @@ public class Framer {
       throw error("Expected %s bytes in header, got %s", expectedSize, f.readableBytes());
     }
 
-    final byte[] frameData = new byte[frameSize + pad];
-    final byte[] fMac = new byte[LENGTH_MAC];
-    f.readBytes(frameData).readBytes(fMac);
-
-    // Validate the frame's MAC.
-    final byte[] fMacSeed = secrets.updateIngress(frameData).getIngressMac();
-    final byte[] fMacSeedEnc = new byte[16];
-    macEncryptor.processBlock(fMacSeed, 0, fMacSeedEnc, 0);
-    byte[] expectedMac = secrets.updateIngress(xor(fMacSeedEnc, fMacSeed)).getIngressMac();
-    expectedMac = Arrays.copyOf(expectedMac, LENGTH_MAC);
+    final ByteBuf encryptedData = f.readSlice(frameSize + pad);
 
-    validateMac(fMac, expectedMac);
+    // Validate the frame's MAC, hashing the frame data where it is.
+    final byte[] fMacSeed = secrets.updateIngress(encryptedData).getIngressMac();
+    secrets.updateIngress(updateMacSeed(ingressMacEncryptor, fMacSeed, fMacSeed), 0, LENGTH_MAC);
+    validateMac(f, secrets.getIngressMac());
 
-    // Decrypt frame data.
-    decryptor.processBytes(frameData, 0, frameData.length, frameData, 0);
+    // Decrypt frame data from the buffer into the array backing the message.
+    final byte[] frameData = new byte[frameSize + pad];
+    process(decryptor, encryptedData.nioBuffer(), ByteBuffer.wrap(frameData));
 
     // Read the id.
     final Bytes idbv = RLP.decodeOne(Bytes.of(frameData[0]));
     final int id = idbv.isZero() || idbv.size() == 0 ? 0 : idbv.get(0);
 
-    // Write message data to ByteBuf, decompressing as necessary
+    // Slice the message data out of the frame, decompressing as necessary
+    final int messageLength = frameSize - LENGTH_MESSAGE_ID;
     final Bytes data;
     if (compressionEnabled) {
-      final byte[] compressedMessageData = Arrays.copyOfRange(frameData, 1, frameData.length - pad);
-      final int uncompressedLength = compressor.uncompressedLength(compressedMessageData);
+      final int uncompressedLength =
+          compressor.uncompressedLength(frameData, LENGTH_MESSAGE_ID, messageLength);
       if (uncompressedLength >= LENGTH_MAX_MESSAGE_FRAME) {
         throw error("Message size %s in excess of maximum length.", uncompressedLength);
       }
-      final byte[] decompressedMessageData = compressor.decompress(compressedMessageData);
-      data = Bytes.wrap(decompressedMessageData);
+      data = Bytes.wrap(compressor.decompress(frameData, LENGTH_MESSAGE_ID, messageLength));
     } else {
-      // Move data to a ByteBuf
-      final int messageLength = frameSize - LENGTH_MESSAGE_ID;
-      data = Bytes.wrap(frameData, 1, messageLength);
+      data = Bytes.wrap(frameData, LENGTH_MESSAGE_ID, messageLength);
     }
 
     return new RawMessage(id, data);
   }
 
-  private void validateMac(final byte[] candidateMac, final byte[] expectedMac) {
-    if (!Arrays.equals(expectedMac, candidateMac)) {
+  private void validateMac(final ByteBuf candidateMac, final byte[] expectedMac) {
+    candidateMac.readBytes(receivedMac);
+    if (!Arrays.equals(expectedMac, 0, LENGTH_MAC, receivedMac, 0, LENGTH_MAC)) {
       throw error(
           "Frame MAC did not match expected MAC; expected: %s, received: %s",
-          hexDump(expectedMac), hexDump(candidateMac));
+          hexDump(expectedMac, 0, LENGTH_MAC), hexDump(receivedMac));
     }
   }
 
@@ -317,41 +309,106 @@ public class Framer {
 
     final byte id = (byte) message.getCode();
 
+    buf.ensureWritable(LENGTH_FULL_HEADER + frameSize + pad + LENGTH_MAC);
+
     // Generate the header data.
-    final byte[] h = new byte[LENGTH_HEADER_DATA];
+    final byte[] h = egressHeader;
     h[0] = (byte) ((frameSize >> 16) & 0xff);
     h[1] = (byte) ((frameSize >> 8) & 0xff);
     h[2] = (byte) (frameSize & 0xff);
     System.arraycopy(PROTOCOL_HEADER, 0, h, LENGTH_FRAME_SIZE, PROTOCOL_HEADER.length);
-    Arrays.fill(h, LENGTH_FRAME_SIZE + PROTOCOL_HEADER.length, h.length - 1, (byte) 0x00);
-    encryptor.processBytes(h, 0, LENGTH_HEADER_DATA, h, 0);
+    Arrays.fill(h, LENGTH_FRAME_SIZE + PROTOCOL_HEADER.length, h.length, (byte) 0x00);
+    process(encryptor, h, h.length, h);
 
     // Generate the header MAC.
-    byte[] hMac = Arrays.copyOf(secrets.getEgressMac(), LENGTH_MAC);
-    macEncryptor.processBlock(hMac, 0, hMac, 0);
-    hMac = secrets.updateEgress(xor(h, hMac)).getEgressMac();
-    hMac = Arrays.copyOf(hMac, LENGTH_MAC);
-    buf.writeBytes(h).writeBytes(hMac);
-
-    // Encrypt payload.
-    final MutableBytes f = MutableBytes.create(frameSize + pad);
+    secrets.updateEgress(
+        updateMacSeed(egressMacEncryptor, secrets.getEgressMac(), h), 0, LENGTH_MAC);
+    buf.writeBytes(h).writeBytes(secrets.getEgressMac(), 0, LENGTH_MAC);
 
+    // Write the payload, zero-padded to 16-byte boundary, and encrypt it in place.
+    final int frameIndex = buf.writerIndex();
     final Bytes bv = id == 0 ? RLP.NULL : RLP.encodeOne(Bytes.of(id));
     assert bv.size() == 1;
-    f.set(0, bv.get(0));
-
-    // Zero-padded to 16-byte boundary.
-    message.getData().copyTo(f, 1);
-    encryptor.processBytes(f.toArrayUnsafe(), 0, f.size(), f.toArrayUnsafe(), 0);
+    buf.writeByte(bv.get(0));
+    buf.writeBytes(message.getData().toArrayUnsafe());
+    buf.writeZero(pad);
+    final ByteBuf f = buf.slice(frameIndex, frameSize + pad);
+    encryptInPlace(f);
 
     // Calculate the frame MAC.
-    final byte[] fMacSeed =
-        Arrays.copyOf(secrets.updateEgress(f.toArrayUnsafe()).getEgressMac(), LENGTH_MAC);
-    byte[] fMac = new byte[16];
-    macEncryptor.processBlock(fMacSeed, 0, fMac, 0);
-    fMac = Arrays.copyOf(secrets.updateEgress(xor(fMac, fMacSeed)).getEgressMac(), LENGTH_MAC);
+    final byte[] fMacSeed = secrets.updateEgress(f).getEgressMac();
+    secrets.updateEgress(updateMacSeed(egressMacEncryptor, fMacSeed, fMacSeed), 0, LENGTH_MAC);
+
+    buf.writeBytes(secrets.getEgressMac(), 0, LENGTH_MAC);
+  }
+
+  private void encryptInPlace(final ByteBuf f) {
+    if (f.nioBufferCount() == 1) {
+      // Two views of the same memory: the cipher is copy-safe.
+      process(encryptor, f.nioBuffer(), f.nioBuffer());
+    } else {
+      final byte[] bytes = new byte[f.readableBytes()];
+      f.getBytes(f.readerIndex(), bytes);
+      process(encryptor, bytes, bytes.length, bytes);
+      f.setBytes(f.readerIndex(), bytes);
+    }
+  }
 
-    buf.writeBytes(f.toArrayUnsafe()).writeBytes(fMac);
+  /**
+   * Computes the block a MAC is updated with after a header or frame: the AES encryption of the
+   * first 16 bytes of the current MAC, XORed with the given seed.
+   *
+   * @param macEncryptor The cipher encrypting with the MAC secret.
+   * @param mac A snapshot of the current MAC.
+   * @param seed The 16 bytes the encrypted MAC is XORed with.
+   * @return The 16 bytes to update the MAC with.
+   */
+  private static byte[] updateMacSeed(
+      final Cipher macEncryptor, final byte[] mac, final byte[] seed) {
+    final byte[] block = new byte[LENGTH_MAC];
+    process(macEncryptor, mac, LENGTH_MAC, block);
+    for (int i = 0; i < LENGTH_MAC; i++) {
+      block[i] ^= seed[i];
+    }
+    return block;
+  }
+
+  private static Cipher streamCipher(final int mode, final SecretKeySpec key) {
+    try {
+      final Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+      cipher.init(mode, key, new IvParameterSpec(IV));
+      return cipher;
+    } catch (final GeneralSecurityException e) {
+      throw new IllegalStateException("AES/CTR is not supported", e);
+    }
+  }
+
+  private static Cipher blockCipher(final SecretKeySpec key) {
+    try {
+      final Cipher cipher = Cipher.getInstance("AES/ECB/NoPadding");
+      cipher.init(Cipher.ENCRYPT_MODE, key);
+      return cipher;
+    } catch (final GeneralSecurityException e) {
+      throw new IllegalStateException("AES/ECB is not supported", e);
+    }
+  }
+
+  private static void process(
+      final Cipher cipher, final byte[] input, final int length, final byte[] output) {
+    try {
+      cipher.update(input, 0, length, output, 0);
+    } catch (final ShortBufferException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void process(
+      final Cipher cipher, final ByteBuffer input, final ByteBuffer output) {
+    try {
+      cipher.update(input, output);
+    } catch (final ShortBufferException e) {
+      throw new IllegalStateException(e);
+    }
   }
 
   private static int padding16(final int size) {
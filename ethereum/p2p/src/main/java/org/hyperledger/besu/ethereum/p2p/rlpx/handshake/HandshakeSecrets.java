@@ -19,6 +19,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import java.util.Arrays;
 import java.util.Objects;
 
+import io.netty.buffer.ByteBuf;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import org.bouncycastle.crypto.digests.KeccakDigest;
@@ -42,6 +43,8 @@ import org.bouncycastle.crypto.digests.KeccakDigest;
  *     Encrypted Handshake</a>
  */
 public class HandshakeSecrets {
+  private static final int CHUNK_SIZE = 8192;
+
   private final byte[] aesSecret;
   private final byte[] macSecret;
   private final byte[] token;
@@ -87,6 +90,54 @@ public class HandshakeSecrets {
     return this;
   }
 
+  /**
+   * Updates the egress mac with a range of the provided bytes.
+   *
+   * @param bytes The bytes of the outgoing message.
+   * @param offset The offset of the first byte to update the mac with.
+   * @param length The number of bytes to update the mac with.
+   * @return Returns this instance for fluent chaining.
+   */
+  public HandshakeSecrets updateEgress(final byte[] bytes, final int offset, final int length) {
+    egressMac.update(bytes, offset, length);
+    return this;
+  }
+
+  /**
+   * Updates the ingress mac with a range of the provided bytes.
+   *
+   * @param bytes The bytes of the incoming message.
+   * @param offset The offset of the first byte to update the mac with.
+   * @param length The number of bytes to update the mac with.
+   * @return Returns this instance for fluent chaining.
+   */
+  public HandshakeSecrets updateIngress(final byte[] bytes, final int offset, final int length) {
+    ingressMac.update(bytes, offset, length);
+    return this;
+  }
+
+  /**
+   * Updates the egress mac with the readable bytes of the provided buffer, without consuming them.
+   *
+   * @param bytes The bytes of the outgoing message.
+   * @return Returns this instance for fluent chaining.
+   */
+  public HandshakeSecrets updateEgress(final ByteBuf bytes) {
+    update(egressMac, bytes);
+    return this;
+  }
+
+  /**
+   * Updates the ingress mac with the readable bytes of the provided buffer, without consuming them.
+   *
+   * @param bytes The bytes of the incoming message.
+   * @return Returns this instance for fluent chaining.
+   */
+  public HandshakeSecrets updateIngress(final ByteBuf bytes) {
+    update(ingressMac, bytes);
+    return this;
+  }
+
   /**
    * Returns the AES shared secret.
    *
@@ -152,6 +203,21 @@ public class HandshakeSecrets {
         + '}';
   }
 
+  private static void update(final KeccakDigest digest, final ByteBuf bytes) {
+    if (bytes.hasArray()) {
+      digest.update(
+          bytes.array(), bytes.arrayOffset() + bytes.readerIndex(), bytes.readableBytes());
+      return;
+    }
+    // Direct buffers are hashed through a small chunk rather than copied whole.
+    final byte[] chunk = new byte[Math.min(bytes.readableBytes(), CHUNK_SIZE)];
+    for (int i = bytes.readerIndex(); i < bytes.writerIndex(); i += chunk.length) {
+      final int length = Math.min(chunk.length, bytes.writerIndex() - i);
+      bytes.getBytes(i, chunk, 0, length);
+      digest.update(chunk, 0, length);
+    }
+  }
+
   private static byte[] snapshot(final KeccakDigest digest) {
     final byte[] out = new byte[Bytes32.SIZE];
     new KeccakDigest(digest).doFinal(out, 0);
@@ -31,12 +31,14 @@ import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.Test;
@@ -242,6 +244,35 @@ public class FramerTest {
     assertThatThrownBy(() -> receivingFramer.deframe(out)).isInstanceOf(FramingException.class);
   }
 
+  @Test
+  public void roundTripThroughPooledDirectBuffers() {
+    final byte[] aes = new byte[32];
+    final byte[] mac = new byte[32];
+    final Random random = new Random(1);
+    random.nextBytes(aes);
+    random.nextBytes(mac);
+    final Framer sendingFramer = new Framer(new HandshakeSecrets(aes, mac, mac));
+    final Framer receivingFramer = new Framer(new HandshakeSecrets(aes, mac, mac));
+
+    final List<Bytes> sent = new ArrayList<>();
+    final ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+    try {
+      for (final int size : new int[] {0, 15, 1024, 100_000}) {
+        final Bytes data = Bytes.random(size, random);
+        sent.add(data);
+        sendingFramer.frame(new RawMessage(0x10, data), buf);
+      }
+      for (final Bytes data : sent) {
+        final MessageData message = receivingFramer.deframe(buf);
+        assertThat(message.getCode()).isEqualTo(0x10);
+        assertThat(message.getData()).isEqualTo(data);
+      }
+      assertThat(buf.isReadable()).isFalse();
+    } finally {
+      buf.release();
+    }
+  }
+
   private HandshakeSecrets secretsFrom(final JsonNode td, final boolean swap) {
     final byte[] aes = decodeHexDump(td.get("aes_secret").asText());
     final byte[] mac = decodeHexDump(td.get("mac_secret").asText());
@@ -23,6 +23,7 @@ import org.hyperledger.besu.ethereum.core.fees.TransactionGasBudgetCalculator;
 import org.hyperledger.besu.ethereum.mainnet.BlockProcessor;
 import org.hyperledger.besu.ethereum.mainnet.MainnetBlockImporter;
 import org.hyperledger.besu.ethereum.mainnet.MainnetBlockProcessor;
+import org.hyperledger.besu.ethereum.mainnet.ParallelTransactionProcessor;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
@@ -95,4 +96,10 @@ public class NoRewardProtocolScheduleWrapper implements ProtocolSchedule {
       final WorldStateArchive publicWorldStateArchive) {
     delegate.setPublicWorldStateArchiveForPrivacyBlockProcessor(publicWorldStateArchive);
   }
+
+  @Override
+  public void setParallelTransactionProcessor(
+      final ParallelTransactionProcessor parallelTransactionProcessor) {
+    delegate.setParallelTransactionProcessor(parallelTransactionProcessor);
+  }
 }
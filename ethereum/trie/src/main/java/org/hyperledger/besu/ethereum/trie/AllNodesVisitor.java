@@ -33,6 +33,7 @@ public class AllNodesVisitor<V> implements NodeVisitor<V> {
   @Override
   public void visit(final BranchNode<V> branchNode) {
     handler.accept(branchNode);
+    StoredNode.preload(branchNode.getChildren());
     branchNode.getChildren().forEach(this::acceptAndUnload);
   }
 
@@ -14,14 +14,48 @@
  */
 package org.hyperledger.besu.ethereum.trie;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+
 import org.apache.tuweni.bytes.Bytes;
 
 class CommitVisitor<V> implements NodeVisitor<V> {
 
+  // Fork the dirty children of the branches in the two top levels of the trie, which gives up to
+  // 256 subtrees hashed concurrently without splitting the small subtrees below them.
+  private static final int PARALLEL_BRANCH_DEPTH = 2;
+
   private final NodeUpdater nodeUpdater;
+  private final int parallelBranchDepth;
 
   public CommitVisitor(final NodeUpdater nodeUpdater) {
+    this(nodeUpdater, 0);
+  }
+
+  private CommitVisitor(final NodeUpdater nodeUpdater, final int parallelBranchDepth) {
     this.nodeUpdater = nodeUpdater;
+    this.parallelBranchDepth = parallelBranchDepth;
+  }
+
+  /**
+   * Creates a visitor that encodes and hashes the dirty subtrees below the top branches of the trie
+   * concurrently on the common fork-join pool. Nodes are handed to the updater one at a time, so it
+   * does not need to be thread-safe.
+   *
+   * @param nodeUpdater the updater receiving the nodes to store
+   * @param <V> the type of the trie values
+   * @return the parallel commit visitor
+   */
+  public static <V> CommitVisitor<V> parallel(final NodeUpdater nodeUpdater) {
+    final Object lock = new Object();
+    final NodeUpdater synchronizedUpdater =
+        (hash, value) -> {
+          synchronized (lock) {
+            nodeUpdater.store(hash, value);
+          }
+        };
+    return new CommitVisitor<>(synchronizedUpdater, PARALLEL_BRANCH_DEPTH);
   }
 
   @Override
@@ -44,14 +78,36 @@ class CommitVisitor<V> implements NodeVisitor<V> {
       return;
     }
 
+    if (parallelBranchDepth > 0) {
+      visitChildrenInParallel(branchNode);
+    } else {
+      for (byte i = 0; i < BranchNode.RADIX; ++i) {
+        final Node<V> child = branchNode.child(i);
+        if (child.isDirty()) {
+          child.accept(this);
+        }
+      }
+    }
+
+    maybeStoreNode(branchNode);
+  }
+
+  private void visitChildrenInParallel(final BranchNode<V> branchNode) {
+    final CommitVisitor<V> childVisitor =
+        new CommitVisitor<>(nodeUpdater, parallelBranchDepth - 1);
+    final List<ForkJoinTask<?>> tasks = new ArrayList<>(BranchNode.RADIX);
     for (byte i = 0; i < BranchNode.RADIX; ++i) {
       final Node<V> child = branchNode.child(i);
       if (child.isDirty()) {
-        child.accept(this);
+        tasks.add(ForkJoinTask.adapt(() -> child.accept(childVisitor)));
       }
     }
-
-    maybeStoreNode(branchNode);
+    if (tasks.size() == 1) {
+      tasks.get(0).invoke();
+    } else {
+      // Joining the children publishes their cached encodings and hashes to this thread.
+      ForkJoinTask.invokeAll(tasks);
+    }
   }
 
   @Override
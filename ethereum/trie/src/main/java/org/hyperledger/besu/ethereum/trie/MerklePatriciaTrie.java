@@ -77,6 +77,17 @@ public interface MerklePatriciaTrie<K, V> {
    */
   void commit(NodeUpdater nodeUpdater);
 
+  /**
+   * Commits any pending changes to the underlying storage, encoding and hashing independent dirty
+   * subtrees concurrently. Worth it for tries with changes spread over many branches, such as the
+   * account trie after a block.
+   *
+   * @param nodeUpdater used to store the node values, called by one thread at a time
+   */
+  default void commitInParallel(final NodeUpdater nodeUpdater) {
+    commit(nodeUpdater);
+  }
+
   /**
    * Retrieve up to {@code limit} storage entries beginning from the first entry with hash equal to
    * or greater than {@code startKeyHash}.
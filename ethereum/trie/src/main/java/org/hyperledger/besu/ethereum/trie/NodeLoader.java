@@ -14,11 +14,17 @@
  */
 package org.hyperledger.besu.ethereum.trie;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 
 public interface NodeLoader {
   Optional<Bytes> getNode(Bytes32 hash);
+
+  default List<Optional<Bytes>> getNodes(final List<Bytes32> hashes) {
+    return hashes.stream().map(this::getNode).collect(Collectors.toList());
+  }
 }
@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.trie;
 
 import org.hyperledger.besu.ethereum.rlp.RLP;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -111,6 +112,36 @@ class StoredNode<V> implements Node<V> {
     return loaded;
   }
 
+  boolean isLoaded() {
+    return loaded != null;
+  }
+
+  void setLoaded(final Node<V> node) {
+    loaded = node;
+  }
+
+  /**
+   * Loads all the stored nodes in the given list that have not been loaded yet with a single
+   * batched read.
+   *
+   * @param nodes the nodes to preload, nodes that are not stored nodes are ignored
+   * @param <V> the type of the values stored in the trie
+   */
+  static <V> void preload(final List<Node<V>> nodes) {
+    StoredNodeFactory<V> nodeFactory = null;
+    final List<StoredNode<V>> unloaded = new ArrayList<>(nodes.size());
+    for (final Node<V> node : nodes) {
+      if (node instanceof StoredNode && !((StoredNode<V>) node).isLoaded()) {
+        final StoredNode<V> storedNode = (StoredNode<V>) node;
+        nodeFactory = storedNode.nodeFactory;
+        unloaded.add(storedNode);
+      }
+    }
+    if (unloaded.size() > 1) {
+      nodeFactory.loadAll(unloaded);
+    }
+  }
+
   @Override
   public void unload() {
     loaded = null;
@@ -22,6 +22,7 @@ import org.hyperledger.besu.ethereum.rlp.RLPInput;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -103,6 +104,30 @@ class StoredNodeFactory<V> implements NodeFactory<V> {
             });
   }
 
+  /**
+   * Loads a set of stored nodes with a single read from the {@link NodeLoader}. Nodes that cannot
+   * be found are left unloaded so that they fail as usual when they are first accessed.
+   *
+   * @param nodes the nodes to load
+   */
+  void loadAll(final List<StoredNode<V>> nodes) throws MerkleTrieException {
+    final List<Bytes32> hashes = new ArrayList<>(nodes.size());
+    for (final StoredNode<V> node : nodes) {
+      hashes.add(node.getHash());
+    }
+    final List<Optional<Bytes>> values = nodeLoader.getNodes(hashes);
+    for (int i = 0; i < nodes.size(); i++) {
+      final Bytes32 hash = hashes.get(i);
+      final StoredNode<V> node = nodes.get(i);
+      values
+          .get(i)
+          .ifPresent(
+              rlp ->
+                  node.setLoaded(
+                      decode(rlp, () -> format("Invalid RLP value for hash %s", hash))));
+    }
+  }
+
   public Node<V> decode(final Bytes rlp) {
     return decode(rlp, () -> String.format("Failed to decode value %s", rlp.toString()));
   }
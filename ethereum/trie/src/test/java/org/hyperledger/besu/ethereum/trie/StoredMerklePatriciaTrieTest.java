@@ -20,7 +20,10 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 import java.util.function.Function;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -43,6 +46,37 @@ public class StoredMerklePatriciaTrieTest extends AbstractMerklePatriciaTrieTest
     return new StoredMerklePatriciaTrie<>(merkleStorage::get, valueSerializer, valueDeserializer);
   }
 
+  @Test
+  public void parallelCommitStoresSameNodesAsSerialCommit() {
+    final MerklePatriciaTrie<Bytes, String> serialTrie = createTrie();
+    final MerklePatriciaTrie<Bytes, String> parallelTrie = createTrie();
+    final Map<Bytes32, Bytes> serialNodes = new HashMap<>();
+    final Map<Bytes32, Bytes> parallelNodes = new HashMap<>();
+    final Random random = new Random(1);
+
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < 2_000; i++) {
+        final Bytes key = Bytes32.random(random);
+        final String value = "value" + i;
+        serialTrie.put(key, value);
+        parallelTrie.put(key, value);
+      }
+      serialTrie.commit(serialNodes::put);
+      parallelTrie.commitInParallel(parallelNodes::put);
+
+      assertThat(parallelTrie.getRootHash()).isEqualTo(serialTrie.getRootHash());
+      assertThat(parallelNodes).isEqualTo(serialNodes);
+    }
+
+    final MerklePatriciaTrie<Bytes, String> reloaded =
+        new StoredMerklePatriciaTrie<>(
+            hash -> Optional.ofNullable(parallelNodes.get(hash)),
+            parallelTrie.getRootHash(),
+            valueSerializer,
+            valueDeserializer);
+    assertThat(reloaded.entriesFrom(Bytes32.ZERO, 10_000)).hasSize(6_000);
+  }
+
   @Test
   public void canReloadTrieFromHash() {
     final Bytes key1 = Bytes.of(1, 5, 8, 9);
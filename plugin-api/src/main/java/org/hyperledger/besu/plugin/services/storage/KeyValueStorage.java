@@ -18,6 +18,8 @@ import org.hyperledger.besu.plugin.Unstable;
 import org.hyperledger.besu.plugin.services.exception.StorageException;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -61,6 +63,25 @@ public interface KeyValueStorage extends Closeable {
    */
   Optional<byte[]> get(byte[] key) throws StorageException;
 
+  /**
+   * Retrieves the values associated with each of the given keys.
+   *
+   * <p>Implementations backed by a store supporting batched lookups should override this to avoid
+   * issuing a separate lookup per key.
+   *
+   * @param keys whose associated values are being retrieved.
+   * @return a list the same size and in the same order as the given keys, each element containing
+   *     the value associated with the corresponding key, otherwise empty.
+   * @throws StorageException problem encountered during the retrieval attempt.
+   */
+  default List<Optional<byte[]>> multiGet(final List<byte[]> keys) throws StorageException {
+    final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+    for (final byte[] key : keys) {
+      values.add(get(key));
+    }
+    return values;
+  }
+
   /**
    * Returns a stream of all keys.
    *
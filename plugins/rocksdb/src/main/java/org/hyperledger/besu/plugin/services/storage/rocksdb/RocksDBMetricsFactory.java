@@ -23,8 +23,12 @@ import org.hyperledger.besu.plugin.services.metrics.MetricCategory;
 import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
 
+import java.util.Locale;
+import java.util.Map;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Statistics;
 import org.rocksdb.TransactionDB;
@@ -132,4 +136,67 @@ public class RocksDBMetricsFactory {
     return new RocksDBMetrics(
         readLatency, removeLatency, writeLatency, commitLatency, rollbackCount);
   }
+
+  /**
+   * Registers gauges for each column family of a segmented database, along with the usage of the
+   * block cache they share.
+   *
+   * @param metricsSystem the metrics system to register the gauges with
+   * @param db the database the column families belong to
+   * @param columnHandlesByName the column family handles keyed by segment name
+   */
+  public void registerColumnFamilyMetrics(
+      final MetricsSystem metricsSystem,
+      final TransactionDB db,
+      final Map<String, ColumnFamilyHandle> columnHandlesByName) {
+    metricsSystem.createLongGauge(
+        rocksDbMetricCategory,
+        "rocks_db_block_cache_usage_bytes",
+        "Memory used by entries of the shared RocksDB block cache in bytes",
+        () -> getLongProperty(db, null, "rocksdb.block-cache-usage"));
+    metricsSystem.createLongGauge(
+        rocksDbMetricCategory,
+        "rocks_db_block_cache_pinned_usage_bytes",
+        "Memory used by pinned entries of the shared RocksDB block cache in bytes",
+        () -> getLongProperty(db, null, "rocksdb.block-cache-pinned-usage"));
+
+    columnHandlesByName.forEach(
+        (segmentName, handle) -> {
+          final String prefix = "rocks_db_" + segmentName.toLowerCase(Locale.ROOT);
+          metricsSystem.createLongGauge(
+              rocksDbMetricCategory,
+              prefix + "_estimated_keys",
+              "Estimated number of keys in the " + segmentName + " column family",
+              () -> getLongProperty(db, handle, "rocksdb.estimate-num-keys"));
+          metricsSystem.createLongGauge(
+              rocksDbMetricCategory,
+              prefix + "_files_size_bytes",
+              "Estimated size of the " + segmentName + " column family in bytes",
+              () -> getLongProperty(db, handle, "rocksdb.live-sst-files-size"));
+          metricsSystem.createLongGauge(
+              rocksDbMetricCategory,
+              prefix + "_table_readers_memory_bytes",
+              "Estimated memory used for index and filter blocks of the "
+                  + segmentName
+                  + " column family in bytes",
+              () -> getLongProperty(db, handle, "rocksdb.estimate-table-readers-mem"));
+          metricsSystem.createLongGauge(
+              rocksDbMetricCategory,
+              prefix + "_memtable_size_bytes",
+              "Size of the active and unflushed memtables of the "
+                  + segmentName
+                  + " column family in bytes",
+              () -> getLongProperty(db, handle, "rocksdb.cur-size-all-mem-tables"));
+        });
+  }
+
+  private static long getLongProperty(
+      final TransactionDB db, final ColumnFamilyHandle handle, final String property) {
+    try {
+      return handle == null ? db.getLongProperty(property) : db.getLongProperty(handle, property);
+    } catch (final RocksDBException e) {
+      LOG.debug("Failed to get RocksDB metric", e);
+      return 0L;
+    }
+  }
 }
@@ -14,6 +14,9 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import com.google.common.base.MoreObjects;
 import picocli.CommandLine;
 
@@ -23,6 +26,8 @@ public class RocksDBCLIOptions {
   public static final long DEFAULT_CACHE_CAPACITY = 8388608;
   public static final int DEFAULT_MAX_BACKGROUND_COMPACTIONS = 4;
   public static final int DEFAULT_BACKGROUND_THREAD_COUNT = 4;
+  public static final double DEFAULT_HIGH_PRIORITY_POOL_RATIO = 0.1;
+  public static final int DEFAULT_BLOOM_FILTER_BITS_PER_KEY = 10;
 
   private static final String MAX_OPEN_FILES_FLAG = "--Xplugin-rocksdb-max-open-files";
   private static final String CACHE_CAPACITY_FLAG = "--Xplugin-rocksdb-cache-capacity";
@@ -30,6 +35,12 @@ public class RocksDBCLIOptions {
       "--Xplugin-rocksdb-max-background-compactions";
   private static final String BACKGROUND_THREAD_COUNT_FLAG =
       "--Xplugin-rocksdb-background-thread-count";
+  private static final String HIGH_PRIORITY_POOL_RATIO_FLAG =
+      "--Xplugin-rocksdb-high-priority-pool-ratio";
+  private static final String BLOOM_FILTER_BITS_PER_KEY_FLAG =
+      "--Xplugin-rocksdb-bloom-filter-bits-per-key";
+  private static final String COLUMN_FAMILY_PROFILES_FLAG =
+      "--Xplugin-rocksdb-column-family-profiles";
 
   @CommandLine.Option(
       names = {MAX_OPEN_FILES_FLAG},
@@ -63,6 +74,33 @@ public class RocksDBCLIOptions {
       description = "Number of RocksDB background threads (default: ${DEFAULT-VALUE})")
   int backgroundThreadCount;
 
+  @CommandLine.Option(
+      names = {HIGH_PRIORITY_POOL_RATIO_FLAG},
+      hidden = true,
+      defaultValue = "0.1",
+      paramLabel = "<DOUBLE>",
+      description =
+          "Ratio of the RocksDB block cache reserved for pinned index and filter blocks (default: ${DEFAULT-VALUE})")
+  double highPriorityPoolRatio;
+
+  @CommandLine.Option(
+      names = {BLOOM_FILTER_BITS_PER_KEY_FLAG},
+      hidden = true,
+      defaultValue = "10",
+      paramLabel = "<INTEGER>",
+      description =
+          "Bits per key of the bloom filters built for point lookup segments (default: ${DEFAULT-VALUE})")
+  int bloomFilterBitsPerKey;
+
+  @CommandLine.Option(
+      names = {COLUMN_FAMILY_PROFILES_FLAG},
+      hidden = true,
+      split = ",",
+      paramLabel = "<SEGMENT=PROFILE>",
+      description =
+          "Column family profile used for a segment, one of ${COMPLETION-CANDIDATES}. Segments not listed use their built in profile")
+  Map<String, RocksDBColumnFamilyProfile> columnFamilyProfiles = new HashMap<>();
+
   private RocksDBCLIOptions() {}
 
   public static RocksDBCLIOptions create() {
@@ -75,12 +113,21 @@ public class RocksDBCLIOptions {
     options.cacheCapacity = config.getCacheCapacity();
     options.maxBackgroundCompactions = config.getMaxBackgroundCompactions();
     options.backgroundThreadCount = config.getBackgroundThreadCount();
+    options.highPriorityPoolRatio = config.getHighPriorityPoolRatio();
+    options.bloomFilterBitsPerKey = config.getBloomFilterBitsPerKey();
+    options.columnFamilyProfiles = new HashMap<>(config.getColumnFamilyProfiles());
     return options;
   }
 
   public RocksDBFactoryConfiguration toDomainObject() {
     return new RocksDBFactoryConfiguration(
-        maxOpenFiles, maxBackgroundCompactions, backgroundThreadCount, cacheCapacity);
+        maxOpenFiles,
+        maxBackgroundCompactions,
+        backgroundThreadCount,
+        cacheCapacity,
+        highPriorityPoolRatio,
+        bloomFilterBitsPerKey,
+        columnFamilyProfiles);
   }
 
   @Override
@@ -90,6 +137,9 @@ public class RocksDBCLIOptions {
         .add("cacheCapacity", cacheCapacity)
         .add("maxBackgroundCompactions", maxBackgroundCompactions)
         .add("backgroundThreadCount", backgroundThreadCount)
+        .add("highPriorityPoolRatio", highPriorityPoolRatio)
+        .add("bloomFilterBitsPerKey", bloomFilterBitsPerKey)
+        .add("columnFamilyProfiles", columnFamilyProfiles)
         .toString();
   }
 }
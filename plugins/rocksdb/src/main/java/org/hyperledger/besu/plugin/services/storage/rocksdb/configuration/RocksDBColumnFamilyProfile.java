@@ -0,0 +1,83 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
+
+import java.util.Map;
+
+import org.rocksdb.CompressionType;
+
+/** Tuning applied to the column family backing a storage segment. */
+public enum RocksDBColumnFamilyProfile {
+  /**
+   * Random point lookups by 32 byte hash that frequently miss, such as trie nodes. Values are
+   * mostly hashes so compression is only applied to the larger, colder levels.
+   */
+  STATE(4 * 1024, true, CompressionType.NO_COMPRESSION, CompressionType.LZ4_COMPRESSION),
+  /** Point lookups by hash and prefixed keys over larger, compressible RLP values. */
+  BLOCKCHAIN(16 * 1024, true, CompressionType.LZ4_COMPRESSION, CompressionType.LZ4_COMPRESSION),
+  /** The stock RocksDB table layout, sharing the block cache with other column families. */
+  DEFAULT(4 * 1024, false, CompressionType.SNAPPY_COMPRESSION, CompressionType.SNAPPY_COMPRESSION);
+
+  /** Number of levels configured with the compression of the upper levels. */
+  public static final int UPPER_LEVELS = 2;
+
+  public static final int NUM_LEVELS = 7;
+
+  private static final Map<String, RocksDBColumnFamilyProfile> DEFAULT_SEGMENT_PROFILES =
+      Map.of(
+          "BLOCKCHAIN", BLOCKCHAIN,
+          "WORLD_STATE", STATE,
+          "PRUNING_STATE", STATE,
+          "PRIVATE_TRANSACTIONS", BLOCKCHAIN,
+          "PRIVATE_STATE", STATE,
+          "WORLD_STATE_SNAPSHOT", STATE);
+
+  private final long blockSize;
+  private final boolean bloomFilterEnabled;
+  private final CompressionType upperLevelCompression;
+  private final CompressionType lowerLevelCompression;
+
+  RocksDBColumnFamilyProfile(
+      final long blockSize,
+      final boolean bloomFilterEnabled,
+      final CompressionType upperLevelCompression,
+      final CompressionType lowerLevelCompression) {
+    this.blockSize = blockSize;
+    this.bloomFilterEnabled = bloomFilterEnabled;
+    this.upperLevelCompression = upperLevelCompression;
+    this.lowerLevelCompression = lowerLevelCompression;
+  }
+
+  public static RocksDBColumnFamilyProfile defaultFor(final String segmentName) {
+    return DEFAULT_SEGMENT_PROFILES.getOrDefault(segmentName, DEFAULT);
+  }
+
+  public long getBlockSize() {
+    return blockSize;
+  }
+
+  /**
+   * Whether the column family uses bloom filters and partitioned index/filter blocks.
+   *
+   * @return true if filters should be built for the column family.
+   */
+  public boolean isBloomFilterEnabled() {
+    return bloomFilterEnabled;
+  }
+
+  public CompressionType getCompression(final int level) {
+    return level < UPPER_LEVELS ? upperLevelCompression : lowerLevelCompression;
+  }
+}
@@ -15,6 +15,7 @@
 package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
 import java.nio.file.Path;
+import java.util.Map;
 
 public class RocksDBConfiguration {
 
@@ -24,6 +25,9 @@ public class RocksDBConfiguration {
   private final int maxBackgroundCompactions;
   private final int backgroundThreadCount;
   private final long cacheCapacity;
+  private final double highPriorityPoolRatio;
+  private final int bloomFilterBitsPerKey;
+  private final Map<String, RocksDBColumnFamilyProfile> columnFamilyProfiles;
 
   public RocksDBConfiguration(
       final Path databaseDir,
@@ -31,12 +35,18 @@ public class RocksDBConfiguration {
       final int maxBackgroundCompactions,
       final int backgroundThreadCount,
       final long cacheCapacity,
+      final double highPriorityPoolRatio,
+      final int bloomFilterBitsPerKey,
+      final Map<String, RocksDBColumnFamilyProfile> columnFamilyProfiles,
       final String label) {
     this.maxBackgroundCompactions = maxBackgroundCompactions;
     this.backgroundThreadCount = backgroundThreadCount;
     this.databaseDir = databaseDir;
     this.maxOpenFiles = maxOpenFiles;
     this.cacheCapacity = cacheCapacity;
+    this.highPriorityPoolRatio = highPriorityPoolRatio;
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    this.columnFamilyProfiles = Map.copyOf(columnFamilyProfiles);
     this.label = label;
   }
 
@@ -60,6 +70,30 @@ public class RocksDBConfiguration {
     return cacheCapacity;
   }
 
+  public double getHighPriorityPoolRatio() {
+    return highPriorityPoolRatio;
+  }
+
+  public int getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  /**
+   * The column family profile for a segment, falling back to the built in profile for well known
+   * segment names when none has been configured.
+   *
+   * @param segmentName the name of the segment
+   * @return the profile to open the segment's column family with
+   */
+  public RocksDBColumnFamilyProfile getColumnFamilyProfile(final String segmentName) {
+    final RocksDBColumnFamilyProfile profile = columnFamilyProfiles.get(segmentName);
+    return profile != null ? profile : RocksDBColumnFamilyProfile.defaultFor(segmentName);
+  }
+
+  public Map<String, RocksDBColumnFamilyProfile> getColumnFamilyProfiles() {
+    return columnFamilyProfiles;
+  }
+
   public String getLabel() {
     return label;
   }
@@ -15,11 +15,15 @@
 package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BACKGROUND_THREAD_COUNT;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_CACHE_CAPACITY;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_HIGH_PRIORITY_POOL_RATIO;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_BACKGROUND_COMPACTIONS;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_OPEN_FILES;
 
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
 
 public class RocksDBConfigurationBuilder {
 
@@ -29,6 +33,9 @@ public class RocksDBConfigurationBuilder {
   private long cacheCapacity = DEFAULT_CACHE_CAPACITY;
   private int maxBackgroundCompactions = DEFAULT_MAX_BACKGROUND_COMPACTIONS;
   private int backgroundThreadCount = DEFAULT_BACKGROUND_THREAD_COUNT;
+  private double highPriorityPoolRatio = DEFAULT_HIGH_PRIORITY_POOL_RATIO;
+  private int bloomFilterBitsPerKey = DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
+  private Map<String, RocksDBColumnFamilyProfile> columnFamilyProfiles = Collections.emptyMap();
 
   public RocksDBConfigurationBuilder databaseDir(final Path databaseDir) {
     this.databaseDir = databaseDir;
@@ -60,12 +67,31 @@ public class RocksDBConfigurationBuilder {
     return this;
   }
 
+  public RocksDBConfigurationBuilder highPriorityPoolRatio(final double highPriorityPoolRatio) {
+    this.highPriorityPoolRatio = highPriorityPoolRatio;
+    return this;
+  }
+
+  public RocksDBConfigurationBuilder bloomFilterBitsPerKey(final int bloomFilterBitsPerKey) {
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    return this;
+  }
+
+  public RocksDBConfigurationBuilder columnFamilyProfiles(
+      final Map<String, RocksDBColumnFamilyProfile> columnFamilyProfiles) {
+    this.columnFamilyProfiles = columnFamilyProfiles;
+    return this;
+  }
+
   public static RocksDBConfigurationBuilder from(final RocksDBFactoryConfiguration configuration) {
     return new RocksDBConfigurationBuilder()
         .backgroundThreadCount(configuration.getBackgroundThreadCount())
         .cacheCapacity(configuration.getCacheCapacity())
         .maxBackgroundCompactions(configuration.getMaxBackgroundCompactions())
-        .maxOpenFiles(configuration.getMaxOpenFiles());
+        .maxOpenFiles(configuration.getMaxOpenFiles())
+        .highPriorityPoolRatio(configuration.getHighPriorityPoolRatio())
+        .bloomFilterBitsPerKey(configuration.getBloomFilterBitsPerKey())
+        .columnFamilyProfiles(configuration.getColumnFamilyProfiles());
   }
 
   public RocksDBConfiguration build() {
@@ -75,6 +101,9 @@ public class RocksDBConfigurationBuilder {
         maxBackgroundCompactions,
         backgroundThreadCount,
         cacheCapacity,
+        highPriorityPoolRatio,
+        bloomFilterBitsPerKey,
+        columnFamilyProfiles,
         label);
   }
 }
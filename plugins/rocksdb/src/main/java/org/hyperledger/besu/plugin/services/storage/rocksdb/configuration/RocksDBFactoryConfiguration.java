@@ -14,22 +14,52 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_HIGH_PRIORITY_POOL_RATIO;
+
+import java.util.Collections;
+import java.util.Map;
+
 public class RocksDBFactoryConfiguration {
 
   private final int maxOpenFiles;
   private final int maxBackgroundCompactions;
   private final int backgroundThreadCount;
   private final long cacheCapacity;
+  private final double highPriorityPoolRatio;
+  private final int bloomFilterBitsPerKey;
+  private final Map<String, RocksDBColumnFamilyProfile> columnFamilyProfiles;
 
   public RocksDBFactoryConfiguration(
       final int maxOpenFiles,
       final int maxBackgroundCompactions,
       final int backgroundThreadCount,
       final long cacheCapacity) {
+    this(
+        maxOpenFiles,
+        maxBackgroundCompactions,
+        backgroundThreadCount,
+        cacheCapacity,
+        DEFAULT_HIGH_PRIORITY_POOL_RATIO,
+        DEFAULT_BLOOM_FILTER_BITS_PER_KEY,
+        Collections.emptyMap());
+  }
+
+  public RocksDBFactoryConfiguration(
+      final int maxOpenFiles,
+      final int maxBackgroundCompactions,
+      final int backgroundThreadCount,
+      final long cacheCapacity,
+      final double highPriorityPoolRatio,
+      final int bloomFilterBitsPerKey,
+      final Map<String, RocksDBColumnFamilyProfile> columnFamilyProfiles) {
     this.maxBackgroundCompactions = maxBackgroundCompactions;
     this.backgroundThreadCount = backgroundThreadCount;
     this.maxOpenFiles = maxOpenFiles;
     this.cacheCapacity = cacheCapacity;
+    this.highPriorityPoolRatio = highPriorityPoolRatio;
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    this.columnFamilyProfiles = Map.copyOf(columnFamilyProfiles);
   }
 
   public int getMaxOpenFiles() {
@@ -47,4 +77,16 @@ public class RocksDBFactoryConfiguration {
   public long getCacheCapacity() {
     return cacheCapacity;
   }
+
+  public double getHighPriorityPoolRatio() {
+    return highPriorityPoolRatio;
+  }
+
+  public int getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  public Map<String, RocksDBColumnFamilyProfile> getColumnFamilyProfiles() {
+    return columnFamilyProfiles;
+  }
 }
@@ -25,12 +25,14 @@ import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetrics;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbKeyIterator;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbUtil;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBColumnFamilyProfile;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
 import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorage;
 import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorageTransactionTransitionValidatorDecorator;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -45,11 +47,14 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.tuweni.bytes.Bytes;
 import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompressionType;
 import org.rocksdb.DBOptions;
 import org.rocksdb.Env;
+import org.rocksdb.IndexType;
 import org.rocksdb.LRUCache;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
@@ -70,6 +75,8 @@ public class RocksDBColumnarKeyValueStorage
   private static final String DEFAULT_COLUMN = "default";
 
   private final DBOptions options;
+  private final LRUCache blockCache;
+  private final List<ColumnFamilyOptions> columnFamilyOptions = new ArrayList<>();
   private final TransactionDBOptions txOptions;
   private final TransactionDB db;
   private final AtomicBoolean closed = new AtomicBoolean(false);
@@ -85,15 +92,28 @@ public class RocksDBColumnarKeyValueStorage
       throws StorageException {
 
     try {
+      // a single block cache is shared by all column families so that hot segments can use the
+      // capacity left unused by cold ones
+      blockCache =
+          new LRUCache(
+              configuration.getCacheCapacity(),
+              -1,
+              false,
+              configuration.getHighPriorityPoolRatio());
       final List<ColumnFamilyDescriptor> columnDescriptors =
           segments.stream()
-              .map(segment -> new ColumnFamilyDescriptor(segment.getId()))
+              .map(
+                  segment ->
+                      new ColumnFamilyDescriptor(
+                          segment.getId(),
+                          createColumnFamilyOptions(
+                              configuration,
+                              configuration.getColumnFamilyProfile(segment.getName()))))
               .collect(Collectors.toList());
       columnDescriptors.add(
           new ColumnFamilyDescriptor(
               DEFAULT_COLUMN.getBytes(StandardCharsets.UTF_8),
-              new ColumnFamilyOptions()
-                  .setTableFormatConfig(createBlockBasedTableConfig(configuration))));
+              createColumnFamilyOptions(configuration, RocksDBColumnFamilyProfile.DEFAULT)));
 
       final Statistics stats = new Statistics();
       options =
@@ -115,7 +135,6 @@ public class RocksDBColumnarKeyValueStorage
               configuration.getDatabaseDir().toString(),
               columnDescriptors,
               columnHandles);
-      metrics = rocksDBMetricsFactory.create(metricsSystem, configuration, db, stats);
       final Map<Bytes, String> segmentsById =
           segments.stream()
               .collect(
@@ -131,14 +150,47 @@ public class RocksDBColumnarKeyValueStorage
         builder.put(segmentName, columnHandle);
       }
       columnHandlesByName = builder.build();
+      metrics = rocksDBMetricsFactory.create(metricsSystem, configuration, db, stats);
+      rocksDBMetricsFactory.registerColumnFamilyMetrics(
+          metricsSystem, db, columnHandlesByName);
     } catch (final RocksDBException e) {
       throw new StorageException(e);
     }
   }
 
-  private BlockBasedTableConfig createBlockBasedTableConfig(final RocksDBConfiguration config) {
-    final LRUCache cache = new LRUCache(config.getCacheCapacity());
-    return new BlockBasedTableConfig().setBlockCache(cache);
+  private ColumnFamilyOptions createColumnFamilyOptions(
+      final RocksDBConfiguration config, final RocksDBColumnFamilyProfile profile) {
+    final List<CompressionType> compressionPerLevel =
+        new ArrayList<>(RocksDBColumnFamilyProfile.NUM_LEVELS);
+    for (int level = 0; level < RocksDBColumnFamilyProfile.NUM_LEVELS; level++) {
+      compressionPerLevel.add(profile.getCompression(level));
+    }
+    final ColumnFamilyOptions cfOptions =
+        new ColumnFamilyOptions()
+            .setTableFormatConfig(createBlockBasedTableConfig(config, profile))
+            .setNumLevels(RocksDBColumnFamilyProfile.NUM_LEVELS)
+            .setCompressionPerLevel(compressionPerLevel);
+    columnFamilyOptions.add(cfOptions);
+    return cfOptions;
+  }
+
+  private BlockBasedTableConfig createBlockBasedTableConfig(
+      final RocksDBConfiguration config, final RocksDBColumnFamilyProfile profile) {
+    final BlockBasedTableConfig tableConfig =
+        new BlockBasedTableConfig().setBlockCache(blockCache).setBlockSize(profile.getBlockSize());
+    if (profile.isBloomFilterEnabled()) {
+      // Partitioned index and filter blocks live in the block cache, only the top level
+      // partitions are pinned in its high priority pool.
+      tableConfig
+          .setFilterPolicy(new BloomFilter(config.getBloomFilterBitsPerKey(), false))
+          .setIndexType(IndexType.kTwoLevelIndexSearch)
+          .setPartitionFilters(true)
+          .setCacheIndexAndFilterBlocks(true)
+          .setCacheIndexAndFilterBlocksWithHighPriority(true)
+          .setPinTopLevelIndexAndFilter(true)
+          .setPinL0FilterAndIndexBlocksInCache(true);
+    }
+    return tableConfig;
   }
 
   @Override
@@ -158,6 +210,23 @@ public class RocksDBColumnarKeyValueStorage
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(final ColumnFamilyHandle segment, final List<byte[]> keys)
+      throws StorageException {
+    throwIfClosed();
+    if (keys.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      return db.multiGetAsList(Collections.nCopies(keys.size(), segment), keys).stream()
+          .map(Optional::ofNullable)
+          .collect(Collectors.toList());
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
   @Override
   public Transaction<ColumnFamilyHandle> startTransaction() throws StorageException {
     throwIfClosed();
@@ -219,6 +288,8 @@ public class RocksDBColumnarKeyValueStorage
       tryDeleteOptions.close();
       columnHandlesByName.values().forEach(ColumnFamilyHandle::close);
       db.close();
+      columnFamilyOptions.forEach(ColumnFamilyOptions::close);
+      blockCache.close();
     }
   }
 
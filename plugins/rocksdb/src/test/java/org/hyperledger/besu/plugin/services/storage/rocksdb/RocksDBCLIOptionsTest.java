@@ -16,11 +16,16 @@ package org.hyperledger.besu.plugin.services.storage.rocksdb;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BACKGROUND_THREAD_COUNT;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_CACHE_CAPACITY;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_HIGH_PRIORITY_POOL_RATIO;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_BACKGROUND_COMPACTIONS;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_OPEN_FILES;
 
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBColumnFamilyProfile;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBFactoryConfiguration;
 
 import org.junit.Test;
@@ -34,6 +39,10 @@ public class RocksDBCLIOptionsTest {
       "--Xplugin-rocksdb-max-background-compactions";
   private static final String BACKGROUND_THREAD_COUNT_FLAG =
       "--Xplugin-rocksdb-background-thread-count";
+  private static final String BLOOM_FILTER_BITS_PER_KEY_FLAG =
+      "--Xplugin-rocksdb-bloom-filter-bits-per-key";
+  private static final String COLUMN_FAMILY_PROFILES_FLAG =
+      "--Xplugin-rocksdb-column-family-profiles";
 
   @Test
   public void defaultValues() {
@@ -48,6 +57,11 @@ public class RocksDBCLIOptionsTest {
     assertThat(configuration.getMaxBackgroundCompactions())
         .isEqualTo(DEFAULT_MAX_BACKGROUND_COMPACTIONS);
     assertThat(configuration.getMaxOpenFiles()).isEqualTo(DEFAULT_MAX_OPEN_FILES);
+    assertThat(configuration.getHighPriorityPoolRatio())
+        .isEqualTo(DEFAULT_HIGH_PRIORITY_POOL_RATIO);
+    assertThat(configuration.getBloomFilterBitsPerKey())
+        .isEqualTo(DEFAULT_BLOOM_FILTER_BITS_PER_KEY);
+    assertThat(configuration.getColumnFamilyProfiles()).isEmpty();
   }
 
   @Test
@@ -115,4 +129,34 @@ public class RocksDBCLIOptionsTest {
         .isEqualTo(DEFAULT_MAX_BACKGROUND_COMPACTIONS);
     assertThat(configuration.getMaxOpenFiles()).isEqualTo(expectedMaxOpenFiles);
   }
+
+  @Test
+  public void customBloomFilterBitsPerKey() {
+    final RocksDBCLIOptions options = RocksDBCLIOptions.create();
+
+    new CommandLine(options).parse(BLOOM_FILTER_BITS_PER_KEY_FLAG, "16");
+
+    final RocksDBFactoryConfiguration configuration = options.toDomainObject();
+    assertThat(configuration.getBloomFilterBitsPerKey()).isEqualTo(16);
+    assertThat(configuration.getCacheCapacity()).isEqualTo(DEFAULT_CACHE_CAPACITY);
+  }
+
+  @Test
+  public void customColumnFamilyProfiles() {
+    final RocksDBCLIOptions options = RocksDBCLIOptions.create();
+
+    new CommandLine(options)
+        .parse(COLUMN_FAMILY_PROFILES_FLAG, "WORLD_STATE=DEFAULT,BLOCKCHAIN=STATE");
+
+    final RocksDBConfiguration configuration =
+        RocksDBConfigurationBuilder.from(options.toDomainObject()).build();
+    assertThat(configuration.getColumnFamilyProfile("WORLD_STATE"))
+        .isEqualTo(RocksDBColumnFamilyProfile.DEFAULT);
+    assertThat(configuration.getColumnFamilyProfile("BLOCKCHAIN"))
+        .isEqualTo(RocksDBColumnFamilyProfile.STATE);
+    assertThat(configuration.getColumnFamilyProfile("PRUNING_STATE"))
+        .isEqualTo(RocksDBColumnFamilyProfile.STATE);
+    assertThat(configuration.getColumnFamilyProfile("UNKNOWN"))
+        .isEqualTo(RocksDBColumnFamilyProfile.DEFAULT);
+  }
 }
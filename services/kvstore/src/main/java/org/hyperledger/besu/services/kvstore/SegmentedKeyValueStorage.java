@@ -18,6 +18,8 @@ import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -41,6 +43,22 @@ public interface SegmentedKeyValueStorage<S> extends Closeable {
    */
   Optional<byte[]> get(S segment, byte[] key) throws StorageException;
 
+  /**
+   * Get the values from the associated segment for each of the given keys.
+   *
+   * @param segment the segment
+   * @param keys Indexes into persistent data repository.
+   * @return The values persisted at the key indexes, in the same order as the keys.
+   */
+  default List<Optional<byte[]>> multiGet(final S segment, final List<byte[]> keys)
+      throws StorageException {
+    final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+    for (final byte[] key : keys) {
+      values.add(get(segment, key));
+    }
+    return values;
+  }
+
   default boolean containsKey(final S segment, final byte[] key) throws StorageException {
     return get(segment, key).isPresent();
   }